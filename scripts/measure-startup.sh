@@ -0,0 +1,34 @@
+#!/bin/sh
+# Compares cold start of the image with and without AppCDS / Spring AOT.
+#
+#   docker build --build-arg AOT=true -t moneylog-backend .
+#   scripts/measure-startup.sh moneylog-backend 5
+#
+# Each mode refreshes the full context (no MySQL/Redis needed) and exits, so the wall
+# time of the container run is the cold-start cost up to the point of serving traffic.
+set -eu
+
+IMAGE="${1:-moneylog-backend}"
+RUNS="${2:-5}"
+NO_DB="-Dspring.context.exit=onRefresh -Dspring.flyway.enabled=false -Dspring.jpa.hibernate.ddl-auto=none -Dspring.jpa.properties.hibernate.temp.use_jdbc_metadata_defaults=false"
+
+measure() {
+    label="$1"; cds="$2"; aot="$3"
+    total=0
+    i=0
+    while [ "$i" -lt "$RUNS" ]; do
+        start=$(date +%s%N)
+        docker run --rm -e CDS_OPTS="$cds" -e SPRING_AOT_OPTS="$aot" -e JAVA_OPTS="$NO_DB" "$IMAGE" >/dev/null 2>&1
+        end=$(date +%s%N)
+        ms=$(( (end - start) / 1000000 ))
+        echo "  $label run $((i + 1)): ${ms} ms"
+        total=$((total + ms))
+        i=$((i + 1))
+    done
+    echo "$label average: $((total / RUNS)) ms"
+}
+
+measure "baseline  " "-Xshare:auto" "-Dspring.aot.enabled=false"
+measure "aot       " "-Xshare:auto" "-Dspring.aot.enabled=true"
+measure "cds       " "-XX:SharedArchiveFile=app.jsa -Xlog:cds=off" "-Dspring.aot.enabled=false"
+measure "cds + aot " "-XX:SharedArchiveFile=app.jsa -Xlog:cds=off" "-Dspring.aot.enabled=true"
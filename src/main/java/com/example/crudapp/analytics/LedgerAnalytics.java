@@ -0,0 +1,170 @@
+package com.example.crudapp.analytics;
+
+import com.example.crudapp.journal.EntryJournal;
+import com.example.crudapp.model.Entry;
+import com.example.crudapp.repository.EntryRepository;
+import com.example.crudapp.service.EntryArchive;
+import com.example.crudapp.service.EntryChangedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.LongFunction;
+
+/**
+ * Owns the {@link LedgerSnapshot}: bulk-loads it from the database after startup and
+ * applies every committed EntryService change to it. The load runs in the background;
+ * changes that arrive meanwhile are applied straight away and win over the rows the
+ * loader reads later, which may already be stale. The rows come from the change journal
+ * when it matches the database.
+ */
+@Component
+@ConditionalOnProperty(name = "app.analytics.enabled", havingValue = "true")
+public class LedgerAnalytics {
+
+    private static final Logger logger = LoggerFactory.getLogger(LedgerAnalytics.class);
+
+    @Autowired
+    private EntryRepository entryRepository;
+
+    @Autowired
+    private EntryArchive entryArchive;
+
+    @Autowired
+    private EntryJournal entryJournal;
+
+    @Value("${app.analytics.load-batch-size:5000}")
+    private int loadBatchSize;
+
+    private final LedgerSnapshot snapshot = new LedgerSnapshot();
+
+    // Guarded by this; non-null only while a load is running
+    private Set<Long> changedDuringLoad;
+    private boolean clearedDuringLoad;
+    private boolean loading;
+    private boolean reloadRequested;
+
+    private volatile boolean loaded;
+
+    public LedgerSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        requestLoad();
+    }
+
+    /** Starts a background load, or another one right after the load that is running. */
+    private synchronized void requestLoad() {
+        if (loading) {
+            reloadRequested = true;
+            return;
+        }
+        loading = true;
+        Thread loader = new Thread(this::load, "ledger-analytics-load");
+        loader.setDaemon(true);
+        loader.start();
+    }
+
+    void load() {
+        synchronized (this) {
+            changedDuringLoad = new HashSet<>();
+            clearedDuringLoad = false;
+        }
+        long started = System.nanoTime();
+        try {
+            List<Entry> journaled = entryJournal.currentEntries();
+            if (journaled != null) {
+                loadPage(journaled);
+            } else if (loadPages(lastId ->
+                    entryRepository.findByIdGreaterThanOrderByIdAsc(lastId, PageRequest.of(0, loadBatchSize)))) {
+                loadPages(lastId -> entryArchive.findPageAfter(lastId, loadBatchSize));
+            }
+            loaded = true;
+            logger.info("Analytics snapshot loaded: {} entries in {} ms", snapshot.size(),
+                    (System.nanoTime() - started) / 1_000_000);
+        } catch (Exception e) {
+            logger.error("Analytics snapshot load failed", e);
+        } finally {
+            synchronized (this) {
+                changedDuringLoad = null;
+                loading = false;
+                if (reloadRequested) {
+                    reloadRequested = false;
+                    requestLoad();
+                }
+            }
+        }
+    }
+
+    /** Upserts every page in id order; false when the ledger was cleared meanwhile. */
+    private boolean loadPages(LongFunction<List<Entry>> pageAfter) {
+        long lastId = 0;
+        while (true) {
+            List<Entry> page = pageAfter.apply(lastId);
+            if (!loadPage(page)) {
+                return false;
+            }
+            if (page.size() < loadBatchSize) {
+                return true;
+            }
+            lastId = page.get(page.size() - 1).getId();
+        }
+    }
+
+    /** Upserts the entries not changed since the load started; false when the ledger was cleared. */
+    private synchronized boolean loadPage(List<Entry> page) {
+        if (clearedDuringLoad) {
+            return false;
+        }
+        for (Entry entry : page) {
+            if (!changedDuringLoad.contains(entry.getId())) {
+                upsert(entry);
+            }
+        }
+        return true;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onEntryChanged(EntryChangedEvent event) {
+        if (event.type() == EntryChangedEvent.Type.IMPORTED) {
+            // A bulk import does not carry its rows; loading again upserts them and keeps the rest
+            requestLoad();
+            return;
+        }
+        if (changedDuringLoad != null) {
+            if (event.type() == EntryChangedEvent.Type.CLEARED) {
+                clearedDuringLoad = true;
+            } else {
+                changedDuringLoad.add(event.entryId());
+            }
+        }
+        switch (event.type()) {
+            case CREATED, UPDATED -> upsert(event.entry());
+            case DELETED -> snapshot.remove(event.entryId());
+            case CLEARED -> snapshot.clear();
+        }
+    }
+
+    private void upsert(Entry entry) {
+        if (entry.getId() == null || entry.getDate() == null || !entry.hasAmount()) {
+            return;
+        }
+        snapshot.upsert(entry.getId(), entry.getDate(), entry.getAmountCents(), entry.getDescription());
+    }
+}
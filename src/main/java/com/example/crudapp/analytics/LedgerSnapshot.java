@@ -0,0 +1,474 @@
+package com.example.crudapp.analytics;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.BinaryOperator;
+import java.util.stream.IntStream;
+
+/**
+ * Column-oriented, in-memory copy of the ledger. Each entry is one row across parallel
+ * primitive arrays (id, epoch day, month, cents, description code), so a query is a
+ * tight loop over a few contiguous arrays instead of a walk over Entry objects.
+ *
+ * Rows are unordered: deletes move the last row into the hole. Scans over more than
+ * {@link #PARALLEL_THRESHOLD} rows are split into chunks on the common fork-join pool.
+ * Writers take the write lock; queries share the read lock for their whole scan.
+ */
+public class LedgerSnapshot {
+
+    static final int PARALLEL_THRESHOLD = 1 << 16;
+    private static final int CHUNK_SIZE = 1 << 14;
+    private static final int INITIAL_CAPACITY = 1024;
+
+    public record RangeTotal(long count, long totalCents) {}
+
+    public record LedgerRow(long id, LocalDate date, long amountCents, String description) {}
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private long[] ids = new long[INITIAL_CAPACITY];
+    private int[] days = new int[INITIAL_CAPACITY];
+    private int[] months = new int[INITIAL_CAPACITY];
+    private long[] cents = new long[INITIAL_CAPACITY];
+    private int[] descriptionCodes = new int[INITIAL_CAPACITY];
+    private int size;
+
+    private final IdIndex rowsById = new IdIndex();
+    // Reference-counted per row, so a description no row uses any more is dropped and
+    // its code handed to the next new one
+    private final List<String> dictionary = new ArrayList<>();
+    private final Map<String, Integer> dictionaryCodes = new HashMap<>();
+    private int[] dictionaryReferences = new int[INITIAL_CAPACITY];
+    private final Deque<Integer> freeCodes = new ArrayDeque<>();
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void upsert(long id, LocalDate date, long amountCents, String description) {
+        lock.writeLock().lock();
+        try {
+            int row = rowsById.get(id);
+            boolean existing = row >= 0;
+            if (!existing) {
+                ensureCapacity(size + 1);
+                row = size++;
+                ids[row] = id;
+                rowsById.put(id, row);
+            }
+            int day = (int) date.toEpochDay();
+            days[row] = day;
+            months[row] = monthIndex(date);
+            cents[row] = amountCents;
+            // Encoded before the old code is released, so an unchanged description keeps its code
+            int code = encode(description);
+            if (existing) {
+                release(descriptionCodes[row]);
+            }
+            descriptionCodes[row] = code;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean remove(long id) {
+        lock.writeLock().lock();
+        try {
+            int row = rowsById.get(id);
+            if (row < 0) {
+                return false;
+            }
+            release(descriptionCodes[row]);
+            int last = --size;
+            if (row != last) {
+                ids[row] = ids[last];
+                days[row] = days[last];
+                months[row] = months[last];
+                cents[row] = cents[last];
+                descriptionCodes[row] = descriptionCodes[last];
+                rowsById.put(ids[row], row);
+            }
+            rowsById.remove(id);
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            size = 0;
+            rowsById.clear();
+            dictionary.clear();
+            dictionaryCodes.clear();
+            dictionaryReferences = new int[INITIAL_CAPACITY];
+            freeCodes.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** Count and total of entries dated within [from, to], both inclusive. */
+    public RangeTotal sum(LocalDate from, LocalDate to) {
+        int fromDay = (int) from.toEpochDay();
+        int toDay = (int) to.toEpochDay();
+        lock.readLock().lock();
+        try {
+            long[] result = scan((lo, hi) -> sumRange(lo, hi, fromDay, toDay),
+                    (a, b) -> new long[] {a[0] + b[0], a[1] + b[1]});
+            return new RangeTotal(result[0], result[1]);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** The n largest (or smallest) amounts dated within [from, to], best first. */
+    public List<LedgerRow> top(int n, LocalDate from, LocalDate to, boolean largest) {
+        int fromDay = (int) from.toEpochDay();
+        int toDay = (int) to.toEpochDay();
+        lock.readLock().lock();
+        try {
+            // Bounded heap of row numbers whose root is the weakest candidate kept so far
+            int[] heap = new int[Math.max(0, Math.min(n, size))];
+            int heapSize = 0;
+            for (int row = 0; row < size && heap.length > 0; row++) {
+                int day = days[row];
+                if (day < fromDay || day > toDay) {
+                    continue;
+                }
+                if (heapSize < heap.length) {
+                    heap[heapSize] = row;
+                    siftUp(heap, heapSize++, largest);
+                } else if (better(cents[row], cents[heap[0]], largest)) {
+                    heap[0] = row;
+                    siftDown(heap, heapSize, largest);
+                }
+            }
+            LedgerRow[] ranked = new LedgerRow[heapSize];
+            for (int i = heapSize - 1; i >= 0; i--) {
+                int row = heap[0];
+                ranked[i] = row(row);
+                heap[0] = heap[i];
+                siftDown(heap, i, largest);
+            }
+            return Arrays.asList(ranked);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Count and total per calendar month for entries dated within [from, to]. */
+    public Map<YearMonth, RangeTotal> monthlyTotals(LocalDate from, LocalDate to) {
+        int fromDay = (int) from.toEpochDay();
+        int toDay = (int) to.toEpochDay();
+        int firstMonth = monthIndex(from);
+        int monthCount = monthIndex(to) - firstMonth + 1;
+        lock.readLock().lock();
+        try {
+            // counts in [0, monthCount), totals in [monthCount, 2 * monthCount)
+            long[] buckets = scan((lo, hi) -> monthlyRange(lo, hi, fromDay, toDay, firstMonth, monthCount),
+                    LedgerSnapshot::addInto);
+            Map<YearMonth, RangeTotal> totals = new TreeMap<>();
+            for (int i = 0; i < monthCount; i++) {
+                if (buckets[i] > 0) {
+                    int month = firstMonth + i;
+                    totals.put(YearMonth.of(month / 12, month % 12 + 1), new RangeTotal(buckets[i], buckets[monthCount + i]));
+                }
+            }
+            return totals;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Number of entries per amount bucket of the given width, starting at zero. Negative
+     * amounts land in the first bucket and anything past the end in the last one.
+     */
+    public long[] amountHistogram(long bucketWidthCents, int bucketCount, LocalDate from, LocalDate to) {
+        int fromDay = (int) from.toEpochDay();
+        int toDay = (int) to.toEpochDay();
+        lock.readLock().lock();
+        try {
+            return scan((lo, hi) -> histogramRange(lo, hi, fromDay, toDay, bucketWidthCents, bucketCount),
+                    LedgerSnapshot::addInto);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private interface RangeScan {
+        long[] apply(int fromRow, int toRow);
+    }
+
+    private long[] scan(RangeScan rangeScan, BinaryOperator<long[]> merge) {
+        int rows = size;
+        if (rows < PARALLEL_THRESHOLD) {
+            return rangeScan.apply(0, rows);
+        }
+        int chunks = (rows + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        return IntStream.range(0, chunks)
+                .parallel()
+                .mapToObj(chunk -> rangeScan.apply(chunk * CHUNK_SIZE, Math.min(rows, (chunk + 1) * CHUNK_SIZE)))
+                .reduce(merge)
+                .orElseThrow();
+    }
+
+    private long[] sumRange(int fromRow, int toRow, int fromDay, int toDay) {
+        int[] days = this.days;
+        long[] cents = this.cents;
+        long count = 0;
+        long total = 0;
+        for (int row = fromRow; row < toRow; row++) {
+            int day = days[row];
+            if (day >= fromDay && day <= toDay) {
+                count++;
+                total += cents[row];
+            }
+        }
+        return new long[] {count, total};
+    }
+
+    private long[] monthlyRange(int fromRow, int toRow, int fromDay, int toDay, int firstMonth, int monthCount) {
+        int[] days = this.days;
+        int[] months = this.months;
+        long[] cents = this.cents;
+        long[] buckets = new long[monthCount * 2];
+        for (int row = fromRow; row < toRow; row++) {
+            int day = days[row];
+            if (day >= fromDay && day <= toDay) {
+                int bucket = months[row] - firstMonth;
+                buckets[bucket]++;
+                buckets[monthCount + bucket] += cents[row];
+            }
+        }
+        return buckets;
+    }
+
+    private long[] histogramRange(int fromRow, int toRow, int fromDay, int toDay, long width, int bucketCount) {
+        int[] days = this.days;
+        long[] cents = this.cents;
+        long[] buckets = new long[bucketCount];
+        int lastBucket = bucketCount - 1;
+        for (int row = fromRow; row < toRow; row++) {
+            int day = days[row];
+            if (day >= fromDay && day <= toDay) {
+                long bucket = cents[row] / width;
+                buckets[bucket < 0 ? 0 : bucket > lastBucket ? lastBucket : (int) bucket]++;
+            }
+        }
+        return buckets;
+    }
+
+    private static long[] addInto(long[] a, long[] b) {
+        for (int i = 0; i < a.length; i++) {
+            a[i] += b[i];
+        }
+        return a;
+    }
+
+    private static boolean better(long candidate, long current, boolean largest) {
+        return largest ? candidate > current : candidate < current;
+    }
+
+    private void siftUp(int[] heap, int index, boolean largest) {
+        int row = heap[index];
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (!better(cents[heap[parent]], cents[row], largest)) {
+                break;
+            }
+            heap[index] = heap[parent];
+            index = parent;
+        }
+        heap[index] = row;
+    }
+
+    private void siftDown(int[] heap, int heapSize, boolean largest) {
+        if (heapSize == 0) {
+            return;
+        }
+        int row = heap[0];
+        int index = 0;
+        while (true) {
+            int child = 2 * index + 1;
+            if (child >= heapSize) {
+                break;
+            }
+            if (child + 1 < heapSize && better(cents[heap[child]], cents[heap[child + 1]], largest)) {
+                child++;
+            }
+            if (!better(cents[row], cents[heap[child]], largest)) {
+                break;
+            }
+            heap[index] = heap[child];
+            index = child;
+        }
+        heap[index] = row;
+    }
+
+    private LedgerRow row(int row) {
+        return new LedgerRow(ids[row], LocalDate.ofEpochDay(days[row]), cents[row],
+                dictionary.get(descriptionCodes[row]));
+    }
+
+    /** Number of distinct descriptions held, for tests. */
+    int dictionarySize() {
+        lock.readLock().lock();
+        try {
+            return dictionaryCodes.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private int encode(String description) {
+        Integer code = dictionaryCodes.get(description);
+        if (code == null) {
+            if (freeCodes.isEmpty()) {
+                code = dictionary.size();
+                dictionary.add(description);
+                if (code == dictionaryReferences.length) {
+                    dictionaryReferences = Arrays.copyOf(dictionaryReferences, code + (code >> 1));
+                }
+            } else {
+                code = freeCodes.pop();
+                dictionary.set(code, description);
+            }
+            dictionaryCodes.put(description, code);
+        }
+        dictionaryReferences[code]++;
+        return code;
+    }
+
+    private void release(int code) {
+        if (--dictionaryReferences[code] == 0) {
+            dictionaryCodes.remove(dictionary.get(code));
+            dictionary.set(code, null);
+            freeCodes.push(code);
+        }
+    }
+
+    private void ensureCapacity(int required) {
+        if (required <= ids.length) {
+            return;
+        }
+        int capacity = Math.max(required, ids.length + (ids.length >> 1));
+        ids = Arrays.copyOf(ids, capacity);
+        days = Arrays.copyOf(days, capacity);
+        months = Arrays.copyOf(months, capacity);
+        cents = Arrays.copyOf(cents, capacity);
+        descriptionCodes = Arrays.copyOf(descriptionCodes, capacity);
+    }
+
+    private static int monthIndex(LocalDate date) {
+        return date.getYear() * 12 + date.getMonthValue() - 1;
+    }
+
+    /** Open-addressing id to row map, so the index does not box a Long per entry. */
+    private static final class IdIndex {
+        private static final long EMPTY = Long.MIN_VALUE;
+
+        private long[] keys;
+        private int[] values;
+        private int mask;
+        private int size;
+
+        IdIndex() {
+            allocate(INITIAL_CAPACITY * 2);
+        }
+
+        int get(long key) {
+            for (int slot = slot(key); ; slot = (slot + 1) & mask) {
+                long current = keys[slot];
+                if (current == key) {
+                    return values[slot];
+                }
+                if (current == EMPTY) {
+                    return -1;
+                }
+            }
+        }
+
+        void put(long key, int value) {
+            if ((size + 1) * 2 > keys.length) {
+                rehash(keys.length * 2);
+            }
+            int slot = slot(key);
+            while (keys[slot] != EMPTY && keys[slot] != key) {
+                slot = (slot + 1) & mask;
+            }
+            if (keys[slot] == EMPTY) {
+                size++;
+            }
+            keys[slot] = key;
+            values[slot] = value;
+        }
+
+        void remove(long key) {
+            int slot = slot(key);
+            while (keys[slot] != key) {
+                if (keys[slot] == EMPTY) {
+                    return;
+                }
+                slot = (slot + 1) & mask;
+            }
+            keys[slot] = EMPTY;
+            size--;
+            // Backward-shift later keys of the probe run so lookups never stop early
+            int hole = slot;
+            for (int next = (hole + 1) & mask; keys[next] != EMPTY; next = (next + 1) & mask) {
+                int home = slot(keys[next]);
+                boolean reachable = hole <= next ? (home <= hole || home > next) : (home <= hole && home > next);
+                if (reachable) {
+                    keys[hole] = keys[next];
+                    values[hole] = values[next];
+                    keys[next] = EMPTY;
+                    hole = next;
+                }
+            }
+        }
+
+        void clear() {
+            allocate(INITIAL_CAPACITY * 2);
+        }
+
+        private void rehash(int capacity) {
+            long[] oldKeys = keys;
+            int[] oldValues = values;
+            allocate(capacity);
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != EMPTY) {
+                    put(oldKeys[i], oldValues[i]);
+                }
+            }
+        }
+
+        private void allocate(int capacity) {
+            keys = new long[capacity];
+            Arrays.fill(keys, EMPTY);
+            values = new int[capacity];
+            mask = capacity - 1;
+            size = 0;
+        }
+
+        private int slot(long key) {
+            return (int) ((key * 0x9E3779B97F4A7C15L) >>> 32) & mask;
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.crudapp.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+
+/**
+ * Admin endpoints that can affect a running node (profiling) or expose its traffic
+ * (hot keys) require {@code Authorization: Bearer <ADMIN_TOKEN>}. Without a configured
+ * token they are off.
+ */
+@Configuration
+public class AdminAuthConfig implements WebMvcConfigurer {
+
+    @Value("${app.admin.token:}")
+    private String adminToken;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new HandlerInterceptor() {
+            @Override
+            public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler)
+                    throws Exception {
+                if (adminToken == null || adminToken.isBlank()) {
+                    return reject(response, HttpStatus.FORBIDDEN, "Admin endpoints are disabled (ADMIN_TOKEN is not set)");
+                }
+                String header = request.getHeader(HttpHeaders.AUTHORIZATION);
+                String expected = "Bearer " + adminToken;
+                if (header == null || !MessageDigest.isEqual(header.getBytes(StandardCharsets.UTF_8),
+                        expected.getBytes(StandardCharsets.UTF_8))) {
+                    return reject(response, HttpStatus.UNAUTHORIZED, "Missing or wrong admin token");
+                }
+                return true;
+            }
+        }).addPathPatterns("/debug/jfr/**", "/api/admin/**");
+    }
+
+    private static boolean reject(HttpServletResponse response, HttpStatus status, String message) throws Exception {
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getWriter().write("{\"error\":\"" + message + "\"}");
+        return false;
+    }
+}
@@ -0,0 +1,152 @@
+package com.example.crudapp.config;
+
+import com.example.crudapp.sql.InstrumentedDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.time.Duration;
+
+/**
+ * Primary pool from spring.datasource.*, plus an optional replica pool for read-only
+ * transactions (app.datasource.replica.enabled=true).
+ *
+ * The application-facing DataSource is always a LazyConnectionDataSourceProxy, so a
+ * transaction that is answered from Redis never borrows a pooled connection, and the
+ * primary/replica decision is made when the first statement actually runs. Beneath it,
+ * statements are counted and timed per request (see SqlStatsFilter).
+ */
+@Configuration
+public class DataSourceConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(DataSourceConfig.class);
+
+    @Value("${spring.datasource.driver-class-name:}")
+    private String driverClassName;
+
+    @Value("${app.datasource.replica.url:}")
+    private String replicaUrl;
+
+    @Value("${app.datasource.replica.username:}")
+    private String replicaUsername;
+
+    @Value("${app.datasource.replica.password:}")
+    private String replicaPassword;
+
+    @Value("${app.datasource.replica.maximum-pool-size:10}")
+    private int replicaPoolSize;
+
+    @Value("${app.datasource.replica.connection-timeout:5s}")
+    private Duration replicaConnectionTimeout;
+
+    @Value("${app.datasource.replica.max-lag:5s}")
+    private Duration maxReplicaLag;
+
+    @Value("${app.datasource.replica.read-your-writes-window:2s}")
+    private Duration readYourWritesWindow;
+
+    @Value("${app.datasource.replica.standalone:false}")
+    private boolean standaloneReplica;
+
+    @Value("${app.sql.instrumentation.enabled:true}")
+    private boolean sqlInstrumentation;
+
+    @Value("${app.sql.slow-query-threshold:200ms}")
+    private Duration slowQueryThreshold;
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "app.datasource.replica.enabled", havingValue = "true")
+    public HikariDataSource replicaDataSource() {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setPoolName("replica");
+        dataSource.setJdbcUrl(replicaUrl);
+        dataSource.setUsername(replicaUsername);
+        dataSource.setPassword(replicaPassword);
+        if (!driverClassName.isEmpty()) {
+            dataSource.setDriverClassName(driverClassName);
+        }
+        dataSource.setMaximumPoolSize(replicaPoolSize);
+        dataSource.setConnectionTimeout(replicaConnectionTimeout.toMillis());
+        dataSource.setReadOnly(true);
+        // Do not fail startup when the replica is down; the lag monitor keeps reads on the primary
+        dataSource.setInitializationFailTimeout(-1);
+        return dataSource;
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "app.datasource.replica.enabled", havingValue = "true")
+    public ReplicaLagMonitor replicaLagMonitor(@Qualifier("replicaDataSource") HikariDataSource replicaDataSource) {
+        return new ReplicaLagMonitor(replicaDataSource, maxReplicaLag.toMillis(), standaloneReplica);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "app.datasource.replica.enabled", havingValue = "true")
+    public FilterRegistrationBean<ReadYourWritesFilter> readYourWritesFilter() {
+        // Long enough to cover the window and any lag at which the replica is still read
+        long maxAge = readYourWritesWindow.plus(maxReplicaLag).toSeconds() + 1;
+        FilterRegistrationBean<ReadYourWritesFilter> registration = new FilterRegistrationBean<>(
+                new ReadYourWritesFilter(Math.toIntExact(maxAge)));
+        registration.addUrlPatterns("/api/*");
+        return registration;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") HikariDataSource primaryDataSource,
+                                 @Qualifier("replicaDataSource") ObjectProvider<HikariDataSource> replicaDataSource,
+                                 ObjectProvider<ReplicaLagMonitor> replicaLagMonitor) {
+        DataSource target = primaryDataSource;
+        HikariDataSource replica = replicaDataSource.getIfAvailable();
+        ReplicaLagMonitor monitor = replicaLagMonitor.getIfAvailable();
+        if (replica != null && monitor != null) {
+            logger.info("Read-only transactions routed to replica {}", replica.getJdbcUrl());
+            target = new ReplicaRoutingDataSource(primaryDataSource, replica, monitor,
+                    readYourWritesWindow.toMillis());
+        }
+
+        if (sqlInstrumentation) {
+            // Beneath the lazy proxy, so only connections that run statements are wrapped
+            target = new InstrumentedDataSource(target, slowQueryThreshold.toNanos());
+        }
+
+        LazyConnectionDataSourceProxy proxy = new LazyConnectionDataSourceProxy(target);
+        // Set up front so the proxy does not open a connection at startup to discover them
+        proxy.setDefaultAutoCommit(primaryDataSource.isAutoCommit());
+        proxy.setDefaultTransactionIsolation(primaryDataSource.getTransactionIsolation() != null
+                ? isolationLevel(primaryDataSource.getTransactionIsolation())
+                : Connection.TRANSACTION_REPEATABLE_READ);
+        return proxy;
+    }
+
+    private static int isolationLevel(String name) {
+        return switch (name.replace("TRANSACTION_", "")) {
+            case "READ_UNCOMMITTED" -> Connection.TRANSACTION_READ_UNCOMMITTED;
+            case "READ_COMMITTED" -> Connection.TRANSACTION_READ_COMMITTED;
+            case "SERIALIZABLE" -> Connection.TRANSACTION_SERIALIZABLE;
+            default -> Connection.TRANSACTION_REPEATABLE_READ;
+        };
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.crudapp.config;
+
+/**
+ * Reads whose result is shared with every client, such as a cache fill. Read-your-writes
+ * only holds for the client that wrote, so a replica that is behind another client's
+ * write would put the old row in the shared cache, where every client, the writer
+ * included, keeps seeing it until the next write. {@link ReplicaRoutingDataSource}
+ * sends these reads to the primary.
+ *
+ * The route is fixed when a transaction runs its first statement, so the read must start
+ * a transaction or be the first statement of the current one.
+ */
+public final class PrimaryReads {
+
+    @FunctionalInterface
+    public interface Read<T, E extends Exception> {
+        T get() throws E;
+    }
+
+    private static final ThreadLocal<Boolean> ACTIVE = new ThreadLocal<>();
+
+    private PrimaryReads() {
+    }
+
+    public static <T, E extends Exception> T call(Read<T, E> read) throws E {
+        if (ACTIVE.get() != null) {
+            return read.get();
+        }
+        ACTIVE.set(Boolean.TRUE);
+        try {
+            return read.get();
+        } finally {
+            ACTIVE.remove();
+        }
+    }
+
+    /** True inside {@link #call} on this thread. */
+    public static boolean isActive() {
+        return ACTIVE.get() != null;
+    }
+}
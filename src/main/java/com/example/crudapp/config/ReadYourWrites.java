@@ -0,0 +1,49 @@
+package com.example.crudapp.config;
+
+import java.util.function.LongConsumer;
+
+/**
+ * The last write of the client behind the current request, bound to the request thread
+ * by {@link ReadYourWritesFilter}. {@link ReplicaRoutingDataSource} keeps that client's
+ * reads on the primary after it wrote, and reports each new write back so the filter
+ * can hand the time to the client.
+ */
+final class ReadYourWrites {
+
+    private static final ThreadLocal<ReadYourWrites> CURRENT = new ThreadLocal<>();
+
+    private final LongConsumer onFirstWrite;
+    private long lastWriteAt;
+    private boolean wrote;
+
+    ReadYourWrites(long lastWriteAt, LongConsumer onFirstWrite) {
+        this.lastWriteAt = lastWriteAt;
+        this.onFirstWrite = onFirstWrite;
+    }
+
+    /** The marker of the current request, or null outside a request. */
+    static ReadYourWrites current() {
+        return CURRENT.get();
+    }
+
+    static void bind(ReadYourWrites marker) {
+        CURRENT.set(marker);
+    }
+
+    static void unbind() {
+        CURRENT.remove();
+    }
+
+    long lastWriteAt() {
+        return lastWriteAt;
+    }
+
+    void wrote(long now) {
+        lastWriteAt = now;
+        if (!wrote) {
+            // Before the controller writes the body, so the response is not committed yet
+            wrote = true;
+            onFirstWrite.accept(now);
+        }
+    }
+}
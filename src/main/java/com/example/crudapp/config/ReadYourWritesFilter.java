@@ -0,0 +1,66 @@
+package com.example.crudapp.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Carries each client's last write in the {@value #COOKIE} cookie (epoch millis), so the
+ * read-your-writes window of {@link ReplicaRoutingDataSource} follows the client to
+ * whichever node serves its next request, and a write by one client does not pin every
+ * other client's reads to the primary.
+ */
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    static final String COOKIE = "last-write";
+
+    private final int maxAgeSeconds;
+
+    /**
+     * @param maxAgeSeconds how long the client keeps the cookie; at least the window
+     *                      plus the largest lag at which the replica is still used
+     */
+    public ReadYourWritesFilter(int maxAgeSeconds) {
+        this.maxAgeSeconds = maxAgeSeconds;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        ReadYourWrites.bind(new ReadYourWrites(lastWriteAt(request), writtenAt -> {
+            Cookie cookie = new Cookie(COOKIE, Long.toString(writtenAt));
+            cookie.setPath("/");
+            cookie.setHttpOnly(true);
+            cookie.setMaxAge(maxAgeSeconds);
+            response.addCookie(cookie);
+        }));
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            ReadYourWrites.unbind();
+        }
+    }
+
+    private static long lastWriteAt(HttpServletRequest request) {
+        Cookie[] cookies = request.getCookies();
+        if (cookies == null) {
+            return 0;
+        }
+        for (Cookie cookie : cookies) {
+            if (COOKIE.equals(cookie.getName())) {
+                try {
+                    // A time in the future would keep the client on the primary until then
+                    return Math.min(Long.parseLong(cookie.getValue()), System.currentTimeMillis());
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 0;
+    }
+}
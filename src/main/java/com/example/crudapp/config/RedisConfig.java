@@ -69,16 +69,7 @@ public class RedisConfig {
         template.setHashValueSerializer(new StringRedisSerializer());
         template.afterPropertiesSet();
 
-        try {
-            template.opsForValue().set("test_key", "Hello from Redis");
-            String result = template.opsForValue().get("test_key");
-            logger.info("Connected to Redis");
-            logger.info("Successfully wrote to Redis: OK");
-            logger.info("Successfully read from Redis: {}", result);
-        } catch (Exception e) {
-            logger.error("Redis connection error", e);
-        }
-
+        // Connectivity is verified by RedisConnectionCheck once the application is ready
         return template;
     }
 }
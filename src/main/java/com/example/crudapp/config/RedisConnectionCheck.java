@@ -0,0 +1,41 @@
+package com.example.crudapp.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Redis write/read self-test. Runs on a background thread after startup so a slow or
+ * unreachable Redis never delays the context refresh (and with it, pod readiness).
+ */
+@Component
+public class RedisConnectionCheck {
+
+    private static final Logger logger = LoggerFactory.getLogger(RedisConnectionCheck.class);
+
+    @Autowired
+    private RedisTemplate<String, String> redisTemplate;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        Thread check = new Thread(this::verify, "redis-connection-check");
+        check.setDaemon(true);
+        check.start();
+    }
+
+    void verify() {
+        try {
+            redisTemplate.opsForValue().set("test_key", "Hello from Redis");
+            String result = redisTemplate.opsForValue().get("test_key");
+            logger.info("Connected to Redis");
+            logger.info("Successfully wrote to Redis: OK");
+            logger.info("Successfully read from Redis: {}", result);
+        } catch (Exception e) {
+            logger.error("Redis connection error", e);
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.crudapp.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Polls the replica's replication status and decides whether reads may go there.
+ * A replica that cannot be reached, has replication stopped, or is further behind than
+ * the configured maximum is taken out of rotation until the next successful check.
+ * A server without a replication channel is only used when it is explicitly configured
+ * as a standalone read pool; otherwise it is most likely a misconfigured replica whose
+ * data never catches up.
+ */
+public class ReplicaLagMonitor {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaLagMonitor.class);
+
+    private final DataSource replica;
+    private final long maxLagMillis;
+    private final boolean standalone;
+
+    private volatile boolean usable;
+    private volatile long lagMillis;
+
+    public ReplicaLagMonitor(DataSource replica, long maxLagMillis, boolean standalone) {
+        this.replica = replica;
+        this.maxLagMillis = maxLagMillis;
+        this.standalone = standalone;
+    }
+
+    public boolean isReplicaUsable() {
+        return usable;
+    }
+
+    public long getLagMillis() {
+        return lagMillis;
+    }
+
+    @Scheduled(fixedDelayString = "${app.datasource.replica.lag-check-interval:1000}")
+    public void check() {
+        boolean wasUsable = usable;
+        try (Connection connection = replica.getConnection()) {
+            Long lagSeconds = readLagSeconds(connection);
+            if (lagSeconds == null) {
+                usable = false;
+                logStateChange(wasUsable, "replication is not running or not configured");
+                return;
+            }
+            lagMillis = lagSeconds * 1000;
+            usable = lagMillis <= maxLagMillis;
+            logStateChange(wasUsable, "replica is " + lagSeconds + "s behind");
+        } catch (SQLException e) {
+            usable = false;
+            logStateChange(wasUsable, "replica check failed: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Seconds behind the source, or null when replication is broken. A server that
+     * reports no replication channel at all counts as broken unless it is configured as
+     * a standalone read pool, which is never behind.
+     */
+    private Long readLagSeconds(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            try {
+                return readLagSeconds(statement, "SHOW REPLICA STATUS", "Seconds_Behind_Source");
+            } catch (SQLException e) {
+                // MySQL before 8.0.22 and MariaDB
+                return readLagSeconds(statement, "SHOW SLAVE STATUS", "Seconds_Behind_Master");
+            }
+        }
+    }
+
+    private Long readLagSeconds(Statement statement, String query, String column) throws SQLException {
+        try (ResultSet status = statement.executeQuery(query)) {
+            if (!status.next()) {
+                return standalone ? 0L : null;
+            }
+            long lag = status.getLong(column);
+            return status.wasNull() ? null : lag;
+        }
+    }
+
+    private void logStateChange(boolean wasUsable, String reason) {
+        if (wasUsable != usable) {
+            if (usable) {
+                logger.info("Routing reads to replica ({})", reason);
+            } else {
+                logger.warn("Routing reads to primary ({})", reason);
+            }
+        }
+    }
+}
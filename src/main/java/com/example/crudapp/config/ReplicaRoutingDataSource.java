@@ -0,0 +1,60 @@
+package com.example.crudapp.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * Sends read-only transactions to the replica and everything else to the primary.
+ *
+ * A read falls back to the primary when the replica is lagging or unreachable, and for
+ * a while after the same client last wrote (at least as long as the current replication
+ * lag), so a client that just created or changed an entry reads its own write. Within a
+ * request the client's last write comes from {@link ReadYourWritesFilter}; background
+ * work outside a request uses the last write on this node instead. Reads that fill the
+ * shared cache always go to the primary, see {@link PrimaryReads}.
+ *
+ * Must sit behind a LazyConnectionDataSourceProxy: the read-only flag is only bound to
+ * the thread after the transaction manager has asked for a connection.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    enum Route { PRIMARY, REPLICA }
+
+    private final ReplicaLagMonitor lagMonitor;
+    private final long readYourWritesWindowMillis;
+    private volatile long lastWriteAt;
+
+    public ReplicaRoutingDataSource(DataSource primary, DataSource replica,
+                                    ReplicaLagMonitor lagMonitor, long readYourWritesWindowMillis) {
+        this.lagMonitor = lagMonitor;
+        this.readYourWritesWindowMillis = readYourWritesWindowMillis;
+        setTargetDataSources(Map.of(Route.PRIMARY, primary, Route.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return route(System.currentTimeMillis());
+    }
+
+    Route route(long now) {
+        ReadYourWrites client = ReadYourWrites.current();
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            lastWriteAt = now;
+            if (client != null) {
+                client.wrote(now);
+            }
+            return Route.PRIMARY;
+        }
+        if (PrimaryReads.isActive() || !lagMonitor.isReplicaUsable()) {
+            return Route.PRIMARY;
+        }
+        long lastWrite = client != null ? client.lastWriteAt() : lastWriteAt;
+        long stickyFor = Math.max(readYourWritesWindowMillis, lagMonitor.getLagMillis());
+        return now - lastWrite < stickyFor ? Route.PRIMARY : Route.REPLICA;
+    }
+}
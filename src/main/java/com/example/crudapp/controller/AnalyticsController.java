@@ -0,0 +1,168 @@
+package com.example.crudapp.controller;
+
+import com.example.crudapp.analytics.LedgerAnalytics;
+import com.example.crudapp.analytics.LedgerSnapshot;
+import com.example.crudapp.model.Money;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Aggregates answered from the in-memory {@link LedgerSnapshot}; none of these touch
+ * the database or Redis. Date bounds are inclusive and optional.
+ */
+@RestController
+@RequestMapping("/api/analytics")
+@ConditionalOnProperty(name = "app.analytics.enabled", havingValue = "true")
+public class AnalyticsController {
+
+    private static final Logger logger = LoggerFactory.getLogger(AnalyticsController.class);
+
+    private static final LocalDate EARLIEST = LocalDate.of(0, 1, 1);
+    private static final LocalDate LATEST = LocalDate.of(9999, 12, 31);
+    private static final int MAX_TOP = 1000;
+    private static final int MAX_BUCKETS = 1000;
+    private static final int MAX_MONTHS = 1200;
+
+    @Autowired
+    private LedgerAnalytics ledgerAnalytics;
+
+    @GetMapping("/sum")
+    public ResponseEntity<?> sum(@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                 @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return query("sum", () -> {
+            LedgerSnapshot.RangeTotal total = snapshot().sum(orEarliest(from), orLatest(to));
+            Map<String, Object> response = new LinkedHashMap<>();
+            response.put("count", total.count());
+            response.put("total", Money.toDecimal(total.totalCents()));
+            return response;
+        });
+    }
+
+    @GetMapping("/top")
+    public ResponseEntity<?> top(@RequestParam(defaultValue = "10") int n,
+                                 @RequestParam(defaultValue = "largest") String order,
+                                 @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                 @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return query("top", () -> {
+            if (n < 1 || n > MAX_TOP) {
+                throw new IllegalArgumentException("n must be between 1 and " + MAX_TOP);
+            }
+            if (!order.equals("largest") && !order.equals("smallest")) {
+                throw new IllegalArgumentException("order must be 'largest' or 'smallest'");
+            }
+            List<Map<String, Object>> entries = new ArrayList<>();
+            for (LedgerSnapshot.LedgerRow row : snapshot().top(n, orEarliest(from), orLatest(to), order.equals("largest"))) {
+                Map<String, Object> entry = new LinkedHashMap<>();
+                entry.put("id", row.id());
+                entry.put("amount", Money.toDecimal(row.amountCents()));
+                entry.put("description", row.description());
+                entry.put("date", row.date());
+                entries.add(entry);
+            }
+            Map<String, Object> response = new LinkedHashMap<>();
+            response.put("entries", entries);
+            return response;
+        });
+    }
+
+    @GetMapping("/monthly")
+    public ResponseEntity<?> monthly(@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                     @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return query("monthly", () -> {
+            // Default to the last twelve months rather than every month since year 0
+            LocalDate end = to != null ? to : LocalDate.now();
+            LocalDate start = from != null ? from : end.minusMonths(11).withDayOfMonth(1);
+            if (start.isAfter(end)) {
+                throw new IllegalArgumentException("from must not be after to");
+            }
+            if (YearMonth.from(start).plusMonths(MAX_MONTHS).isBefore(YearMonth.from(end))) {
+                throw new IllegalArgumentException("Range must span at most " + MAX_MONTHS + " months");
+            }
+            Map<String, Object> months = new LinkedHashMap<>();
+            snapshot().monthlyTotals(start, end).forEach((month, total) -> {
+                Map<String, Object> bucket = new LinkedHashMap<>();
+                bucket.put("count", total.count());
+                bucket.put("total", Money.toDecimal(total.totalCents()));
+                months.put(month.toString(), bucket);
+            });
+            Map<String, Object> response = new LinkedHashMap<>();
+            response.put("months", months);
+            return response;
+        });
+    }
+
+    @GetMapping("/histogram")
+    public ResponseEntity<?> histogram(@RequestParam(defaultValue = "100.00") BigDecimal bucketWidth,
+                                       @RequestParam(defaultValue = "20") int buckets,
+                                       @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                       @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return query("histogram", () -> {
+            long widthCents = Money.toCents(bucketWidth);
+            if (widthCents <= 0) {
+                throw new IllegalArgumentException("bucketWidth must be positive");
+            }
+            if (buckets < 1 || buckets > MAX_BUCKETS) {
+                throw new IllegalArgumentException("buckets must be between 1 and " + MAX_BUCKETS);
+            }
+            long[] counts = snapshot().amountHistogram(widthCents, buckets, orEarliest(from), orLatest(to));
+            Map<String, Object> response = new LinkedHashMap<>();
+            response.put("bucketWidth", Money.toDecimal(widthCents));
+            response.put("counts", counts);
+            return response;
+        });
+    }
+
+    private interface Query {
+        Map<String, Object> run();
+    }
+
+    private ResponseEntity<?> query(String name, Query query) {
+        if (!ledgerAnalytics.isLoaded()) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", "Analytics snapshot is still loading");
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(error);
+        }
+        try {
+            long started = System.nanoTime();
+            Map<String, Object> response = query.run();
+            response.put("tookMicros", (System.nanoTime() - started) / 1_000);
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return ResponseEntity.badRequest().body(error);
+        } catch (Exception e) {
+            logger.error("Error running analytics query {}", name, e);
+            Map<String, String> error = new HashMap<>();
+            error.put("error", "Failed to run analytics query");
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(error);
+        }
+    }
+
+    private LedgerSnapshot snapshot() {
+        return ledgerAnalytics.getSnapshot();
+    }
+
+    private static LocalDate orEarliest(LocalDate date) {
+        return date != null ? date : EARLIEST;
+    }
+
+    private static LocalDate orLatest(LocalDate date) {
+        return date != null ? date : LATEST;
+    }
+}
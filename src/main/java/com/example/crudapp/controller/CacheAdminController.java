@@ -0,0 +1,43 @@
+package com.example.crudapp.controller;
+
+import com.example.crudapp.service.HotKeySketch;
+import com.example.crudapp.service.HotKeyTracker;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The cache keys this node reads most, as tracked by {@link HotKeyTracker}, with the TTL
+ * their next fill would get. Counts are per node and decay over time.
+ */
+@RestController
+@RequestMapping("/api/admin/cache")
+public class CacheAdminController {
+
+    @Autowired
+    private HotKeyTracker hotKeyTracker;
+
+    @GetMapping("/hot-keys")
+    public ResponseEntity<?> hotKeys() {
+        List<Map<String, Object>> keys = new ArrayList<>();
+        for (HotKeySketch.KeyCount keyCount : hotKeyTracker.top()) {
+            Map<String, Object> key = new LinkedHashMap<>();
+            key.put("key", keyCount.key());
+            key.put("count", keyCount.count());
+            key.put("ttlSeconds", hotKeyTracker.ttlSeconds(keyCount.key()));
+            key.put("pinned", hotKeyTracker.isPinned(keyCount.key()));
+            keys.add(key);
+        }
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("keys", keys);
+        response.put("pinnedCount", hotKeyTracker.pinnedCount());
+        return ResponseEntity.ok(response);
+    }
+}
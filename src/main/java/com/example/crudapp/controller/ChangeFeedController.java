@@ -0,0 +1,53 @@
+package com.example.crudapp.controller;
+
+import com.example.crudapp.feed.ChangeFeed;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api")
+@ConditionalOnProperty(name = "app.change-feed.enabled", havingValue = "true")
+public class ChangeFeedController {
+
+    private static final Logger logger = LoggerFactory.getLogger(ChangeFeedController.class);
+
+    @Autowired
+    private ChangeFeed changeFeed;
+
+    /**
+     * Server-Sent Events stream of entry changes (created, updated, deleted, cleared, and
+     * imported, after which clients should reload).
+     * Browsers resume automatically through the Last-Event-ID header; other clients may
+     * pass the last id they saw as {@code lastEventId}.
+     */
+    @GetMapping(value = "/entries/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamChanges(@RequestHeader(value = "Last-Event-ID", required = false) String lastEventIdHeader,
+                                    @RequestParam(required = false) String lastEventId) {
+        return changeFeed.subscribe(lastEventIdHeader != null ? lastEventIdHeader : lastEventId);
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<Map<String, String>> handleInvalidEventId(IllegalArgumentException e) {
+        Map<String, String> error = new HashMap<>();
+        error.put("error", "Invalid last event id");
+        return ResponseEntity.badRequest().contentType(MediaType.APPLICATION_JSON).body(error);
+    }
+
+    @ExceptionHandler(Exception.class)
+    public ResponseEntity<Map<String, String>> handleFeedError(Exception e) {
+        logger.error("Error opening change feed", e);
+        Map<String, String> error = new HashMap<>();
+        error.put("error", "Change feed unavailable");
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).contentType(MediaType.APPLICATION_JSON).body(error);
+    }
+}
@@ -3,6 +3,7 @@ package com.example.crudapp.controller;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.connection.DataType;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -34,8 +35,12 @@ public class DebugController {
                 for (String key : keys) {
                     Map<String, Object> entry = new HashMap<>();
                     entry.put("key", key);
-                    entry.put("type", "string"); // Simplified for this example
-                    entry.put("value", redisTemplate.opsForValue().get(key));
+                    DataType type = redisTemplate.type(key);
+                    entry.put("type", type != null ? type.code() : "none");
+                    // Sorted sets such as entry_access_counts would fail a GET
+                    if (type == DataType.STRING) {
+                        entry.put("value", redisTemplate.opsForValue().get(key));
+                    }
                     entries.add(entry);
                 }
             }
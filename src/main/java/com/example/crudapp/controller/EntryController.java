@@ -1,15 +1,28 @@
 package com.example.crudapp.controller;
 
+import com.example.crudapp.limit.RetryLaterException;
 import com.example.crudapp.model.Entry;
+import com.example.crudapp.model.EntrySummary;
+import com.example.crudapp.model.EntryValidation;
+import com.example.crudapp.model.Money;
 import com.example.crudapp.service.EntryService;
+import com.example.crudapp.service.EntrySyncService;
+import com.example.crudapp.service.EntryVersionConflictException;
+import com.example.crudapp.service.SyncTokenExpiredException;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.HttpMessageNotReadableException;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.Duration;
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -23,28 +36,122 @@ public class EntryController {
     @Autowired
     private EntryService entryService;
     
+    @Autowired
+    private EntrySyncService entrySyncService;
+    
+    @Value("${app.limiter.retry-after:1s}")
+    private Duration retryAfter;
+    
     @GetMapping("/entries")
-    public ResponseEntity<List<Entry>> getAllEntries() {
+    public ResponseEntity<?> getAllEntries(@RequestParam(required = false) String fields) {
         try {
-            List<Entry> entries = entryService.getAllEntries();
-            return ResponseEntity.ok(entries);
+            if (fields == null) {
+                List<Entry> entries = entryService.getAllEntries();
+                return ResponseEntity.ok(entries);
+            }
+            
+            EntryFields selection = EntryFields.parse(fields);
+            if (selection.fitsSummary()) {
+                return ResponseEntity.ok(selection.renderSummaries(entryService.getAllEntrySummaries()));
+            }
+            return ResponseEntity.ok(selection.renderEntries(entryService.getAllEntries()));
+            
+        } catch (RetryLaterException e) {
+            return overloaded(e);
+        } catch (IllegalArgumentException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return ResponseEntity.badRequest().body(error);
         } catch (Exception e) {
             logger.error("Error fetching entries", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
     
+    @GetMapping("/entries/total")
+    public ResponseEntity<?> getTotal() {
+        try {
+            Map<String, Object> response = new HashMap<>();
+            response.put("total", Money.toDecimal(entryService.getTotalAmountCents()));
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            logger.error("Error computing total", e);
+            Map<String, String> error = new HashMap<>();
+            error.put("error", "Failed to compute total");
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(error);
+        }
+    }
+    
+    @GetMapping("/entries/changes")
+    public ResponseEntity<?> getChanges(@RequestParam(required = false) String since) {
+        try {
+            return ResponseEntity.ok(entrySyncService.changesSince(since));
+            
+        } catch (SyncTokenExpiredException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", e.getMessage() + "; sync again without a token");
+            return ResponseEntity.status(HttpStatus.GONE).body(error);
+        } catch (IllegalArgumentException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return ResponseEntity.badRequest().body(error);
+        } catch (Exception e) {
+            logger.error("Error computing changes", e);
+            Map<String, String> error = new HashMap<>();
+            error.put("error", "Failed to compute changes");
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(error);
+        }
+    }
+    
+    @GetMapping("/entries/month/{month}")
+    public ResponseEntity<?> getEntriesForMonth(@PathVariable String month) {
+        YearMonth yearMonth;
+        try {
+            yearMonth = YearMonth.parse(month);
+        } catch (DateTimeParseException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", "Month must be formatted as yyyy-MM");
+            return ResponseEntity.badRequest().body(error);
+        }
+        
+        try {
+            return ResponseEntity.ok(entryService.getEntriesForMonth(yearMonth));
+        } catch (RetryLaterException e) {
+            return overloaded(e);
+        } catch (Exception e) {
+            logger.error("Error fetching entries for {}", month, e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+    
     @GetMapping("/entries/{id}")
-    public ResponseEntity<?> getEntryById(@PathVariable Long id) {
+    public ResponseEntity<?> getEntryById(@PathVariable Long id, @RequestParam(required = false) String fields) {
         try {
-            Entry entry = entryService.getEntryById(id);
-            if (entry != null) {
-                return ResponseEntity.ok(entry);
+            EntryFields selection = fields != null ? EntryFields.parse(fields) : null;
+            Object body;
+            if (selection == null) {
+                body = entryService.getEntryById(id);
+            } else if (selection.fitsSummary()) {
+                EntrySummary summary = entryService.getEntrySummaryById(id);
+                body = summary != null ? selection.render(summary) : null;
+            } else {
+                Entry entry = entryService.getEntryById(id);
+                body = entry != null ? selection.render(entry) : null;
+            }
+            
+            if (body != null) {
+                return ResponseEntity.ok(body);
             } else {
                 Map<String, String> error = new HashMap<>();
                 error.put("error", "Entry not found");
                 return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
             }
+        } catch (RetryLaterException e) {
+            return overloaded(e);
+        } catch (IllegalArgumentException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return ResponseEntity.badRequest().body(error);
         } catch (Exception e) {
             logger.error("Error fetching entry with id: " + id, e);
             Map<String, String> error = new HashMap<>();
@@ -56,24 +163,19 @@ public class EntryController {
     @PostMapping("/entries")
     public ResponseEntity<?> createEntry(@Valid @RequestBody Entry entry) {
         try {
-            if (entry.getAmount() == null || entry.getDescription() == null || 
-                entry.getDescription().trim().isEmpty()) {
-                Map<String, String> error = new HashMap<>();
-                error.put("error", "Amount and description are required");
-                return ResponseEntity.badRequest().body(error);
-            }
-            
-            // ========== RELEASE 2.0 - START (Enhanced Validation with Date) ==========
-            if (entry.getDate() == null) {
+            // Amount, description and date; the statement import applies the same rules
+            String invalid = EntryValidation.newEntryError(entry);
+            if (invalid != null) {
                 Map<String, String> error = new HashMap<>();
-                error.put("error", "Date is required");
+                error.put("error", invalid);
                 return ResponseEntity.badRequest().body(error);
             }
-            // ========== RELEASE 2.0 - END ==========
             
             Entry savedEntry = entryService.createEntry(entry);
             return ResponseEntity.status(HttpStatus.CREATED).body(savedEntry);
             
+        } catch (RetryLaterException e) {
+            return overloaded(e);
         } catch (Exception e) {
             logger.error("Error creating entry", e);
             Map<String, String> error = new HashMap<>();
@@ -113,6 +215,12 @@ public class EntryController {
                 return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
             }
             
+        } catch (EntryVersionConflictException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(error);
+        } catch (RetryLaterException e) {
+            return overloaded(e);
         } catch (Exception e) {
             logger.error("Error updating entry with id: " + id, e);
             Map<String, String> error = new HashMap<>();
@@ -121,6 +229,45 @@ public class EntryController {
         }
     }
     
+    @PatchMapping("/entries/{id}")
+    public ResponseEntity<?> patchEntry(@PathVariable Long id, @RequestBody Entry changes) {
+        try {
+            if (!changes.hasAmount() && changes.getDescription() == null && changes.getDate() == null) {
+                Map<String, String> error = new HashMap<>();
+                error.put("error", "At least one of amount, description or date is required");
+                return ResponseEntity.badRequest().body(error);
+            }
+            
+            if (changes.getDescription() != null && changes.getDescription().trim().isEmpty()) {
+                Map<String, String> error = new HashMap<>();
+                error.put("error", "Description must not be empty");
+                return ResponseEntity.badRequest().body(error);
+            }
+            
+            Entry patchedEntry = entryService.patchEntry(id, changes);
+            
+            if (patchedEntry != null) {
+                return ResponseEntity.ok(patchedEntry);
+            } else {
+                Map<String, String> error = new HashMap<>();
+                error.put("error", "Entry not found");
+                return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
+            }
+            
+        } catch (EntryVersionConflictException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(error);
+        } catch (RetryLaterException e) {
+            return overloaded(e);
+        } catch (Exception e) {
+            logger.error("Error patching entry with id: " + id, e);
+            Map<String, String> error = new HashMap<>();
+            error.put("error", "Failed to update entry");
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(error);
+        }
+    }
+    
     @DeleteMapping("/entries/{id}")
     public ResponseEntity<?> deleteEntry(@PathVariable Long id) {
         try {
@@ -136,6 +283,8 @@ public class EntryController {
                 return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
             }
             
+        } catch (RetryLaterException e) {
+            return overloaded(e);
         } catch (Exception e) {
             logger.error("Error deleting entry", e);
             Map<String, String> error = new HashMap<>();
@@ -151,6 +300,8 @@ public class EntryController {
             response.put("message", "All entries deleted successfully");
             return ResponseEntity.ok(response);
             
+        } catch (RetryLaterException e) {
+            return overloaded(e);
         } catch (Exception e) {
             logger.error("Error deleting all entries", e);
             Map<String, String> error = new HashMap<>();
@@ -158,4 +309,21 @@ public class EntryController {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(error);
         }
     }
+    
+    // Bodies the codec rejects, e.g. an amount with fractions of a cent
+    @ExceptionHandler(HttpMessageNotReadableException.class)
+    public ResponseEntity<Map<String, String>> handleUnreadableBody(HttpMessageNotReadableException e) {
+        Throwable cause = e.getMostSpecificCause();
+        Map<String, String> error = new HashMap<>();
+        error.put("error", cause instanceof IllegalArgumentException ? cause.getMessage() : "Malformed request body");
+        return ResponseEntity.badRequest().body(error);
+    }
+    
+    private ResponseEntity<?> overloaded(RetryLaterException e) {
+        Map<String, String> error = new HashMap<>();
+        error.put("error", e.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, retryAfter.toSeconds())))
+                .body(error);
+    }
 }
\ No newline at end of file
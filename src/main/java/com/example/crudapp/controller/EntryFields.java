@@ -0,0 +1,88 @@
+package com.example.crudapp.controller;
+
+import com.example.crudapp.model.Entry;
+import com.example.crudapp.model.EntrySummary;
+
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Parsed {@code ?fields=} selection for the entry endpoints. Renders entries as maps
+ * holding only the requested properties, in the same order as the full JSON.
+ */
+class EntryFields {
+
+    enum Field { ID, AMOUNT, DESCRIPTION, DATE }
+
+    private static final Set<Field> SUMMARY_FIELDS = EnumSet.of(Field.ID, Field.AMOUNT, Field.DATE);
+
+    private final Set<Field> fields;
+
+    private EntryFields(Set<Field> fields) {
+        this.fields = fields;
+    }
+
+    /**
+     * @throws IllegalArgumentException naming the first unknown field
+     */
+    static EntryFields parse(String fields) {
+        Set<Field> selected = EnumSet.noneOf(Field.class);
+        for (String name : fields.split(",")) {
+            String trimmed = name.trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            try {
+                selected.add(Field.valueOf(trimmed.toUpperCase(Locale.ROOT)));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unknown field: " + trimmed);
+            }
+        }
+        if (selected.isEmpty()) {
+            throw new IllegalArgumentException("At least one field is required");
+        }
+        return new EntryFields(selected);
+    }
+
+    /** True when the selection can be served from the id/amount/date projection. */
+    boolean fitsSummary() {
+        return SUMMARY_FIELDS.containsAll(fields);
+    }
+
+    Map<String, Object> render(Entry entry) {
+        return render(entry.getId(), entry.getAmount(), entry.getDescription(), entry.getDate());
+    }
+
+    Map<String, Object> render(EntrySummary summary) {
+        return render(summary.id(), summary.amount(), null, summary.date());
+    }
+
+    List<Map<String, Object>> renderEntries(List<Entry> entries) {
+        return entries.stream().map(this::render).toList();
+    }
+
+    List<Map<String, Object>> renderSummaries(List<EntrySummary> summaries) {
+        return summaries.stream().map(this::render).toList();
+    }
+
+    private Map<String, Object> render(Long id, Double amount, String description, Object date) {
+        Map<String, Object> view = new LinkedHashMap<>();
+        if (fields.contains(Field.ID)) {
+            view.put("id", id);
+        }
+        if (fields.contains(Field.AMOUNT)) {
+            view.put("amount", amount);
+        }
+        if (fields.contains(Field.DESCRIPTION)) {
+            view.put("description", description);
+        }
+        if (fields.contains(Field.DATE)) {
+            view.put("date", date);
+        }
+        return view;
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.crudapp.controller;
+
+import com.example.crudapp.importer.EntryImportService;
+import com.example.crudapp.importer.StatementFormat;
+import com.example.crudapp.importer.StatementFormatException;
+import com.example.crudapp.importer.StatementReader;
+import com.example.crudapp.limit.RetryLaterException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api")
+public class EntryImportController {
+
+    private static final Logger logger = LoggerFactory.getLogger(EntryImportController.class);
+
+    @Autowired
+    private EntryImportService entryImportService;
+
+    @Value("${app.limiter.retry-after:1s}")
+    private Duration retryAfter;
+
+    /**
+     * Imports a CSV or OFX bank statement uploaded as the multipart part {@code file}.
+     * The format comes from {@code format} or else the file extension. A file that cannot
+     * be opened is rejected with 400; otherwise the response is NDJSON, streamed while the
+     * rows are imported (see {@link EntryImportService}). Rejected rows do not fail the
+     * request; they are reported in the stream.
+     */
+    @PostMapping(value = "/entries/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<StreamingResponseBody> importEntries(@RequestParam("file") MultipartFile file,
+                                                               @RequestParam(required = false) String format)
+            throws IOException {
+        // Multipart uploads are spooled to disk, so this streams from the temp file
+        StatementReader reader = StatementFormat.detect(format, file.getOriginalFilename()).open(file.getInputStream());
+        try {
+            return ResponseEntity.ok()
+                    .contentType(MediaType.APPLICATION_NDJSON)
+                    .body(entryImportService.start(reader));
+        } catch (RuntimeException e) {
+            reader.close();
+            throw e;
+        }
+    }
+
+    @ExceptionHandler({IllegalArgumentException.class, StatementFormatException.class})
+    public ResponseEntity<Map<String, String>> handleInvalidStatement(RuntimeException e) {
+        Map<String, String> error = new HashMap<>();
+        error.put("error", e.getMessage());
+        return ResponseEntity.badRequest().contentType(MediaType.APPLICATION_JSON).body(error);
+    }
+
+    @ExceptionHandler(RetryLaterException.class)
+    public ResponseEntity<Map<String, String>> handleOverloaded(RetryLaterException e) {
+        Map<String, String> error = new HashMap<>();
+        error.put("error", e.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, retryAfter.toSeconds())))
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(error);
+    }
+
+    @ExceptionHandler(IOException.class)
+    public ResponseEntity<Map<String, String>> handleUploadError(IOException e) {
+        logger.error("Error reading statement upload", e);
+        Map<String, String> error = new HashMap<>();
+        error.put("error", "Failed to import entries");
+        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).contentType(MediaType.APPLICATION_JSON).body(error);
+    }
+}
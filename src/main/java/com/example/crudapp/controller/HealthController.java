@@ -1,24 +1,74 @@
 package com.example.crudapp.controller;
 
+import com.example.crudapp.health.DependencyHealth;
+import com.example.crudapp.health.DependencyHealthMonitor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Probe endpoints. Everything here is answered from the results DependencyHealthMonitor
+ * keeps in memory; no request reaches MySQL or Redis.
+ */
 @RestController
 public class HealthController {
     
+    @Autowired
+    private DependencyHealthMonitor healthMonitor;
+    
     @GetMapping("/health")
     public ResponseEntity<String> health() {
+        DependencyHealth.Status status = healthMonitor.overallStatus();
+        String message;
+        String color;
+        if (status == DependencyHealth.Status.UP) {
+            message = "Server is healthy";
+            color = "green";
+        } else if (status == DependencyHealth.Status.DEGRADED) {
+            message = "Server is degraded";
+            color = "orange";
+        } else {
+            message = "Server is unhealthy";
+            color = "red";
+        }
         String htmlResponse = """
             <html>
               <body style="font-family: Arial, sans-serif; text-align: center; margin-top: 20px;">
-                <h1 style="color: green;">Server is healthy</h1>
+                <h1 style="color: %s;">%s</h1>
               </body>
             </html>
-            """;
+            """.formatted(color, message);
         
-        return ResponseEntity.ok()
+        return ResponseEntity.status(status == DependencyHealth.Status.DOWN ? HttpStatus.SERVICE_UNAVAILABLE : HttpStatus.OK)
                 .header("Content-Type", "text/html")
                 .body(htmlResponse);
     }
-}
\ No newline at end of file
+    
+    // The process is up and serving requests; dependencies are deliberately not part of
+    // liveness, so an outage of MySQL or Redis does not get every pod restarted
+    @GetMapping("/health/live")
+    public ResponseEntity<Map<String, String>> live() {
+        Map<String, String> response = new HashMap<>();
+        response.put("status", "UP");
+        return ResponseEntity.ok(response);
+    }
+    
+    @GetMapping("/health/ready")
+    public ResponseEntity<Map<String, Object>> ready() {
+        Map<String, Object> checks = new LinkedHashMap<>();
+        checks.put("db", healthMonitor.database());
+        checks.put("redis", healthMonitor.redis());
+        
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("status", healthMonitor.overallStatus());
+        response.put("checks", checks);
+        return ResponseEntity.status(healthMonitor.isReady() ? HttpStatus.OK : HttpStatus.SERVICE_UNAVAILABLE)
+                .body(response);
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.crudapp.controller;
+
+import com.example.crudapp.profiling.JfrProfiler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Java Flight Recorder on a live node: start a recording, stop it (or let its duration
+ * run out) for a summary, then download the .jfr file. Downloading also stops a running
+ * recording. Guarded by the admin token, see AdminAuthConfig.
+ */
+@RestController
+@RequestMapping("/debug/jfr")
+public class ProfilingController {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProfilingController.class);
+
+    @Autowired
+    private JfrProfiler jfrProfiler;
+
+    @PostMapping("/start")
+    public ResponseEntity<?> start(@RequestParam(defaultValue = "profile") String settings,
+                                   @RequestParam(defaultValue = "60s") String duration) {
+        try {
+            JfrProfiler.Status status = jfrProfiler.start(settings, DurationStyle.detectAndParse(duration));
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(status);
+        } catch (IllegalStateException e) {
+            return error(HttpStatus.CONFLICT, e.getMessage());
+        } catch (IllegalArgumentException e) {
+            return error(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+
+    @GetMapping("/status")
+    public ResponseEntity<?> status() {
+        JfrProfiler.Status status = jfrProfiler.status();
+        if (status == null) {
+            return error(HttpStatus.NOT_FOUND, "No recording was started");
+        }
+        return ResponseEntity.ok(status);
+    }
+
+    @PostMapping("/stop")
+    public ResponseEntity<?> stop() {
+        try {
+            JfrProfiler.Result result = jfrProfiler.stop();
+            Map<String, Object> response = new LinkedHashMap<>();
+            response.put("recording", result.recording());
+            response.put("summary", result.summary());
+            response.put("download", "/debug/jfr/recording");
+            return ResponseEntity.ok(response);
+        } catch (IllegalStateException e) {
+            return error(HttpStatus.NOT_FOUND, e.getMessage());
+        } catch (Exception e) {
+            logger.error("Error stopping JFR recording", e);
+            return error(HttpStatus.INTERNAL_SERVER_ERROR, "Failed to stop recording");
+        }
+    }
+
+    @GetMapping("/recording")
+    public ResponseEntity<?> recording() {
+        try {
+            JfrProfiler.Result result = jfrProfiler.stop();
+            return ResponseEntity.ok()
+                    .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                    .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                            .filename("recording-" + result.recording().id() + ".jfr").build().toString())
+                    .body(new FileSystemResource(result.file()));
+        } catch (IllegalStateException e) {
+            return error(HttpStatus.NOT_FOUND, e.getMessage());
+        } catch (Exception e) {
+            logger.error("Error reading JFR recording", e);
+            return error(HttpStatus.INTERNAL_SERVER_ERROR, "Failed to read recording");
+        }
+    }
+
+    private static ResponseEntity<Map<String, String>> error(HttpStatus status, String message) {
+        Map<String, String> error = new HashMap<>();
+        error.put("error", message);
+        return ResponseEntity.status(status).body(error);
+    }
+}
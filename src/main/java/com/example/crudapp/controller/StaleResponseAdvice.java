@@ -0,0 +1,42 @@
+package com.example.crudapp.controller;
+
+import com.example.crudapp.service.StaleReads;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * Marks responses that EntryService answered from a shadow copy while the database was
+ * unavailable: {@code Age} is the age of the oldest copy in seconds, and
+ * {@code Cache-Status} (RFC 9211) says it was a cache hit past its freshness.
+ */
+@RestControllerAdvice
+public class StaleResponseAdvice implements ResponseBodyAdvice<Object> {
+
+    static final String CACHE_STATUS = "Cache-Status";
+    static final String STALE_CACHE_STATUS = "crudapp; hit; detail=stale";
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType contentType,
+                                  Class<? extends HttpMessageConverter<?>> converterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        if (request instanceof ServletServerHttpRequest servletRequest
+                && servletRequest.getServletRequest().getAttribute(StaleReads.SERVED_AT_ATTRIBUTE) instanceof Long servedAt) {
+            long ageSeconds = Math.max(0, (System.currentTimeMillis() - servedAt) / 1000);
+            response.getHeaders().set(HttpHeaders.AGE, String.valueOf(ageSeconds));
+            response.getHeaders().set(CACHE_STATUS, STALE_CACHE_STATUS);
+        }
+        return body;
+    }
+}
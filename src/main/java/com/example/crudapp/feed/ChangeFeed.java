@@ -0,0 +1,377 @@
+package com.example.crudapp.feed;
+
+import com.example.crudapp.service.EntryChangedEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Range;
+import org.springframework.data.redis.connection.Limit;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.RedisStreamCommands;
+import org.springframework.data.redis.connection.stream.MapRecord;
+import org.springframework.data.redis.connection.stream.ReadOffset;
+import org.springframework.data.redis.connection.stream.RecordId;
+import org.springframework.data.redis.connection.stream.StreamOffset;
+import org.springframework.data.redis.connection.stream.StreamRecords;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.stream.StreamMessageListenerContainer;
+import org.springframework.data.redis.stream.StreamMessageListenerContainer.StreamMessageListenerContainerOptions;
+import org.springframework.data.redis.stream.StreamMessageListenerContainer.StreamReadRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Entry change feed over a Redis Stream. Every committed change is appended to the
+ * stream (capped at roughly {@code max-length} records); every node tails the stream
+ * and fans each record out to its own SSE subscribers, so clients see changes made on
+ * any node. Stream record ids double as SSE event ids, which makes Last-Event-ID resume
+ * an XRANGE from that id.
+ *
+ * Each subscriber buffers at most {@code subscriber-buffer} undelivered events. A client
+ * that falls further behind is disconnected rather than slowing the fan-out; its
+ * EventSource reconnects with Last-Event-ID and catches up from the stream.
+ */
+@Component
+@ConditionalOnProperty(name = "app.change-feed.enabled", havingValue = "true")
+public class ChangeFeed {
+
+    private static final Logger logger = LoggerFactory.getLogger(ChangeFeed.class);
+    static final String STREAM_KEY = "entry_changes";
+    static final String RESET_EVENT = "reset";
+    private static final long RECONNECT_DELAY_MILLIS = 3000;
+
+    @Autowired
+    private RedisConnectionFactory connectionFactory;
+
+    @Autowired
+    private RedisTemplate<String, String> redisTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${app.change-feed.max-length:10000}")
+    private long maxLength;
+
+    @Value("${app.change-feed.subscriber-buffer:256}")
+    private int subscriberBuffer;
+
+    @Value("${app.change-feed.emitter-timeout:30m}")
+    private Duration emitterTimeout;
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final ExecutorService sender = Executors.newCachedThreadPool(r -> {
+        Thread thread = new Thread(r, "change-feed-send");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private StreamMessageListenerContainer<String, MapRecord<String, String, String>> container;
+
+    @PostConstruct
+    public void init() {
+        container = StreamMessageListenerContainer.create(connectionFactory,
+                StreamMessageListenerContainerOptions.builder()
+                        .pollTimeout(Duration.ofSeconds(1))
+                        .build());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        // Finding the tail is a Redis round trip; keep it off the startup path
+        Thread starter = new Thread(this::startTailing, "change-feed-start");
+        starter.setDaemon(true);
+        starter.start();
+    }
+
+    void startTailing() {
+        // Keep tailing through Redis outages instead of cancelling on the first error
+        container.register(StreamReadRequest.builder(StreamOffset.create(STREAM_KEY, tailOffset()))
+                        .cancelOnError(e -> false)
+                        .errorHandler(e -> logger.warn("Change feed read failed: {}", e.getMessage()))
+                        .build(),
+                this::dispatch);
+        container.start();
+        logger.info("Change feed tailing stream {}", STREAM_KEY);
+    }
+
+    /**
+     * Start right after the newest record. A plain "$" would be re-evaluated on every poll
+     * until the first record arrives, dropping anything appended between two polls.
+     */
+    private ReadOffset tailOffset() {
+        try {
+            List<MapRecord<String, Object, Object>> newest =
+                    redisTemplate.opsForStream().reverseRange(STREAM_KEY, Range.unbounded(), Limit.limit().count(1));
+            return newest == null || newest.isEmpty() ? ReadOffset.from("0-0") : ReadOffset.from(newest.get(0).getId());
+        } catch (Exception e) {
+            logger.warn("Could not read the change feed tail, starting from new records: {}", e.getMessage());
+            return ReadOffset.latest();
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        container.stop();
+        subscribers.forEach(Subscriber::close);
+        sender.shutdownNow();
+    }
+
+    public boolean isTailing() {
+        return container.isRunning();
+    }
+
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEntryChanged(EntryChangedEvent event) {
+        try {
+            String type = event.type().name().toLowerCase(Locale.ROOT);
+            ObjectNode payload = objectMapper.createObjectNode();
+            payload.put("type", type);
+            if (event.entryId() != null) {
+                payload.put("id", event.entryId());
+            }
+            if (event.entry() != null) {
+                payload.set("entry", objectMapper.valueToTree(event.entry()));
+            }
+            Map<byte[], byte[]> fields = new LinkedHashMap<>();
+            fields.put(bytes("type"), bytes(type));
+            fields.put(bytes("payload"), bytes(objectMapper.writeValueAsString(payload)));
+            RedisStreamCommands.XAddOptions options = RedisStreamCommands.XAddOptions.maxlen(maxLength).approximateTrimming(true);
+            redisTemplate.execute((RedisCallback<RecordId>) connection -> connection.streamCommands()
+                    .xAdd(StreamRecords.newRecord().in(bytes(STREAM_KEY)).ofMap(fields), options));
+        } catch (JsonProcessingException e) {
+            logger.error("Error serializing change event for entry {}", event.entryId(), e);
+        } catch (Exception e) {
+            // The write already committed; subscribers miss this change until their next reload
+            logger.error("Error publishing change event for entry {}", event.entryId(), e);
+        }
+    }
+
+    /**
+     * Opens a feed for one client. With a last event id, everything after it that is still
+     * in the stream is replayed first; if the stream has been trimmed past that id the
+     * client gets a {@code reset} event and should reload the full list.
+     */
+    public SseEmitter subscribe(String lastEventId) {
+        RecordId resumeFrom = lastEventId != null ? parseEventId(lastEventId) : null;
+        SseEmitter emitter = new SseEmitter(emitterTimeout.toMillis());
+        Subscriber subscriber = new Subscriber(emitter, subscriberBuffer, resumeFrom);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(e -> subscribers.remove(subscriber));
+
+        // Register before reading the backlog so nothing falls between the two
+        subscribers.add(subscriber);
+        if (resumeFrom != null) {
+            try {
+                subscriber.replay(backlogAfter(resumeFrom));
+            } catch (RuntimeException e) {
+                subscribers.remove(subscriber);
+                throw e;
+            }
+        }
+        try {
+            // Commits the response headers now instead of with the first change
+            emitter.send(SseEmitter.event().comment("connected").reconnectTime(RECONNECT_DELAY_MILLIS));
+        } catch (IOException e) {
+            subscribers.remove(subscriber);
+            throw new UncheckedIOException(e);
+        }
+        subscriber.markReady();
+        return emitter;
+    }
+
+    private Deque<MapRecord<String, String, String>> backlogAfter(RecordId lastSeen) {
+        Deque<MapRecord<String, String, String>> backlog = new ArrayDeque<>();
+        List<MapRecord<String, Object, Object>> oldest =
+                redisTemplate.opsForStream().range(STREAM_KEY, Range.unbounded(), Limit.limit().count(1));
+        if (oldest != null && !oldest.isEmpty() && compare(oldest.get(0).getId(), lastSeen) > 0) {
+            backlog.add(StreamRecords.newRecord().in(STREAM_KEY).withId(lastSeen)
+                    .ofMap(Map.of("type", RESET_EVENT, "payload", "{\"type\":\"" + RESET_EVENT + "\"}")));
+        }
+        List<MapRecord<String, Object, Object>> records =
+                redisTemplate.opsForStream().range(STREAM_KEY, Range.rightUnbounded(Range.Bound.inclusive(lastSeen.getValue())));
+        if (records != null) {
+            for (MapRecord<String, Object, Object> record : records) {
+                if (compare(record.getId(), lastSeen) > 0) {
+                    backlog.add(StreamRecords.newRecord().in(STREAM_KEY).withId(record.getId())
+                            .ofMap(Map.of("type", String.valueOf(record.getValue().get("type")),
+                                    "payload", String.valueOf(record.getValue().get("payload")))));
+                }
+            }
+        }
+        return backlog;
+    }
+
+    void dispatch(MapRecord<String, String, String> record) {
+        for (Subscriber subscriber : subscribers) {
+            subscriber.offer(record);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.change-feed.heartbeat-interval:15000}")
+    public void heartbeat() {
+        for (Subscriber subscriber : subscribers) {
+            subscriber.heartbeat();
+        }
+    }
+
+    private static RecordId parseEventId(String value) {
+        RecordId id = RecordId.of(value);
+        if (id.shouldBeAutoGenerated()) {
+            throw new IllegalArgumentException("Not a stream id: " + value);
+        }
+        // RecordId only checks the shape; make sure both parts are numbers
+        id.getTimestamp();
+        id.getSequence();
+        return id;
+    }
+
+    static int compare(RecordId a, RecordId b) {
+        int byTime = Long.compare(a.getTimestamp(), b.getTimestamp());
+        return byTime != 0 ? byTime : Long.compare(a.getSequence(), b.getSequence());
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    /** One client. Only the drain task writes to the emitter, so sends never interleave. */
+    private final class Subscriber {
+        private final SseEmitter emitter;
+        private final BlockingQueue<MapRecord<String, String, String>> live;
+        private final Deque<MapRecord<String, String, String>> backlog = new ArrayDeque<>();
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private volatile boolean overflowed;
+        private volatile boolean heartbeatDue;
+        private volatile boolean closed;
+        private volatile boolean ready;
+        private RecordId lastSent;
+
+        Subscriber(SseEmitter emitter, int capacity, RecordId resumeFrom) {
+            this.emitter = emitter;
+            this.live = new ArrayBlockingQueue<>(capacity);
+            this.lastSent = resumeFrom;
+        }
+
+        void replay(Deque<MapRecord<String, String, String>> records) {
+            backlog.addAll(records);
+        }
+
+        /** Live events queue up but are not sent until the backlog is in place. */
+        void markReady() {
+            ready = true;
+            schedule();
+        }
+
+        void offer(MapRecord<String, String, String> record) {
+            if (!live.offer(record)) {
+                overflowed = true;
+            }
+            schedule();
+        }
+
+        void heartbeat() {
+            heartbeatDue = true;
+            schedule();
+        }
+
+        void schedule() {
+            if (ready && !closed && scheduled.compareAndSet(false, true)) {
+                try {
+                    sender.execute(this::drain);
+                } catch (RuntimeException e) {
+                    scheduled.set(false);
+                }
+            }
+        }
+
+        private void drain() {
+            try {
+                if (overflowed) {
+                    logger.info("Change feed subscriber fell more than {} events behind, disconnecting", subscriberBuffer);
+                    close();
+                    return;
+                }
+                MapRecord<String, String, String> record;
+                while (!closed && (record = backlog.poll()) != null) {
+                    send(record);
+                }
+                while (!closed && (record = live.poll()) != null) {
+                    // Live events that were also part of the replayed backlog
+                    if (lastSent == null || compare(record.getId(), lastSent) > 0) {
+                        send(record);
+                    }
+                }
+                if (heartbeatDue && !closed) {
+                    heartbeatDue = false;
+                    emitter.send(SseEmitter.event().comment("heartbeat"));
+                }
+            } catch (Exception e) {
+                // Client went away; the emitter callbacks unregister us
+                close();
+            } finally {
+                scheduled.set(false);
+                if (!closed && (overflowed || !live.isEmpty())) {
+                    schedule();
+                }
+            }
+        }
+
+        private void send(MapRecord<String, String, String> record) throws Exception {
+            Map<String, String> value = record.getValue();
+            emitter.send(SseEmitter.event()
+                    .id(record.getId().getValue())
+                    .name(value.get("type"))
+                    .data(value.get("payload")));
+            if (!RESET_EVENT.equals(value.get("type"))) {
+                lastSent = record.getId();
+            }
+        }
+
+        void close() {
+            if (!closed) {
+                closed = true;
+                subscribers.remove(this);
+                try {
+                    emitter.complete();
+                } catch (Exception e) {
+                    // already completed
+                }
+            }
+        }
+    }
+}
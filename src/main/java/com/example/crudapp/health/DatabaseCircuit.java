@@ -0,0 +1,127 @@
+package com.example.crudapp.health;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Decides, per request and without touching MySQL, whether a read should go to the
+ * database or be served from a stale copy, and whether a write should be tried at all.
+ *
+ * - UNAVAILABLE: {@code failure-threshold} database calls in a row failed or took longer
+ *   than {@code latency-budget} (for {@code open-duration} after the last of them), or the
+ *   background probe reports the database DOWN. Reads are served stale or shed, writes
+ *   are rejected.
+ * - SATURATED: callers are already waiting for a pool connection. Reads are served stale
+ *   when a copy exists instead of queueing; writes queue as before.
+ * - AVAILABLE otherwise.
+ *
+ * When the open duration is over, calls go through again; the next failure trips the
+ * circuit at once and the next success closes it.
+ */
+@Component
+public class DatabaseCircuit {
+
+    private static final Logger logger = LoggerFactory.getLogger(DatabaseCircuit.class);
+
+    public enum State { AVAILABLE, SATURATED, UNAVAILABLE }
+
+    @Autowired
+    @Qualifier("primaryDataSource")
+    private HikariDataSource primaryDataSource;
+
+    @Autowired
+    private DependencyHealthMonitor healthMonitor;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.stale.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.stale.failure-threshold:3}")
+    private int failureThreshold;
+
+    @Value("${app.stale.latency-budget:2s}")
+    private Duration latencyBudget;
+
+    @Value("${app.stale.open-duration:5s}")
+    private Duration openDuration;
+
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private volatile long openUntil;
+    private volatile boolean open;
+
+    @PostConstruct
+    void registerGauge() {
+        Gauge.builder("app.db.circuit.open", this, circuit -> circuit.state() == State.UNAVAILABLE ? 1 : 0)
+                .description("1 while database reads are served stale and writes are rejected")
+                .register(meterRegistry);
+    }
+
+    public State state() {
+        if (!enabled) {
+            return State.AVAILABLE;
+        }
+        if (isTripped() || healthMonitor.database().status() == DependencyHealth.Status.DOWN) {
+            return State.UNAVAILABLE;
+        }
+        HikariPoolMXBean pool = primaryDataSource.getHikariPoolMXBean();
+        if (pool != null && pool.getThreadsAwaitingConnection() > 0) {
+            return State.SATURATED;
+        }
+        return State.AVAILABLE;
+    }
+
+    /** @throws DatabaseUnavailableException when the circuit is open */
+    public void checkAvailable() {
+        if (state() == State.UNAVAILABLE) {
+            throw new DatabaseUnavailableException("Database is unavailable, retry later", null);
+        }
+    }
+
+    /** A database call that returned; one slower than the budget counts as a failure. */
+    public void onSuccess(long nanos) {
+        if (nanos > latencyBudget.toNanos()) {
+            onFailure("took " + nanos / 1_000_000 + " ms, over the budget of " + latencyBudget.toMillis() + " ms");
+            return;
+        }
+        consecutiveFailures.set(0);
+        if (open) {
+            open = false;
+            logger.info("Database calls succeed again, leaving serve-stale mode");
+        }
+    }
+
+    public void onFailure(Exception e) {
+        onFailure(e.getMessage());
+    }
+
+    private void onFailure(String reason) {
+        if (consecutiveFailures.incrementAndGet() < failureThreshold) {
+            logger.warn("Database call failed: {}", reason);
+            return;
+        }
+        openUntil = System.nanoTime() + openDuration.toNanos();
+        if (!open) {
+            open = true;
+            logger.warn("{} database calls in a row failed or were slow ({}); serving reads stale for {} s",
+                    consecutiveFailures.get(), reason, openDuration.toSeconds());
+        }
+    }
+
+    private boolean isTripped() {
+        return open && openUntil - System.nanoTime() > 0;
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.crudapp.health;
+
+import com.example.crudapp.limit.RetryLaterException;
+
+/**
+ * Thrown instead of waiting on a database that {@link DatabaseCircuit} considers
+ * unavailable, and for reads that failed with no stale copy to serve. Controllers
+ * answer it with 503 and Retry-After, like overload.
+ */
+public class DatabaseUnavailableException extends RetryLaterException {
+
+    public DatabaseUnavailableException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.crudapp.health;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Result of one background probe of a dependency.
+ *
+ * @param latencyMicros round trip of the probe itself, -1 when it did not complete
+ * @param checkedAt     when the probe finished, null before the first one
+ * @param detail        why the status is not UP, null otherwise
+ */
+public record DependencyHealth(Status status, long latencyMicros, Instant checkedAt, String detail) {
+
+    /**
+     * UP within the latency budget. DEGRADED means usable but slow or saturated.
+     * DOWN means failing. UNKNOWN means no probe has finished yet, or the last one
+     * is too old to trust.
+     */
+    public enum Status { UP, DEGRADED, DOWN, UNKNOWN }
+
+    static final DependencyHealth NOT_CHECKED = new DependencyHealth(Status.UNKNOWN, -1, null, "Not checked yet");
+
+    static DependencyHealth up(long latencyMicros) {
+        return new DependencyHealth(Status.UP, latencyMicros, Instant.now(), null);
+    }
+
+    static DependencyHealth degraded(long latencyMicros, String detail) {
+        return new DependencyHealth(Status.DEGRADED, latencyMicros, Instant.now(), detail);
+    }
+
+    static DependencyHealth down(long latencyMicros, String detail) {
+        return new DependencyHealth(Status.DOWN, latencyMicros, Instant.now(), detail);
+    }
+
+    /** This result, or UNKNOWN when it was taken longer than {@code maxAge} ago. */
+    DependencyHealth unlessOlderThan(Duration maxAge, Instant now) {
+        if (checkedAt == null || Duration.between(checkedAt, now).compareTo(maxAge) <= 0) {
+            return this;
+        }
+        return new DependencyHealth(Status.UNKNOWN, latencyMicros, checkedAt,
+                "Last probe finished " + Duration.between(checkedAt, now).toSeconds() + "s ago");
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.crudapp.health;
+
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Actuator "db" and "redis" contributors backed by {@link DependencyHealthMonitor}.
+ * They replace Spring Boot's own indicators (management.health.db/redis.enabled=false),
+ * which run a live query on every request to /actuator/health.
+ */
+@Configuration
+public class DependencyHealthIndicators {
+
+    @Bean
+    public HealthIndicator dbHealthIndicator(DependencyHealthMonitor monitor) {
+        // No answer yet is not ready, unlike Redis which reads can do without
+        return () -> toHealth(monitor.database(), true);
+    }
+
+    @Bean
+    public HealthIndicator redisHealthIndicator(DependencyHealthMonitor monitor) {
+        return () -> toHealth(monitor.redis(), false);
+    }
+
+    private static Health toHealth(DependencyHealth health, boolean unknownIsOutOfService) {
+        Health.Builder builder = switch (health.status()) {
+            case UP -> Health.up();
+            case DEGRADED -> Health.up().withDetail("degraded", true);
+            case DOWN -> Health.down();
+            case UNKNOWN -> unknownIsOutOfService ? Health.outOfService() : Health.unknown();
+        };
+        builder.withDetail("latencyMicros", health.latencyMicros());
+        if (health.checkedAt() != null) {
+            builder.withDetail("checkedAt", health.checkedAt().toString());
+        }
+        if (health.detail() != null) {
+            builder.withDetail("detail", health.detail());
+        }
+        return builder.build();
+    }
+}
@@ -0,0 +1,195 @@
+package com.example.crudapp.health;
+
+import com.example.crudapp.service.CacheWarmer;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+
+import java.sql.Connection;
+import java.sql.Statement;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Checks MySQL and Redis on its own background thread and keeps the latest result in
+ * memory. Liveness and readiness probes, the actuator health endpoint and /health read
+ * these results and never touch a dependency themselves. However often the
+ * orchestrator and the load balancers poll, the dependencies see one cheap check per
+ * interval.
+ *
+ * A result older than {@code stale-after} is reported as UNKNOWN. A probe that hangs,
+ * for example on a connection timeout, therefore cannot keep an old UP alive.
+ *
+ * The database is checked on a connection of its own, outside the pool. Borrowing
+ * would queue behind real requests when the pool is saturated, and skipping the check
+ * then would keep reporting a database that may no longer answer.
+ */
+@Component
+public class DependencyHealthMonitor {
+
+    private static final Logger logger = LoggerFactory.getLogger(DependencyHealthMonitor.class);
+
+    @Autowired
+    @Qualifier("primaryDataSource")
+    private HikariDataSource primaryDataSource;
+
+    @Autowired
+    private RedisTemplate<String, String> redisTemplate;
+
+    @Autowired
+    private CacheWarmer cacheWarmer;
+
+    @Value("${app.health.probe-interval:5s}")
+    private Duration probeInterval;
+
+    @Value("${app.health.stale-after:15s}")
+    private Duration staleAfter;
+
+    @Value("${app.health.db.latency-budget:100ms}")
+    private Duration dbLatencyBudget;
+
+    @Value("${app.health.db.query-timeout:2s}")
+    private Duration dbQueryTimeout;
+
+    @Value("${app.health.redis.latency-budget:50ms}")
+    private Duration redisLatencyBudget;
+
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "health-probe");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private volatile DependencyHealth database = DependencyHealth.NOT_CHECKED;
+    private volatile DependencyHealth redis = DependencyHealth.NOT_CHECKED;
+
+    /** Unpooled, same settings as the primary pool. */
+    private DataSource probeDataSource;
+
+    @PostConstruct
+    public void start() {
+        DriverManagerDataSource unpooled = new DriverManagerDataSource(primaryDataSource.getJdbcUrl(),
+                primaryDataSource.getUsername(), primaryDataSource.getPassword());
+        if (primaryDataSource.getDriverClassName() != null) {
+            unpooled.setDriverClassName(primaryDataSource.getDriverClassName());
+        }
+        probeDataSource = unpooled;
+        executor.scheduleWithFixedDelay(this::probe, 0, probeInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        executor.shutdownNow();
+    }
+
+    public DependencyHealth database() {
+        return database.unlessOlderThan(staleAfter, Instant.now());
+    }
+
+    public DependencyHealth redis() {
+        return redis.unlessOlderThan(staleAfter, Instant.now());
+    }
+
+    /**
+     * Ready to take traffic: the startup cache warm-up is done, and the database
+     * answered recently, even if slowly. Redis is not required. Every read falls back
+     * to the database when Redis is unavailable.
+     */
+    public boolean isReady() {
+        DependencyHealth.Status db = database().status();
+        return cacheWarmer.isStartupComplete()
+                && (db == DependencyHealth.Status.UP || db == DependencyHealth.Status.DEGRADED);
+    }
+
+    /** DOWN when not ready, DEGRADED when ready but something is slow, saturated or failing. */
+    public DependencyHealth.Status overallStatus() {
+        if (!isReady()) {
+            return DependencyHealth.Status.DOWN;
+        }
+        if (database().status() != DependencyHealth.Status.UP || redis().status() != DependencyHealth.Status.UP) {
+            return DependencyHealth.Status.DEGRADED;
+        }
+        return DependencyHealth.Status.UP;
+    }
+
+    void probe() {
+        DependencyHealth db = probeDatabase();
+        logTransition("Database", database, db);
+        database = db;
+
+        DependencyHealth cache = probeRedis();
+        logTransition("Redis", redis, cache);
+        redis = cache;
+    }
+
+    DependencyHealth probeDatabase() {
+        long started = System.nanoTime();
+        try (Connection connection = probeDataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.setQueryTimeout((int) Math.max(1, dbQueryTimeout.toSeconds()));
+            statement.execute("SELECT 1");
+        } catch (Exception e) {
+            return DependencyHealth.down(micros(started), e.getMessage());
+        }
+        long latencyMicros = micros(started);
+
+        HikariPoolMXBean pool = primaryDataSource.getHikariPoolMXBean();
+        if (pool != null && (pool.getThreadsAwaitingConnection() > 0
+                || pool.getActiveConnections() >= primaryDataSource.getMaximumPoolSize())) {
+            return DependencyHealth.degraded(latencyMicros, "Connection pool saturated: "
+                    + pool.getActiveConnections() + "/" + primaryDataSource.getMaximumPoolSize() + " active, "
+                    + pool.getThreadsAwaitingConnection() + " waiting");
+        }
+        return withinBudget(latencyMicros, dbLatencyBudget);
+    }
+
+    DependencyHealth probeRedis() {
+        long started = System.nanoTime();
+        try {
+            redisTemplate.execute((RedisCallback<String>) RedisConnection::ping);
+            return withinBudget(micros(started), redisLatencyBudget);
+        } catch (Exception e) {
+            return DependencyHealth.down(micros(started), e.getMessage());
+        }
+    }
+
+    private static DependencyHealth withinBudget(long latencyMicros, Duration budget) {
+        long budgetMicros = TimeUnit.NANOSECONDS.toMicros(budget.toNanos());
+        if (latencyMicros > budgetMicros) {
+            return DependencyHealth.degraded(latencyMicros,
+                    "Slow: " + latencyMicros / 1000 + " ms against a budget of " + budget.toMillis() + " ms");
+        }
+        return DependencyHealth.up(latencyMicros);
+    }
+
+    private static long micros(long startedNanos) {
+        return TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - startedNanos);
+    }
+
+    private static void logTransition(String name, DependencyHealth previous, DependencyHealth current) {
+        if (previous.status() == current.status()) {
+            return;
+        }
+        if (current.status() == DependencyHealth.Status.UP) {
+            logger.info("{} health is UP ({} µs)", name, current.latencyMicros());
+        } else {
+            logger.warn("{} health is {}: {}", name, current.status(), current.detail());
+        }
+    }
+}
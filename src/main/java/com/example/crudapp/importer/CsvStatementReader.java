@@ -0,0 +1,140 @@
+package com.example.crudapp.importer;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * RFC 4180 CSV with a header row naming {@code date}, {@code amount} and
+ * {@code description} columns, in any order and among any others. Quoted fields may
+ * contain commas, doubled quotes and line breaks. Dates are yyyy-MM-dd, as in the API.
+ */
+class CsvStatementReader implements StatementReader {
+
+    // A longer record is almost certainly an unterminated quote swallowing the file
+    static final int MAX_RECORD_LENGTH = 8192;
+
+    private final BufferedReader in;
+    private final int dateColumn;
+    private final int amountColumn;
+    private final int descriptionColumn;
+
+    private long line = 1;
+    private boolean afterCarriageReturn;
+
+    CsvStatementReader(BufferedReader in) throws IOException {
+        this.in = in;
+        List<String> header = readRecord();
+        if (header == null) {
+            throw new StatementFormatException("The file is empty");
+        }
+        // Spreadsheet exports often start with a byte order mark
+        if (header.get(0).startsWith("\uFEFF")) {
+            header.set(0, header.get(0).substring(1));
+        }
+        dateColumn = column(header, "date");
+        amountColumn = column(header, "amount");
+        descriptionColumn = column(header, "description");
+    }
+
+    private static int column(List<String> header, String name) {
+        for (int i = 0; i < header.size(); i++) {
+            if (header.get(i).trim().toLowerCase(Locale.ROOT).equals(name)) {
+                return i;
+            }
+        }
+        throw new StatementFormatException("CSV header must name date, amount and description columns");
+    }
+
+    @Override
+    public StatementRecord next() throws IOException {
+        while (true) {
+            long start = line;
+            List<String> fields = readRecord();
+            if (fields == null) {
+                return null;
+            }
+            if (fields.size() == 1 && fields.get(0).isBlank()) {
+                continue;
+            }
+            String description = field(fields, descriptionColumn);
+            return new StatementRecord(start, field(fields, dateColumn), field(fields, amountColumn),
+                    description != null ? description.trim() : null);
+        }
+    }
+
+    private static String field(List<String> fields, int column) {
+        return column < fields.size() ? fields.get(column) : null;
+    }
+
+    /** The fields of the next record, or null at the end of the file. */
+    private List<String> readRecord() throws IOException {
+        long start = line;
+        int c = read();
+        if (c == -1) {
+            return null;
+        }
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        int length = 0;
+        while (true) {
+            if (quoted) {
+                if (c == -1) {
+                    throw new StatementFormatException("Quoted field starting on line " + start + " is not closed");
+                }
+                if (c == '"') {
+                    c = read();
+                    if (c != '"') {
+                        // Closing quote; whatever follows is handled as unquoted
+                        quoted = false;
+                        continue;
+                    }
+                }
+                field.append((char) c);
+            } else if (c == '"' && field.length() == 0) {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\n' || c == '\r' || c == -1) {
+                if (c == '\r') {
+                    skipLineFeed();
+                }
+                fields.add(field.toString());
+                return fields;
+            } else {
+                field.append((char) c);
+            }
+            if (++length > MAX_RECORD_LENGTH) {
+                throw new StatementFormatException("Line " + start + " is longer than " + MAX_RECORD_LENGTH + " characters");
+            }
+            c = read();
+        }
+    }
+
+    private int read() throws IOException {
+        int c = in.read();
+        // \r\n, \n and a lone \r each end one line
+        if (c == '\r' || (c == '\n' && !afterCarriageReturn)) {
+            line++;
+        }
+        afterCarriageReturn = c == '\r';
+        return c;
+    }
+
+    private void skipLineFeed() throws IOException {
+        in.mark(1);
+        if (in.read() != '\n') {
+            in.reset();
+        }
+        afterCarriageReturn = false;
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+}
@@ -0,0 +1,275 @@
+package com.example.crudapp.importer;
+
+import com.example.crudapp.limit.ServiceOverloadedException;
+import com.example.crudapp.model.Entry;
+import com.example.crudapp.model.EntryValidation;
+import com.example.crudapp.model.Money;
+import com.example.crudapp.service.CachesClearedEvent;
+import com.example.crudapp.service.EntryChangedEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Bulk import of bank statements. Rows are read one at a time, checked with the rules of
+ * POST /api/entries and inserted with JDBC batches of {@code batch-size}; every
+ * {@code chunk-size} inserted rows are committed in their own transaction. Memory stays
+ * at one batch whatever the size of the file.
+ *
+ * The outcome is streamed back as NDJSON while the import runs: an {@code error} line
+ * for every rejected row, a {@code progress} line per committed chunk and a final
+ * {@code done} or {@code failed} line. Chunks committed before a failure stay imported.
+ * Caches are invalidated once, when the import ends.
+ */
+@Service
+public class EntryImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(EntryImportService.class);
+    static final String INSERT_SQL =
+            "INSERT INTO entries (amount_cents, description, date, updated_at, version) VALUES (?, ?, ?, ?, 0)";
+    static final int MAX_DESCRIPTION_LENGTH = 255;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${app.import.batch-size:500}")
+    private int batchSize;
+
+    @Value("${app.import.chunk-size:5000}")
+    private int chunkSize;
+
+    @Value("${app.import.max-concurrent:2}")
+    private int maxConcurrent;
+
+    // Each running import holds a primary connection while a chunk is open
+    private Semaphore permits;
+
+    @PostConstruct
+    public void init() {
+        permits = new Semaphore(maxConcurrent);
+    }
+
+    /**
+     * Takes one of the {@code max-concurrent} import slots and returns the response body
+     * that runs the import and then releases the slot and closes {@code reader}.
+     *
+     * @throws ServiceOverloadedException when every slot is taken
+     */
+    public StreamingResponseBody start(StatementReader reader) {
+        if (!permits.tryAcquire()) {
+            throw new ServiceOverloadedException("Too many imports in progress, retry later");
+        }
+        return out -> {
+            try (reader) {
+                importEntries(reader, out);
+            } finally {
+                permits.release();
+            }
+        };
+    }
+
+    void importEntries(StatementReader reader, OutputStream out) throws IOException {
+        ImportReport report = new ImportReport(out);
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        long started = System.nanoTime();
+        try {
+            boolean more = true;
+            while (more) {
+                more = Boolean.TRUE.equals(transaction.execute(status -> importChunk(reader, report)));
+                report.committed();
+                if (more) {
+                    report.progress();
+                }
+            }
+            report.done();
+            logger.info("Imported {} entries, rejected {} rows in {} ms", report.imported, report.rejected,
+                    (System.nanoTime() - started) / 1_000_000);
+        } catch (StatementFormatException e) {
+            logger.warn("Import stopped after {} entries: {}", report.imported, e.getMessage());
+            report.failed(e.getMessage());
+        } catch (UncheckedIOException e) {
+            // Reading the upload or writing the response failed; most likely the client went away
+            logger.warn("Import aborted after {} entries: {}", report.imported, e.getMessage());
+            throw e.getCause();
+        } catch (Exception e) {
+            logger.error("Import failed after {} entries", report.imported, e);
+            report.failed("Failed to insert entries; rows from line " + report.chunkStartLine + " on were not imported");
+        } finally {
+            if (report.imported > 0) {
+                // Outside a transaction, so listeners run straight away: one generation bump for the whole file
+                eventPublisher.publishEvent(EntryChangedEvent.imported());
+                eventPublisher.publishEvent(new CachesClearedEvent());
+            }
+        }
+    }
+
+    /** Inserts up to {@code chunk-size} rows; false once the file is exhausted. */
+    private boolean importChunk(StatementReader reader, ImportReport report) {
+        List<Object[]> batch = new ArrayList<>(batchSize);
+        report.chunkStartLine = -1;
+        try {
+            StatementRecord record;
+            while (report.pending < chunkSize && (record = reader.next()) != null) {
+                report.read++;
+                if (report.chunkStartLine < 0) {
+                    report.chunkStartLine = record.line();
+                }
+                Object[] row = toRow(record, report);
+                if (row == null) {
+                    continue;
+                }
+                batch.add(row);
+                report.pending++;
+                if (batch.size() == batchSize) {
+                    insert(batch);
+                    batch.clear();
+                }
+            }
+            if (!batch.isEmpty()) {
+                insert(batch);
+            }
+            return report.pending == chunkSize;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void insert(List<Object[]> batch) {
+        // Stamped at insert like Entry.touch(), so delta sync picks the rows up
+        long now = System.currentTimeMillis();
+        for (Object[] row : batch) {
+            row[3] = now;
+        }
+        jdbcTemplate.batchUpdate(INSERT_SQL, batch);
+    }
+
+    /** The INSERT parameters for a valid row; reports the row and returns null otherwise. */
+    private Object[] toRow(StatementRecord record, ImportReport report) throws IOException {
+        Entry entry = new Entry();
+        entry.setDescription(record.description());
+        if (record.amount() != null && !record.amount().isBlank()) {
+            try {
+                entry.setAmountCents(Money.toCents(new BigDecimal(record.amount().trim())));
+            } catch (NumberFormatException e) {
+                report.rejected(record.line(), "Amount must be a number");
+                return null;
+            } catch (IllegalArgumentException e) {
+                report.rejected(record.line(), e.getMessage());
+                return null;
+            }
+        }
+        if (record.date() != null && !record.date().isBlank()) {
+            try {
+                entry.setDate(LocalDate.parse(record.date().trim()));
+            } catch (DateTimeParseException e) {
+                report.rejected(record.line(), "Date must be formatted as yyyy-MM-dd");
+                return null;
+            }
+        }
+        String invalid = EntryValidation.newEntryError(entry);
+        if (invalid == null && entry.getDescription().length() > MAX_DESCRIPTION_LENGTH) {
+            // A too-long value would fail the whole batch at the database instead
+            invalid = "Description must be at most " + MAX_DESCRIPTION_LENGTH + " characters";
+        }
+        if (invalid != null) {
+            report.rejected(record.line(), invalid);
+            return null;
+        }
+        return new Object[] {entry.getAmountCents(), entry.getDescription(), Date.valueOf(entry.getDate()), null};
+    }
+
+    /** Counters for one import and the NDJSON lines written about them. */
+    private final class ImportReport {
+
+        private final OutputStream out;
+        private long read;
+        private long imported;
+        private long pending;
+        private long rejected;
+        private long chunkStartLine = -1;
+
+        ImportReport(OutputStream out) {
+            this.out = out;
+        }
+
+        void rejected(long line, String error) throws IOException {
+            rejected++;
+            Map<String, Object> event = new LinkedHashMap<>();
+            event.put("type", "error");
+            event.put("line", line);
+            event.put("error", error);
+            write(event);
+        }
+
+        void committed() {
+            imported += pending;
+            pending = 0;
+        }
+
+        void progress() {
+            try {
+                write(totals("progress"));
+                out.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        void done() throws IOException {
+            write(totals("done"));
+            out.flush();
+        }
+
+        void failed(String error) throws IOException {
+            Map<String, Object> event = totals("failed");
+            event.put("error", error);
+            write(event);
+            out.flush();
+        }
+
+        private Map<String, Object> totals(String type) {
+            Map<String, Object> event = new LinkedHashMap<>();
+            event.put("type", type);
+            event.put("read", read);
+            event.put("imported", imported);
+            event.put("rejected", rejected);
+            return event;
+        }
+
+        private void write(Map<String, Object> event) throws IOException {
+            out.write(objectMapper.writeValueAsBytes(event));
+            out.write('\n');
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package com.example.crudapp.importer;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.Locale;
+
+/**
+ * OFX bank statements, both the SGML 1.x files most banks still export (elements without
+ * end tags) and XML 2.x. Reads each {@code <STMTTRN>}: DTPOSTED becomes the date, TRNAMT
+ * the amount and NAME the description, falling back to MEMO. Everything else is skipped
+ * as it streams past.
+ */
+class OfxStatementReader implements StatementReader {
+
+    // Bounds memory if the file is not OFX after all
+    static final int MAX_TOKEN_LENGTH = 1024;
+
+    private final BufferedReader in;
+    private final StringBuilder token = new StringBuilder();
+
+    private long line = 1;
+    private long tagLine;
+
+    OfxStatementReader(BufferedReader in) throws IOException {
+        this.in = in;
+        // Skip the OFX 1.x header block or the XML prolog
+        String tag;
+        while ((tag = nextTag()) != null && !tag.equals("OFX")) {
+            // keep scanning
+        }
+        if (tag == null) {
+            throw new StatementFormatException("Not an OFX file: no <OFX> element");
+        }
+    }
+
+    @Override
+    public StatementRecord next() throws IOException {
+        String tag;
+        while ((tag = nextTag()) != null && !tag.equals("STMTTRN")) {
+            // skip to the next transaction
+        }
+        if (tag == null) {
+            return null;
+        }
+        long start = tagLine;
+        String date = null;
+        String amount = null;
+        String name = null;
+        String memo = null;
+        while ((tag = nextTag()) != null && !tag.equals("/STMTTRN")) {
+            switch (tag) {
+                case "DTPOSTED" -> date = isoDate(text());
+                case "TRNAMT" -> amount = text();
+                case "NAME" -> name = text();
+                case "MEMO" -> memo = text();
+                default -> {
+                    // other elements and end tags
+                }
+            }
+        }
+        if (tag == null) {
+            throw new StatementFormatException("Transaction starting on line " + start + " is not closed");
+        }
+        return new StatementRecord(start, date, amount, name != null && !name.isEmpty() ? name : memo);
+    }
+
+    /** OFX dates are yyyyMMdd, optionally followed by a time and zone. */
+    private static String isoDate(String value) {
+        if (value.length() >= 8 && value.substring(0, 8).chars().allMatch(Character::isDigit)) {
+            return value.substring(0, 4) + "-" + value.substring(4, 6) + "-" + value.substring(6, 8);
+        }
+        return value;
+    }
+
+    /** Name of the next tag, upper-cased, with "/" kept for end tags; null at the end of the file. */
+    private String nextTag() throws IOException {
+        int c;
+        while ((c = read()) != '<') {
+            if (c == -1) {
+                return null;
+            }
+        }
+        tagLine = line;
+        token.setLength(0);
+        while ((c = read()) != '>') {
+            if (c == -1) {
+                throw new StatementFormatException("Tag on line " + tagLine + " is not closed");
+            }
+            append(c);
+        }
+        String tag = token.toString().trim();
+        int space = tag.indexOf(' ');
+        return (space >= 0 ? tag.substring(0, space) : tag).toUpperCase(Locale.ROOT);
+    }
+
+    /** Text up to the next tag, trimmed and with entities decoded. */
+    private String text() throws IOException {
+        token.setLength(0);
+        in.mark(1);
+        int c;
+        while ((c = in.read()) != '<' && c != -1) {
+            if (c == '\n') {
+                line++;
+            }
+            append(c);
+            in.mark(1);
+        }
+        in.reset();
+        String text = token.toString().trim();
+        if (text.indexOf('&') < 0) {
+            return text;
+        }
+        return text.replace("&lt;", "<").replace("&gt;", ">").replace("&quot;", "\"")
+                .replace("&apos;", "'").replace("&nbsp;", " ").replace("&amp;", "&");
+    }
+
+    private void append(int c) {
+        if (token.length() == MAX_TOKEN_LENGTH) {
+            throw new StatementFormatException("Line " + line + " has a value longer than " + MAX_TOKEN_LENGTH + " characters");
+        }
+        token.append((char) c);
+    }
+
+    private int read() throws IOException {
+        int c = in.read();
+        if (c == '\n') {
+            line++;
+        }
+        return c;
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+}
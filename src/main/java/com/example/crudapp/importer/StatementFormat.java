@@ -0,0 +1,52 @@
+package com.example.crudapp.importer;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+
+public enum StatementFormat {
+
+    CSV, OFX;
+
+    /**
+     * The explicit {@code format} when given, otherwise the file extension: .csv, or
+     * .ofx/.qfx for OFX.
+     *
+     * @throws IllegalArgumentException when neither names a supported format
+     */
+    public static StatementFormat detect(String format, String filename) {
+        String name = format;
+        if (name == null && filename != null && filename.lastIndexOf('.') >= 0) {
+            name = filename.substring(filename.lastIndexOf('.') + 1);
+        }
+        if (name != null) {
+            switch (name.trim().toLowerCase(Locale.ROOT)) {
+                case "csv":
+                    return CSV;
+                case "ofx":
+                case "qfx":
+                    return OFX;
+                default:
+                    break;
+            }
+        }
+        throw new IllegalArgumentException("Unsupported statement format, expected csv or ofx");
+    }
+
+    /**
+     * Opens a UTF-8 reader over {@code in}, reading as far as the CSV header or the OFX
+     * element. Closes {@code in} if that fails.
+     */
+    public StatementReader open(InputStream in) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        try {
+            return this == CSV ? new CsvStatementReader(reader) : new OfxStatementReader(reader);
+        } catch (IOException | RuntimeException e) {
+            reader.close();
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.crudapp.importer;
+
+/**
+ * The uploaded file is not a readable statement of its format: a missing CSV header, an
+ * unterminated quote, a record over the length limit or no OFX element. Unlike an
+ * invalid row, it ends the import.
+ */
+public class StatementFormatException extends RuntimeException {
+
+    public StatementFormatException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.crudapp.importer;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Reads a statement one transaction at a time, so only the current record is held in
+ * memory however long the file is.
+ */
+public interface StatementReader extends Closeable {
+
+    /**
+     * @return the next transaction, or null at the end of the file
+     * @throws StatementFormatException when the file cannot be read any further
+     */
+    StatementRecord next() throws IOException;
+}
@@ -0,0 +1,9 @@
+package com.example.crudapp.importer;
+
+/**
+ * One transaction read from a bank statement, before validation. Values are the raw
+ * text from the file; OFX dates are already converted to yyyy-MM-dd.
+ *
+ * @param line line of the file the transaction starts on, for error reporting
+ */
+public record StatementRecord(long line, String date, String amount, String description) {}
@@ -0,0 +1,472 @@
+package com.example.crudapp.journal;
+
+import com.example.crudapp.model.Entry;
+import com.example.crudapp.service.EntryChangedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.zip.CRC32C;
+
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+/**
+ * Append-only journal of entry changes in a local directory. Records go to segment files
+ * of {@code segmentSize} bytes, named after the offset of their first record; the segment
+ * being written is memory-mapped, so an append is a copy into the page cache. Offsets
+ * count records from 0 and are never reused.
+ *
+ * Every record is framed as payload length, CRC32C of the payload, payload. Reading stops
+ * at a frame that is empty, fails its CRC or does not carry the next offset; on opening,
+ * a record torn by a crash ends the journal there and is overwritten by the next append.
+ * Appends are not forced to disk. The journal only speeds up rebuilds: whoever reads it
+ * checks the result against the database before trusting it.
+ *
+ * A snapshot holds every entry as of an offset, in the same framing. Writing one deletes
+ * the older snapshot and every segment that only holds records before it, so replay from
+ * an offset that old fails with JournalTruncatedException.
+ */
+public class ChangeJournal implements Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(ChangeJournal.class);
+    private static final String SEGMENT_SUFFIX = ".seg";
+    private static final String SNAPSHOT_PREFIX = "snapshot-";
+    private static final String SNAPSHOT_SUFFIX = ".snap";
+    private static final String TEMP_SUFFIX = ".tmp";
+    private static final int FRAME_HEADER = 2 * Integer.BYTES;
+    private static final int SNAPSHOT_MAGIC = 0x4A534E50;
+
+    private final Path directory;
+    private final int segmentSize;
+
+    // Shared while segment and snapshot files are read, exclusive while they are deleted
+    private final ReadWriteLock retention = new ReentrantReadWriteLock();
+
+    // Guarded by this
+    private final TreeMap<Long, Path> segments = new TreeMap<>();
+    private FileChannel activeChannel;
+    private MappedByteBuffer active;
+    private long nextOffset;
+    private Path snapshot;
+    private long snapshotOffset;
+
+    public ChangeJournal(Path directory, int segmentSize) throws IOException {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        Files.createDirectories(directory);
+
+        List<Path> snapshots = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                if (name.endsWith(TEMP_SUFFIX)) {
+                    // A snapshot that was cut off while being written
+                    Files.delete(file);
+                } else if (name.endsWith(SEGMENT_SUFFIX)) {
+                    segments.put(offsetIn(name, "", SEGMENT_SUFFIX), file);
+                } else if (name.startsWith(SNAPSHOT_PREFIX) && name.endsWith(SNAPSHOT_SUFFIX)) {
+                    snapshots.add(file);
+                    long offset = offsetIn(name, SNAPSHOT_PREFIX, SNAPSHOT_SUFFIX);
+                    if (snapshot == null || offset > snapshotOffset) {
+                        snapshot = file;
+                        snapshotOffset = offset;
+                    }
+                }
+            }
+        }
+        for (Path file : snapshots) {
+            if (!file.equals(snapshot)) {
+                Files.delete(file);
+            }
+        }
+
+        if (!segments.isEmpty()) {
+            recover(segments.lastKey(), segments.lastEntry().getValue());
+            if (nextOffset < snapshotOffset) {
+                // Everything the segments hold is in the snapshot already
+                logger.warn("Change journal segments end at {}, before the snapshot at {}; dropping them",
+                        nextOffset, snapshotOffset);
+                close();
+                for (Path file : segments.values()) {
+                    Files.delete(file);
+                }
+                segments.clear();
+            }
+        }
+        if (segments.isEmpty()) {
+            nextOffset = snapshotOffset;
+            openSegment(nextOffset);
+        }
+    }
+
+    /** Maps the last segment and finds its end. */
+    private void recover(long base, Path file) throws IOException {
+        activeChannel = FileChannel.open(file, READ, WRITE);
+        active = activeChannel.map(FileChannel.MapMode.READ_WRITE, 0, Math.max(activeChannel.size(), segmentSize));
+        nextOffset = scan(active, base, Long.MAX_VALUE, null);
+        int position = active.position();
+        if (active.remaining() >= Long.BYTES && active.getLong(position) != 0) {
+            logger.warn("Change journal segment {} ends in a damaged record at offset {}; cutting it off",
+                    file.getFileName(), nextOffset);
+            for (int i = position; i < active.limit(); i++) {
+                active.put(i, (byte) 0);
+            }
+        }
+    }
+
+    private void openSegment(long base) throws IOException {
+        Path file = directory.resolve(String.format("%020d%s", base, SEGMENT_SUFFIX));
+        activeChannel = FileChannel.open(file, CREATE, READ, WRITE);
+        active = activeChannel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+        segments.put(base, file);
+    }
+
+    /** @return the offset of the new record */
+    public synchronized long append(EntryChangedEvent event) {
+        if (active == null) {
+            throw new IllegalStateException("Change journal is closed");
+        }
+        byte[] payload = JournalRecord.of(nextOffset, event).toBytes();
+        int frameSize = FRAME_HEADER + payload.length;
+        if (frameSize > segmentSize) {
+            throw new IllegalArgumentException("A record of " + payload.length + " bytes does not fit in a journal segment");
+        }
+        try {
+            if (active.remaining() < frameSize) {
+                active.force();
+                activeChannel.close();
+                openSegment(nextOffset);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        CRC32C crc = new CRC32C();
+        crc.update(payload);
+        int position = active.position();
+        active.put(position + FRAME_HEADER, payload);
+        active.putInt(position + Integer.BYTES, (int) crc.getValue());
+        // The length goes in last: until then the frame reads as the end of the journal
+        active.putInt(position, payload.length);
+        active.position(position + frameSize);
+        return nextOffset++;
+    }
+
+    /** The offset the next record gets. */
+    public synchronized long nextOffset() {
+        return nextOffset;
+    }
+
+    /** The oldest offset replay can start from. */
+    public synchronized long firstOffset() {
+        return segments.firstKey();
+    }
+
+    /** Offset of the latest snapshot, 0 when there is none. */
+    public synchronized long snapshotOffset() {
+        return snapshotOffset;
+    }
+
+    /**
+     * Passes every record from {@code from} up to the current end to the consumer, in
+     * order. Appends are not held up meanwhile; records they add are left for the next
+     * call. The consumer must not write a snapshot.
+     *
+     * @return the offset to replay from next time
+     * @throws JournalTruncatedException when {@code from} is before {@link #firstOffset()}
+     */
+    public long replay(long from, Consumer<JournalRecord> consumer) {
+        retention.readLock().lock();
+        try {
+            List<Map.Entry<Long, Path>> sealed = new ArrayList<>();
+            long activeBase;
+            Path activeFile;
+            ByteBuffer tail;
+            long end;
+            synchronized (this) {
+                if (active == null) {
+                    throw new IllegalStateException("Change journal is closed");
+                }
+                if (from < segments.firstKey()) {
+                    throw new JournalTruncatedException("Offset " + from + " is compacted; the journal starts at "
+                            + segments.firstKey() + " after the snapshot at " + snapshotOffset);
+                }
+                if (from > nextOffset) {
+                    throw new IllegalArgumentException("Offset " + from + " is past the end of the journal at " + nextOffset);
+                }
+                activeBase = segments.lastKey();
+                activeFile = segments.get(activeBase);
+                segments.headMap(activeBase).forEach((base, file) -> sealed.add(Map.entry(base, file)));
+                tail = active.duplicate().position(0).limit(active.position());
+                end = nextOffset;
+            }
+
+            for (int i = 0; i < sealed.size(); i++) {
+                long base = sealed.get(i).getKey();
+                long nextBase = i + 1 < sealed.size() ? sealed.get(i + 1).getKey() : activeBase;
+                if (nextBase <= from) {
+                    continue;
+                }
+                Path file = sealed.get(i).getValue();
+                try (FileChannel channel = FileChannel.open(file, READ)) {
+                    long after = scan(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()), base, from, consumer);
+                    if (after != nextBase) {
+                        throw damaged(file, after);
+                    }
+                }
+            }
+            long after = scan(tail, activeBase, from, consumer);
+            if (after != end) {
+                throw damaged(activeFile, after);
+            }
+            return end;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            retention.readLock().unlock();
+        }
+    }
+
+    /** The latest snapshot with every record after it applied. */
+    public State loadState() {
+        retention.readLock().lock();
+        try {
+            Path file;
+            synchronized (this) {
+                file = snapshot;
+            }
+            State state = file != null ? readSnapshot(file) : new State(0, true);
+            state.offset = replay(state.offset, state::apply);
+            return state;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            retention.readLock().unlock();
+        }
+    }
+
+    /**
+     * Writes {@code state} as the snapshot and deletes what it makes redundant: the
+     * previous snapshot and the segments that end at or before its offset.
+     */
+    public void snapshot(State state) throws IOException {
+        if (state.offset > nextOffset()) {
+            throw new IllegalArgumentException("Snapshot at " + state.offset + " is past the end of the journal");
+        }
+        Path file = directory.resolve(SNAPSHOT_PREFIX + state.offset + SNAPSHOT_SUFFIX);
+        Path temp = directory.resolve(file.getFileName() + TEMP_SUFFIX);
+        try (FileChannel channel = FileChannel.open(temp, CREATE, WRITE, TRUNCATE_EXISTING)) {
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel), 1 << 16));
+            out.writeInt(SNAPSHOT_MAGIC);
+            out.writeLong(state.offset);
+            out.writeBoolean(state.complete);
+            out.writeInt(state.entries.size());
+            // Numbered from 0 like the records of a segment
+            long index = 0;
+            CRC32C crc = new CRC32C();
+            for (Entry entry : state.entries.values()) {
+                byte[] payload = new JournalRecord(index++, EntryChangedEvent.Type.CREATED, entry.getId(), entry).toBytes();
+                crc.reset();
+                crc.update(payload);
+                out.writeInt(payload.length);
+                out.writeInt((int) crc.getValue());
+                out.write(payload);
+            }
+            out.flush();
+            channel.force(true);
+        }
+        Files.move(temp, file, ATOMIC_MOVE, REPLACE_EXISTING);
+
+        retention.writeLock().lock();
+        try {
+            synchronized (this) {
+                if (snapshot != null && state.offset < snapshotOffset) {
+                    // A newer snapshot was written meanwhile
+                    Files.delete(file);
+                    return;
+                }
+                if (snapshot != null && !snapshot.equals(file)) {
+                    Files.delete(snapshot);
+                }
+                snapshot = file;
+                snapshotOffset = state.offset;
+                int deleted = 0;
+                while (segments.size() > 1 && segments.higherKey(segments.firstKey()) <= snapshotOffset) {
+                    Files.delete(segments.pollFirstEntry().getValue());
+                    deleted++;
+                }
+                logger.info("Change journal snapshot at offset {} with {} entries; {} segments deleted",
+                        snapshotOffset, state.entries.size(), deleted);
+            }
+        } finally {
+            retention.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (active != null) {
+            active.force();
+            activeChannel.close();
+            active = null;
+        }
+    }
+
+    private static State readSnapshot(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, READ)) {
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.remaining() < Integer.BYTES + Long.BYTES + 1 + Integer.BYTES || buffer.getInt() != SNAPSHOT_MAGIC) {
+                throw damaged(file, 0);
+            }
+            State state = new State(buffer.getLong(), buffer.get() != 0);
+            int count = buffer.getInt();
+            long read = scan(buffer, 0, 0, record -> state.entries.put(record.entryId(), record.entry()));
+            if (read != count || buffer.hasRemaining()) {
+                throw damaged(file, read);
+            }
+            return state;
+        }
+    }
+
+    /**
+     * Reads frames from the buffer's position for as long as they are intact and numbered
+     * from {@code offset} on, and passes the records from {@code from} on to the consumer.
+     * Leaves the position after the last intact frame.
+     *
+     * @return the offset after the last intact frame
+     */
+    private static long scan(ByteBuffer buffer, long offset, long from, Consumer<JournalRecord> consumer) {
+        CRC32C crc = new CRC32C();
+        while (buffer.remaining() >= FRAME_HEADER) {
+            int position = buffer.position();
+            int length = buffer.getInt(position);
+            if (length < Long.BYTES + 1 || length > buffer.remaining() - FRAME_HEADER) {
+                break;
+            }
+            ByteBuffer payload = buffer.slice(position + FRAME_HEADER, length);
+            crc.reset();
+            crc.update(payload.duplicate());
+            if ((int) crc.getValue() != buffer.getInt(position + Integer.BYTES) || payload.getLong(0) != offset) {
+                break;
+            }
+            if (consumer != null && offset >= from) {
+                consumer.accept(JournalRecord.from(payload));
+            }
+            buffer.position(position + FRAME_HEADER + length);
+            offset++;
+        }
+        return offset;
+    }
+
+    private static IllegalStateException damaged(Path file, long offset) {
+        return new IllegalStateException("Change journal file " + file.getFileName() + " is damaged at record " + offset);
+    }
+
+    private static long offsetIn(String name, String prefix, String suffix) {
+        return Long.parseLong(name.substring(prefix.length(), name.length() - suffix.length()));
+    }
+
+    /**
+     * Entries by id as of {@link #offset()}. Listeners run on the committing threads after
+     * commit, so two changes to one entry can reach the journal in the wrong order; the
+     * version decides between them, and an entry once deleted stays deleted.
+     */
+    public static final class State {
+
+        private final SortedMap<Long, Entry> entries = new TreeMap<>();
+        private final Set<Long> deleted = new HashSet<>();
+        private long offset;
+        private boolean complete;
+
+        private State(long offset, boolean complete) {
+            this.offset = offset;
+            this.complete = complete;
+        }
+
+        /** The ledger as read from the database before {@code offset} was reached. */
+        public static State of(long offset, Collection<Entry> entries) {
+            State state = new State(offset, true);
+            entries.forEach(entry -> state.entries.put(entry.getId(), entry));
+            return state;
+        }
+
+        public long offset() {
+            return offset;
+        }
+
+        /**
+         * False after a bulk import, which the journal has no rows for, or a record without
+         * a version. Stays false until the next CLEARED or a snapshot taken from the
+         * database.
+         */
+        public boolean isComplete() {
+            return complete;
+        }
+
+        /** Sorted by id. */
+        public Collection<Entry> entries() {
+            return Collections.unmodifiableCollection(entries.values());
+        }
+
+        void apply(JournalRecord record) {
+            switch (record.type()) {
+                case CREATED, UPDATED -> upsert(record.entry());
+                case DELETED -> {
+                    entries.remove(record.entryId());
+                    deleted.add(record.entryId());
+                }
+                case CLEARED -> {
+                    entries.clear();
+                    deleted.clear();
+                    complete = true;
+                }
+                case IMPORTED -> complete = false;
+            }
+        }
+
+        private void upsert(Entry entry) {
+            if (deleted.contains(entry.getId())) {
+                return;
+            }
+            if (entry.getVersion() == null) {
+                // Only in records written before updates read their version back. Out of
+                // order, it cannot be told whether this is older than what we hold.
+                complete = false;
+                return;
+            }
+            Entry previous = entries.get(entry.getId());
+            if (previous != null && entry.getVersion() < previous.getVersion()) {
+                return;
+            }
+            entries.put(entry.getId(), entry);
+        }
+    }
+}
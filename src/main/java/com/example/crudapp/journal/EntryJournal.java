@@ -0,0 +1,186 @@
+package com.example.crudapp.journal;
+
+import com.example.crudapp.model.Entry;
+import com.example.crudapp.model.EntryFingerprint;
+import com.example.crudapp.repository.EntryRepository;
+import com.example.crudapp.service.EntryArchive;
+import com.example.crudapp.service.EntryChangedEvent;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Keeps this node's {@link ChangeJournal}: every committed EntryService change is
+ * appended, and a snapshot is written once {@code snapshot-every} records have piled up
+ * since the last one. Rebuilds after a restart (cache warm-up, the analytics snapshot)
+ * read the ledger from here instead of scanning the database.
+ *
+ * The journal only sees changes made on this node, and a bulk import has no rows in it.
+ * So its ledger is only used when its fingerprint matches the database's; otherwise the
+ * caller scans as before and hands the result back with {@link #rebase}, which makes it
+ * the new snapshot.
+ */
+@Component
+public class EntryJournal {
+
+    private static final Logger logger = LoggerFactory.getLogger(EntryJournal.class);
+
+    @Autowired
+    private EntryRepository entryRepository;
+
+    @Autowired
+    private EntryArchive entryArchive;
+
+    @Value("${app.journal.enabled:false}")
+    private boolean enabled;
+
+    @Value("${app.journal.directory:data/journal}")
+    private Path directory;
+
+    @Value("${app.journal.segment-size:16MB}")
+    private DataSize segmentSize;
+
+    @Value("${app.journal.snapshot-every:100000}")
+    private long snapshotEvery;
+
+    private volatile ChangeJournal journal;
+
+    @PostConstruct
+    public void open() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            journal = new ChangeJournal(directory, Math.toIntExact(segmentSize.toBytes()));
+            logger.info("Change journal opened in {} at offset {}", directory, journal.nextOffset());
+        } catch (Exception e) {
+            logger.error("Could not open the change journal in {}; rebuilds will scan the database", directory, e);
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        ChangeJournal current = journal;
+        journal = null;
+        if (current != null) {
+            try {
+                current.close();
+            } catch (IOException e) {
+                logger.warn("Could not close the change journal", e);
+            }
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEntryChanged(EntryChangedEvent event) {
+        ChangeJournal current = journal;
+        if (current == null) {
+            return;
+        }
+        try {
+            current.append(event);
+        } catch (Exception e) {
+            // The next rebuild sees the gap as a fingerprint mismatch and scans the database
+            logger.error("Could not journal {} of entry {}", event.type(), event.entryId(), e);
+        }
+    }
+
+    /** The offset the next change gets, or -1 without a journal. */
+    public long offset() {
+        ChangeJournal current = journal;
+        return current != null ? current.nextOffset() : -1;
+    }
+
+    /**
+     * Every entry, sorted by id, read from the journal and checked against the database
+     * with one aggregate query per table.
+     *
+     * @return null when there is no journal or it does not match the database
+     */
+    public List<Entry> currentEntries() {
+        ChangeJournal current = journal;
+        if (current == null) {
+            return null;
+        }
+        long started = System.nanoTime();
+        try {
+            ChangeJournal.State state = current.loadState();
+            if (!state.isComplete()) {
+                logger.info("Change journal is missing bulk-imported entries or versions; scanning the database");
+                return null;
+            }
+            EntryFingerprint journaled = EntryFingerprint.of(state.entries());
+            EntryFingerprint stored = entryRepository.fingerprint().plus(entryArchive.fingerprint());
+            if (!journaled.equals(stored)) {
+                logger.info("Change journal at offset {} does not match the database ({} vs {}); scanning the database",
+                        state.offset(), journaled, stored);
+                return null;
+            }
+            logger.info("Read {} entries from the change journal up to offset {} in {} ms", state.entries().size(),
+                    state.offset(), (System.nanoTime() - started) / 1_000_000);
+            return new ArrayList<>(state.entries());
+        } catch (Exception e) {
+            logger.warn("Could not read the change journal; scanning the database", e);
+            return null;
+        }
+    }
+
+    /**
+     * Replaces the journal's ledger with one read from the database.
+     *
+     * @param offset  {@link #offset()} taken before the read started, so changes that
+     *                committed during the read are replayed on top
+     * @param entries every entry, hot and archived
+     */
+    public void rebase(long offset, List<Entry> entries) {
+        ChangeJournal current = journal;
+        if (current == null || offset < 0) {
+            return;
+        }
+        try {
+            current.snapshot(ChangeJournal.State.of(offset, entries));
+        } catch (Exception e) {
+            logger.warn("Could not write a change journal snapshot from the database", e);
+        }
+    }
+
+    /**
+     * Feeds the changes from {@code from} on to a downstream consumer.
+     *
+     * @return the offset to continue from
+     * @throws JournalTruncatedException when those changes are only in the snapshot now
+     */
+    public long replay(long from, Consumer<JournalRecord> consumer) {
+        ChangeJournal current = journal;
+        if (current == null) {
+            throw new IllegalStateException("Change journal is disabled");
+        }
+        return current.replay(from, consumer);
+    }
+
+    @Scheduled(fixedDelayString = "${app.journal.compact-interval:60000}")
+    public void compact() {
+        ChangeJournal current = journal;
+        if (current == null || current.nextOffset() - current.snapshotOffset() < snapshotEvery) {
+            return;
+        }
+        try {
+            current.snapshot(current.loadState());
+        } catch (Exception e) {
+            logger.warn("Change journal compaction failed", e);
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.crudapp.journal;
+
+import com.example.crudapp.model.Entry;
+import com.example.crudapp.service.EntryChangedEvent;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+
+/**
+ * One change in the {@link ChangeJournal}. Encoded as the offset, the type's ordinal,
+ * then the id for DELETED, or every column of the entry for CREATED and UPDATED.
+ *
+ * @param offset  position in the journal, counting records from 0
+ * @param entryId null for CLEARED and IMPORTED
+ * @param entry   the entry as written for CREATED/UPDATED, null otherwise; its version
+ *                is only null in records written before updates read their version back
+ */
+public record JournalRecord(long offset, EntryChangedEvent.Type type, Long entryId, Entry entry) {
+
+    private static final long NO_VERSION = -1;
+    private static final int NO_DESCRIPTION = -1;
+
+    public static JournalRecord of(long offset, EntryChangedEvent event) {
+        return new JournalRecord(offset, event.type(), event.entryId(), event.entry());
+    }
+
+    byte[] toBytes() {
+        boolean hasEntry = entry != null;
+        byte[] description = hasEntry && entry.getDescription() != null
+                ? entry.getDescription().getBytes(StandardCharsets.UTF_8) : null;
+        int size = Long.BYTES + 1;
+        if (hasEntry) {
+            size += 5 * Long.BYTES + Integer.BYTES + (description != null ? description.length : 0);
+        } else if (entryId != null) {
+            size += Long.BYTES;
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        buffer.putLong(offset);
+        buffer.put((byte) type.ordinal());
+        if (hasEntry) {
+            buffer.putLong(entry.getId());
+            buffer.putLong(entry.getAmountCents());
+            buffer.putLong(entry.getDate().toEpochDay());
+            buffer.putLong(entry.getUpdatedAt());
+            buffer.putLong(entry.getVersion() != null ? entry.getVersion() : NO_VERSION);
+            buffer.putInt(description != null ? description.length : NO_DESCRIPTION);
+            if (description != null) {
+                buffer.put(description);
+            }
+        } else if (entryId != null) {
+            buffer.putLong(entryId);
+        }
+        return buffer.array();
+    }
+
+    static JournalRecord from(ByteBuffer buffer) {
+        long offset = buffer.getLong();
+        EntryChangedEvent.Type type = EntryChangedEvent.Type.values()[buffer.get()];
+        switch (type) {
+            case CREATED, UPDATED -> {
+                Entry entry = new Entry();
+                entry.setId(buffer.getLong());
+                entry.setAmountCents(buffer.getLong());
+                entry.setDate(LocalDate.ofEpochDay(buffer.getLong()));
+                entry.setUpdatedAt(buffer.getLong());
+                long version = buffer.getLong();
+                entry.setVersion(version != NO_VERSION ? version : null);
+                int length = buffer.getInt();
+                if (length != NO_DESCRIPTION) {
+                    byte[] description = new byte[length];
+                    buffer.get(description);
+                    entry.setDescription(new String(description, StandardCharsets.UTF_8));
+                }
+                return new JournalRecord(offset, type, entry.getId(), entry);
+            }
+            case DELETED -> {
+                return new JournalRecord(offset, type, buffer.getLong(), null);
+            }
+            default -> {
+                return new JournalRecord(offset, type, null, null);
+            }
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.crudapp.journal;
+
+/**
+ * The records asked for were compacted into a snapshot and are no longer in the
+ * journal. The consumer has to start over from the snapshot (or the database).
+ */
+public class JournalTruncatedException extends RuntimeException {
+
+    public JournalTruncatedException(String message) {
+        super(message);
+    }
+}
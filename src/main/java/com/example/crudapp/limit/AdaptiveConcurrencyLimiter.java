@@ -0,0 +1,105 @@
+package com.example.crudapp.limit;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * AIMD concurrency limit. A request is admitted only while fewer than {@code limit}
+ * are in flight. Each fast completion made while the limit was actually in use
+ * raises the limit by 1/limit, so about one step per full window. A slow completion
+ * or a failure multiplies it by the backoff ratio, at most once per latency threshold:
+ * a burst of slow responses is one congestion signal, not one per response.
+ *
+ * Queueing shows up as latency before it shows up as errors. Backing off on latency
+ * therefore keeps the number of requests waiting on the connection pool small.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    private final String name;
+    private final int minLimit;
+    private final int maxLimit;
+    private final long latencyThresholdNanos;
+    private final double backoffRatio;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile double limit;
+    private long lastBackoffNanos;
+    private boolean backedOff;
+
+    public AdaptiveConcurrencyLimiter(String name, int initialLimit, int minLimit, int maxLimit,
+                                      long latencyThresholdNanos, double backoffRatio) {
+        if (minLimit < 1 || minLimit > initialLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException("Limits for " + name + " must satisfy 1 <= min <= initial <= max");
+        }
+        if (backoffRatio <= 0 || backoffRatio >= 1) {
+            throw new IllegalArgumentException("Backoff ratio must be between 0 and 1");
+        }
+        this.name = name;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.latencyThresholdNanos = latencyThresholdNanos;
+        this.backoffRatio = backoffRatio;
+        this.limit = initialLimit;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    /** Takes a slot if one is free. Every successful call must be paired with one completion call. */
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= (int) limit) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /** The request completed normally after {@code latencyNanos}. */
+    public void onSuccess(long latencyNanos) {
+        int concurrent = inFlight.getAndDecrement();
+        if (latencyNanos > latencyThresholdNanos) {
+            backOff();
+        } else if (concurrent * 2 >= limit) {
+            // Only grow while the limit is actually being tested, otherwise an idle
+            // period would let it drift up to the maximum
+            grow();
+        }
+    }
+
+    /** The request failed in a way that points at overload, such as a pool timeout. */
+    public void onDropped() {
+        inFlight.decrementAndGet();
+        backOff();
+    }
+
+    /** The request ended without telling us anything about capacity. */
+    public void onIgnored() {
+        inFlight.decrementAndGet();
+    }
+
+    private synchronized void grow() {
+        limit = Math.min(maxLimit, limit + 1.0 / limit);
+    }
+
+    private synchronized void backOff() {
+        long now = System.nanoTime();
+        if (backedOff && now - lastBackoffNanos < latencyThresholdNanos) {
+            return;
+        }
+        backedOff = true;
+        lastBackoffNanos = now;
+        limit = Math.max(minLimit, limit * backoffRatio);
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.crudapp.limit;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import java.time.Duration;
+
+@Configuration
+@ConditionalOnProperty(name = "app.limiter.enabled", havingValue = "true", matchIfMissing = true)
+public class ConcurrencyLimitConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConcurrencyLimitConfig.class);
+
+    @Value("${app.limiter.reads.initial-limit:20}")
+    private int readInitialLimit;
+
+    @Value("${app.limiter.reads.min-limit:4}")
+    private int readMinLimit;
+
+    @Value("${app.limiter.reads.max-limit:200}")
+    private int readMaxLimit;
+
+    @Value("${app.limiter.reads.latency-threshold:250ms}")
+    private Duration readLatencyThreshold;
+
+    @Value("${app.limiter.writes.initial-limit:10}")
+    private int writeInitialLimit;
+
+    @Value("${app.limiter.writes.min-limit:2}")
+    private int writeMinLimit;
+
+    @Value("${app.limiter.writes.max-limit:50}")
+    private int writeMaxLimit;
+
+    @Value("${app.limiter.writes.latency-threshold:500ms}")
+    private Duration writeLatencyThreshold;
+
+    @Value("${app.limiter.backoff-ratio:0.9}")
+    private double backoffRatio;
+
+    @Value("${app.limiter.cache-only-threshold:0.9}")
+    private double cacheOnlyThreshold;
+
+    @Value("${app.limiter.retry-after:1s}")
+    private Duration retryAfter;
+
+    @Bean
+    public FilterRegistrationBean<ConcurrencyLimitFilter> concurrencyLimitFilter(MeterRegistry meterRegistry) {
+        AdaptiveConcurrencyLimiter reads = new AdaptiveConcurrencyLimiter("reads", readInitialLimit, readMinLimit,
+                readMaxLimit, readLatencyThreshold.toNanos(), backoffRatio);
+        AdaptiveConcurrencyLimiter writes = new AdaptiveConcurrencyLimiter("writes", writeInitialLimit, writeMinLimit,
+                writeMaxLimit, writeLatencyThreshold.toNanos(), backoffRatio);
+        logger.info("Concurrency limits: reads {} ({}-{}), writes {} ({}-{})", readInitialLimit, readMinLimit,
+                readMaxLimit, writeInitialLimit, writeMinLimit, writeMaxLimit);
+
+        FilterRegistrationBean<ConcurrencyLimitFilter> registration = new FilterRegistrationBean<>(
+                new ConcurrencyLimitFilter(reads, writes, cacheOnlyThreshold,
+                        Math.max(1, retryAfter.toSeconds()), meterRegistry));
+        registration.addUrlPatterns("/api/entries", "/api/entries/*");
+        // Shed before any other work is done for the request
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        return registration;
+    }
+}
@@ -0,0 +1,129 @@
+package com.example.crudapp.limit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Admits /api/entries requests through one limiter for reads and one for writes, so
+ * a burst of writes cannot starve reads and the other way round. A request that finds
+ * its lane full gets an immediate 503 with Retry-After instead of queueing for a
+ * connection. Reads above {@code cacheOnlyThreshold} of the limit are admitted in
+ * cache-only mode, see {@link LoadShedding}.
+ *
+ * The SSE stream is excluded because it holds its request open for minutes, and so is
+ * the statement import, which runs for as long as the file takes and has its own cap
+ * on concurrent imports.
+ */
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConcurrencyLimitFilter.class);
+    static final String STREAM_PATH = "/api/entries/stream";
+    static final String IMPORT_PATH = "/api/entries/import";
+    private static final String OVERLOADED_BODY = "{\"error\":\"Server is overloaded, retry later\"}";
+
+    /** app.limiter.requests of one lane by outcome, registered once up front. */
+    private record Outcomes(Counter accepted, Counter cacheOnly, Counter rejected) {}
+
+    private final AdaptiveConcurrencyLimiter reads;
+    private final AdaptiveConcurrencyLimiter writes;
+    private final double cacheOnlyThreshold;
+    private final long retryAfterSeconds;
+    private final Outcomes readOutcomes;
+    private final Outcomes writeOutcomes;
+
+    public ConcurrencyLimitFilter(AdaptiveConcurrencyLimiter reads, AdaptiveConcurrencyLimiter writes,
+                                  double cacheOnlyThreshold, long retryAfterSeconds, MeterRegistry meterRegistry) {
+        this.reads = reads;
+        this.writes = writes;
+        this.cacheOnlyThreshold = cacheOnlyThreshold;
+        this.retryAfterSeconds = retryAfterSeconds;
+        this.readOutcomes = registerMeters(reads, meterRegistry);
+        this.writeOutcomes = registerMeters(writes, meterRegistry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return "OPTIONS".equals(request.getMethod()) || STREAM_PATH.equals(request.getRequestURI())
+                || IMPORT_PATH.equals(request.getRequestURI());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        boolean read = "GET".equals(request.getMethod()) || "HEAD".equals(request.getMethod());
+        AdaptiveConcurrencyLimiter limiter = read ? reads : writes;
+        Outcomes outcomes = read ? readOutcomes : writeOutcomes;
+
+        if (!limiter.tryAcquire()) {
+            outcomes.rejected().increment();
+            logger.debug("Shedding {} {}: {} lane at its limit of {}", request.getMethod(), request.getRequestURI(),
+                    limiter.getName(), limiter.getLimit());
+            reject(response);
+            return;
+        }
+
+        boolean cacheOnly = read && limiter.getInFlight() > limiter.getLimit() * cacheOnlyThreshold;
+        (cacheOnly ? outcomes.cacheOnly() : outcomes.accepted()).increment();
+        if (cacheOnly) {
+            LoadShedding.enterCacheOnly();
+        }
+
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            chain.doFilter(request, response);
+            failed = false;
+        } finally {
+            LoadShedding.exit();
+            int status = response.getStatus();
+            if (status == HttpStatus.SERVICE_UNAVAILABLE.value()) {
+                // Shed further down (cache-only miss); its speed says nothing about capacity
+                limiter.onIgnored();
+            } else if (failed || status >= 500) {
+                limiter.onDropped();
+            } else {
+                limiter.onSuccess(System.nanoTime() - start);
+            }
+        }
+    }
+
+    private void reject(HttpServletResponse response) throws IOException {
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getWriter().write(OVERLOADED_BODY);
+    }
+
+    private static Outcomes registerMeters(AdaptiveConcurrencyLimiter limiter, MeterRegistry meterRegistry) {
+        Gauge.builder("app.limiter.limit", limiter, AdaptiveConcurrencyLimiter::getLimit)
+                .tag("lane", limiter.getName())
+                .description("Current adaptive concurrency limit")
+                .register(meterRegistry);
+        Gauge.builder("app.limiter.in-flight", limiter, AdaptiveConcurrencyLimiter::getInFlight)
+                .tag("lane", limiter.getName())
+                .description("Requests currently holding a slot")
+                .register(meterRegistry);
+        return new Outcomes(counter(limiter, "accepted", meterRegistry), counter(limiter, "cache_only", meterRegistry),
+                counter(limiter, "rejected", meterRegistry));
+    }
+
+    private static Counter counter(AdaptiveConcurrencyLimiter limiter, String outcome, MeterRegistry meterRegistry) {
+        return Counter.builder("app.limiter.requests")
+                .tag("lane", limiter.getName())
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
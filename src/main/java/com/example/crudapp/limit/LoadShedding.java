@@ -0,0 +1,33 @@
+package com.example.crudapp.limit;
+
+/**
+ * Per-request shedding mode set by {@link ConcurrencyLimitFilter}. When reads are near
+ * their limit, a request is admitted in cache-only mode. It is served if Redis has the
+ * answer, and shed on a cache miss instead of taking a database connection.
+ */
+public final class LoadShedding {
+
+    private static final ThreadLocal<Boolean> CACHE_ONLY = new ThreadLocal<>();
+
+    private LoadShedding() {
+    }
+
+    public static boolean isCacheOnly() {
+        return Boolean.TRUE.equals(CACHE_ONLY.get());
+    }
+
+    /** Call on a cache miss before going to the database. */
+    public static void checkDatabaseAllowed() {
+        if (isCacheOnly()) {
+            throw new ServiceOverloadedException("Server is overloaded and the result is not cached, retry later");
+        }
+    }
+
+    public static void enterCacheOnly() {
+        CACHE_ONLY.set(Boolean.TRUE);
+    }
+
+    public static void exit() {
+        CACHE_ONLY.remove();
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.crudapp.limit;
+
+/**
+ * A request that cannot be answered now but may succeed shortly. Controllers answer
+ * every subclass with 503 and Retry-After; the subclass says why.
+ */
+public abstract class RetryLaterException extends RuntimeException {
+
+    protected RetryLaterException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
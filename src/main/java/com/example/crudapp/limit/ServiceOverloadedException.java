@@ -0,0 +1,12 @@
+package com.example.crudapp.limit;
+
+/**
+ * Thrown when a cache-only request misses the cache. The controller turns it into a
+ * 503 with Retry-After.
+ */
+public class ServiceOverloadedException extends RetryLaterException {
+
+    public ServiceOverloadedException(String message) {
+        super(message, null);
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.crudapp.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDate;
+
+/**
+ * An entry in the cold tier. Rows are only ever copied in and out with SQL by
+ * EntryArchive; this mapping is for reading them back as {@link Entry}.
+ */
+@Entity
+@Table(name = "entries_archive", indexes = {
+        @Index(name = "idx_entries_archive_date", columnList = "date, id"),
+        @Index(name = "idx_entries_archive_updated_at", columnList = "updated_at, id")})
+public class ArchivedEntry {
+    
+    // Same id as in entries, so references and caches keep working
+    @Id
+    private Long id;
+    
+    @Column(name = "amount_cents", nullable = false)
+    private long amountCents;
+    
+    @Column(nullable = false)
+    private String description;
+    
+    @Column(nullable = false)
+    private LocalDate date;
+    
+    @Column(name = "updated_at", nullable = false)
+    private long updatedAt;
+    
+    @Column(nullable = false)
+    private long version;
+    
+    // Epoch millis of the move out of entries
+    @Column(name = "archived_at", nullable = false)
+    private long archivedAt;
+    
+    public ArchivedEntry() {}
+    
+    public Long getId() {
+        return id;
+    }
+    
+    public LocalDate getDate() {
+        return date;
+    }
+    
+    public long getArchivedAt() {
+        return archivedAt;
+    }
+    
+    public Entry toEntry() {
+        Entry entry = new Entry();
+        entry.setId(id);
+        entry.setAmountCents(amountCents);
+        entry.setDescription(description);
+        entry.setDate(date);
+        entry.setUpdatedAt(updatedAt);
+        entry.setVersion(version);
+        return entry;
+    }
+}
@@ -3,21 +3,33 @@ package com.example.crudapp.model;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "entries")
+@Table(name = "entries", indexes = @Index(name = "idx_entries_updated_at", columnList = "updated_at, id"))
+@JsonPropertyOrder({"id", "amount", "description", "date", "version"})
+// Hand-written codec for the hot paths; the annotations below still define the format it matches
+@JsonSerialize(using = EntryJsonCodec.Serializer.class)
+@JsonDeserialize(using = EntryJsonCodec.Deserializer.class)
 public class Entry {
     
+    // Marks an amount that was never supplied, so validation can still reject it
+    private static final long NO_AMOUNT = Long.MIN_VALUE;
+    
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
     
-    @NotNull(message = "Amount is required")
-    @Column(nullable = false)
-    private Double amount;
+    // Stored and summed as whole cents; exposed to clients as a decimal "amount"
+    @Column(name = "amount_cents", nullable = false)
+    private long amountCents = NO_AMOUNT;
     
     @NotBlank(message = "Description is required")
     @Column(nullable = false)
@@ -29,17 +41,26 @@ public class Entry {
     private LocalDate date;
     // ========== RELEASE 2.0 - END ==========
     
+    // Epoch millis of the last insert or update, for delta sync; not part of the API
+    @Column(name = "updated_at", nullable = false)
+    private long updatedAt;
+    
+    // Optimistic lock; a client that sends it back on PUT/PATCH only updates that version
+    @Version
+    @Column(nullable = false)
+    private Long version;
+    
     // Default constructor
     public Entry() {}
     
     public Entry(Double amount, String description) {
-        this.amount = amount;
+        setAmount(amount);
         this.description = description;
     }
     
     // ========== RELEASE 2.0 - START (Enhanced Constructor with Date) ==========
     public Entry(Double amount, String description, LocalDate date) {
-        this.amount = amount;
+        setAmount(amount);
         this.description = description;
         this.date = date;
     }
@@ -54,12 +75,29 @@ public class Entry {
         this.id = id;
     }
     
+    @NotNull(message = "Amount is required")
+    @JsonProperty("amount")
     public Double getAmount() {
-        return amount;
+        return hasAmount() ? Money.toAmount(amountCents) : null;
     }
     
     public void setAmount(Double amount) {
-        this.amount = amount;
+        this.amountCents = amount != null ? Money.toCents(amount) : NO_AMOUNT;
+    }
+    
+    @JsonIgnore
+    public long getAmountCents() {
+        return amountCents;
+    }
+    
+    @JsonIgnore
+    public void setAmountCents(long amountCents) {
+        this.amountCents = amountCents;
+    }
+    
+    @JsonIgnore
+    public boolean hasAmount() {
+        return amountCents != NO_AMOUNT;
     }
     
     public String getDescription() {
@@ -80,15 +118,40 @@ public class Entry {
     }
     // ========== RELEASE 2.0 - END ==========
     
+    @JsonIgnore
+    public long getUpdatedAt() {
+        return updatedAt;
+    }
+    
+    @JsonIgnore
+    public void setUpdatedAt(long updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+    
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public Long getVersion() {
+        return version;
+    }
+    
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+    
+    @PrePersist
+    @PreUpdate
+    void touch() {
+        updatedAt = System.currentTimeMillis();
+    }
+    
     @Override
     public String toString() {
         return "Entry{" +
                 "id=" + id +
-                ", amount=" + amount +
+                ", amount=" + getAmount() +
                 ", description='" + description + '\'' +
                 // ========== RELEASE 2.0 - START (Include Date in toString) ==========
                 ", date=" + date +
                 // ========== RELEASE 2.0 - END ==========
                 '}';
     }
-}
\ No newline at end of file
+}
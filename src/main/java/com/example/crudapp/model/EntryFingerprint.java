@@ -0,0 +1,32 @@
+package com.example.crudapp.model;
+
+import java.util.Collection;
+
+/**
+ * Aggregates that change with every write to the entries: a create raises the largest
+ * id, an update stamps the latest {@code updated_at}, a delete drops the count. A copy
+ * of the ledger built elsewhere matches the database when both fingerprints are equal.
+ *
+ * Deliberately cheap: the count walks the smallest index, and both maxima are read from
+ * the end of an index, so checking whether a journal can be trusted does not read every
+ * row the journal exists to avoid reading. In exchange it trusts that a write made
+ * elsewhere stamps an {@code updated_at} later than any this node journaled.
+ */
+public record EntryFingerprint(long count, long maxId, long maxUpdatedAt) {
+
+    public static EntryFingerprint of(Collection<Entry> entries) {
+        long maxId = 0;
+        long maxUpdatedAt = 0;
+        for (Entry entry : entries) {
+            maxId = Math.max(maxId, entry.getId());
+            maxUpdatedAt = Math.max(maxUpdatedAt, entry.getUpdatedAt());
+        }
+        return new EntryFingerprint(entries.size(), maxId, maxUpdatedAt);
+    }
+
+    /** Hot table and archive together; archiving moves a row without changing either. */
+    public EntryFingerprint plus(EntryFingerprint other) {
+        return new EntryFingerprint(count + other.count, Math.max(maxId, other.maxId),
+                Math.max(maxUpdatedAt, other.maxUpdatedAt));
+    }
+}
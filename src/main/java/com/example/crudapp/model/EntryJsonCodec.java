@@ -0,0 +1,191 @@
+package com.example.crudapp.model;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+
+/**
+ * Hand-written JSON for {@link Entry}, used by every ObjectMapper: HTTP responses and
+ * requests, and the Redis cache values. It writes exactly what the reflective bean
+ * serializer wrote ({@code id}, {@code amount}, {@code description}, {@code date}, then
+ * {@code version} when set) without bean introspection, a boxed amount or a
+ * DateTimeFormatter. Field names are pre-encoded and dates are written from and parsed
+ * into a char buffer.
+ *
+ * Anything the fast paths do not handle (string amounts, other date shapes, malformed
+ * values) goes to the standard deserializers, so it is accepted or rejected as before.
+ * Unknown properties, including the ones Entry hides from JSON, are skipped.
+ */
+public final class EntryJsonCodec {
+
+    private static final SerializableString ID = new SerializedString("id");
+    private static final SerializableString AMOUNT = new SerializedString("amount");
+    private static final SerializableString DESCRIPTION = new SerializedString("description");
+    private static final SerializableString DATE = new SerializedString("date");
+    private static final SerializableString VERSION = new SerializedString("version");
+
+    private EntryJsonCodec() {}
+
+    public static final class Serializer extends StdSerializer<Entry> {
+
+        public Serializer() {
+            super(Entry.class);
+        }
+
+        @Override
+        public void serialize(Entry entry, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            gen.writeStartObject(entry);
+            gen.writeFieldName(ID);
+            if (entry.getId() != null) {
+                gen.writeNumber(entry.getId());
+            } else {
+                gen.writeNull();
+            }
+            gen.writeFieldName(AMOUNT);
+            if (entry.hasAmount()) {
+                gen.writeNumber(Money.toAmount(entry.getAmountCents()));
+            } else {
+                gen.writeNull();
+            }
+            gen.writeFieldName(DESCRIPTION);
+            gen.writeString(entry.getDescription());
+            gen.writeFieldName(DATE);
+            writeDate(entry.getDate(), gen);
+            if (entry.getVersion() != null) {
+                gen.writeFieldName(VERSION);
+                gen.writeNumber(entry.getVersion());
+            }
+            gen.writeEndObject();
+        }
+
+        private static void writeDate(LocalDate date, JsonGenerator gen) throws IOException {
+            if (date == null) {
+                gen.writeNull();
+                return;
+            }
+            int year = date.getYear();
+            if (year < 0 || year > 9999) {
+                // Signed or five-digit years, as LocalDate.toString writes them
+                gen.writeString(date.toString());
+                return;
+            }
+            char[] buffer = new char[10];
+            digits(buffer, 0, year, 4);
+            buffer[4] = '-';
+            digits(buffer, 5, date.getMonthValue(), 2);
+            buffer[7] = '-';
+            digits(buffer, 8, date.getDayOfMonth(), 2);
+            gen.writeString(buffer, 0, buffer.length);
+        }
+
+        private static void digits(char[] buffer, int offset, int value, int width) {
+            for (int i = offset + width - 1; i >= offset; i--) {
+                buffer[i] = (char) ('0' + value % 10);
+                value /= 10;
+            }
+        }
+    }
+
+    public static final class Deserializer extends StdDeserializer<Entry> {
+
+        public Deserializer() {
+            super(Entry.class);
+        }
+
+        @Override
+        public Entry deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+            JsonToken token = p.currentToken();
+            if (token == JsonToken.START_OBJECT) {
+                token = p.nextToken();
+            } else if (token != JsonToken.FIELD_NAME && token != JsonToken.END_OBJECT) {
+                return (Entry) ctxt.handleUnexpectedToken(Entry.class, p);
+            }
+
+            Entry entry = new Entry();
+            for (; token == JsonToken.FIELD_NAME; token = p.nextToken()) {
+                String name = p.currentName();
+                JsonToken value = p.nextToken();
+                switch (name) {
+                    case "id" -> entry.setId(readLong(p, ctxt, value));
+                    case "amount" -> readAmount(p, ctxt, value, entry);
+                    case "description" -> entry.setDescription(value == JsonToken.VALUE_STRING ? p.getText()
+                            : value == JsonToken.VALUE_NULL ? null : ctxt.readValue(p, String.class));
+                    case "date" -> entry.setDate(readDate(p, ctxt, value));
+                    case "version" -> entry.setVersion(readLong(p, ctxt, value));
+                    default -> p.skipChildren();
+                }
+            }
+            return entry;
+        }
+
+        /** Straight from the decimal text, so 10.005 is rejected instead of rounded. */
+        private static void readAmount(JsonParser p, DeserializationContext ctxt, JsonToken value, Entry entry)
+                throws IOException {
+            if (value == JsonToken.VALUE_NULL) {
+                entry.setAmount(null);
+                return;
+            }
+            BigDecimal amount = value.isNumeric() ? p.getDecimalValue() : ctxt.readValue(p, BigDecimal.class);
+            try {
+                entry.setAmountCents(Money.toCents(amount));
+            } catch (IllegalArgumentException e) {
+                throw JsonMappingException.from(p, e.getMessage(), e);
+            }
+        }
+
+        private static Long readLong(JsonParser p, DeserializationContext ctxt, JsonToken value) throws IOException {
+            if (value == JsonToken.VALUE_NUMBER_INT) {
+                return p.getLongValue();
+            }
+            return value == JsonToken.VALUE_NULL ? null : ctxt.readValue(p, Long.class);
+        }
+
+        private static LocalDate readDate(JsonParser p, DeserializationContext ctxt, JsonToken value) throws IOException {
+            if (value == JsonToken.VALUE_NULL) {
+                return null;
+            }
+            if (value == JsonToken.VALUE_STRING && p.getTextLength() == 10) {
+                char[] text = p.getTextCharacters();
+                int offset = p.getTextOffset();
+                if (text[offset + 4] == '-' && text[offset + 7] == '-') {
+                    int year = digits(text, offset, 4);
+                    int month = digits(text, offset + 5, 2);
+                    int day = digits(text, offset + 8, 2);
+                    if (year >= 0 && month >= 0 && day >= 0) {
+                        try {
+                            return LocalDate.of(year, month, day);
+                        } catch (DateTimeException e) {
+                            // Not a real date; let the standard deserializer report it
+                        }
+                    }
+                }
+            }
+            return ctxt.readValue(p, LocalDate.class);
+        }
+
+        /** The decimal value of {@code width} digits, or -1 if any is not a digit. */
+        private static int digits(char[] text, int offset, int width) {
+            int value = 0;
+            for (int i = offset; i < offset + width; i++) {
+                char c = text[i];
+                if (c < '0' || c > '9') {
+                    return -1;
+                }
+                value = value * 10 + (c - '0');
+            }
+            return value;
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.crudapp.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import java.time.LocalDate;
+
+/**
+ * Dashboard view of an entry. Used as a Spring Data DTO projection, so queries that
+ * return it only select these columns and never load the free-text description.
+ */
+public record EntrySummary(Long id, long amountCents, LocalDate date) {
+
+    @JsonIgnore
+    public Double amount() {
+        return Money.toAmount(amountCents);
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.crudapp.model;
+
+import jakarta.persistence.*;
+
+/**
+ * Record of a deleted entry, kept for a while so delta sync can report the delete.
+ * A tombstone without an entry id stands for deleteAllEntries.
+ */
+@Entity
+@Table(name = "entry_tombstones", indexes = @Index(name = "idx_entry_tombstones_deleted_at", columnList = "deleted_at, id"))
+public class EntryTombstone {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(name = "entry_id")
+    private Long entryId;
+    
+    // Epoch millis, same clock as Entry.updatedAt
+    @Column(name = "deleted_at", nullable = false)
+    private long deletedAt;
+    
+    public EntryTombstone() {}
+    
+    public EntryTombstone(Long entryId, long deletedAt) {
+        this.entryId = entryId;
+        this.deletedAt = deletedAt;
+    }
+    
+    public static EntryTombstone allEntries(long deletedAt) {
+        return new EntryTombstone(null, deletedAt);
+    }
+    
+    public Long getId() {
+        return id;
+    }
+    
+    public Long getEntryId() {
+        return entryId;
+    }
+    
+    public long getDeletedAt() {
+        return deletedAt;
+    }
+    
+    public boolean isAllEntries() {
+        return entryId == null;
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.crudapp.model;
+
+/**
+ * The checks a new entry has to pass, shared by POST /api/entries and the statement
+ * import so both accept the same rows.
+ */
+public final class EntryValidation {
+
+    private EntryValidation() {}
+
+    /** The error message for an entry that cannot be created, or null when it can. */
+    public static String newEntryError(Entry entry) {
+        if (!entry.hasAmount() || entry.getDescription() == null || entry.getDescription().trim().isEmpty()) {
+            return "Amount and description are required";
+        }
+        if (entry.getDate() == null) {
+            return "Date is required";
+        }
+        return null;
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.crudapp.model;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Conversions between the API's decimal amounts and the integer minor units (cents)
+ * that are stored and summed internally.
+ */
+public final class Money {
+
+    private Money() {}
+
+    public static final String TOO_PRECISE = "Amount must have at most 2 decimal places";
+    public static final String TOO_LARGE = "Amount is too large";
+
+    /**
+     * Exact whole cents. Goes through the shortest decimal representation of the double,
+     * so 0.29 becomes 29 and not 28.
+     *
+     * @throws IllegalArgumentException when the amount has fractions of a cent
+     */
+    public static long toCents(double amount) {
+        return toCents(BigDecimal.valueOf(amount));
+    }
+
+    /**
+     * Exact whole cents; trailing zeros past the second decimal place are fine.
+     *
+     * @throws IllegalArgumentException when the amount has fractions of a cent, which
+     *                                  would otherwise be rounded away silently, or does not
+     *                                  fit in a long of cents
+     */
+    public static long toCents(BigDecimal amount) {
+        BigDecimal cents = amount.movePointRight(2);
+        try {
+            cents = cents.setScale(0, RoundingMode.UNNECESSARY);
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException(TOO_PRECISE);
+        }
+        try {
+            return cents.longValueExact();
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException(TOO_LARGE);
+        }
+    }
+
+    /** Nearest double to the exact decimal value, which serializes as e.g. 12.34. */
+    public static double toAmount(long cents) {
+        return cents / 100.0;
+    }
+
+    /** Exact decimal value, for totals where a double could not represent the sum. */
+    public static BigDecimal toDecimal(long cents) {
+        return BigDecimal.valueOf(cents, 2);
+    }
+}
@@ -0,0 +1,124 @@
+package com.example.crudapp.profiling;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * One Java Flight Recorder recording at a time, started and stopped on request. A
+ * recording stops by itself after its duration; stopping it (or asking for it after it
+ * stopped) dumps it to a temp file and summarizes it. The last dump is kept for
+ * download until the next recording starts.
+ */
+@Component
+public class JfrProfiler {
+
+    private static final Logger logger = LoggerFactory.getLogger(JfrProfiler.class);
+
+    public record Status(long id, String settings, Instant startedAt, Duration duration, boolean running) {}
+
+    public record Result(Status recording, Path file, JfrSummary summary) {}
+
+    @Value("${app.profiling.max-duration:5m}")
+    private Duration maxDuration;
+
+    @Value("${app.profiling.summary-size:10}")
+    private int summarySize;
+
+    private Recording recording;
+    private Status status;
+    private Result last;
+
+    /**
+     * @param settings a JFR configuration name: {@code default} (about 1% overhead) or
+     *                 {@code profile} (more samples, allocation and lock detail)
+     * @throws IllegalStateException    when a recording is already running
+     * @throws IllegalArgumentException for unknown settings or a duration out of range
+     */
+    public synchronized Status start(String settings, Duration duration) {
+        if (recording != null && recording.getState() == RecordingState.RUNNING) {
+            throw new IllegalStateException("Recording " + recording.getId() + " is already running");
+        }
+        if (duration.isNegative() || duration.isZero() || duration.compareTo(maxDuration) > 0) {
+            throw new IllegalArgumentException("duration must be positive and at most " + maxDuration);
+        }
+        Configuration configuration;
+        try {
+            configuration = Configuration.getConfiguration(settings);
+        } catch (IOException | ParseException e) {
+            throw new IllegalArgumentException("Unknown JFR settings '" + settings + "', use 'default' or 'profile'");
+        }
+
+        discard();
+        recording = new Recording(configuration);
+        recording.setName("admin-" + Instant.now());
+        recording.setToDisk(true);
+        recording.setDuration(duration);
+        recording.start();
+        status = new Status(recording.getId(), settings, Instant.now(), duration, true);
+        logger.info("Started JFR recording {} ({} settings, {})", status.id(), settings, duration);
+        return status;
+    }
+
+    /** The running or last recording, or null if there has been none. */
+    public synchronized Status status() {
+        if (status == null) {
+            return null;
+        }
+        boolean running = recording != null && recording.getState() == RecordingState.RUNNING;
+        return new Status(status.id(), status.settings(), status.startedAt(), status.duration(), running);
+    }
+
+    /**
+     * Stops the recording if it is still running and returns its dump and summary.
+     *
+     * @throws IllegalStateException when no recording was started
+     */
+    public synchronized Result stop() throws IOException {
+        if (last != null) {
+            return last;
+        }
+        if (recording == null) {
+            throw new IllegalStateException("No recording was started");
+        }
+        if (recording.getState() == RecordingState.RUNNING) {
+            recording.stop();
+        }
+        Path file = Files.createTempFile("recording-" + recording.getId() + "-", ".jfr");
+        recording.dump(file);
+        recording.close();
+        recording = null;
+
+        JfrSummary summary = JfrSummary.read(file, summarySize);
+        last = new Result(status(), file, summary);
+        logger.info("Stopped JFR recording {}: {} execution samples, {} GCs, dumped to {}",
+                status.id(), summary.executionSamples(), summary.gc().collections(), file);
+        return last;
+    }
+
+    private void discard() {
+        if (recording != null) {
+            recording.close();
+            recording = null;
+        }
+        if (last != null) {
+            try {
+                Files.deleteIfExists(last.file());
+            } catch (IOException e) {
+                logger.warn("Could not delete JFR dump {}", last.file(), e);
+            }
+            last = null;
+        }
+    }
+}
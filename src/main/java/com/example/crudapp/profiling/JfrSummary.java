@@ -0,0 +1,106 @@
+package com.example.crudapp.profiling;
+
+import jdk.jfr.consumer.RecordedClass;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingFile;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * What a recording says at a glance: the methods most often on top of sampled stacks,
+ * the frames that allocated the most bytes, and GC pause and monitor contention totals.
+ * Anything deeper needs the .jfr file in JDK Mission Control.
+ */
+public record JfrSummary(long executionSamples,
+                         List<Site> hotMethods,
+                         List<Site> allocationSites,
+                         Gc gc,
+                         Locks locks) {
+
+    /** A method and its weight: samples for hot methods, sampled bytes for allocations. */
+    public record Site(String method, long weight) {}
+
+    public record Gc(long collections, long totalPauseMillis, long longestPauseMillis) {}
+
+    public record Locks(long contendedEnters, long totalBlockedMillis, List<Site> topMonitorClasses) {}
+
+    public static JfrSummary read(Path file, int top) throws IOException {
+        Map<String, Long> methods = new HashMap<>();
+        Map<String, Long> allocations = new HashMap<>();
+        Map<String, Long> monitors = new HashMap<>();
+        long samples = 0;
+        long collections = 0;
+        Duration totalPause = Duration.ZERO;
+        Duration longestPause = Duration.ZERO;
+        long contended = 0;
+        Duration blocked = Duration.ZERO;
+
+        try (RecordingFile recording = new RecordingFile(file)) {
+            while (recording.hasMoreEvents()) {
+                RecordedEvent event = recording.readEvent();
+                switch (event.getEventType().getName()) {
+                    case "jdk.ExecutionSample" -> {
+                        samples++;
+                        add(methods, topFrame(event.getStackTrace()), 1);
+                    }
+                    case "jdk.ObjectAllocationSample" ->
+                            add(allocations, topFrame(event.getStackTrace()), event.getLong("weight"));
+                    case "jdk.GarbageCollection" -> {
+                        collections++;
+                        Duration pause = event.getDuration("sumOfPauses");
+                        totalPause = totalPause.plus(pause);
+                        if (pause.compareTo(longestPause) > 0) {
+                            longestPause = pause;
+                        }
+                    }
+                    case "jdk.JavaMonitorEnter" -> {
+                        contended++;
+                        blocked = blocked.plus(event.getDuration());
+                        RecordedClass monitorClass = event.getClass("monitorClass");
+                        add(monitors, monitorClass != null ? monitorClass.getName() : null, 1);
+                    }
+                    default -> {
+                    }
+                }
+            }
+        }
+
+        return new JfrSummary(samples, top(methods, top), top(allocations, top),
+                new Gc(collections, totalPause.toMillis(), longestPause.toMillis()),
+                new Locks(contended, blocked.toMillis(), top(monitors, top)));
+    }
+
+    private static String topFrame(RecordedStackTrace stackTrace) {
+        if (stackTrace == null) {
+            return null;
+        }
+        for (RecordedFrame frame : stackTrace.getFrames()) {
+            if (frame.isJavaFrame()) {
+                return frame.getMethod().getType().getName() + "." + frame.getMethod().getName();
+            }
+        }
+        return null;
+    }
+
+    private static void add(Map<String, Long> counts, String key, long weight) {
+        if (key != null) {
+            counts.merge(key, weight, Long::sum);
+        }
+    }
+
+    private static List<Site> top(Map<String, Long> counts, int n) {
+        return counts.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue(Comparator.reverseOrder()).thenComparing(Map.Entry.comparingByKey()))
+                .limit(n)
+                .map(entry -> new Site(entry.getKey(), entry.getValue()))
+                .toList();
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.crudapp.repository;
+
+import com.example.crudapp.model.ArchivedEntry;
+import com.example.crudapp.model.EntryFingerprint;
+import com.example.crudapp.model.EntrySummary;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ArchivedEntryRepository extends JpaRepository<ArchivedEntry, Long> {
+
+    List<ArchivedEntry> findAllByOrderByIdAsc();
+
+    List<ArchivedEntry> findByDateBetweenOrderByDateAscIdAsc(LocalDate from, LocalDate to);
+
+    @Query("select new com.example.crudapp.model.EntrySummary(a.id, a.amountCents, a.date) from ArchivedEntry a order by a.id")
+    List<EntrySummary> findAllSummaries();
+
+    @Query("select new com.example.crudapp.model.EntrySummary(a.id, a.amountCents, a.date) from ArchivedEntry a where a.id = :id")
+    Optional<EntrySummary> findSummaryById(Long id);
+
+    @Query("select coalesce(sum(a.amountCents), 0) from ArchivedEntry a")
+    long sumAmountCents();
+
+    @Query("select new com.example.crudapp.model.EntryFingerprint(count(a), coalesce(max(a.id), 0L), "
+            + "coalesce(max(a.updatedAt), 0L)) from ArchivedEntry a")
+    EntryFingerprint fingerprint();
+
+    @Query("select a from ArchivedEntry a where a.updatedAt >= :from and a.updatedAt < :to order by a.updatedAt, a.id")
+    List<ArchivedEntry> findUpdatedBetween(long from, long to);
+
+    List<ArchivedEntry> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
+    @Modifying
+    @Query("delete from ArchivedEntry a where a.id in :ids")
+    int deleteEntriesByIds(Collection<Long> ids);
+
+    // Moves between the tiers. The ids are locked first (FOR UPDATE) so no write can land
+    // between copying a row and deleting it from the other table.
+
+    @Query(value = "SELECT id FROM entries WHERE date < :cutoff ORDER BY id LIMIT :limit FOR UPDATE", nativeQuery = true)
+    List<Long> lockHotIdsBefore(LocalDate cutoff, int limit);
+
+    @Query(value = "SELECT id FROM entries_archive WHERE date >= :cutoff ORDER BY id LIMIT :limit FOR UPDATE", nativeQuery = true)
+    List<Long> lockArchivedIdsFrom(LocalDate cutoff, int limit);
+
+    @Query(value = "SELECT id FROM entries_archive WHERE id = :id FOR UPDATE", nativeQuery = true)
+    List<Long> lockArchivedId(Long id);
+
+    @Modifying
+    @Query(value = "INSERT INTO entries_archive (id, amount_cents, description, date, updated_at, version, archived_at) "
+            + "SELECT id, amount_cents, description, date, updated_at, version, :archivedAt FROM entries WHERE id IN (:ids)",
+            nativeQuery = true)
+    int copyFromHot(Collection<Long> ids, long archivedAt);
+
+    @Modifying
+    @Query(value = "INSERT INTO entries (id, amount_cents, description, date, updated_at, version) "
+            + "SELECT id, amount_cents, description, date, updated_at, version FROM entries_archive WHERE id IN (:ids)",
+            nativeQuery = true)
+    int copyToHot(Collection<Long> ids);
+}
@@ -1,9 +1,63 @@
 package com.example.crudapp.repository;
 
 import com.example.crudapp.model.Entry;
+import com.example.crudapp.model.EntryFingerprint;
+import com.example.crudapp.model.EntrySummary;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
 @Repository
-public interface EntryRepository extends JpaRepository<Entry, Long> {
-}
\ No newline at end of file
+public interface EntryRepository extends JpaRepository<Entry, Long>, EntryRepositoryCustom {
+
+    // Projections: SELECT id, amount, date only
+    List<EntrySummary> findAllProjectedBy();
+
+    Optional<EntrySummary> findProjectedById(Long id);
+
+    // Exact integer sum in the database; no rows are transferred
+    @Query("select coalesce(sum(e.amountCents), 0) from Entry e")
+    long sumAmountCents();
+
+    // Index-only: count over the smallest index, max(id) and max(updated_at) from the end
+    // of the primary key and idx_entries_updated_at
+    @Query("select new com.example.crudapp.model.EntryFingerprint(count(e), coalesce(max(e.id), 0L), "
+            + "coalesce(max(e.updatedAt), 0L)) from Entry e")
+    EntryFingerprint fingerprint();
+
+    List<Entry> findByDateBetweenOrderByDateAscIdAsc(LocalDate from, LocalDate to);
+
+    // Delta sync: entries written within [from, to), served by idx_entries_updated_at
+    @Query("select e from Entry e where e.updatedAt >= :from and e.updatedAt < :to order by e.updatedAt, e.id")
+    List<Entry> findUpdatedBetween(long from, long to);
+
+    // Single-statement mutations: the affected row count decides 404/409, so there is no
+    // SELECT first. Bulk JPQL skips @PreUpdate and @Version handling, so both are set here.
+    @Modifying
+    @Query("update Entry e set e.amountCents = :amountCents, e.description = :description, e.date = :date, "
+            + "e.updatedAt = :updatedAt, e.version = e.version + 1 where e.id = :id")
+    int updateById(Long id, long amountCents, String description, LocalDate date, long updatedAt);
+
+    @Modifying
+    @Query("update Entry e set e.amountCents = :amountCents, e.description = :description, e.date = :date, "
+            + "e.updatedAt = :updatedAt, e.version = e.version + 1 where e.id = :id and e.version = :version")
+    int updateByIdAndVersion(Long id, long version, long amountCents, String description, LocalDate date, long updatedAt);
+
+    @Modifying
+    @Query("delete from Entry e where e.id = :id")
+    int deleteEntryById(Long id);
+
+    @Modifying
+    @Query("delete from Entry e where e.id in :ids")
+    int deleteEntriesByIds(Collection<Long> ids);
+
+    // Keyset paging for bulk scans: each page starts after the last id already read
+    List<Entry> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+}
@@ -0,0 +1,15 @@
+package com.example.crudapp.repository;
+
+import com.example.crudapp.model.Entry;
+
+public interface EntryRepositoryCustom {
+
+    /**
+     * UPDATE that sets only the properties present in {@code changes}: amount when
+     * {@link Entry#hasAmount()}, description and date when non-null.
+     *
+     * @param expectedVersion only update this version, or null to update any
+     * @return affected rows, 0 when the id or version did not match
+     */
+    int patchById(Long id, Entry changes, Long expectedVersion, long updatedAt);
+}
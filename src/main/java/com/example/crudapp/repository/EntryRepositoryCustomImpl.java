@@ -0,0 +1,41 @@
+package com.example.crudapp.repository;
+
+import com.example.crudapp.model.Entry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaUpdate;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+class EntryRepositoryCustomImpl implements EntryRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public int patchById(Long id, Entry changes, Long expectedVersion, long updatedAt) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaUpdate<Entry> update = cb.createCriteriaUpdate(Entry.class);
+        Root<Entry> entry = update.from(Entry.class);
+
+        if (changes.hasAmount()) {
+            update.set(entry.<Long>get("amountCents"), changes.getAmountCents());
+        }
+        if (changes.getDescription() != null) {
+            update.set(entry.<String>get("description"), changes.getDescription());
+        }
+        if (changes.getDate() != null) {
+            update.set(entry.get("date"), changes.getDate());
+        }
+        update.set(entry.<Long>get("updatedAt"), updatedAt);
+        update.set(entry.<Long>get("version"), cb.sum(entry.<Long>get("version"), 1L));
+
+        Predicate where = cb.equal(entry.get("id"), id);
+        if (expectedVersion != null) {
+            where = cb.and(where, cb.equal(entry.get("version"), expectedVersion));
+        }
+        update.where(where);
+        return entityManager.createQuery(update).executeUpdate();
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.crudapp.repository;
+
+import com.example.crudapp.model.EntryTombstone;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+@Repository
+public interface EntryTombstoneRepository extends JpaRepository<EntryTombstone, Long> {
+
+    @Query("select t from EntryTombstone t where t.deletedAt >= :from and t.deletedAt < :to order by t.deletedAt, t.id")
+    List<EntryTombstone> findDeletedBetween(long from, long to);
+
+    @Transactional
+    @Modifying
+    @Query("delete from EntryTombstone t where t.deletedAt < :cutoff")
+    int deleteOlderThan(long cutoff);
+}
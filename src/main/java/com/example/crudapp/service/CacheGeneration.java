@@ -0,0 +1,215 @@
+package com.example.crudapp.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Namespace for every entry cache key. Each key embeds the generation current at read
+ * time, and every committed write INCRs it. Keys from older generations are never read
+ * again.
+ *
+ * This closes the fill race. A reader that loaded from the database before a write
+ * committed stores its result under the generation it started with. By then that key
+ * is already dead. Invalidating everything, including every entry_* key, is also a
+ * single INCR.
+ *
+ * Every cache read needs the generation, so each node keeps it in memory instead of a
+ * GET per read. A node's own bump applies at once and is published on {@value #CHANNEL}
+ * for the others; the stored value is read again every {@code refresh-interval} in case
+ * a message was lost. Keys this node filled are unlinked as soon as their generation is
+ * superseded, instead of sitting in Redis for up to the hot-key TTL.
+ */
+@Component
+public class CacheGeneration {
+
+    private static final Logger logger = LoggerFactory.getLogger(CacheGeneration.class);
+    static final String GENERATION_KEY = "entries_generation";
+    static final String CHANNEL = "entries_generation_changed";
+
+    /** A generation and the keys this node filled under it. */
+    private record Current(long value, String label, String suffix, Set<String> filled) {
+        static Current of(long value) {
+            String label = Long.toString(value);
+            return new Current(value, label, key("", label), ConcurrentHashMap.newKeySet());
+        }
+    }
+
+    @Autowired
+    private RedisTemplate<String, String> redisTemplate;
+
+    @Autowired
+    private RedisConnectionFactory connectionFactory;
+
+    @Value("${app.cache.generation.refresh-interval:1s}")
+    private Duration refreshInterval;
+
+    @Value("${app.cache.generation.max-tracked-keys:10000}")
+    private int maxTrackedKeys;
+
+    private final AtomicReference<Current> current = new AtomicReference<>();
+    private final AtomicBoolean refreshing = new AtomicBoolean();
+    private volatile long refreshedAt;
+    private final ExecutorService retirer = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "cache-generation-retire");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private RedisMessageListenerContainer container;
+
+    @PostConstruct
+    public void init() {
+        container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener((message, pattern) -> {
+            try {
+                advance(Long.parseLong(new String(message.getBody(), StandardCharsets.UTF_8)));
+            } catch (NumberFormatException e) {
+                logger.warn("Ignoring malformed cache generation message");
+            }
+        }, new ChannelTopic(CHANNEL));
+        container.afterPropertiesSet();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        // Subscribing is a Redis round trip that retries while Redis is down; keep it off the startup path
+        Thread starter = new Thread(container::start, "cache-generation-subscribe");
+        starter.setDaemon(true);
+        starter.start();
+    }
+
+    @PreDestroy
+    public void close() throws Exception {
+        container.destroy();
+        retirer.shutdown();
+    }
+
+    /** The generation to read and fill under; "0" until the first write. */
+    public String current() {
+        Current known = current.get();
+        if (known == null) {
+            return refresh().label();
+        }
+        // Only one reader refreshes; the others keep using the value they have
+        if (System.nanoTime() - refreshedAt >= refreshInterval.toNanos() && refreshing.compareAndSet(false, true)) {
+            try {
+                known = refresh();
+            } catch (RuntimeException e) {
+                // The cache read that follows fails the same way and is handled there
+                logger.debug("Could not refresh the cache generation", e);
+            } finally {
+                refreshing.set(false);
+            }
+        }
+        return known.label();
+    }
+
+    public static String key(String base, String generation) {
+        return base + ":" + generation;
+    }
+
+    /**
+     * Notes a key this node filled, so it is unlinked once its generation is superseded.
+     * Keys of an older generation, or past {@code max-tracked-keys}, just age out.
+     */
+    public void filled(String cacheKey) {
+        Current known = current.get();
+        if (known != null && cacheKey.endsWith(known.suffix()) && known.filled().size() < maxTrackedKeys) {
+            known.filled().add(cacheKey);
+        }
+    }
+
+    /** Makes every cached entry value unreachable. */
+    public void bump() {
+        Long generation;
+        try {
+            generation = redisTemplate.opsForValue().increment(GENERATION_KEY);
+            logger.info("Cache generation is now {}", generation);
+        } catch (Exception e) {
+            logger.error("Error bumping cache generation; cached entries may be stale for up to {} s",
+                    EntryService.CACHE_TTL, e);
+            return;
+        }
+        advance(generation);
+        try {
+            redisTemplate.convertAndSend(CHANNEL, generation.toString());
+        } catch (Exception e) {
+            logger.warn("Could not publish cache generation {}; other nodes see it within {}", generation,
+                    refreshInterval, e);
+        }
+    }
+
+    // After commit: bumping earlier would let a reader refill the new generation from
+    // data the write has not committed yet
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEntryChanged(EntryChangedEvent event) {
+        bump();
+    }
+
+    private Current refresh() {
+        Current before = current.get();
+        String stored = redisTemplate.opsForValue().get(GENERATION_KEY);
+        long value = stored != null ? Long.parseLong(stored) : 0;
+        refreshedAt = System.nanoTime();
+        // Taken even when lower (Redis lost the key), unless a newer bump or message
+        // arrived while the GET was in flight
+        if (before == null || before.value() != value) {
+            Current next = Current.of(value);
+            if (current.compareAndSet(before, next)) {
+                retire(before);
+            }
+        }
+        return current.get();
+    }
+
+    /** Moves to a generation learned from a bump or a message, never backwards. */
+    private void advance(long value) {
+        while (true) {
+            Current known = current.get();
+            if (known != null && known.value() >= value) {
+                return;
+            }
+            Current next = Current.of(value);
+            if (current.compareAndSet(known, next)) {
+                retire(known);
+                return;
+            }
+        }
+    }
+
+    private void retire(Current superseded) {
+        if (superseded == null || superseded.filled().isEmpty()) {
+            return;
+        }
+        Set<String> keys = superseded.filled();
+        retirer.execute(() -> {
+            try {
+                redisTemplate.unlink(keys);
+            } catch (Exception e) {
+                logger.debug("Could not unlink {} keys of generation {}; they age out", keys.size(),
+                        superseded.label(), e);
+            }
+        });
+    }
+}
@@ -0,0 +1,239 @@
+package com.example.crudapp.service;
+
+import com.example.crudapp.config.PrimaryReads;
+import com.example.crudapp.journal.EntryJournal;
+import com.example.crudapp.model.Entry;
+import com.example.crudapp.repository.EntryRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.types.Expiration;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.YearMonth;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Preloads the keys the first wave of traffic asks for: the full list, the most recent
+ * months and the hottest entries by read count. Runs after startup, where readiness
+ * waits for it up to a time budget, and again in the background after every bulk
+ * invalidation. All values go to Redis in one pipelined round trip.
+ *
+ * The entries come from the change journal when it matches the database, so a restart
+ * reads local files instead of scanning the tables. After a scan, the result becomes
+ * the journal's new snapshot.
+ */
+@Component
+public class CacheWarmer {
+
+    private static final Logger logger = LoggerFactory.getLogger(CacheWarmer.class);
+    private static final int MAX_ATTEMPTS = 3;
+
+    @Autowired
+    private EntryRepository entryRepository;
+
+    @Autowired
+    private RedisTemplate<String, String> redisTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private EntryAccessTracker accessTracker;
+
+    @Autowired
+    private CacheGeneration cacheGeneration;
+
+    @Autowired
+    private EntryArchive entryArchive;
+
+    @Autowired
+    private ShadowCache shadowCache;
+
+    @Autowired
+    private EntryJournal entryJournal;
+
+    @Autowired
+    private HotKeyTracker hotKeys;
+
+    @Value("${app.cache.warmup.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.cache.warmup.budget:30s}")
+    private Duration budget;
+
+    @Value("${app.cache.warmup.recent-months:3}")
+    private int recentMonths;
+
+    @Value("${app.cache.warmup.hot-entries:200}")
+    private int hotEntries;
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "cache-warmup");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicBoolean queued = new AtomicBoolean();
+
+    private volatile boolean startupComplete;
+    private volatile long startupDeadline = Long.MAX_VALUE;
+
+    /** True once the startup warm-up finished, failed, or ran past its budget. */
+    public boolean isStartupComplete() {
+        return !enabled || startupComplete || System.nanoTime() - startupDeadline >= 0;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (!enabled) {
+            return;
+        }
+        startupDeadline = System.nanoTime() + budget.toNanos();
+        submit("startup");
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCachesCleared(CachesClearedEvent event) {
+        if (enabled) {
+            submit("invalidation");
+        }
+    }
+
+    private void submit(String reason) {
+        // A warm-up that has not started yet will read the latest data anyway
+        if (queued.compareAndSet(false, true)) {
+            executor.execute(() -> {
+                queued.set(false);
+                try {
+                    warmUp(reason);
+                } finally {
+                    startupComplete = true;
+                }
+            });
+        }
+    }
+
+    void warmUp(String reason) {
+        long started = System.nanoTime();
+        try {
+            Map<String, String> values = null;
+            String generation = null;
+            for (int attempt = 0; attempt < MAX_ATTEMPTS && values == null; attempt++) {
+                generation = cacheGeneration.current();
+                // Fills the shared cache, so nothing may come from a lagging replica
+                Map<String, String> loaded = PrimaryReads.call(this::load);
+                // A write that committed while we were reading has moved the generation on;
+                // the keys we would fill are already dead, so read again under the new one
+                if (generation.equals(cacheGeneration.current())) {
+                    values = loaded;
+                }
+            }
+            if (values == null) {
+                logger.info("Cache warm-up ({}) skipped: entries kept changing", reason);
+                return;
+            }
+
+            writePipelined(values, generation);
+            logger.info("Cache warm-up ({}) wrote {} keys in {} ms", reason, values.size(),
+                    (System.nanoTime() - started) / 1_000_000);
+        } catch (Exception e) {
+            logger.warn("Cache warm-up ({}) failed after {} ms", reason,
+                    (System.nanoTime() - started) / 1_000_000, e);
+        }
+    }
+
+    /** JSON by base key; the generation is added when writing. */
+    private Map<String, String> load() throws JsonProcessingException {
+        List<Entry> journaled = entryJournal.currentEntries();
+        if (journaled != null) {
+            return loadFrom(journaled);
+        }
+
+        long journalOffset = entryJournal.offset();
+        Map<String, String> values = new LinkedHashMap<>();
+        List<Entry> all = EntryArchive.merge(entryRepository.findAll(), entryArchive.findAll(), EntryArchive.BY_ID);
+        values.put(EntryService.ALL_ENTRIES_CACHE_KEY, toJson(all));
+
+        YearMonth month = YearMonth.now();
+        for (int i = 0; i < recentMonths; i++, month = month.minusMonths(1)) {
+            List<Entry> entries = EntryArchive.merge(
+                    entryRepository.findByDateBetweenOrderByDateAscIdAsc(month.atDay(1), month.atEndOfMonth()),
+                    entryArchive.findByDateBetween(month.atDay(1), month.atEndOfMonth()), EntryArchive.BY_DATE);
+            values.put(EntryService.ENTRIES_MONTH_CACHE_KEY_PREFIX + month, toJson(entries));
+        }
+
+        for (Entry entry : entryRepository.findAllById(accessTracker.hottest(hotEntries))) {
+            values.put(EntryService.ENTRY_CACHE_KEY_PREFIX + entry.getId(), toJson(entry));
+        }
+
+        entryJournal.rebase(journalOffset, all);
+        return values;
+    }
+
+    /** The same keys, cut from every entry already in memory. */
+    private Map<String, String> loadFrom(List<Entry> all) throws JsonProcessingException {
+        Map<String, String> values = new LinkedHashMap<>();
+        values.put(EntryService.ALL_ENTRIES_CACHE_KEY, toJson(all));
+
+        YearMonth month = YearMonth.now();
+        for (int i = 0; i < recentMonths; i++, month = month.minusMonths(1)) {
+            YearMonth current = month;
+            List<Entry> entries = all.stream()
+                    .filter(entry -> YearMonth.from(entry.getDate()).equals(current))
+                    .sorted(EntryArchive.BY_DATE)
+                    .toList();
+            values.put(EntryService.ENTRIES_MONTH_CACHE_KEY_PREFIX + month, toJson(entries));
+        }
+
+        Map<Long, Entry> byId = all.stream().collect(Collectors.toMap(Entry::getId, Function.identity()));
+        for (Long id : accessTracker.hottest(hotEntries)) {
+            Entry entry = byId.get(id);
+            if (entry != null) {
+                values.put(EntryService.ENTRY_CACHE_KEY_PREFIX + id, toJson(entry));
+            }
+        }
+        return values;
+    }
+
+    private void writePipelined(Map<String, String> values, String generation) {
+        redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            values.forEach((baseKey, value) -> {
+                // Same per-key TTL as a fill on the read path, so hot keys do not expire early
+                long ttl = hotKeys.warmUpTtlSeconds(baseKey);
+                if (ttl > 0) {
+                    String cacheKey = CacheGeneration.key(baseKey, generation);
+                    connection.stringCommands().set(
+                            cacheKey.getBytes(StandardCharsets.UTF_8),
+                            value.getBytes(StandardCharsets.UTF_8),
+                            Expiration.seconds(ttl),
+                            RedisStringCommands.SetOption.upsert());
+                    cacheGeneration.filled(cacheKey);
+                    shadowCache.write(connection, baseKey, value);
+                }
+            });
+            return null;
+        });
+    }
+
+    private String toJson(Object value) throws JsonProcessingException {
+        return objectMapper.writeValueAsString(value);
+    }
+}
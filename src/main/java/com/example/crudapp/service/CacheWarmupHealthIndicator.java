@@ -0,0 +1,25 @@
+package com.example.crudapp.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+/**
+ * Member of the readiness group: the instance stays out of service until the startup
+ * cache warm-up is done or its time budget has run out.
+ */
+@Component
+public class CacheWarmupHealthIndicator implements HealthIndicator {
+
+    @Autowired
+    private CacheWarmer cacheWarmer;
+
+    @Override
+    public Health health() {
+        if (cacheWarmer.isStartupComplete()) {
+            return Health.up().build();
+        }
+        return Health.outOfService().withDetail("reason", "Cache warm-up in progress").build();
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.crudapp.service;
+
+/**
+ * Published after a bulk invalidation (deleteAllEntries, clearAllCaches) left every
+ * list and entry key cold. CacheWarmer listens for it to preload the hot keys again.
+ */
+public record CachesClearedEvent() {}
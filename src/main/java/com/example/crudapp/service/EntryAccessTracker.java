@@ -0,0 +1,122 @@
+package com.example.crudapp.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Range;
+import org.springframework.data.redis.connection.zset.Aggregate;
+import org.springframework.data.redis.connection.zset.Weights;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts reads per entry id and periodically folds the counts into a Redis sorted set
+ * shared by all instances, so a freshly started node knows which entries are hot.
+ * Recording is a map lookup and an add; Redis is only touched by the flush.
+ *
+ * The set follows recent traffic: once per {@code decay-interval}, whichever instance
+ * flushes first halves every score and drops ids whose score fell below one, and each
+ * flush trims it to the {@code max-tracked} hottest ids. Between flushes at most
+ * {@code max-pending} distinct ids are counted; reads of further ids are not.
+ */
+@Component
+public class EntryAccessTracker {
+
+    private static final Logger logger = LoggerFactory.getLogger(EntryAccessTracker.class);
+    static final String ACCESS_COUNTS_KEY = "entry_access_counts";
+    static final String DECAYED_KEY = "entry_access_counts_decayed";
+
+    @Autowired
+    private RedisTemplate<String, String> redisTemplate;
+
+    @Value("${app.cache.access-tracking.max-tracked:10000}")
+    private int maxTracked;
+
+    @Value("${app.cache.access-tracking.max-pending:10000}")
+    private int maxPending;
+
+    @Value("${app.cache.access-tracking.decay-interval:1h}")
+    private Duration decayInterval;
+
+    private final Map<Long, LongAdder> pending = new ConcurrentHashMap<>();
+
+    public void record(Long id) {
+        if (id == null) {
+            return;
+        }
+        LongAdder adder = pending.get(id);
+        if (adder == null) {
+            if (pending.size() >= maxPending) {
+                return;
+            }
+            adder = pending.computeIfAbsent(id, k -> new LongAdder());
+        }
+        adder.increment();
+    }
+
+    @Scheduled(fixedDelayString = "${app.cache.access-tracking.flush-interval:10000}")
+    public void flush() {
+        List<Map.Entry<Long, Long>> counts = new ArrayList<>();
+        for (Long id : pending.keySet()) {
+            LongAdder adder = pending.remove(id);
+            if (adder != null) {
+                counts.add(Map.entry(id, adder.sum()));
+            }
+        }
+        byte[] key = ACCESS_COUNTS_KEY.getBytes(StandardCharsets.UTF_8);
+        try {
+            // Claimed by one instance per interval, so the halving does not compound
+            boolean decay = Boolean.TRUE.equals(
+                    redisTemplate.opsForValue().setIfAbsent(DECAYED_KEY, "1", decayInterval));
+            if (counts.isEmpty() && !decay) {
+                return;
+            }
+            redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                if (decay) {
+                    connection.zSetCommands().zUnionStore(key, Aggregate.SUM, Weights.of(0.5), key);
+                    connection.zSetCommands().zRemRangeByScore(key, Range.rightOpen(0.0, 1.0));
+                }
+                for (Map.Entry<Long, Long> count : counts) {
+                    connection.zSetCommands().zIncrBy(key, count.getValue(),
+                            String.valueOf(count.getKey()).getBytes(StandardCharsets.UTF_8));
+                }
+                // Keep only the hottest ids
+                connection.zSetCommands().zRemRange(key, 0, -(maxTracked + 1L));
+                return null;
+            });
+        } catch (Exception e) {
+            logger.warn("Could not flush {} entry access counts to Redis", counts.size(), e);
+        }
+    }
+
+    int pendingIds() {
+        return pending.size();
+    }
+
+    /** Ids with the most recorded reads across all instances, hottest first. */
+    public List<Long> hottest(int limit) {
+        List<Long> ids = new ArrayList<>();
+        if (limit <= 0) {
+            return ids;
+        }
+        Set<String> members = redisTemplate.opsForZSet().reverseRange(ACCESS_COUNTS_KEY, 0, limit - 1L);
+        if (members != null) {
+            for (String member : members) {
+                ids.add(Long.valueOf(member));
+            }
+        }
+        return ids;
+    }
+}
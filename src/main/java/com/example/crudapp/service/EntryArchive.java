@@ -0,0 +1,211 @@
+package com.example.crudapp.service;
+
+import com.example.crudapp.model.ArchivedEntry;
+import com.example.crudapp.model.Entry;
+import com.example.crudapp.model.EntryFingerprint;
+import com.example.crudapp.model.EntrySummary;
+import com.example.crudapp.repository.ArchivedEntryRepository;
+import com.example.crudapp.repository.EntryRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Cold tier for old entries. Entries dated before the cutoff, the first day of the month
+ * {@code retention-months} ago, are moved from {@code entries} to
+ * {@code entries_archive} in the background, so the hot table and its scans only cover
+ * recent history. The content of a row does not change when it moves, so caches, delta
+ * sync and the change feed are not involved.
+ *
+ * Reads of the archive side are here; EntryService combines them with the hot table.
+ * A date range that starts on or after the cutoff never touches the archive. Writing to
+ * an archived entry restores it first; raising the retention moves rows back on the
+ * next run.
+ */
+@Service
+public class EntryArchive {
+
+    private static final Logger logger = LoggerFactory.getLogger(EntryArchive.class);
+
+    public static final Comparator<Entry> BY_ID = Comparator.comparing(Entry::getId);
+    public static final Comparator<Entry> BY_DATE = Comparator.comparing(Entry::getDate).thenComparing(Entry::getId);
+    public static final Comparator<Entry> BY_UPDATED_AT =
+            Comparator.comparingLong(Entry::getUpdatedAt).thenComparing(Entry::getId);
+
+    @Autowired
+    private ArchivedEntryRepository archivedEntryRepository;
+
+    @Autowired
+    private EntryRepository entryRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${app.archive.enabled:false}")
+    private boolean enabled;
+
+    @Value("${app.archive.retention-months:24}")
+    private int retentionMonths;
+
+    @Value("${app.archive.batch-size:1000}")
+    private int batchSize;
+
+    /** Entries dated before this belong in the archive. */
+    public LocalDate cutoff() {
+        return YearMonth.now().minusMonths(retentionMonths).atDay(1);
+    }
+
+    /** Both lists sorted by {@code order}; the hot list itself when nothing is archived. */
+    public static <T> List<T> merge(List<T> hot, List<T> archived, Comparator<? super T> order) {
+        if (archived.isEmpty()) {
+            return hot;
+        }
+        List<T> merged = new ArrayList<>(hot.size() + archived.size());
+        merged.addAll(hot);
+        merged.addAll(archived);
+        merged.sort(order);
+        return merged;
+    }
+
+    public List<Entry> findAll() {
+        return toEntries(archivedEntryRepository.findAllByOrderByIdAsc());
+    }
+
+    public Optional<Entry> findById(Long id) {
+        return archivedEntryRepository.findById(id).map(ArchivedEntry::toEntry);
+    }
+
+    public List<Entry> findAllById(Collection<Long> ids) {
+        return toEntries(archivedEntryRepository.findAllById(ids));
+    }
+
+    public List<Entry> findByDateBetween(LocalDate from, LocalDate to) {
+        if (!from.isBefore(cutoff())) {
+            return List.of();
+        }
+        return toEntries(archivedEntryRepository.findByDateBetweenOrderByDateAscIdAsc(from, to));
+    }
+
+    public List<EntrySummary> findAllSummaries() {
+        return archivedEntryRepository.findAllSummaries();
+    }
+
+    public Optional<EntrySummary> findSummaryById(Long id) {
+        return archivedEntryRepository.findSummaryById(id);
+    }
+
+    public long sumAmountCents() {
+        return archivedEntryRepository.sumAmountCents();
+    }
+
+    public EntryFingerprint fingerprint() {
+        return archivedEntryRepository.fingerprint();
+    }
+
+    public List<Entry> findUpdatedBetween(long from, long to) {
+        return toEntries(archivedEntryRepository.findUpdatedBetween(from, to));
+    }
+
+    public List<Entry> findPageAfter(long id, int size) {
+        return toEntries(archivedEntryRepository.findByIdGreaterThanOrderByIdAsc(id, PageRequest.of(0, size)));
+    }
+
+    /** @return false when the entry is not archived */
+    @Transactional
+    public boolean delete(Long id) {
+        return archivedEntryRepository.deleteEntriesByIds(List.of(id)) > 0;
+    }
+
+    @Transactional
+    public void deleteAll() {
+        archivedEntryRepository.deleteAllInBatch();
+    }
+
+    /**
+     * Moves an archived entry back to the hot table, for a write that found no hot row.
+     * The archive row is locked first, so of two concurrent writers only one moves it.
+     *
+     * @return false when the entry is not archived
+     */
+    @Transactional
+    public boolean restore(Long id) {
+        if (archivedEntryRepository.lockArchivedId(id).isEmpty()) {
+            return false;
+        }
+        archivedEntryRepository.copyToHot(List.of(id));
+        archivedEntryRepository.deleteEntriesByIds(List.of(id));
+        logger.info("Restored archived entry {}", id);
+        return true;
+    }
+
+    /**
+     * Brings both tables in line with the current cutoff, one transaction per batch so
+     * row locks are held briefly: older hot rows move out, newer archived rows (after the
+     * retention was raised) move back.
+     */
+    @Scheduled(initialDelayString = "${app.archive.initial-delay:60000}", fixedDelayString = "${app.archive.interval:3600000}")
+    public void archiveOldEntries() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            LocalDate cutoff = cutoff();
+            TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+            long archived = 0;
+            int moved;
+            do {
+                moved = transaction.execute(status -> archiveBatch(cutoff));
+                archived += moved;
+            } while (moved == batchSize);
+            long restored = 0;
+            do {
+                moved = transaction.execute(status -> restoreBatch(cutoff));
+                restored += moved;
+            } while (moved == batchSize);
+            if (archived > 0 || restored > 0) {
+                logger.info("Archive cutoff {}: archived {} entries, restored {}", cutoff, archived, restored);
+            }
+        } catch (Exception e) {
+            logger.error("Error archiving entries", e);
+        }
+    }
+
+    int archiveBatch(LocalDate cutoff) {
+        List<Long> ids = archivedEntryRepository.lockHotIdsBefore(cutoff, batchSize);
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        archivedEntryRepository.copyFromHot(ids, System.currentTimeMillis());
+        entryRepository.deleteEntriesByIds(ids);
+        return ids.size();
+    }
+
+    int restoreBatch(LocalDate cutoff) {
+        List<Long> ids = archivedEntryRepository.lockArchivedIdsFrom(cutoff, batchSize);
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        archivedEntryRepository.copyToHot(ids);
+        archivedEntryRepository.deleteEntriesByIds(ids);
+        return ids.size();
+    }
+
+    private static List<Entry> toEntries(List<ArchivedEntry> archived) {
+        return archived.stream().map(ArchivedEntry::toEntry).toList();
+    }
+}
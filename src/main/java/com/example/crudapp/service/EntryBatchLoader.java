@@ -0,0 +1,269 @@
+package com.example.crudapp.service;
+
+import com.example.crudapp.config.PrimaryReads;
+import com.example.crudapp.health.DatabaseCircuit;
+import com.example.crudapp.model.Entry;
+import com.example.crudapp.repository.EntryRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.types.Expiration;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Coalesces concurrent lookups by id into one Redis MGET and one {@code findAllById}.
+ *
+ * The first caller to arrive opens a batch and, if other lookups are in flight, waits up
+ * to {@code window} for more ids; the caller that fills the batch to {@code max-size}
+ * resolves it at once instead. The resolving caller does the work on its own request
+ * thread, inside its read-only transaction, and completes everyone's future. Without
+ * concurrent lookups nothing waits, so a quiet node pays no extra latency.
+ *
+ * The database read goes to the primary: it fills the shared cache, and the leader's
+ * read-your-writes window says nothing about the other callers' writes. Its statements
+ * are counted in the leader's SQL stats.
+ */
+@Component
+public class EntryBatchLoader {
+
+    private static final Logger logger = LoggerFactory.getLogger(EntryBatchLoader.class);
+
+    private static final class Batch {
+        final Map<Long, CompletableFuture<Entry>> futures = new LinkedHashMap<>();
+    }
+
+    @Autowired
+    private EntryRepository entryRepository;
+
+    @Autowired
+    private EntryArchive entryArchive;
+
+    @Autowired
+    private RedisTemplate<String, String> redisTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private CacheGeneration cacheGeneration;
+
+    @Autowired
+    private HotKeyTracker hotKeys;
+
+    @Autowired
+    private ShadowCache shadowCache;
+
+    @Autowired
+    private DatabaseCircuit databaseCircuit;
+
+    @Value("${app.entries.batch.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.entries.batch.window:2ms}")
+    private Duration window;
+
+    @Value("${app.entries.batch.max-size:100}")
+    private int maxSize;
+
+    private final Object lock = new Object();
+    private Batch open;
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /** The entry with this id from Redis or the database, or null if there is none. */
+    public Entry load(Long id) {
+        String baseKey = EntryService.ENTRY_CACHE_KEY_PREFIX + id;
+        hotKeys.record(baseKey);
+        inFlight.incrementAndGet();
+        try {
+            Batch batch;
+            CompletableFuture<Entry> future;
+            boolean leader = false;
+            boolean full = false;
+            synchronized (lock) {
+                if (open == null) {
+                    open = new Batch();
+                    leader = true;
+                }
+                batch = open;
+                future = batch.futures.computeIfAbsent(id, k -> new CompletableFuture<>());
+                if (batch.futures.size() >= maxSize) {
+                    open = null;
+                    full = true;
+                }
+            }
+
+            if (full) {
+                resolve(batch);
+            } else if (leader) {
+                if (inFlight.get() > 1) {
+                    long deadline = System.nanoTime() + window.toNanos();
+                    for (long left = window.toNanos(); left > 0 && !future.isDone(); left = deadline - System.nanoTime()) {
+                        LockSupport.parkNanos(left);
+                    }
+                }
+                boolean mine;
+                synchronized (lock) {
+                    // Already resolved by the caller that filled it
+                    mine = open == batch;
+                    if (mine) {
+                        open = null;
+                    }
+                }
+                if (mine) {
+                    resolve(batch);
+                }
+            }
+
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        } finally {
+            inFlight.decrementAndGet();
+        }
+    }
+
+    void resolve(Batch batch) {
+        Map<Long, CompletableFuture<Entry>> futures = batch.futures;
+        try {
+            String generation = cacheGeneration.current();
+            List<Long> misses = readCached(futures, generation);
+            if (!misses.isEmpty()) {
+                List<Entry> found;
+                long started = System.nanoTime();
+                try {
+                    found = PrimaryReads.call(() -> findAllById(misses));
+                } catch (DataAccessException | TransactionException e) {
+                    // Each caller falls back on its shadow copy, see EntryService
+                    databaseCircuit.onFailure(e);
+                    throw e;
+                }
+                databaseCircuit.onSuccess(System.nanoTime() - started);
+                Map<String, String> fills = new LinkedHashMap<>();
+                for (Entry entry : found) {
+                    String baseKey = EntryService.ENTRY_CACHE_KEY_PREFIX + entry.getId();
+                    String jsonData = objectMapper.writeValueAsString(entry);
+                    fills.put(baseKey, jsonData);
+                    hotKeys.pin(baseKey, CacheGeneration.key(baseKey, generation), jsonData);
+                    futures.get(entry.getId()).complete(entry);
+                }
+                fill(fills, generation);
+            }
+            logger.debug("Resolved {} entry lookups, {} from the database", futures.size(), misses.size());
+        } catch (Exception e) {
+            logger.error("Error resolving a batch of {} entry lookups", futures.size(), e);
+            futures.values().forEach(future -> future.completeExceptionally(e));
+        }
+        // Whatever was found neither in Redis nor in either table does not exist
+        futures.values().forEach(future -> future.complete(null));
+    }
+
+    /** Completes the pinned and Redis hits; returns the ids left to read from the database. */
+    private List<Long> readCached(Map<Long, CompletableFuture<Entry>> futures, String generation) {
+        List<Long> ids = new ArrayList<>(futures.size());
+        List<String> keys = new ArrayList<>(futures.size());
+        List<Long> misses = new ArrayList<>();
+        for (Long id : futures.keySet()) {
+            String baseKey = EntryService.ENTRY_CACHE_KEY_PREFIX + id;
+            String cacheKey = CacheGeneration.key(baseKey, generation);
+            String pinned = hotKeys.pinned(baseKey, cacheKey);
+            if (pinned != null && complete(futures.get(id), pinned)) {
+                continue;
+            }
+            ids.add(id);
+            keys.add(cacheKey);
+        }
+        if (ids.isEmpty()) {
+            return misses;
+        }
+
+        List<String> values = null;
+        try {
+            values = redisTemplate.opsForValue().multiGet(keys);
+        } catch (Exception e) {
+            logger.error("Redis MGET of {} entries failed, reading them from the database", keys.size(), e);
+        }
+        for (int i = 0; i < ids.size(); i++) {
+            String cachedData = values != null ? values.get(i) : null;
+            if (cachedData != null && complete(futures.get(ids.get(i)), cachedData)) {
+                hotKeys.pin(EntryService.ENTRY_CACHE_KEY_PREFIX + ids.get(i), keys.get(i), cachedData);
+            } else {
+                misses.add(ids.get(i));
+            }
+        }
+        return misses;
+    }
+
+    private boolean complete(CompletableFuture<Entry> future, String cachedData) {
+        try {
+            return future.complete(objectMapper.readValue(cachedData, Entry.class));
+        } catch (JsonProcessingException e) {
+            logger.error("Error processing cached entry JSON", e);
+            return false;
+        }
+    }
+
+    private List<Entry> findAllById(List<Long> ids) {
+        List<Entry> entries = new ArrayList<>(entryRepository.findAllById(ids));
+        if (entries.size() < ids.size()) {
+            Set<Long> found = new HashSet<>();
+            entries.forEach(entry -> found.add(entry.getId()));
+            List<Long> rest = ids.stream().filter(id -> !found.contains(id)).toList();
+            entries.addAll(entryArchive.findAllById(rest));
+        }
+        return entries;
+    }
+
+    private void fill(Map<String, String> fills, String generation) {
+        if (fills.isEmpty()) {
+            return;
+        }
+        try {
+            redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                fills.forEach((baseKey, value) -> {
+                    long ttl = hotKeys.ttlSeconds(baseKey);
+                    if (ttl > 0) {
+                        String cacheKey = CacheGeneration.key(baseKey, generation);
+                        connection.stringCommands().set(
+                                cacheKey.getBytes(StandardCharsets.UTF_8),
+                                value.getBytes(StandardCharsets.UTF_8),
+                                Expiration.seconds(ttl),
+                                RedisStringCommands.SetOption.upsert());
+                        cacheGeneration.filled(cacheKey);
+                        shadowCache.write(connection, baseKey, value);
+                    }
+                });
+                return null;
+            });
+        } catch (Exception e) {
+            logger.error("Error caching {} entries", fills.size(), e);
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.crudapp.service;
+
+import com.example.crudapp.model.Entry;
+
+/**
+ * Published by EntryService for every mutation. Listeners that keep derived state
+ * should use {@code @TransactionalEventListener(fallbackExecution = true)} so they only
+ * see changes that actually committed.
+ *
+ * @param entryId null for CLEARED and IMPORTED
+ * @param entry   the saved entry for CREATED/UPDATED, null otherwise
+ */
+public record EntryChangedEvent(Type type, Long entryId, Entry entry) {
+
+    /**
+     * IMPORTED is one event for a whole bulk import; its rows have to be read back.
+     * The change journal stores the ordinal, so new types go at the end.
+     */
+    public enum Type { CREATED, UPDATED, DELETED, CLEARED, IMPORTED }
+
+    public static EntryChangedEvent created(Entry entry) {
+        return new EntryChangedEvent(Type.CREATED, entry.getId(), entry);
+    }
+
+    public static EntryChangedEvent updated(Entry entry) {
+        return new EntryChangedEvent(Type.UPDATED, entry.getId(), entry);
+    }
+
+    public static EntryChangedEvent deleted(Long id) {
+        return new EntryChangedEvent(Type.DELETED, id, null);
+    }
+
+    public static EntryChangedEvent cleared() {
+        return new EntryChangedEvent(Type.CLEARED, null, null);
+    }
+
+    public static EntryChangedEvent imported() {
+        return new EntryChangedEvent(Type.IMPORTED, null, null);
+    }
+}
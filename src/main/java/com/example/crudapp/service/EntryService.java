@@ -1,76 +1,147 @@
 package com.example.crudapp.service;
 
+import com.example.crudapp.config.PrimaryReads;
+import com.example.crudapp.health.DatabaseCircuit;
+import com.example.crudapp.health.DatabaseUnavailableException;
+import com.example.crudapp.limit.LoadShedding;
+import com.example.crudapp.limit.RetryLaterException;
 import com.example.crudapp.model.Entry;
+import com.example.crudapp.model.EntrySummary;
+import com.example.crudapp.model.EntryTombstone;
 import com.example.crudapp.repository.EntryRepository;
+import com.example.crudapp.repository.EntryTombstoneRepository;
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JavaType;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.type.TypeFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.interceptor.TransactionAspectSupport;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.time.Instant;
+import java.time.YearMonth;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 
 @Service
 public class EntryService {
     
     private static final Logger logger = LoggerFactory.getLogger(EntryService.class);
-    private static final String ALL_ENTRIES_CACHE_KEY = "all_entries";
-    private static final String ENTRY_CACHE_KEY_PREFIX = "entry_";
-    private static final int CACHE_TTL = 60; // seconds
+    static final String ALL_ENTRIES_CACHE_KEY = "all_entries";
+    static final String ENTRY_CACHE_KEY_PREFIX = "entry_";
+    static final String ENTRIES_MONTH_CACHE_KEY_PREFIX = "entries_month_";
+    // Projection caches are keyed separately so a summary never satisfies a full read
+    private static final String ALL_ENTRY_SUMMARIES_CACHE_KEY = "all_entries_summary";
+    static final String ENTRY_SUMMARY_CACHE_KEY_PREFIX = "entry_summary_";
+    // Seconds; HotKeyTracker lengthens it for hot keys and shortens it for cold ones
+    static final int CACHE_TTL = 60;
+    // Resolved once instead of on every cache hit
+    private static final JavaType ENTRY = TypeFactory.defaultInstance().constructType(Entry.class);
+    private static final JavaType ENTRY_SUMMARY = TypeFactory.defaultInstance().constructType(EntrySummary.class);
+    private static final JavaType ENTRY_LIST =
+            TypeFactory.defaultInstance().constructCollectionType(List.class, Entry.class);
+    private static final JavaType ENTRY_SUMMARY_LIST =
+            TypeFactory.defaultInstance().constructCollectionType(List.class, EntrySummary.class);
     
     @Autowired
     private EntryRepository entryRepository;
     
+    @Autowired
+    private EntryTombstoneRepository tombstoneRepository;
+    
     @Autowired
     private RedisTemplate<String, String> redisTemplate;
     
     @Autowired
     private ObjectMapper objectMapper;
     
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
+    @Autowired
+    private EntryAccessTracker accessTracker;
+    
+    @Autowired
+    private CacheGeneration cacheGeneration;
+    
+    @Autowired
+    private EntryArchive entryArchive;
+    
+    @Autowired
+    private HotKeyTracker hotKeys;
+    
+    @Autowired
+    private EntryBatchLoader batchLoader;
+    
+    @Autowired
+    private ShadowCache shadowCache;
+    
+    @Autowired
+    private DatabaseCircuit databaseCircuit;
+    
+    @Transactional(readOnly = true)
     public List<Entry> getAllEntries() {
         try {
             // Try to get from cache first
-            String cachedData = redisTemplate.opsForValue().get(ALL_ENTRIES_CACHE_KEY);
+            String baseKey = ALL_ENTRIES_CACHE_KEY;
+            String cacheKey = CacheGeneration.key(baseKey, cacheGeneration.current());
+            String cachedData = readCache(baseKey, cacheKey);
             
             if (cachedData != null) {
                 logger.info("Serving all entries from Redis cache");
-                return objectMapper.readValue(cachedData, 
-                    objectMapper.getTypeFactory().constructCollectionType(List.class, Entry.class));
+                return objectMapper.readValue(cachedData, ENTRY_LIST);
             } else {
                 logger.info("Cache miss: No cache found for all entries, fetching from database");
             }
             
-            // Fetch from database
-            List<Entry> entries = entryRepository.findAll();
-            
-            // Cache the result
-            logger.info("Serving all entries from Database and caching the result");
-            String jsonData = objectMapper.writeValueAsString(entries);
-            redisTemplate.opsForValue().set(ALL_ENTRIES_CACHE_KEY, jsonData, CACHE_TTL, TimeUnit.SECONDS);
-            
-            return entries;
+            // Fetch from database and cache the result, or serve it stale
+            return fetch(baseKey, cacheKey, ENTRY_LIST, this::findAllEntries);
             
         } catch (JsonProcessingException e) {
             logger.error("Error processing JSON for cache", e);
             // Fallback to database only
-            return entryRepository.findAll();
+            return findAllEntries();
+        } catch (RetryLaterException e) {
+            throw e;
         } catch (Exception e) {
             logger.error("Redis Fetch Error", e);
             // Fallback to database only
-            return entryRepository.findAll();
+            return findAllEntries();
         }
     }
     
+    @Transactional(readOnly = true)
     public Entry getEntryById(Long id) {
-        String cacheKey = ENTRY_CACHE_KEY_PREFIX + id;
+        accessTracker.record(id);
+        
+        // Cache-only requests keep the single-key path, which sheds on a miss, and so do
+        // requests while the database is unavailable or saturated
+        if (batchLoader.isEnabled() && !LoadShedding.isCacheOnly()
+                && databaseCircuit.state() == DatabaseCircuit.State.AVAILABLE) {
+            try {
+                return batchLoader.load(id);
+            } catch (DataAccessException | TransactionException e) {
+                // The batch has reported the failure to the circuit
+                return staleAfterFailure(ENTRY_CACHE_KEY_PREFIX + id, ENTRY, e);
+            }
+        }
         
         try {
             // Try to get from cache first
-            String cachedData = redisTemplate.opsForValue().get(cacheKey);
+            String baseKey = ENTRY_CACHE_KEY_PREFIX + id;
+            String cacheKey = CacheGeneration.key(baseKey, cacheGeneration.current());
+            String cachedData = readCache(baseKey, cacheKey);
             
             if (cachedData != null) {
                 logger.info("Serving entry {} from Redis cache", id);
@@ -79,130 +150,360 @@ public class EntryService {
                 logger.info("Cache miss: No cache found for entry {}, fetching from database", id);
             }
             
-            // Fetch from database
-            Optional<Entry> entry = entryRepository.findById(id);
+            // Fetch from database and cache the result, or serve it stale
+            return fetch(baseKey, cacheKey, ENTRY, () -> findEntry(id).orElse(null));
             
-            if (entry.isPresent()) {
-                // Cache the result
-                logger.info("Serving entry {} from Database and caching the result", id);
-                String jsonData = objectMapper.writeValueAsString(entry.get());
-                redisTemplate.opsForValue().set(cacheKey, jsonData, CACHE_TTL, TimeUnit.SECONDS);
-                
-                return entry.get();
+        } catch (JsonProcessingException e) {
+            logger.error("Error processing JSON for cache", e);
+            // Fallback to database only
+            return findEntry(id).orElse(null);
+        } catch (RetryLaterException e) {
+            throw e;
+        } catch (Exception e) {
+            logger.error("Redis Fetch Error for entry {}", id, e);
+            // Fallback to database only
+            return findEntry(id).orElse(null);
+        }
+    }
+    
+    @Transactional(readOnly = true)
+    public List<Entry> getEntriesForMonth(YearMonth month) {
+        try {
+            String baseKey = ENTRIES_MONTH_CACHE_KEY_PREFIX + month;
+            String cacheKey = CacheGeneration.key(baseKey, cacheGeneration.current());
+            String cachedData = readCache(baseKey, cacheKey);
+            
+            if (cachedData != null) {
+                logger.info("Serving entries for {} from Redis cache", month);
+                return objectMapper.readValue(cachedData, ENTRY_LIST);
+            } else {
+                logger.info("Cache miss: No cache found for entries in {}, fetching from database", month);
             }
             
+            return fetch(baseKey, cacheKey, ENTRY_LIST, () -> findEntriesForMonth(month));
+            
+        } catch (JsonProcessingException e) {
+            logger.error("Error processing JSON for cache", e);
+            return findEntriesForMonth(month);
+        } catch (RetryLaterException e) {
+            throw e;
+        } catch (Exception e) {
+            logger.error("Redis Fetch Error for entries in {}", month, e);
+            return findEntriesForMonth(month);
+        }
+    }
+    
+    // Cache access by base key (without generation) so HotKeyTracker can count reads,
+    // serve pinned hot keys from memory and pick the TTL of each fill
+    
+    private String readCache(String baseKey, String cacheKey) {
+        hotKeys.record(baseKey);
+        String pinned = hotKeys.pinned(baseKey, cacheKey);
+        if (pinned != null) {
+            return pinned;
+        }
+        String cachedData = redisTemplate.opsForValue().get(cacheKey);
+        if (cachedData != null) {
+            hotKeys.pin(baseKey, cacheKey, cachedData);
+        }
+        return cachedData;
+    }
+    
+    private void writeCache(String baseKey, String cacheKey, String jsonData) {
+        long ttl = hotKeys.ttlSeconds(baseKey);
+        if (ttl > 0) {
+            redisTemplate.opsForValue().set(cacheKey, jsonData, ttl, TimeUnit.SECONDS);
+            cacheGeneration.filled(cacheKey);
+            shadowCache.write(baseKey, jsonData);
+        }
+        hotKeys.pin(baseKey, cacheKey, jsonData);
+    }
+    
+    // A cache miss. The primary answers, never the replica, since every client will be
+    // served the cached result. Unless DatabaseCircuit says the database is unavailable
+    // or saturated, or the request is cache-only: then the shadow copy answers, marked
+    // stale, and nothing is cached. With no shadow copy a saturated database is still
+    // queued for; the other cases fail fast with a 503.
+    
+    private <T> T fetch(String baseKey, String cacheKey, JavaType type, Supplier<T> query)
+            throws JsonProcessingException {
+        DatabaseCircuit.State state = databaseCircuit.state();
+        if (state != DatabaseCircuit.State.AVAILABLE || LoadShedding.isCacheOnly()) {
+            T stale = readShadow(baseKey, type);
+            if (stale != null) {
+                return stale;
+            }
+            LoadShedding.checkDatabaseAllowed();
+            if (state == DatabaseCircuit.State.UNAVAILABLE) {
+                throw new DatabaseUnavailableException("Database is unavailable and the result is not cached, retry later", null);
+            }
+        }
+        
+        T result;
+        long started = System.nanoTime();
+        try {
+            result = PrimaryReads.call(query::get);
+        } catch (DataAccessException | TransactionException e) {
+            databaseCircuit.onFailure(e);
+            return staleAfterFailure(baseKey, type, e);
+        }
+        databaseCircuit.onSuccess(System.nanoTime() - started);
+        
+        if (result != null) {
+            logger.info("Serving {} from Database and caching the result", baseKey);
+            writeCache(baseKey, cacheKey, objectMapper.writeValueAsString(result));
+        }
+        return result;
+    }
+    
+    private <T> T staleAfterFailure(String baseKey, JavaType type, RuntimeException failure) {
+        // The failed call marked the transaction rollback-only; rolling back on purpose keeps
+        // the commit from throwing UnexpectedRollbackException over the stale answer
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
+        }
+        T stale = readShadow(baseKey, type);
+        if (stale == null) {
+            throw new DatabaseUnavailableException("Database read failed and the result is not cached, retry later", failure);
+        }
+        return stale;
+    }
+    
+    private <T> T readShadow(String baseKey, JavaType type) {
+        ShadowCache.Shadow shadow = shadowCache.read(baseKey);
+        if (shadow == null) {
             return null;
+        }
+        try {
+            T value = objectMapper.readValue(shadow.json(), type);
+            logger.info("Serving {} stale from its shadow copy of {}", baseKey, Instant.ofEpochMilli(shadow.cachedAt()));
+            StaleReads.served(shadow.cachedAt());
+            return value;
+        } catch (JsonProcessingException e) {
+            logger.error("Error processing shadow copy JSON of {}", baseKey, e);
+            return null;
+        }
+    }
+    
+    // Reads that span both tiers. The archive is only queried for date ranges that reach
+    // back past its cutoff; whole-table reads and id lookups always include it.
+    
+    private List<Entry> findAllEntries() {
+        return EntryArchive.merge(entryRepository.findAll(), entryArchive.findAll(), EntryArchive.BY_ID);
+    }
+    
+    private Optional<Entry> findEntry(Long id) {
+        Optional<Entry> entry = entryRepository.findById(id);
+        return entry.isPresent() ? entry : entryArchive.findById(id);
+    }
+    
+    private List<Entry> findEntriesForMonth(YearMonth month) {
+        return EntryArchive.merge(
+                entryRepository.findByDateBetweenOrderByDateAscIdAsc(month.atDay(1), month.atEndOfMonth()),
+                entryArchive.findByDateBetween(month.atDay(1), month.atEndOfMonth()), EntryArchive.BY_DATE);
+    }
+    
+    private List<EntrySummary> findAllSummaries() {
+        return EntryArchive.merge(entryRepository.findAllProjectedBy(), entryArchive.findAllSummaries(),
+                Comparator.comparing(EntrySummary::id));
+    }
+    
+    private Optional<EntrySummary> findSummary(Long id) {
+        Optional<EntrySummary> summary = entryRepository.findProjectedById(id);
+        return summary.isPresent() ? summary : entryArchive.findSummaryById(id);
+    }
+    
+    @Transactional(readOnly = true)
+    public List<EntrySummary> getAllEntrySummaries() {
+        try {
+            String baseKey = ALL_ENTRY_SUMMARIES_CACHE_KEY;
+            String cacheKey = CacheGeneration.key(baseKey, cacheGeneration.current());
+            String cachedData = readCache(baseKey, cacheKey);
+            
+            if (cachedData != null) {
+                logger.info("Serving all entry summaries from Redis cache");
+                return objectMapper.readValue(cachedData, ENTRY_SUMMARY_LIST);
+            } else {
+                logger.info("Cache miss: No cache found for entry summaries, fetching from database");
+            }
+            
+            return fetch(baseKey, cacheKey, ENTRY_SUMMARY_LIST, this::findAllSummaries);
             
         } catch (JsonProcessingException e) {
             logger.error("Error processing JSON for cache", e);
-            // Fallback to database only
-            return entryRepository.findById(id).orElse(null);
+            return findAllSummaries();
+        } catch (RetryLaterException e) {
+            throw e;
         } catch (Exception e) {
-            logger.error("Redis Fetch Error for entry {}", id, e);
-            // Fallback to database only
-            return entryRepository.findById(id).orElse(null);
+            logger.error("Redis Fetch Error", e);
+            return findAllSummaries();
+        }
+    }
+    
+    @Transactional(readOnly = true)
+    public EntrySummary getEntrySummaryById(Long id) {
+        try {
+            String baseKey = ENTRY_SUMMARY_CACHE_KEY_PREFIX + id;
+            String cacheKey = CacheGeneration.key(baseKey, cacheGeneration.current());
+            String cachedData = readCache(baseKey, cacheKey);
+            
+            if (cachedData != null) {
+                logger.info("Serving entry summary {} from Redis cache", id);
+                return objectMapper.readValue(cachedData, EntrySummary.class);
+            }
+            
+            return fetch(baseKey, cacheKey, ENTRY_SUMMARY, () -> findSummary(id).orElse(null));
+            
+        } catch (JsonProcessingException e) {
+            logger.error("Error processing JSON for cache", e);
+            return findSummary(id).orElse(null);
+        } catch (RetryLaterException e) {
+            throw e;
+        } catch (Exception e) {
+            logger.error("Redis Fetch Error for entry summary {}", id, e);
+            return findSummary(id).orElse(null);
         }
     }
     
+    @Transactional(readOnly = true)
+    public long getTotalAmountCents() {
+        return entryRepository.sumAmountCents() + entryArchive.sumAmountCents();
+    }
+    
+    @Transactional
     public Entry createEntry(Entry entry) {
+        databaseCircuit.checkAvailable();
+        // A client-supplied version would make save() merge instead of insert
+        entry.setVersion(null);
         Entry savedEntry = entryRepository.save(entry);
         logger.info("Inserted entry with ID: {}", savedEntry.getId());
         
-        // Clear the cache because data changed
-        clearAllEntriesCache();
+        // Cached entries are dropped by CacheGeneration once this commits
+        eventPublisher.publishEvent(EntryChangedEvent.created(savedEntry));
         
         return savedEntry;
     }
     
+    @Transactional
     public boolean deleteEntry(Long id) {
-        Optional<Entry> entry = entryRepository.findById(id);
-        
-        if (entry.isPresent()) {
-            entryRepository.deleteById(id);
-            logger.info("Deleted entry with ID: {}", id);
-            
-            // Clear relevant caches because data changed
-            clearAllEntriesCache();
-            clearEntryCache(id);
-            
-            return true;
+        databaseCircuit.checkAvailable();
+        // One DELETE; the row count replaces the existence check
+        if (entryRepository.deleteEntryById(id) == 0 && !entryArchive.delete(id)) {
+            logger.warn("Delete failed: Entry with ID {} not found", id);
+            return false;
         }
         
-        logger.warn("Delete failed: Entry with ID {} not found", id);
-        return false;
+        tombstoneRepository.save(new EntryTombstone(id, System.currentTimeMillis()));
+        logger.info("Deleted entry with ID: {}", id);
+        eventPublisher.publishEvent(EntryChangedEvent.deleted(id));
+        return true;
     }
 
+    @Transactional
     public void deleteAllEntries() {
+        databaseCircuit.checkAvailable();
         try {
-            entryRepository.deleteAll();
+            // One DELETE statement; deleteAll() would load every entry and delete it by id
+            entryRepository.deleteAllInBatch();
+            entryArchive.deleteAll();
+            tombstoneRepository.save(EntryTombstone.allEntries(System.currentTimeMillis()));
             logger.info("Deleted all entries");
             
-            // Clear all caches
-            clearAllEntriesCache();
-            // Note: In production, you might want to clear all entry_* keys using Redis patterns
+            eventPublisher.publishEvent(EntryChangedEvent.cleared());
+            eventPublisher.publishEvent(new CachesClearedEvent());
             
         } catch (Exception e) {
             logger.error("Error deleting all entries", e);
-            // Still try to clear cache even if DB operation fails
-            clearAllEntriesCache();
             throw e; // Re-throw to let controller handle it
         }
     }
 
     
     // ========== RELEASE 3.0 - START (Update Functionality) ==========
+    /**
+     * Replaces amount, description and date in one UPDATE. When {@code entryDetails}
+     * carries a version, only that version is updated. The row is read back, so the
+     * result and the change event carry the new version.
+     *
+     * @return the entry as written, or null when there is no entry with this id
+     * @throws EntryVersionConflictException when the entry exists at another version
+     */
+    @Transactional
     public Entry updateEntry(Long id, Entry entryDetails) {
-        Optional<Entry> optionalEntry = entryRepository.findById(id);
-        
-        if (optionalEntry.isPresent()) {
-            Entry existingEntry = optionalEntry.get();
-            existingEntry.setAmount(entryDetails.getAmount());
-            existingEntry.setDescription(entryDetails.getDescription());
-
-            
-            existingEntry.setDate(entryDetails.getDate());
-            
-            Entry updatedEntry = entryRepository.save(existingEntry);
-            logger.info("Updated entry with ID: {}", id);
-            
-            // Clear relevant caches because data changed
-            clearAllEntriesCache();
-            clearEntryCache(id);
-            
-            return updatedEntry;
+        databaseCircuit.checkAvailable();
+        long now = System.currentTimeMillis();
+        Long expectedVersion = entryDetails.getVersion();
+        int updated = update(id, entryDetails, now);
+        if (updated == 0 && entryArchive.restore(id)) {
+            // Archived entries move back to the hot table when they are written
+            updated = update(id, entryDetails, now);
+        }
+        if (updated == 0) {
+            return notUpdated(id, expectedVersion);
         }
         
-        logger.warn("Update failed: Entry with ID {} not found", id);
-        return null;
+        // Read back for the version an unconditional update left; the UPDATE holds the
+        // row lock, so the row is still there
+        Entry updatedEntry = entryRepository.findById(id).orElseThrow();
+        logger.info("Updated entry with ID: {}", id);
+        
+        eventPublisher.publishEvent(EntryChangedEvent.updated(updatedEntry));
+        return updatedEntry;
     }
-    // ========== RELEASE 3.0 - END ==========
     
-    private void clearAllEntriesCache() {
-        try {
-            redisTemplate.delete(ALL_ENTRIES_CACHE_KEY);
-            logger.info("Cache cleared for {}", ALL_ENTRIES_CACHE_KEY);
-        } catch (Exception e) {
-            logger.error("Error clearing all entries cache", e);
+    private int update(Long id, Entry entryDetails, long now) {
+        Long expectedVersion = entryDetails.getVersion();
+        return expectedVersion == null
+                ? entryRepository.updateById(id, entryDetails.getAmountCents(), entryDetails.getDescription(),
+                        entryDetails.getDate(), now)
+                : entryRepository.updateByIdAndVersion(id, expectedVersion, entryDetails.getAmountCents(),
+                        entryDetails.getDescription(), entryDetails.getDate(), now);
+    }
+    
+    /**
+     * Writes only the properties present in {@code changes}, then reads the row back
+     * for the response and the change event.
+     *
+     * @return the patched entry, or null when there is no entry with this id
+     * @throws EntryVersionConflictException when the entry exists at another version
+     */
+    @Transactional
+    public Entry patchEntry(Long id, Entry changes) {
+        databaseCircuit.checkAvailable();
+        Long expectedVersion = changes.getVersion();
+        long now = System.currentTimeMillis();
+        int updated = entryRepository.patchById(id, changes, expectedVersion, now);
+        if (updated == 0 && entryArchive.restore(id)) {
+            updated = entryRepository.patchById(id, changes, expectedVersion, now);
+        }
+        if (updated == 0) {
+            return notUpdated(id, expectedVersion);
         }
+        
+        // The UPDATE holds the row lock, so the row is still there
+        Entry patchedEntry = entryRepository.findById(id).orElseThrow();
+        logger.info("Patched entry with ID: {}", id);
+        
+        eventPublisher.publishEvent(EntryChangedEvent.updated(patchedEntry));
+        return patchedEntry;
     }
     
-    private void clearEntryCache(Long id) {
-        try {
-            String cacheKey = ENTRY_CACHE_KEY_PREFIX + id;
-            redisTemplate.delete(cacheKey);
-            logger.info("Cache cleared for {}", cacheKey);
-        } catch (Exception e) {
-            logger.error("Error clearing entry cache for ID: {}", id, e);
+    private Entry notUpdated(Long id, Long expectedVersion) {
+        // Only a failed conditional update needs the extra query to tell 404 from 409
+        if (expectedVersion != null && entryRepository.existsById(id)) {
+            logger.warn("Update failed: Entry with ID {} is not at version {}", id, expectedVersion);
+            throw new EntryVersionConflictException(id, expectedVersion);
         }
+        logger.warn("Update failed: Entry with ID {} not found", id);
+        return null;
     }
+    // ========== RELEASE 3.0 - END ==========
     
     public void clearAllCaches() {
         try {
-            // Clear all entries cache
-            redisTemplate.delete(ALL_ENTRIES_CACHE_KEY);
-            
-            // Clear all individual entry caches (this is a simplified approach)
-            // In production, you might want to use Redis patterns to delete all entry_* keys
+            // One INCR retires every list, month and entry_* key at once
+            cacheGeneration.bump();
+            eventPublisher.publishEvent(new CachesClearedEvent());
             logger.info("All caches cleared");
         } catch (Exception e) {
             logger.error("Error clearing all caches", e);
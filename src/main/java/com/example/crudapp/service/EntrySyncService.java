@@ -0,0 +1,126 @@
+package com.example.crudapp.service;
+
+import com.example.crudapp.model.Entry;
+import com.example.crudapp.model.EntryTombstone;
+import com.example.crudapp.repository.EntryRepository;
+import com.example.crudapp.repository.EntryTombstoneRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Delta sync for offline clients. A change token is the end of the time window the
+ * client has already seen; the next call returns entries written and tombstones
+ * recorded from there up to "now minus the settle window".
+ *
+ * The settle window keeps the latest moments out of every response. A transaction
+ * that stamped its rows just before a sync can commit just after it, or reach the
+ * replica later. Without the window, the next token would already be past those rows.
+ */
+@Service
+public class EntrySyncService {
+
+    private static final Logger logger = LoggerFactory.getLogger(EntrySyncService.class);
+    private static final String TOKEN_PREFIX = "v1:";
+
+    @Autowired
+    private EntryRepository entryRepository;
+
+    @Autowired
+    private EntryTombstoneRepository tombstoneRepository;
+
+    @Autowired
+    private EntryArchive entryArchive;
+
+    @Value("${app.sync.settle-window:10s}")
+    private Duration settleWindow;
+
+    @Value("${app.sync.tombstone-retention:30d}")
+    private Duration tombstoneRetention;
+
+    /**
+     * @param reset     the client must drop everything it has before applying this change set
+     * @param upserted  entries created or updated since the token, oldest change first
+     * @param deleted   ids deleted since the token
+     * @param nextToken pass as {@code since} on the next call
+     */
+    public record ChangeSet(boolean reset, List<Entry> upserted, List<Long> deleted, String nextToken) {}
+
+    @Transactional(readOnly = true)
+    public ChangeSet changesSince(String token) {
+        long now = System.currentTimeMillis();
+        long upTo = now - settleWindow.toMillis();
+
+        if (token == null) {
+            // First sync: everything settled so far
+            return new ChangeSet(true, findUpdatedBetween(Long.MIN_VALUE, upTo), List.of(), encode(upTo));
+        }
+
+        long since = decode(token);
+        if (since < now - tombstoneRetention.toMillis()) {
+            throw new SyncTokenExpiredException("Change token is older than " + tombstoneRetention.toDays() + " days");
+        }
+        if (since >= upTo) {
+            return new ChangeSet(false, List.of(), List.of(), token);
+        }
+
+        boolean reset = false;
+        List<Long> deleted = new ArrayList<>();
+        for (EntryTombstone tombstone : tombstoneRepository.findDeletedBetween(since, upTo)) {
+            if (tombstone.isAllEntries()) {
+                // Everything deleted before the clear no longer matters
+                reset = true;
+                deleted.clear();
+            } else {
+                deleted.add(tombstone.getEntryId());
+            }
+        }
+        List<Entry> upserted = findUpdatedBetween(since, upTo);
+        return new ChangeSet(reset, upserted, deleted, encode(upTo));
+    }
+
+    // Archiving keeps updated_at, so an old entry written recently may already be archived
+    private List<Entry> findUpdatedBetween(long from, long to) {
+        return EntryArchive.merge(entryRepository.findUpdatedBetween(from, to),
+                entryArchive.findUpdatedBetween(from, to), EntryArchive.BY_UPDATED_AT);
+    }
+
+    @Scheduled(fixedDelayString = "${app.sync.tombstone-purge-interval:3600000}")
+    public void purgeExpiredTombstones() {
+        try {
+            int purged = tombstoneRepository.deleteOlderThan(System.currentTimeMillis() - tombstoneRetention.toMillis());
+            if (purged > 0) {
+                logger.info("Purged {} expired tombstones", purged);
+            }
+        } catch (Exception e) {
+            logger.error("Error purging expired tombstones", e);
+        }
+    }
+
+    static String encode(long millis) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((TOKEN_PREFIX + millis).getBytes(StandardCharsets.US_ASCII));
+    }
+
+    static long decode(String token) {
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.US_ASCII);
+            if (!decoded.startsWith(TOKEN_PREFIX)) {
+                throw new IllegalArgumentException("Invalid change token");
+            }
+            return Long.parseLong(decoded.substring(TOKEN_PREFIX.length()));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid change token", e);
+        }
+    }
+}
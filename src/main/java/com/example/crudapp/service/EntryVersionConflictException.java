@@ -0,0 +1,12 @@
+package com.example.crudapp.service;
+
+/**
+ * A PUT or PATCH named a version the entry no longer has: someone else updated it
+ * since the client read it. The client should re-read and apply its change again.
+ */
+public class EntryVersionConflictException extends RuntimeException {
+
+    public EntryVersionConflictException(Long id, Long expectedVersion) {
+        super("Entry " + id + " is no longer at version " + expectedVersion);
+    }
+}
@@ -0,0 +1,179 @@
+package com.example.crudapp.service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Approximate access counts for an unbounded set of keys in fixed memory. A count-min
+ * sketch estimates every key's count (never under, sometimes over, by collisions), and a
+ * min-heap keeps the {@code k} keys with the highest estimates seen so far.
+ *
+ * Incrementing the sketch and {@link #isTop} are lock-free. The heap is only locked for a
+ * key outside it whose estimate reaches the smallest count in it, so reads of the hot
+ * keys themselves never contend. Their counts in the heap are brought up to date
+ * lazily: before the smallest one is evicted, and in {@link #top()}.
+ * {@link #decay()} halves every count so the ranking follows recent traffic.
+ */
+public class HotKeySketch {
+
+    public record KeyCount(String key, long count) {}
+
+    private static final class Candidate {
+        final String key;
+        long count;
+
+        Candidate(String key, long count) {
+            this.key = key;
+            this.count = count;
+        }
+    }
+
+    private final int depth;
+    private final int mask;
+    private final AtomicLongArray counters;
+    private final int k;
+
+    private final PriorityQueue<Candidate> heap = new PriorityQueue<>(Comparator.comparingLong(c -> c.count));
+    // Written under the lock, read without it
+    private final Map<String, Candidate> members = new ConcurrentHashMap<>();
+    // Smallest count in a full heap; below it a key cannot enter, so no lock is needed
+    private volatile long floor;
+
+    /**
+     * @param width counters per row, rounded up to a power of two
+     * @param depth rows, each with its own hash
+     * @param k     number of top keys to keep
+     */
+    public HotKeySketch(int width, int depth, int k) {
+        if (width < 1 || depth < 1 || k < 1) {
+            throw new IllegalArgumentException("width, depth and k must be positive");
+        }
+        int rowWidth = Integer.highestOneBit(Math.max(width - 1, 1)) << 1;
+        this.depth = depth;
+        this.mask = rowWidth - 1;
+        this.counters = new AtomicLongArray(rowWidth * depth);
+        this.k = k;
+    }
+
+    /** Counts one access and returns the key's new estimate. */
+    public long record(String key) {
+        int hash = key.hashCode();
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            estimate = Math.min(estimate, counters.incrementAndGet(index(hash, row)));
+        }
+        if (estimate >= floor && !members.containsKey(key)) {
+            offer(key, estimate);
+        }
+        return estimate;
+    }
+
+    public long estimate(String key) {
+        int hash = key.hashCode();
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            estimate = Math.min(estimate, counters.get(index(hash, row)));
+        }
+        return estimate;
+    }
+
+    public boolean isTop(String key) {
+        return members.containsKey(key);
+    }
+
+    /** The current top keys, highest count first. */
+    public synchronized List<KeyCount> top() {
+        List<KeyCount> top = new ArrayList<>(heap.size());
+        for (Candidate candidate : heap) {
+            candidate.count = Math.max(candidate.count, estimate(candidate.key));
+            top.add(new KeyCount(candidate.key, candidate.count));
+        }
+        // The counts only grew, but not uniformly
+        List<Candidate> candidates = new ArrayList<>(heap);
+        heap.clear();
+        heap.addAll(candidates);
+        updateFloor();
+        top.sort(Comparator.comparingLong(KeyCount::count).reversed().thenComparing(KeyCount::key));
+        return top;
+    }
+
+    /** Halves every count; keys whose count drops to zero leave the top. */
+    public synchronized void decay() {
+        for (int i = 0; i < counters.length(); i++) {
+            long value;
+            do {
+                value = counters.get(i);
+            } while (value != 0 && !counters.compareAndSet(i, value, value >>> 1));
+        }
+        List<Candidate> kept = new ArrayList<>(heap.size());
+        for (Candidate candidate : heap) {
+            candidate.count = estimate(candidate.key);
+            if (candidate.count > 0) {
+                kept.add(candidate);
+            } else {
+                members.remove(candidate.key);
+            }
+        }
+        heap.clear();
+        heap.addAll(kept);
+        updateFloor();
+    }
+
+    private synchronized void offer(String key, long estimate) {
+        if (members.containsKey(key)) {
+            // Another thread added it meanwhile
+            return;
+        }
+        if (heap.size() < k) {
+            add(key, estimate);
+        } else {
+            refreshSmallest();
+            if (estimate > heap.peek().count) {
+                members.remove(heap.poll().key);
+                add(key, estimate);
+            }
+        }
+        updateFloor();
+    }
+
+    // Members' reads do not update the heap, so a stored count can be behind the sketch.
+    // Brings the smallest ones up to date until the smallest is current.
+    private void refreshSmallest() {
+        while (true) {
+            Candidate smallest = heap.peek();
+            long current = estimate(smallest.key);
+            if (current <= smallest.count) {
+                return;
+            }
+            heap.poll();
+            smallest.count = current;
+            heap.add(smallest);
+        }
+    }
+
+    private void add(String key, long estimate) {
+        Candidate candidate = new Candidate(key, estimate);
+        members.put(key, candidate);
+        heap.add(candidate);
+    }
+
+    private void updateFloor() {
+        floor = heap.size() < k ? 0 : heap.peek().count;
+    }
+
+    private int index(int hash, int row) {
+        // A differently seeded mix of the same hash per row (murmur3 finalizer)
+        int h = hash + row * 0x9E3779B9;
+        h ^= h >>> 16;
+        h *= 0x85EBCA6B;
+        h ^= h >>> 13;
+        h *= 0xC2B2AE35;
+        h ^= h >>> 16;
+        return row * (mask + 1) + (h & mask);
+    }
+}
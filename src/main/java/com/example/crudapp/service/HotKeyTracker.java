@@ -0,0 +1,138 @@
+package com.example.crudapp.service;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Decides how long each cache key lives, from how often this node reads it. Reads are
+ * counted per base key (without the generation, so counts survive invalidation) in a
+ * {@link HotKeySketch}:
+ *
+ * - top keys at or above {@code min-hot-count} are hot: cached for {@code hot-ttl} and
+ *   pinned in memory. {@link CacheGeneration} also keeps the generation in memory, so a
+ *   read of a pinned key makes no Redis call at all until the next write
+ * - keys read at most {@code cold-max-count} times are cold: cached for {@code cold-ttl},
+ *   or not at all when it is zero
+ * - everything else keeps {@link EntryService#CACHE_TTL}
+ *
+ * Lists such as all_entries change with every write to any entry, so a hot list is
+ * pinned but keeps the default TTL in Redis: a longer one would only keep dead
+ * generations around.
+ *
+ * A pinned value is stored under its full generation key and only served for that key,
+ * so it is invalidated by a generation bump like the Redis copy.
+ */
+@Component
+public class HotKeyTracker {
+
+    private record Pinned(String cacheKey, String value, long expiresAt) {}
+
+    @Value("${app.cache.hot-keys.sketch-width:4096}")
+    private int sketchWidth;
+
+    @Value("${app.cache.hot-keys.sketch-depth:4}")
+    private int sketchDepth;
+
+    @Value("${app.cache.hot-keys.top-k:50}")
+    private int topK;
+
+    @Value("${app.cache.hot-keys.min-hot-count:20}")
+    private int minHotCount;
+
+    @Value("${app.cache.hot-keys.cold-max-count:1}")
+    private int coldMaxCount;
+
+    @Value("${app.cache.hot-keys.hot-ttl:300s}")
+    private Duration hotTtl;
+
+    @Value("${app.cache.hot-keys.cold-ttl:15s}")
+    private Duration coldTtl;
+
+    private HotKeySketch sketch;
+    private final Map<String, Pinned> pinned = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    void init() {
+        sketch = new HotKeySketch(sketchWidth, sketchDepth, topK);
+    }
+
+    public void record(String baseKey) {
+        sketch.record(baseKey);
+    }
+
+    public boolean isHot(String baseKey) {
+        return sketch.isTop(baseKey) && sketch.estimate(baseKey) >= minHotCount;
+    }
+
+    /** TTL for a fill of this key; 0 means do not cache it in Redis. */
+    public long ttlSeconds(String baseKey) {
+        if (isHot(baseKey)) {
+            return changesOnEveryWrite(baseKey) ? EntryService.CACHE_TTL : hotTtl.toSeconds();
+        }
+        if (sketch.estimate(baseKey) <= coldMaxCount) {
+            return coldTtl.toSeconds();
+        }
+        return EntryService.CACHE_TTL;
+    }
+
+    /**
+     * TTL for a key written before anyone asked for it (cache warm-up). Like
+     * {@link #ttlSeconds}, except that a key this node has not counted a read of yet
+     * keeps the default instead of counting as cold: the warm-up picked it because it
+     * is expected to be read.
+     */
+    public long warmUpTtlSeconds(String baseKey) {
+        return sketch.estimate(baseKey) == 0 ? EntryService.CACHE_TTL : ttlSeconds(baseKey);
+    }
+
+    private static boolean changesOnEveryWrite(String baseKey) {
+        return !baseKey.startsWith(EntryService.ENTRY_CACHE_KEY_PREFIX);
+    }
+
+    /** The pinned value for this generation key, or null. */
+    public String pinned(String baseKey, String cacheKey) {
+        Pinned pin = pinned.get(baseKey);
+        if (pin == null || !pin.cacheKey().equals(cacheKey)) {
+            return null;
+        }
+        if (System.nanoTime() - pin.expiresAt() >= 0) {
+            pinned.remove(baseKey, pin);
+            return null;
+        }
+        return pin.value();
+    }
+
+    /** Keeps the value in memory if the key is hot; replaces older generations of it. */
+    public void pin(String baseKey, String cacheKey, String value) {
+        if (isHot(baseKey)) {
+            pinned.put(baseKey, new Pinned(cacheKey, value, System.nanoTime() + hotTtl.toNanos()));
+        }
+    }
+
+    public int pinnedCount() {
+        return pinned.size();
+    }
+
+    public boolean isPinned(String baseKey) {
+        return pinned.containsKey(baseKey);
+    }
+
+    public List<HotKeySketch.KeyCount> top() {
+        return sketch.top();
+    }
+
+    // Halving the counts each interval makes a key's count roughly its reads over the
+    // last two intervals; keys that cooled off are unpinned
+    @Scheduled(fixedDelayString = "${app.cache.hot-keys.decay-interval:60000}")
+    public void decay() {
+        sketch.decay();
+        pinned.keySet().removeIf(baseKey -> !isHot(baseKey));
+    }
+}
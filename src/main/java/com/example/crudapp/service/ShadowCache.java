@@ -0,0 +1,130 @@
+package com.example.crudapp.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.types.Expiration;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Long-lived copies of cached values, served when the database is unavailable or its
+ * pool is saturated (see DatabaseCircuit). Every fill of a generation key also writes
+ * {@code shadow:<base key>}. That key has no generation, so invalidations do not retire
+ * it, and it lives for {@code app.stale.shadow-ttl} instead of seconds. The value is the
+ * fill time in epoch millis, a colon, then the cached JSON.
+ *
+ * A deleted entry loses its shadows with it. Deleting everything records the time in
+ * {@code shadow_cleared_at}, and shadows filled before it are no longer served.
+ */
+@Component
+public class ShadowCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(ShadowCache.class);
+    static final String KEY_PREFIX = "shadow:";
+    static final String CLEARED_AT_KEY = "shadow_cleared_at";
+
+    /** @param cachedAt epoch millis of the fill */
+    public record Shadow(String json, long cachedAt) {}
+
+    @Autowired
+    private RedisTemplate<String, String> redisTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.stale.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.stale.shadow-ttl:24h}")
+    private Duration ttl;
+
+    private Counter served;
+    private Counter missing;
+
+    @PostConstruct
+    void registerMeters() {
+        served = Counter.builder("app.stale.reads").tag("outcome", "served").register(meterRegistry);
+        missing = Counter.builder("app.stale.reads").tag("outcome", "missing").register(meterRegistry);
+    }
+
+    public void write(String baseKey, String json) {
+        if (!enabled) {
+            return;
+        }
+        try {
+            redisTemplate.opsForValue().set(KEY_PREFIX + baseKey, value(json), ttl);
+        } catch (Exception e) {
+            logger.warn("Could not write the shadow copy of {}", baseKey, e);
+        }
+    }
+
+    /** The same SET, queued on a connection the caller is pipelining. */
+    public void write(RedisConnection connection, String baseKey, String json) {
+        if (enabled) {
+            connection.stringCommands().set(
+                    (KEY_PREFIX + baseKey).getBytes(StandardCharsets.UTF_8),
+                    value(json).getBytes(StandardCharsets.UTF_8),
+                    Expiration.from(ttl),
+                    RedisStringCommands.SetOption.upsert());
+        }
+    }
+
+    /** The shadow copy of this key, or null when there is none or Redis is failing too. */
+    public Shadow read(String baseKey) {
+        if (!enabled) {
+            return null;
+        }
+        Shadow shadow = null;
+        try {
+            List<String> values = redisTemplate.opsForValue().multiGet(List.of(KEY_PREFIX + baseKey, CLEARED_AT_KEY));
+            String value = values != null ? values.get(0) : null;
+            if (value != null) {
+                int colon = value.indexOf(':');
+                long cachedAt = Long.parseLong(value, 0, colon, 10);
+                String clearedAt = values.get(1);
+                if (clearedAt == null || cachedAt > Long.parseLong(clearedAt)) {
+                    shadow = new Shadow(value.substring(colon + 1), cachedAt);
+                }
+            }
+        } catch (Exception e) {
+            logger.warn("Could not read the shadow copy of {}", baseKey, e);
+        }
+        (shadow != null ? served : missing).increment();
+        return shadow;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEntryChanged(EntryChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        try {
+            switch (event.type()) {
+                case DELETED -> redisTemplate.delete(List.of(
+                        KEY_PREFIX + EntryService.ENTRY_CACHE_KEY_PREFIX + event.entryId(),
+                        KEY_PREFIX + EntryService.ENTRY_SUMMARY_CACHE_KEY_PREFIX + event.entryId()));
+                case CLEARED -> redisTemplate.opsForValue().set(CLEARED_AT_KEY, String.valueOf(System.currentTimeMillis()));
+                default -> {
+                }
+            }
+        } catch (Exception e) {
+            logger.warn("Could not drop shadow copies after {} of entry {}", event.type(), event.entryId(), e);
+        }
+    }
+
+    private static String value(String json) {
+        return System.currentTimeMillis() + ":" + json;
+    }
+}
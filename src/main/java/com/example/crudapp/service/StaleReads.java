@@ -0,0 +1,28 @@
+package com.example.crudapp.service;
+
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+/**
+ * Remembers on the current request that it was answered from a shadow copy, and the
+ * fill time of the oldest copy used, so the response can say how stale it is. Outside
+ * a web request there is no one to tell and nothing is recorded.
+ */
+public final class StaleReads {
+
+    public static final String SERVED_AT_ATTRIBUTE = StaleReads.class.getName() + ".servedAt";
+
+    private StaleReads() {
+    }
+
+    static void served(long cachedAt) {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return;
+        }
+        Object previous = attributes.getAttribute(SERVED_AT_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        if (!(previous instanceof Long oldest) || cachedAt < oldest) {
+            attributes.setAttribute(SERVED_AT_ATTRIBUTE, cachedAt, RequestAttributes.SCOPE_REQUEST);
+        }
+    }
+}
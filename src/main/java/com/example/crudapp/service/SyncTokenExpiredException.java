@@ -0,0 +1,12 @@
+package com.example.crudapp.service;
+
+/**
+ * The change token is older than the tombstone retention, so deletes since then may
+ * have been purged. The client has to start over with a full sync.
+ */
+public class SyncTokenExpiredException extends RuntimeException {
+
+    public SyncTokenExpiredException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,143 @@
+package com.example.crudapp.sql;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Times every statement executed through its connections, counts the rows it returned
+ * or changed into the current {@link SqlStats}, and logs statements slower than the
+ * threshold with their request. Connections, statements and result sets are wrapped in
+ * JDK proxies, so nothing depends on the driver.
+ */
+public class InstrumentedDataSource extends DelegatingDataSource {
+
+    private static final Logger logger = LoggerFactory.getLogger(InstrumentedDataSource.class);
+
+    private final long slowThresholdNanos;
+
+    public InstrumentedDataSource(DataSource target, long slowThresholdNanos) {
+        super(target);
+        this.slowThresholdNanos = slowThresholdNanos;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return wrap(obtainTargetDataSource().getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return wrap(obtainTargetDataSource().getConnection(username, password));
+    }
+
+    private Connection wrap(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] {Connection.class},
+                (proxy, method, args) -> {
+                    Object result = invoke(connection, method, args);
+                    return switch (method.getName()) {
+                        case "prepareStatement", "prepareCall" ->
+                                wrap((Statement) result, method.getReturnType(), (String) args[0]);
+                        case "createStatement" -> wrap((Statement) result, method.getReturnType(), null);
+                        default -> result;
+                    };
+                });
+    }
+
+    private Object wrap(Statement statement, Class<?> type, String preparedSql) {
+        return Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] {type},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "execute", "executeQuery", "executeUpdate", "executeLargeUpdate",
+                            "executeBatch", "executeLargeBatch" -> execute(statement, method, args, preparedSql);
+                    case "getResultSet" -> wrap((ResultSet) invoke(statement, method, args));
+                    default -> invoke(statement, method, args);
+                });
+    }
+
+    private Object execute(Statement statement, Method method, Object[] args, String preparedSql) throws Throwable {
+        String sql = args != null && args.length > 0 && args[0] instanceof String text ? text : preparedSql;
+        long started = System.nanoTime();
+        Object result = invoke(statement, method, args);
+        long elapsed = System.nanoTime() - started;
+
+        long rows = rowCount(statement, result);
+        boolean slow = elapsed >= slowThresholdNanos;
+        SqlStats stats = SqlStats.current();
+        if (stats != null) {
+            stats.record(rows, elapsed, slow);
+        }
+        if (slow) {
+            logger.warn("Slow SQL ({} ms) in {}: {}", elapsed / 1_000_000,
+                    stats != null ? stats.getContext() : Thread.currentThread().getName(), sql);
+        }
+        return result instanceof ResultSet resultSet ? wrap(resultSet) : result;
+    }
+
+    private ResultSet wrap(ResultSet resultSet) {
+        SqlStats stats = SqlStats.current();
+        if (resultSet == null || stats == null) {
+            return resultSet;
+        }
+        return (ResultSet) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] {ResultSet.class},
+                (proxy, method, args) -> {
+                    Object result = invoke(resultSet, method, args);
+                    if (Boolean.TRUE.equals(result) && method.getName().equals("next")) {
+                        stats.addRow();
+                    }
+                    return result;
+                });
+    }
+
+    private static long rowCount(Statement statement, Object result) throws SQLException {
+        if (result instanceof Integer count) {
+            return Math.max(count, 0);
+        }
+        if (result instanceof Long count) {
+            return Math.max(count, 0);
+        }
+        if (result instanceof int[] counts) {
+            return sum(counts);
+        }
+        if (result instanceof long[] counts) {
+            return sum(counts);
+        }
+        // execute(): false means an update count, true a result set counted as it is read
+        if (Boolean.FALSE.equals(result)) {
+            return Math.max(statement.getUpdateCount(), 0);
+        }
+        return 0;
+    }
+
+    private static long sum(int[] counts) {
+        long sum = 0;
+        for (int count : counts) {
+            sum += Math.max(count, 0);
+        }
+        return sum;
+    }
+
+    private static long sum(long[] counts) {
+        long sum = 0;
+        for (long count : counts) {
+            sum += Math.max(count, 0);
+        }
+        return sum;
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.crudapp.sql;
+
+/**
+ * SQL issued on behalf of one request: statements executed (a JDBC batch counts once),
+ * rows returned or affected, and time spent executing. Held per thread between
+ * {@link #begin} and {@link #end} by {@link SqlStatsFilter}; statements on threads
+ * without a request are not attributed to anything.
+ */
+public final class SqlStats {
+
+    private static final ThreadLocal<SqlStats> CURRENT = new ThreadLocal<>();
+
+    private final String context;
+    private int statements;
+    private int slowStatements;
+    private long rows;
+    private long nanos;
+
+    private SqlStats(String context) {
+        this.context = context;
+    }
+
+    public static SqlStats begin(String context) {
+        SqlStats stats = new SqlStats(context);
+        CURRENT.set(stats);
+        return stats;
+    }
+
+    /** The stats of the request on this thread, or null. */
+    public static SqlStats current() {
+        return CURRENT.get();
+    }
+
+    public static void end() {
+        CURRENT.remove();
+    }
+
+    void record(long rows, long nanos, boolean slow) {
+        statements++;
+        if (slow) {
+            slowStatements++;
+        }
+        this.rows += rows;
+        this.nanos += nanos;
+    }
+
+    // Query rows are counted as they are read
+    void addRow() {
+        rows++;
+    }
+
+    /** What the request was, for example {@code PUT /api/entries/5}. */
+    public String getContext() {
+        return context;
+    }
+
+    public int getStatements() {
+        return statements;
+    }
+
+    public int getSlowStatements() {
+        return slowStatements;
+    }
+
+    public long getRows() {
+        return rows;
+    }
+
+    public long getNanos() {
+        return nanos;
+    }
+
+    @Override
+    public String toString() {
+        return statements + " statements, " + rows + " rows, " + nanos / 1_000_000 + " ms";
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.crudapp.sql;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+@Configuration
+public class SqlStatsConfig {
+
+    // Read at runtime like DataSourceConfig does, so the flag also works in an AOT build
+    @Value("${app.sql.instrumentation.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.sql.statement-budget:10}")
+    private int statementBudget;
+
+    @Bean
+    public FilterRegistrationBean<SqlStatsFilter> sqlStatsFilter(MeterRegistry meterRegistry) {
+        FilterRegistrationBean<SqlStatsFilter> registration = new FilterRegistrationBean<>(
+                new SqlStatsFilter(statementBudget, meterRegistry));
+        registration.addUrlPatterns("/api/*");
+        registration.setEnabled(enabled);
+        // Inside the concurrency limiter, so shed requests are not measured
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 20);
+        return registration;
+    }
+}
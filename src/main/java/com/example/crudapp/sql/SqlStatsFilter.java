@@ -0,0 +1,90 @@
+package com.example.crudapp.sql;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Collects the {@link SqlStats} of each request and exports them per endpoint as
+ * {@code app.sql.statements}, {@code app.sql.rows}, {@code app.sql.time} and
+ * {@code app.sql.slow}. A request that runs more statements than the budget is logged
+ * and counted in {@code app.sql.budget-exceeded}, which is how an N+1 shows up.
+ *
+ * The stats are also left on the request as {@link #STATS_ATTRIBUTE} for tests. Meters
+ * are registered once per endpoint, not looked up on every request.
+ */
+public class SqlStatsFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(SqlStatsFilter.class);
+    public static final String STATS_ATTRIBUTE = SqlStats.class.getName();
+
+    private record Endpoint(String method, String uri) {}
+
+    private record Meters(DistributionSummary statements, DistributionSummary rows, Timer time, Counter slow,
+                          Counter budgetExceeded) {}
+
+    private final int statementBudget;
+    private final MeterRegistry meterRegistry;
+    private final Map<Endpoint, Meters> meters = new ConcurrentHashMap<>();
+
+    public SqlStatsFilter(int statementBudget, MeterRegistry meterRegistry) {
+        this.statementBudget = statementBudget;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        SqlStats stats = SqlStats.begin(request.getMethod() + " " + request.getRequestURI());
+        request.setAttribute(STATS_ATTRIBUTE, stats);
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            SqlStats.end();
+            report(request, stats);
+        }
+    }
+
+    private void report(HttpServletRequest request, SqlStats stats) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        Meters endpoint = meters.computeIfAbsent(
+                new Endpoint(request.getMethod(), pattern != null ? pattern.toString() : "UNKNOWN"), this::register);
+
+        endpoint.statements().record(stats.getStatements());
+        endpoint.rows().record(stats.getRows());
+        endpoint.time().record(stats.getNanos(), TimeUnit.NANOSECONDS);
+        if (stats.getSlowStatements() > 0) {
+            endpoint.slow().increment(stats.getSlowStatements());
+        }
+        if (stats.getStatements() > statementBudget) {
+            endpoint.budgetExceeded().increment();
+            logger.warn("{} ran {} SQL statements, over the budget of {} ({})", stats.getContext(),
+                    stats.getStatements(), statementBudget, stats);
+        }
+    }
+
+    private Meters register(Endpoint endpoint) {
+        Tags tags = Tags.of("method", endpoint.method(), "uri", endpoint.uri());
+        return new Meters(
+                DistributionSummary.builder("app.sql.statements").tags(tags).register(meterRegistry),
+                DistributionSummary.builder("app.sql.rows").tags(tags).register(meterRegistry),
+                Timer.builder("app.sql.time").tags(tags).register(meterRegistry),
+                Counter.builder("app.sql.slow").tags(tags).register(meterRegistry),
+                Counter.builder("app.sql.budget-exceeded").tags(tags).register(meterRegistry));
+    }
+}
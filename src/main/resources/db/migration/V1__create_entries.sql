@@ -0,0 +1,8 @@
+-- Original schema (Release 2.0). Existing databases are baselined at this version.
+CREATE TABLE IF NOT EXISTS entries (
+    id          BIGINT       NOT NULL AUTO_INCREMENT,
+    amount      DOUBLE       NOT NULL,
+    description VARCHAR(255) NOT NULL,
+    date        DATE         NOT NULL,
+    PRIMARY KEY (id)
+);
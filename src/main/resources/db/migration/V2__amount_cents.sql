@@ -0,0 +1,6 @@
+-- Store amounts as exact integer cents instead of DOUBLE.
+-- The DECIMAL cast makes 0.29 round to 29 rather than truncate from 28.999...
+ALTER TABLE entries ADD COLUMN amount_cents BIGINT NULL;
+UPDATE entries SET amount_cents = ROUND(CAST(amount AS DECIMAL(20, 4)) * 100);
+ALTER TABLE entries MODIFY amount_cents BIGINT NOT NULL;
+ALTER TABLE entries DROP COLUMN amount;
@@ -0,0 +1,12 @@
+-- Delta sync: when each entry last changed (epoch millis) and a tombstone per delete.
+-- Rows that predate tracking get 0 and are only picked up by a full sync.
+ALTER TABLE entries ADD COLUMN updated_at BIGINT NOT NULL DEFAULT 0;
+CREATE INDEX idx_entries_updated_at ON entries (updated_at, id);
+
+-- entry_id NULL marks deleteAllEntries: everything before it is gone
+CREATE TABLE IF NOT EXISTS entry_tombstones (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    entry_id BIGINT NULL,
+    deleted_at BIGINT NOT NULL
+);
+CREATE INDEX idx_entry_tombstones_deleted_at ON entry_tombstones (deleted_at, id);
@@ -0,0 +1,2 @@
+-- Optimistic locking: bumped by every update, compared by conditional PUT/PATCH.
+ALTER TABLE entries ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
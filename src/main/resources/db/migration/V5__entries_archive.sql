@@ -0,0 +1,14 @@
+-- Cold tier: entries dated before the archive cutoff, moved out of entries with their
+-- ids, version and updated_at unchanged.
+CREATE TABLE IF NOT EXISTS entries_archive (
+    id           BIGINT       NOT NULL,
+    amount_cents BIGINT       NOT NULL,
+    description  VARCHAR(255) NOT NULL,
+    date         DATE         NOT NULL,
+    updated_at   BIGINT       NOT NULL,
+    version      BIGINT       NOT NULL,
+    archived_at  BIGINT       NOT NULL,
+    PRIMARY KEY (id)
+);
+CREATE INDEX idx_entries_archive_date ON entries_archive (date, id);
+CREATE INDEX idx_entries_archive_updated_at ON entries_archive (updated_at, id);
@@ -0,0 +1,134 @@
+package com.example.crudapp.analytics;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LedgerSnapshotTest {
+
+    private static final LocalDate MIN = LocalDate.of(2000, 1, 1);
+    private static final LocalDate MAX = LocalDate.of(2100, 1, 1);
+
+    private LedgerSnapshot snapshot;
+
+    @BeforeEach
+    void setUp() {
+        snapshot = new LedgerSnapshot();
+        snapshot.upsert(1L, LocalDate.of(2024, 1, 15), 10_000, "Rent");
+        snapshot.upsert(2L, LocalDate.of(2024, 1, 20), 2_550, "Groceries");
+        snapshot.upsert(3L, LocalDate.of(2024, 2, 3), 7_525, "Groceries");
+        snapshot.upsert(4L, LocalDate.of(2024, 3, 1), 99, "Coffee");
+    }
+
+    @Test
+    void sum_ShouldOnlyCountEntriesInRange() {
+        // Act
+        LedgerSnapshot.RangeTotal january = snapshot.sum(LocalDate.of(2024, 1, 1), LocalDate.of(2024, 1, 31));
+        LedgerSnapshot.RangeTotal all = snapshot.sum(MIN, MAX);
+
+        // Assert
+        assertEquals(new LedgerSnapshot.RangeTotal(2, 12_550), january);
+        assertEquals(new LedgerSnapshot.RangeTotal(4, 20_174), all);
+    }
+
+    @Test
+    void upsertAndRemove_ShouldKeepRowsConsistent() {
+        // Act
+        snapshot.upsert(2L, LocalDate.of(2024, 1, 20), 3_000, "Groceries");
+        boolean removed = snapshot.remove(1L);
+        boolean removedAgain = snapshot.remove(1L);
+
+        // Assert
+        assertTrue(removed);
+        assertFalse(removedAgain);
+        assertEquals(3, snapshot.size());
+        assertEquals(new LedgerSnapshot.RangeTotal(3, 10_624), snapshot.sum(MIN, MAX));
+        // The row moved into the hole must still be found by id
+        snapshot.upsert(4L, LocalDate.of(2024, 3, 1), 100, "Coffee");
+        assertEquals(3, snapshot.size());
+        assertEquals(new LedgerSnapshot.RangeTotal(3, 10_625), snapshot.sum(MIN, MAX));
+    }
+
+    @Test
+    void upsertAndRemove_ShouldDropDescriptionsNoRowUsesAnyMore() {
+        // Act
+        for (int i = 0; i < 1_000; i++) {
+            snapshot.upsert(1L, LocalDate.of(2024, 1, 15), 10_000, "Rent " + i);
+        }
+        snapshot.remove(4L);
+        snapshot.upsert(5L, LocalDate.of(2024, 3, 2), 500, "Tea");
+
+        // Assert - Rent 999, Groceries, Tea
+        assertEquals(3, snapshot.dictionarySize());
+        assertEquals("Rent 999", snapshot.top(1, MIN, MAX, true).get(0).description());
+        assertEquals("Tea", snapshot.top(1, LocalDate.of(2024, 3, 2), LocalDate.of(2024, 3, 2), true)
+                .get(0).description());
+    }
+
+    @Test
+    void top_ShouldReturnLargestOrSmallestFirst() {
+        // Act
+        List<LedgerSnapshot.LedgerRow> largest = snapshot.top(2, MIN, MAX, true);
+        List<LedgerSnapshot.LedgerRow> smallest = snapshot.top(10, MIN, MAX, false);
+
+        // Assert
+        assertEquals(List.of(1L, 3L), largest.stream().map(LedgerSnapshot.LedgerRow::id).toList());
+        assertEquals(List.of(4L, 2L, 3L, 1L), smallest.stream().map(LedgerSnapshot.LedgerRow::id).toList());
+        assertEquals("Rent", largest.get(0).description());
+        assertEquals(LocalDate.of(2024, 1, 15), largest.get(0).date());
+    }
+
+    @Test
+    void monthlyTotals_ShouldGroupByCalendarMonth() {
+        // Act
+        Map<YearMonth, LedgerSnapshot.RangeTotal> months =
+                snapshot.monthlyTotals(LocalDate.of(2023, 12, 1), LocalDate.of(2024, 2, 29));
+
+        // Assert
+        assertEquals(Map.of(
+                YearMonth.of(2024, 1), new LedgerSnapshot.RangeTotal(2, 12_550),
+                YearMonth.of(2024, 2), new LedgerSnapshot.RangeTotal(1, 7_525)), months);
+    }
+
+    @Test
+    void amountHistogram_ShouldClampOutOfRangeAmounts() {
+        // Arrange
+        snapshot.upsert(5L, LocalDate.of(2024, 3, 2), -500, "Refund");
+
+        // Act
+        long[] counts = snapshot.amountHistogram(5_000, 2, MIN, MAX);
+
+        // Assert
+        assertArrayEquals(new long[] {3, 2}, counts);
+    }
+
+    @Test
+    void sum_ShouldMatchAcrossParallelScan() {
+        // Arrange
+        LedgerSnapshot large = new LedgerSnapshot();
+        int rows = LedgerSnapshot.PARALLEL_THRESHOLD * 2 + 17;
+        long expected = 0;
+        for (int i = 1; i <= rows; i++) {
+            large.upsert(i, LocalDate.of(2024, 1, 1).plusDays(i % 366), i, "Entry " + (i % 10));
+            expected += i;
+        }
+        for (int i = 1; i <= rows; i += 3) {
+            large.remove(i);
+            expected -= i;
+        }
+
+        // Act
+        LedgerSnapshot.RangeTotal total = large.sum(MIN, MAX);
+
+        // Assert
+        assertEquals(rows - (rows + 2) / 3, total.count());
+        assertEquals(expected, total.totalCents());
+        assertEquals(total.count(), large.size());
+    }
+}
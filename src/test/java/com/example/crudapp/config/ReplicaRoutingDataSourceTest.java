@@ -0,0 +1,125 @@
+package com.example.crudapp.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReplicaRoutingDataSourceTest {
+
+    @Mock
+    private DataSource primary;
+
+    @Mock
+    private DataSource replica;
+
+    @Mock
+    private ReplicaLagMonitor lagMonitor;
+
+    private ReplicaRoutingDataSource routingDataSource;
+
+    @BeforeEach
+    void setUp() {
+        routingDataSource = new ReplicaRoutingDataSource(primary, replica, lagMonitor, 2000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        ReadYourWrites.unbind();
+    }
+
+    @Test
+    void readWriteTransaction_ShouldUsePrimary() {
+        // Act & Assert
+        assertEquals(ReplicaRoutingDataSource.Route.PRIMARY, routingDataSource.route(10_000));
+        verifyNoInteractions(lagMonitor);
+    }
+
+    @Test
+    void readOnlyTransaction_ShouldUseReplicaWhenHealthy() {
+        // Arrange
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        when(lagMonitor.isReplicaUsable()).thenReturn(true);
+        when(lagMonitor.getLagMillis()).thenReturn(0L);
+
+        // Act & Assert
+        assertEquals(ReplicaRoutingDataSource.Route.REPLICA, routingDataSource.route(10_000));
+    }
+
+    @Test
+    void readOnlyTransaction_ShouldFallBackToPrimaryWhenReplicaUnusable() {
+        // Arrange
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        when(lagMonitor.isReplicaUsable()).thenReturn(false);
+
+        // Act & Assert
+        assertEquals(ReplicaRoutingDataSource.Route.PRIMARY, routingDataSource.route(10_000));
+    }
+
+    @Test
+    void readAfterWrite_ShouldStayOnPrimaryForLongerOfWindowAndLag() {
+        // Arrange - write at t=10s, replica currently 3s behind
+        routingDataSource.route(10_000);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        when(lagMonitor.isReplicaUsable()).thenReturn(true);
+        when(lagMonitor.getLagMillis()).thenReturn(3000L);
+
+        // Act & Assert
+        assertEquals(ReplicaRoutingDataSource.Route.PRIMARY, routingDataSource.route(12_500));
+        assertEquals(ReplicaRoutingDataSource.Route.REPLICA, routingDataSource.route(13_000));
+    }
+
+    @Test
+    void readAfterWrite_ShouldOnlyStayOnPrimaryForClientThatWrote() {
+        // Arrange - one client writes at t=10s
+        List<Long> reported = new ArrayList<>();
+        ReadYourWrites.bind(new ReadYourWrites(0, reported::add));
+        routingDataSource.route(10_000);
+        routingDataSource.route(10_100);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        when(lagMonitor.isReplicaUsable()).thenReturn(true);
+        when(lagMonitor.getLagMillis()).thenReturn(0L);
+
+        // Act
+        ReplicaRoutingDataSource.Route writer = routingDataSource.route(11_000);
+        ReadYourWrites.bind(new ReadYourWrites(0, reported::add));
+        ReplicaRoutingDataSource.Route other = routingDataSource.route(11_000);
+        ReadYourWrites.bind(new ReadYourWrites(10_100, reported::add));
+        ReplicaRoutingDataSource.Route writerOnAnotherRequest = routingDataSource.route(11_000);
+
+        // Assert
+        assertEquals(ReplicaRoutingDataSource.Route.PRIMARY, writer);
+        assertEquals(ReplicaRoutingDataSource.Route.REPLICA, other);
+        assertEquals(ReplicaRoutingDataSource.Route.PRIMARY, writerOnAnotherRequest);
+        assertEquals(List.of(10_000L), reported);
+    }
+
+    @Test
+    void cacheFillingRead_ShouldUsePrimaryWhileReplicaLags() {
+        // Arrange - replica 4s behind but still usable, this client never wrote
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        when(lagMonitor.isReplicaUsable()).thenReturn(true);
+        when(lagMonitor.getLagMillis()).thenReturn(4000L);
+
+        // Act
+        ReplicaRoutingDataSource.Route plain = routingDataSource.route(10_000);
+        ReplicaRoutingDataSource.Route fill = PrimaryReads.call(() -> routingDataSource.route(10_000));
+
+        // Assert
+        assertEquals(ReplicaRoutingDataSource.Route.REPLICA, plain);
+        assertEquals(ReplicaRoutingDataSource.Route.PRIMARY, fill);
+        assertFalse(PrimaryReads.isActive());
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.crudapp.controller;
+
+import com.example.crudapp.service.HotKeySketch;
+import com.example.crudapp.service.HotKeyTracker;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(value = CacheAdminController.class, properties = "app.admin.token=secret")
+class CacheAdminControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private HotKeyTracker hotKeyTracker;
+
+    @Test
+    void hotKeys_WithoutToken_ShouldReturnUnauthorized() throws Exception {
+        // Act & Assert
+        mockMvc.perform(get("/api/admin/cache/hot-keys"))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/api/admin/cache/hot-keys").header("Authorization", "Bearer wrong"))
+                .andExpect(status().isUnauthorized());
+        verifyNoInteractions(hotKeyTracker);
+    }
+
+    @Test
+    void hotKeys_WithToken_ShouldListTopKeys() throws Exception {
+        // Arrange
+        when(hotKeyTracker.top()).thenReturn(List.of(new HotKeySketch.KeyCount("entry_7", 42)));
+        when(hotKeyTracker.ttlSeconds("entry_7")).thenReturn(300L);
+        when(hotKeyTracker.isPinned("entry_7")).thenReturn(true);
+
+        // Act & Assert
+        mockMvc.perform(get("/api/admin/cache/hot-keys").header("Authorization", "Bearer secret"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.keys[0].key").value("entry_7"))
+                .andExpect(jsonPath("$.keys[0].ttlSeconds").value(300))
+                .andExpect(jsonPath("$.keys[0].pinned").value(true));
+    }
+}
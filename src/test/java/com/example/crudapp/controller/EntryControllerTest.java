@@ -1,7 +1,12 @@
 package com.example.crudapp.controller;
 
+import com.example.crudapp.limit.ServiceOverloadedException;
 import com.example.crudapp.model.Entry;
+import com.example.crudapp.model.EntrySummary;
 import com.example.crudapp.service.EntryService;
+import com.example.crudapp.service.EntrySyncService;
+import com.example.crudapp.service.EntryVersionConflictException;
+import com.example.crudapp.service.SyncTokenExpiredException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -12,10 +17,12 @@ import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.time.LocalDate;
+import java.time.YearMonth;
 import java.util.Arrays;
 import java.util.List;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -30,6 +37,9 @@ class EntryControllerTest {
     @MockBean
     private EntryService entryService;
 
+    @MockBean
+    private EntrySyncService entrySyncService;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -59,6 +69,113 @@ class EntryControllerTest {
                 .andExpect(jsonPath("$[0].description").value("Groceries"));
     }
 
+    @Test
+    void getAllEntries_WithSummaryFields_ShouldUseProjection() throws Exception {
+        // Arrange
+        when(entryService.getAllEntrySummaries()).thenReturn(List.of(
+            new EntrySummary(1L, 10000L, LocalDate.of(2024, 1, 15))
+        ));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/entries").param("fields", "id,amount,date"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(1))
+                .andExpect(jsonPath("$[0].amount").value(100.0))
+                .andExpect(jsonPath("$[0].date").value("2024-01-15"))
+                .andExpect(jsonPath("$[0].description").doesNotExist());
+        verify(entryService, never()).getAllEntries();
+    }
+
+    @Test
+    void getAllEntries_WithDescriptionField_ShouldUseFullEntries() throws Exception {
+        // Arrange
+        when(entryService.getAllEntries()).thenReturn(testEntries);
+
+        // Act & Assert
+        mockMvc.perform(get("/api/entries").param("fields", "description"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].description").value("Groceries"))
+                .andExpect(jsonPath("$[0].amount").doesNotExist());
+    }
+
+    @Test
+    void getAllEntries_WithUnknownField_ShouldReturn400() throws Exception {
+        // Act & Assert
+        mockMvc.perform(get("/api/entries").param("fields", "id,category"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Unknown field: category"));
+    }
+
+    @Test
+    void getEntryById_WithSummaryFields_ShouldUseProjection() throws Exception {
+        // Arrange
+        when(entryService.getEntrySummaryById(1L)).thenReturn(new EntrySummary(1L, 10000L, LocalDate.of(2024, 1, 15)));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/entries/1").param("fields", "amount"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.amount").value(100.0))
+                .andExpect(jsonPath("$.id").doesNotExist());
+    }
+
+    @Test
+    void getTotal_ShouldReturnExactDecimalTotal() throws Exception {
+        // Arrange
+        when(entryService.getTotalAmountCents()).thenReturn(123456789L);
+
+        // Act & Assert
+        mockMvc.perform(get("/api/entries/total"))
+                .andExpect(status().isOk())
+                .andExpect(content().json("{\"total\": 1234567.89}"));
+    }
+
+    @Test
+    void getEntriesForMonth_ShouldReturnEntries() throws Exception {
+        // Arrange
+        when(entryService.getEntriesForMonth(YearMonth.of(2024, 1))).thenReturn(testEntries);
+
+        // Act & Assert
+        mockMvc.perform(get("/api/entries/month/2024-01"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(testEntries.size()));
+    }
+
+    @Test
+    void getEntriesForMonth_ShouldReturn400ForMalformedMonth() throws Exception {
+        // Act & Assert
+        mockMvc.perform(get("/api/entries/month/2024-13"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Month must be formatted as yyyy-MM"));
+        verifyNoInteractions(entryService);
+    }
+
+    @Test
+    void getChanges_ShouldReturnChangeSet() throws Exception {
+        // Arrange
+        when(entrySyncService.changesSince("token"))
+                .thenReturn(new EntrySyncService.ChangeSet(false, List.of(testEntry), List.of(7L), "next"));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/entries/changes").param("since", "token"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.reset").value(false))
+                .andExpect(jsonPath("$.upserted[0].id").value(1))
+                .andExpect(jsonPath("$.upserted[0].updatedAt").doesNotExist())
+                .andExpect(jsonPath("$.deleted[0]").value(7))
+                .andExpect(jsonPath("$.nextToken").value("next"));
+    }
+
+    @Test
+    void getChanges_ShouldReturn410WhenTokenExpired() throws Exception {
+        // Arrange
+        when(entrySyncService.changesSince("old")).thenThrow(new SyncTokenExpiredException("Change token is older than 30 days"));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/entries/changes").param("since", "old"))
+                .andExpect(status().isGone())
+                .andExpect(jsonPath("$.error").exists());
+    }
+
     @Test
     void getEntryById_ShouldReturnEntry() throws Exception {
         // Arrange
@@ -73,6 +190,18 @@ class EntryControllerTest {
                 .andExpect(jsonPath("$.date").value("2024-01-15"));
     }
 
+    @Test
+    void getEntryById_ShouldReturn503WithRetryAfterWhenShed() throws Exception {
+        // Arrange
+        when(entryService.getEntryById(1L)).thenThrow(new ServiceOverloadedException("Server is overloaded"));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/entries/1"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "1"))
+                .andExpect(jsonPath("$.error").value("Server is overloaded"));
+    }
+
     @Test
     void getEntryById_ShouldReturn404WhenNotFound() throws Exception {
         // Arrange
@@ -187,6 +316,80 @@ class EntryControllerTest {
                 .andExpect(status().isNotFound())
                 .andExpect(jsonPath("$.error").value("Entry not found"));
     }
+    @Test
+    void updateEntry_ShouldReturn409OnVersionConflict() throws Exception {
+        // Arrange
+        when(entryService.updateEntry(eq(1L), any(Entry.class)))
+                .thenThrow(new EntryVersionConflictException(1L, 3L));
+
+        // Act & Assert
+        mockMvc.perform(put("/api/entries/1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"amount\": 200.0, \"description\": \"Updated\", \"date\": \"2024-01-16\", \"version\": 3}"))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.error").value("Entry 1 is no longer at version 3"));
+    }
+
+    @Test
+    void patchEntry_ShouldPassOnlySuppliedFields() throws Exception {
+        // Arrange
+        when(entryService.patchEntry(eq(1L), any(Entry.class))).thenReturn(testEntry);
+
+        // Act & Assert
+        mockMvc.perform(patch("/api/entries/1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"description\": \"Renamed\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(1));
+        verify(entryService).patchEntry(eq(1L), argThat(changes ->
+                !changes.hasAmount() && "Renamed".equals(changes.getDescription()) && changes.getDate() == null));
+    }
+
+    @Test
+    void patchEntry_ShouldReturn400WhenNothingToChange() throws Exception {
+        // Act & Assert
+        mockMvc.perform(patch("/api/entries/1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{}"))
+                .andExpect(status().isBadRequest());
+        verify(entryService, never()).patchEntry(any(), any());
+    }
+
+    @Test
+    void createEntry_ShouldReturn400WhenAmountHasFractionsOfACent() throws Exception {
+        // Act & Assert
+        mockMvc.perform(post("/api/entries")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"amount\": 10.005, \"description\": \"Too precise\", \"date\": \"2024-01-15\"}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Amount must have at most 2 decimal places"));
+        verify(entryService, never()).createEntry(any());
+    }
+
+    @Test
+    void patchEntry_ShouldReturn400WhenAmountHasFractionsOfACent() throws Exception {
+        // Act & Assert
+        mockMvc.perform(patch("/api/entries/1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"amount\": 0.125}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Amount must have at most 2 decimal places"));
+        verify(entryService, never()).patchEntry(any(), any());
+    }
+
+    @Test
+    void patchEntry_ShouldReturn404WhenEntryNotFound() throws Exception {
+        // Arrange
+        when(entryService.patchEntry(eq(1L), any(Entry.class))).thenReturn(null);
+
+        // Act & Assert
+        mockMvc.perform(patch("/api/entries/1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"amount\": 5.0}"))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.error").value("Entry not found"));
+    }
+
     @Test
     void deleteEntry_ShouldDeleteEntry() throws Exception {
         // Arrange
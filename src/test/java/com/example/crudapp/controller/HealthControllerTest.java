@@ -0,0 +1,63 @@
+package com.example.crudapp.controller;
+
+import com.example.crudapp.health.DependencyHealth;
+import com.example.crudapp.health.DependencyHealthMonitor;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.Instant;
+
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(HealthController.class)
+class HealthControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private DependencyHealthMonitor healthMonitor;
+
+    @Test
+    void ready_ShouldReturnOkWithChecksWhenReady() throws Exception {
+        // Arrange
+        when(healthMonitor.isReady()).thenReturn(true);
+        when(healthMonitor.overallStatus()).thenReturn(DependencyHealth.Status.DEGRADED);
+        when(healthMonitor.database()).thenReturn(
+                new DependencyHealth(DependencyHealth.Status.UP, 800, Instant.now(), null));
+        when(healthMonitor.redis()).thenReturn(
+                new DependencyHealth(DependencyHealth.Status.DOWN, 1200, Instant.now(), "Connection refused"));
+
+        // Act & Assert
+        mockMvc.perform(get("/health/ready"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("DEGRADED"))
+                .andExpect(jsonPath("$.checks.db.status").value("UP"))
+                .andExpect(jsonPath("$.checks.redis.detail").value("Connection refused"));
+    }
+
+    @Test
+    void ready_ShouldReturnServiceUnavailableWhenNotReadyWhileLiveStaysUp() throws Exception {
+        // Arrange
+        when(healthMonitor.isReady()).thenReturn(false);
+        when(healthMonitor.overallStatus()).thenReturn(DependencyHealth.Status.DOWN);
+        when(healthMonitor.database()).thenReturn(
+                new DependencyHealth(DependencyHealth.Status.DOWN, 2000, Instant.now(), "Communications link failure"));
+        when(healthMonitor.redis()).thenReturn(
+                new DependencyHealth(DependencyHealth.Status.UP, 300, Instant.now(), null));
+
+        // Act & Assert
+        mockMvc.perform(get("/health/ready"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(jsonPath("$.status").value("DOWN"));
+        mockMvc.perform(get("/health/live"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("UP"));
+        verifyNoMoreInteractions(ignoreStubs(healthMonitor));
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.crudapp.controller;
+
+import com.example.crudapp.profiling.JfrProfiler;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(value = ProfilingController.class, properties = "app.admin.token=secret")
+class ProfilingControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private JfrProfiler jfrProfiler;
+
+    @Test
+    void start_WithoutToken_ShouldReturnUnauthorized() throws Exception {
+        // Act & Assert
+        mockMvc.perform(post("/debug/jfr/start"))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(post("/debug/jfr/start").header("Authorization", "Bearer wrong"))
+                .andExpect(status().isUnauthorized());
+        verifyNoInteractions(jfrProfiler);
+    }
+
+    @Test
+    void start_WithToken_ShouldStartRecordingForDuration() throws Exception {
+        // Arrange
+        when(jfrProfiler.start("profile", Duration.ofSeconds(30)))
+                .thenReturn(new JfrProfiler.Status(7L, "profile", Instant.now(), Duration.ofSeconds(30), true));
+
+        // Act & Assert
+        mockMvc.perform(post("/debug/jfr/start?duration=30s").header("Authorization", "Bearer secret"))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.id").value(7))
+                .andExpect(jsonPath("$.running").value(true));
+    }
+
+    @Test
+    void start_WhileRunning_ShouldReturnConflict() throws Exception {
+        // Arrange
+        when(jfrProfiler.start(anyString(), any())).thenThrow(new IllegalStateException("Recording 7 is already running"));
+
+        // Act & Assert
+        mockMvc.perform(post("/debug/jfr/start").header("Authorization", "Bearer secret"))
+                .andExpect(status().isConflict());
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.crudapp.controller;
+
+import com.example.crudapp.service.StaleReads;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.http.server.ServletServerHttpResponse;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StaleResponseAdviceTest {
+
+    private final StaleResponseAdvice advice = new StaleResponseAdvice();
+
+    @Test
+    void beforeBodyWrite_ShouldMarkResponseServedFromShadowCopy() {
+        // Arrange
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setAttribute(StaleReads.SERVED_AT_ATTRIBUTE, System.currentTimeMillis() - 90_000);
+        ServletServerHttpResponse response = new ServletServerHttpResponse(new MockHttpServletResponse());
+
+        // Act
+        advice.beforeBodyWrite("body", null, MediaType.APPLICATION_JSON, null,
+                new ServletServerHttpRequest(request), response);
+
+        // Assert
+        HttpHeaders headers = response.getHeaders();
+        assertEquals("crudapp; hit; detail=stale", headers.getFirst("Cache-Status"));
+        assertTrue(Long.parseLong(headers.getFirst(HttpHeaders.AGE)) >= 90);
+        assertFalse(headers.containsKey(HttpHeaders.WARNING));
+    }
+
+    @Test
+    void beforeBodyWrite_ShouldLeaveFreshResponseAlone() {
+        // Arrange
+        ServletServerHttpResponse response = new ServletServerHttpResponse(new MockHttpServletResponse());
+
+        // Act
+        advice.beforeBodyWrite("body", null, MediaType.APPLICATION_JSON, null,
+                new ServletServerHttpRequest(new MockHttpServletRequest()), response);
+
+        // Assert
+        assertFalse(response.getHeaders().containsKey("Cache-Status"));
+        assertFalse(response.getHeaders().containsKey(HttpHeaders.AGE));
+    }
+}
@@ -0,0 +1,160 @@
+package com.example.crudapp.feed;
+
+import com.example.crudapp.support.InMemoryRedisServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * End to end over HTTP: the application on H2 with the in-process Redis stand-in
+ * providing the stream.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("loadtest")
+class ChangeFeedTest {
+
+    private static final InMemoryRedisServer redis = new InMemoryRedisServer().start();
+
+    private final HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private ChangeFeed changeFeed;
+
+    @DynamicPropertySource
+    static void redisProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.data.redis.port", redis::getPort);
+    }
+
+    @AfterAll
+    static void stopRedis() {
+        redis.close();
+    }
+
+    @BeforeEach
+    void waitForTailing() throws Exception {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!changeFeed.isTailing() && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+        }
+        assertTrue(changeFeed.isTailing());
+    }
+
+    @Test
+    void stream_ShouldDeliverChangesCommittedAfterSubscribing() throws Exception {
+        // Arrange
+        BlockingQueue<String> lines = open(HttpRequest.newBuilder(uri("/api/entries/stream")));
+
+        // Act
+        long id = create("Coffee");
+
+        // Assert
+        List<String> event = nextEvent(lines);
+        assertTrue(event.contains("event:created"), event.toString());
+        assertTrue(event.stream().anyMatch(line -> line.startsWith("data:") && line.contains("\"id\":" + id)), event.toString());
+    }
+
+    @Test
+    void stream_ShouldReplayEventsAfterLastEventId() throws Exception {
+        // Arrange
+        BlockingQueue<String> first = open(HttpRequest.newBuilder(uri("/api/entries/stream")));
+        create("Rent");
+        String lastEventId = eventId(nextEvent(first));
+        long missed = create("Groceries");
+        send(HttpRequest.newBuilder(uri("/api/entries/" + missed)).DELETE());
+
+        // Act
+        BlockingQueue<String> resumed = open(HttpRequest.newBuilder(uri("/api/entries/stream"))
+                .header("Last-Event-ID", lastEventId));
+
+        // Assert
+        assertTrue(nextEvent(resumed).contains("event:created"));
+        List<String> deleted = nextEvent(resumed);
+        assertTrue(deleted.contains("event:deleted"), deleted.toString());
+        assertTrue(deleted.stream().anyMatch(line -> line.contains("\"id\":" + missed)), deleted.toString());
+    }
+
+    @Test
+    void stream_ShouldRejectMalformedLastEventId() throws Exception {
+        // Act
+        HttpResponse<String> response = client.send(HttpRequest.newBuilder(uri("/api/entries/stream"))
+                .header("Last-Event-ID", "not-an-id").build(), HttpResponse.BodyHandlers.ofString());
+
+        // Assert
+        assertEquals(400, response.statusCode());
+    }
+
+    private BlockingQueue<String> open(HttpRequest.Builder request) throws Exception {
+        BlockingQueue<String> lines = new LinkedBlockingQueue<>();
+        CompletableFuture<HttpResponse<Stream<String>>> response =
+                client.sendAsync(request.build(), HttpResponse.BodyHandlers.ofLines());
+        HttpResponse<Stream<String>> opened = response.get(5, TimeUnit.SECONDS);
+        assertEquals(200, opened.statusCode());
+        Thread reader = new Thread(() -> opened.body().forEach(lines::add), "sse-reader");
+        reader.setDaemon(true);
+        reader.start();
+        return lines;
+    }
+
+    /** Lines of the next named event, skipping comments and the initial retry hint. */
+    private static List<String> nextEvent(BlockingQueue<String> lines) throws InterruptedException {
+        List<String> event = new ArrayList<>();
+        while (true) {
+            String line = lines.poll(5, TimeUnit.SECONDS);
+            assertNotNull(line, "timed out waiting for an event");
+            if (line.isEmpty()) {
+                if (event.stream().anyMatch(l -> l.startsWith("event:"))) {
+                    return event;
+                }
+                event.clear();
+            } else if (!line.startsWith(":")) {
+                event.add(line);
+            }
+        }
+    }
+
+    private static String eventId(List<String> event) {
+        return event.stream().filter(line -> line.startsWith("id:")).findFirst().orElseThrow().substring(3);
+    }
+
+    private long create(String description) throws Exception {
+        HttpResponse<String> response = client.send(HttpRequest.newBuilder(uri("/api/entries"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(
+                        "{\"amount\": 12.5, \"description\": \"" + description + "\", \"date\": \"2024-01-15\"}"))
+                .build(), HttpResponse.BodyHandlers.ofString());
+        assertEquals(201, response.statusCode());
+        return Long.parseLong(response.body().replaceAll(".*\"id\":(\\d+).*", "$1"));
+    }
+
+    private void send(HttpRequest.Builder request) throws Exception {
+        client.send(request.timeout(Duration.ofSeconds(5)).build(), HttpResponse.BodyHandlers.discarding());
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+}
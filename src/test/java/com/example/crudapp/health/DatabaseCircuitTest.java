@@ -0,0 +1,109 @@
+package com.example.crudapp.health;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DatabaseCircuitTest {
+
+    @Mock
+    private HikariDataSource primaryDataSource;
+
+    @Mock
+    private HikariPoolMXBean pool;
+
+    @Mock
+    private DependencyHealthMonitor healthMonitor;
+
+    @InjectMocks
+    private DatabaseCircuit circuit;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(circuit, "enabled", true);
+        ReflectionTestUtils.setField(circuit, "failureThreshold", 3);
+        ReflectionTestUtils.setField(circuit, "latencyBudget", Duration.ofSeconds(1));
+        ReflectionTestUtils.setField(circuit, "openDuration", Duration.ofMinutes(1));
+        lenient().when(primaryDataSource.getHikariPoolMXBean()).thenReturn(pool);
+        lenient().when(healthMonitor.database())
+                .thenReturn(new DependencyHealth(DependencyHealth.Status.UP, 500, Instant.now(), null));
+    }
+
+    @Test
+    void state_ShouldOpenAfterThresholdOfConsecutiveFailures() {
+        // Arrange
+        DataAccessResourceFailureException failure = new DataAccessResourceFailureException("Connection refused");
+
+        // Act
+        circuit.onFailure(failure);
+        circuit.onFailure(failure);
+        DatabaseCircuit.State beforeThreshold = circuit.state();
+        circuit.onFailure(failure);
+
+        // Assert
+        assertEquals(DatabaseCircuit.State.AVAILABLE, beforeThreshold);
+        assertEquals(DatabaseCircuit.State.UNAVAILABLE, circuit.state());
+        assertThrows(DatabaseUnavailableException.class, circuit::checkAvailable);
+    }
+
+    @Test
+    void state_ShouldCountSlowCallsAsFailuresAndCloseOnFastOne() {
+        // Act
+        for (int i = 0; i < 3; i++) {
+            circuit.onSuccess(Duration.ofSeconds(5).toNanos());
+        }
+        DatabaseCircuit.State whenSlow = circuit.state();
+        circuit.onSuccess(Duration.ofMillis(5).toNanos());
+
+        // Assert
+        assertEquals(DatabaseCircuit.State.UNAVAILABLE, whenSlow);
+        assertEquals(DatabaseCircuit.State.AVAILABLE, circuit.state());
+    }
+
+    @Test
+    void state_ShouldRetripOnFirstFailureAfterOpenDurationEnds() {
+        // Arrange
+        ReflectionTestUtils.setField(circuit, "openDuration", Duration.ZERO);
+        DataAccessResourceFailureException failure = new DataAccessResourceFailureException("Connection refused");
+        for (int i = 0; i < 3; i++) {
+            circuit.onFailure(failure);
+        }
+        DatabaseCircuit.State afterOpenDuration = circuit.state();
+        ReflectionTestUtils.setField(circuit, "openDuration", Duration.ofMinutes(1));
+
+        // Act
+        circuit.onFailure(failure);
+
+        // Assert
+        assertEquals(DatabaseCircuit.State.AVAILABLE, afterOpenDuration);
+        assertEquals(DatabaseCircuit.State.UNAVAILABLE, circuit.state());
+    }
+
+    @Test
+    void state_ShouldFollowProbeAndPool() {
+        // Arrange
+        when(healthMonitor.database())
+                .thenReturn(new DependencyHealth(DependencyHealth.Status.DOWN, -1, Instant.now(), "Connection refused"))
+                .thenReturn(new DependencyHealth(DependencyHealth.Status.UP, 500, Instant.now(), null));
+        when(pool.getThreadsAwaitingConnection()).thenReturn(4);
+
+        // Act & Assert
+        assertEquals(DatabaseCircuit.State.UNAVAILABLE, circuit.state());
+        assertEquals(DatabaseCircuit.State.SATURATED, circuit.state());
+        assertDoesNotThrow(circuit::checkAvailable);
+    }
+}
@@ -0,0 +1,163 @@
+package com.example.crudapp.health;
+
+import com.example.crudapp.service.CacheWarmer;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DependencyHealthMonitorTest {
+
+    @Mock
+    private HikariDataSource primaryDataSource;
+
+    @Mock
+    private HikariPoolMXBean pool;
+
+    @Mock
+    private DataSource probeDataSource;
+
+    @Mock
+    private Connection connection;
+
+    @Mock
+    private Statement statement;
+
+    @Mock
+    private RedisTemplate<String, String> redisTemplate;
+
+    @Mock
+    private CacheWarmer cacheWarmer;
+
+    @InjectMocks
+    private DependencyHealthMonitor monitor;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(monitor, "staleAfter", Duration.ofSeconds(15));
+        ReflectionTestUtils.setField(monitor, "dbLatencyBudget", Duration.ofSeconds(1));
+        ReflectionTestUtils.setField(monitor, "dbQueryTimeout", Duration.ofSeconds(2));
+        ReflectionTestUtils.setField(monitor, "redisLatencyBudget", Duration.ofSeconds(1));
+        ReflectionTestUtils.setField(monitor, "probeDataSource", probeDataSource);
+        lenient().when(primaryDataSource.getHikariPoolMXBean()).thenReturn(pool);
+        lenient().when(primaryDataSource.getMaximumPoolSize()).thenReturn(10);
+        lenient().when(cacheWarmer.isStartupComplete()).thenReturn(true);
+    }
+
+    @Test
+    void probe_ShouldReportUpWhenBothDependenciesAnswerInBudget() throws Exception {
+        // Arrange
+        when(probeDataSource.getConnection()).thenReturn(connection);
+        when(connection.createStatement()).thenReturn(statement);
+
+        // Act
+        monitor.probe();
+
+        // Assert
+        verify(statement).setQueryTimeout(2);
+        verify(statement).execute("SELECT 1");
+        assertEquals(DependencyHealth.Status.UP, monitor.database().status());
+        assertEquals(DependencyHealth.Status.UP, monitor.redis().status());
+        assertTrue(monitor.isReady());
+        assertEquals(DependencyHealth.Status.UP, monitor.overallStatus());
+    }
+
+    @Test
+    void probeDatabase_ShouldReportDegradedWithoutBorrowingWhenPoolIsSaturated() throws Exception {
+        // Arrange
+        when(probeDataSource.getConnection()).thenReturn(connection);
+        when(connection.createStatement()).thenReturn(statement);
+        when(pool.getThreadsAwaitingConnection()).thenReturn(3);
+        when(pool.getActiveConnections()).thenReturn(10);
+
+        // Act
+        monitor.probe();
+
+        // Assert
+        verify(primaryDataSource, never()).getConnection();
+        verify(statement).execute("SELECT 1");
+        assertEquals(DependencyHealth.Status.DEGRADED, monitor.database().status());
+        assertTrue(monitor.isReady());
+        assertEquals(DependencyHealth.Status.DEGRADED, monitor.overallStatus());
+    }
+
+    @Test
+    void probeDatabase_ShouldReportDownWhenPoolIsSaturatedAndDatabaseStopsAnswering() throws Exception {
+        // Arrange
+        lenient().when(pool.getThreadsAwaitingConnection()).thenReturn(3);
+        lenient().when(pool.getActiveConnections()).thenReturn(10);
+        when(probeDataSource.getConnection()).thenThrow(new SQLException("Communications link failure"));
+
+        // Act
+        monitor.probe();
+
+        // Assert: a full pool no longer vouches for the database
+        verify(primaryDataSource, never()).getConnection();
+        assertEquals(DependencyHealth.Status.DOWN, monitor.database().status());
+        assertFalse(monitor.isReady());
+    }
+
+    @Test
+    void probe_ShouldBeNotReadyWhenDatabaseIsDownButOnlyDegradedWhenRedisIs() throws Exception {
+        // Arrange
+        when(probeDataSource.getConnection()).thenReturn(connection);
+        when(connection.createStatement()).thenReturn(statement);
+        when(redisTemplate.execute(any(RedisCallback.class)))
+                .thenThrow(new RedisConnectionFailureException("Connection refused"));
+
+        // Act
+        monitor.probe();
+
+        // Assert: reads fall back to the database, so Redis alone does not take the pod out
+        assertEquals(DependencyHealth.Status.DOWN, monitor.redis().status());
+        assertTrue(monitor.isReady());
+        assertEquals(DependencyHealth.Status.DEGRADED, monitor.overallStatus());
+
+        // Arrange
+        when(probeDataSource.getConnection()).thenThrow(new SQLException("Communications link failure"));
+
+        // Act
+        monitor.probe();
+
+        // Assert
+        assertEquals(DependencyHealth.Status.DOWN, monitor.database().status());
+        assertEquals("Communications link failure", monitor.database().detail());
+        assertFalse(monitor.isReady());
+        assertEquals(DependencyHealth.Status.DOWN, monitor.overallStatus());
+    }
+
+    @Test
+    void database_ShouldReportUnknownWhenNotCheckedOrLastResultIsStale() {
+        // Act & Assert: before the first probe
+        assertEquals(DependencyHealth.Status.UNKNOWN, monitor.database().status());
+        assertFalse(monitor.isReady());
+
+        // Arrange: a probe that finished a minute ago
+        ReflectionTestUtils.setField(monitor, "database",
+                new DependencyHealth(DependencyHealth.Status.UP, 500, Instant.now().minusSeconds(60), null));
+
+        // Act & Assert
+        assertEquals(DependencyHealth.Status.UNKNOWN, monitor.database().status());
+        assertFalse(monitor.isReady());
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.crudapp.importer;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CsvStatementReaderTest {
+
+    @Test
+    void next_ShouldMapHeaderColumnsAndHandleQuotedFields() throws IOException {
+        // Arrange
+        String csv = "\uFEFFReference,Date,Description,Amount\r\n"
+                + "r1,2024-01-15,\"Coffee, large\",-4.50\r\n"
+                + "\r\n"
+                + "r2,2024-01-16,\"Rent \"\"January\"\"\nflat 2\",-950\r\n"
+                + "r3,2024-01-17,Salary\n";
+
+        // Act
+        CsvStatementReader reader = new CsvStatementReader(new BufferedReader(new StringReader(csv)));
+        StatementRecord first = reader.next();
+        StatementRecord second = reader.next();
+        StatementRecord third = reader.next();
+
+        // Assert
+        assertEquals(new StatementRecord(2, "2024-01-15", "-4.50", "Coffee, large"), first);
+        assertEquals(new StatementRecord(4, "2024-01-16", "-950", "Rent \"January\"\nflat 2"), second);
+        assertEquals(new StatementRecord(6, "2024-01-17", null, "Salary"), third);
+        assertNull(reader.next());
+    }
+
+    @Test
+    void constructor_ShouldRejectHeaderWithoutRequiredColumns() {
+        // Arrange
+        String csv = "date,value,memo\n2024-01-15,10,Coffee\n";
+
+        // Act & Assert
+        StatementFormatException e = assertThrows(StatementFormatException.class,
+                () -> new CsvStatementReader(new BufferedReader(new StringReader(csv))));
+        assertEquals("CSV header must name date, amount and description columns", e.getMessage());
+    }
+
+    @Test
+    void next_ShouldStopAtUnterminatedQuote() throws IOException {
+        // Arrange
+        String csv = "date,amount,description\n2024-01-15,10,\"Coffee\n2024-01-16,20,Tea\n";
+        CsvStatementReader reader = new CsvStatementReader(new BufferedReader(new StringReader(csv)));
+
+        // Act & Assert
+        StatementFormatException e = assertThrows(StatementFormatException.class, reader::next);
+        assertEquals("Quoted field starting on line 2 is not closed", e.getMessage());
+    }
+}
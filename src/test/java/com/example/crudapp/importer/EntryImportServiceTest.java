@@ -0,0 +1,157 @@
+package com.example.crudapp.importer;
+
+import com.example.crudapp.limit.ServiceOverloadedException;
+import com.example.crudapp.service.CachesClearedEvent;
+import com.example.crudapp.service.EntryChangedEvent;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class EntryImportServiceTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+    @InjectMocks
+    private EntryImportService entryImportService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(entryImportService, "batchSize", 2);
+        ReflectionTestUtils.setField(entryImportService, "chunkSize", 4);
+        ReflectionTestUtils.setField(entryImportService, "maxConcurrent", 1);
+        entryImportService.init();
+    }
+
+    @Test
+    void importEntries_ShouldInsertBatchesCommitChunksAndReportRejectedRows() throws IOException {
+        // Arrange
+        List<List<Object[]>> batches = new ArrayList<>();
+        when(jdbcTemplate.batchUpdate(eq(EntryImportService.INSERT_SQL), anyList())).thenAnswer(invocation -> {
+            batches.add(new ArrayList<>(invocation.getArgument(1)));
+            return new int[0];
+        });
+        String csv = """
+                date,amount,description
+                2024-01-01,10.00,One
+                2024-01-02,20,Two
+                2024-01-03,,Missing amount
+                15/01/2024,30,Bad date
+                2024-01-04,40.005,Too precise
+                2024-01-04,40,Four
+                2024-01-05,50,Five
+                2024-01-06,60,Six
+                """;
+
+        // Act
+        List<JsonNode> lines = run(csv);
+
+        // Assert: batches of 2, a commit after 4 rows and one for the rest
+        assertEquals(List.of(2, 2, 1), batches.stream().map(List::size).toList());
+        Object[] first = batches.get(0).get(0);
+        assertEquals(1000L, first[0]);
+        assertEquals("One", first[1]);
+        assertEquals(Date.valueOf("2024-01-01"), first[2]);
+        assertNotNull(first[3]);
+        verify(transactionManager, times(2)).commit(any());
+
+        assertEquals(5, lines.size());
+        assertEquals("error", lines.get(0).get("type").asText());
+        assertEquals(4, lines.get(0).get("line").asLong());
+        assertEquals("Amount and description are required", lines.get(0).get("error").asText());
+        assertEquals(5, lines.get(1).get("line").asLong());
+        assertEquals("Date must be formatted as yyyy-MM-dd", lines.get(1).get("error").asText());
+        assertEquals(6, lines.get(2).get("line").asLong());
+        assertEquals("Amount must have at most 2 decimal places", lines.get(2).get("error").asText());
+        assertEquals("progress", lines.get(3).get("type").asText());
+        assertEquals(4, lines.get(3).get("imported").asLong());
+        assertEquals("done", lines.get(4).get("type").asText());
+        assertEquals(8, lines.get(4).get("read").asLong());
+        assertEquals(5, lines.get(4).get("imported").asLong());
+        assertEquals(3, lines.get(4).get("rejected").asLong());
+
+        // Caches are invalidated once for the whole file
+        verify(eventPublisher).publishEvent(EntryChangedEvent.imported());
+        verify(eventPublisher).publishEvent(new CachesClearedEvent());
+    }
+
+    @Test
+    void importEntries_ShouldKeepCommittedChunksWhenALaterChunkFails() throws IOException {
+        // Arrange
+        when(jdbcTemplate.batchUpdate(eq(EntryImportService.INSERT_SQL), anyList()))
+                .thenReturn(new int[0], new int[0])
+                .thenThrow(new DataIntegrityViolationException("Duplicate"));
+        StringBuilder csv = new StringBuilder("date,amount,description\n");
+        for (int i = 1; i <= 6; i++) {
+            csv.append("2024-01-0").append(i).append(",").append(i).append(",Row ").append(i).append('\n');
+        }
+
+        // Act
+        List<JsonNode> lines = run(csv.toString());
+
+        // Assert
+        verify(transactionManager).commit(any());
+        verify(transactionManager).rollback(any());
+        JsonNode last = lines.get(lines.size() - 1);
+        assertEquals("failed", last.get("type").asText());
+        assertEquals(4, last.get("imported").asLong());
+        assertEquals("Failed to insert entries; rows from line 6 on were not imported", last.get("error").asText());
+        verify(eventPublisher).publishEvent(EntryChangedEvent.imported());
+    }
+
+    @Test
+    void start_ShouldRejectWhenEveryImportSlotIsTaken() throws IOException {
+        // Arrange
+        StatementReader reader = mock(StatementReader.class);
+        entryImportService.start(reader);
+
+        // Act & Assert
+        assertThrows(ServiceOverloadedException.class,
+                () -> entryImportService.start(reader));
+        verifyNoInteractions(jdbcTemplate, eventPublisher);
+    }
+
+    private List<JsonNode> run(String csv) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        entryImportService.importEntries(new CsvStatementReader(new BufferedReader(new StringReader(csv))), out);
+        List<JsonNode> lines = new ArrayList<>();
+        for (String line : out.toString(StandardCharsets.UTF_8).split("\n")) {
+            lines.add(objectMapper.readTree(line));
+        }
+        return lines;
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.crudapp.importer;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OfxStatementReaderTest {
+
+    @Test
+    void next_ShouldReadTransactionsFromSgmlStatement() throws IOException {
+        // Arrange
+        String ofx = """
+                OFXHEADER:100
+                DATA:OFXSGML
+                VERSION:102
+
+                <OFX>
+                <BANKMSGSRSV1><STMTTRNRS><STMTRS>
+                <BANKTRANLIST>
+                <STMTTRN>
+                <TRNTYPE>DEBIT
+                <DTPOSTED>20240115120000[-5:EST]
+                <TRNAMT>-4.50
+                <NAME>Coffee &amp; Cake
+                <MEMO>Card 1234
+                </STMTTRN>
+                <STMTTRN>
+                <TRNTYPE>CREDIT
+                <DTPOSTED>20240131
+                <TRNAMT>2500.00
+                <MEMO>Salary
+                </STMTTRN>
+                </BANKTRANLIST>
+                </STMTRS></STMTTRNRS></BANKMSGSRSV1>
+                </OFX>
+                """;
+
+        // Act
+        OfxStatementReader reader = new OfxStatementReader(new BufferedReader(new StringReader(ofx)));
+        StatementRecord first = reader.next();
+        StatementRecord second = reader.next();
+
+        // Assert
+        assertEquals(new StatementRecord(8, "2024-01-15", "-4.50", "Coffee & Cake"), first);
+        assertEquals(new StatementRecord(15, "2024-01-31", "2500.00", "Salary"), second);
+        assertNull(reader.next());
+    }
+
+    @Test
+    void next_ShouldReadClosedElementsFromXmlStatement() throws IOException {
+        // Arrange
+        String ofx = "<?xml version=\"1.0\"?><?OFX OFXHEADER=\"200\"?><OFX><STMTTRN>"
+                + "<DTPOSTED>20240201</DTPOSTED><TRNAMT>12.00</TRNAMT><NAME>Refund</NAME></STMTTRN></OFX>";
+
+        // Act
+        OfxStatementReader reader = new OfxStatementReader(new BufferedReader(new StringReader(ofx)));
+
+        // Assert
+        assertEquals(new StatementRecord(1, "2024-02-01", "12.00", "Refund"), reader.next());
+        assertNull(reader.next());
+    }
+
+    @Test
+    void constructor_ShouldRejectFileWithoutOfxElement() {
+        // Act & Assert
+        assertThrows(StatementFormatException.class,
+                () -> new OfxStatementReader(new BufferedReader(new StringReader("date,amount\n2024-01-15,10\n"))));
+    }
+}
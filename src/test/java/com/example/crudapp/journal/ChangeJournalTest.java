@@ -0,0 +1,189 @@
+package com.example.crudapp.journal;
+
+import com.example.crudapp.model.Entry;
+import com.example.crudapp.service.EntryChangedEvent;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ChangeJournalTest {
+
+    // Room for three records, so a handful of appends spans several segments
+    private static final int SEGMENT_SIZE = 256;
+
+    @TempDir
+    Path directory;
+
+    private static Entry entry(long id, Long version, String description) {
+        Entry entry = new Entry(10.0 + id, description, LocalDate.of(2024, 1, 1).plusDays(id));
+        entry.setId(id);
+        entry.setVersion(version);
+        entry.setUpdatedAt(1_700_000_000_000L + id);
+        return entry;
+    }
+
+    private static String fields(Entry entry) {
+        return entry.getId() + "/" + entry.getVersion() + "/" + entry.getAmountCents() + "/" + entry.getDate() + "/"
+                + entry.getUpdatedAt() + "/" + entry.getDescription();
+    }
+
+    private static List<String> fields(Iterable<Entry> entries) {
+        List<String> result = new ArrayList<>();
+        entries.forEach(entry -> result.add(fields(entry)));
+        return result;
+    }
+
+    @Test
+    void replay_ShouldReturnRecordsAcrossSegmentsAndAfterReopening() throws Exception {
+        // Arrange
+        try (ChangeJournal journal = new ChangeJournal(directory, SEGMENT_SIZE)) {
+            for (long id = 1; id <= 10; id++) {
+                journal.append(EntryChangedEvent.created(entry(id, 0L, "Entry " + id)));
+            }
+            journal.append(EntryChangedEvent.deleted(4L));
+        }
+
+        // Act
+        List<JournalRecord> replayed = new ArrayList<>();
+        long end;
+        long appended;
+        try (ChangeJournal journal = new ChangeJournal(directory, SEGMENT_SIZE)) {
+            end = journal.replay(8, replayed::add);
+            appended = journal.append(EntryChangedEvent.cleared());
+        }
+
+        // Assert
+        try (Stream<Path> files = Files.list(directory)) {
+            assertTrue(files.count() > 3);
+        }
+        assertEquals(11, end);
+        assertEquals(11, appended);
+        assertEquals(List.of(8L, 9L, 10L), replayed.stream().map(JournalRecord::offset).toList());
+        assertEquals(fields(entry(9, 0L, "Entry 9")), fields(replayed.get(0).entry()));
+        assertEquals(EntryChangedEvent.Type.DELETED, replayed.get(2).type());
+        assertEquals(4L, replayed.get(2).entryId());
+    }
+
+    @Test
+    void open_ShouldCutOffTornRecordAndAppendInItsPlace() throws Exception {
+        // Arrange
+        try (ChangeJournal journal = new ChangeJournal(directory, 4096)) {
+            for (long id = 1; id <= 3; id++) {
+                journal.append(EntryChangedEvent.created(entry(id, 0L, "Entry " + id)));
+            }
+        }
+        Path segment;
+        try (Stream<Path> files = Files.list(directory)) {
+            segment = files.filter(file -> file.toString().endsWith(".seg")).findFirst().orElseThrow();
+        }
+        byte[] bytes = Files.readAllBytes(segment);
+        ByteBuffer frames = ByteBuffer.wrap(bytes);
+        int third = 0;
+        for (int i = 0; i < 2; i++) {
+            third += 2 * Integer.BYTES + frames.getInt(third);
+        }
+        bytes[third + 2 * Integer.BYTES + 20] ^= 0x5A;
+        Files.write(segment, bytes);
+
+        // Act
+        List<String> replayed = new ArrayList<>();
+        try (ChangeJournal journal = new ChangeJournal(directory, 4096)) {
+            assertEquals(2, journal.nextOffset());
+            journal.append(EntryChangedEvent.created(entry(4, 0L, "Entry 4")));
+            journal.replay(0, record -> replayed.add(fields(record.entry())));
+        }
+
+        // Assert
+        assertEquals(List.of(fields(entry(1, 0L, "Entry 1")), fields(entry(2, 0L, "Entry 2")),
+                fields(entry(4, 0L, "Entry 4"))), replayed);
+    }
+
+    @Test
+    void snapshot_ShouldDeleteCoveredSegmentsAndStillLoadSameState() throws Exception {
+        // Arrange
+        ChangeJournal.State before;
+        try (ChangeJournal journal = new ChangeJournal(directory, SEGMENT_SIZE)) {
+            for (long id = 1; id <= 10; id++) {
+                journal.append(EntryChangedEvent.created(entry(id, 0L, "Entry " + id)));
+            }
+            journal.append(EntryChangedEvent.deleted(3L));
+            journal.append(EntryChangedEvent.updated(entry(4, 1L, "Renamed")));
+
+            // Act
+            before = journal.loadState();
+            journal.snapshot(before);
+            journal.append(EntryChangedEvent.created(entry(11, 0L, "Entry 11")));
+
+            // Assert
+            assertTrue(journal.firstOffset() > 0);
+            assertThrows(JournalTruncatedException.class, () -> journal.replay(0, record -> {}));
+        }
+        try (ChangeJournal journal = new ChangeJournal(directory, SEGMENT_SIZE)) {
+            ChangeJournal.State after = journal.loadState();
+            List<String> expected = new ArrayList<>(fields(before.entries()));
+            expected.add(fields(entry(11, 0L, "Entry 11")));
+            assertEquals(expected, fields(after.entries()));
+            assertEquals(13, after.offset());
+            assertTrue(after.isComplete());
+        }
+        assertEquals(9, before.entries().size());
+        assertEquals(fields(entry(4, 1L, "Renamed")),
+                fields(before.entries().stream().filter(entry -> entry.getId() == 4L).findFirst().orElseThrow()));
+    }
+
+    @Test
+    void loadState_ShouldPreferNewerVersionsAndKeepDeletesAndImportsInMind() throws Exception {
+        // Arrange
+        try (ChangeJournal journal = new ChangeJournal(directory, SEGMENT_SIZE)) {
+            journal.append(EntryChangedEvent.created(entry(1, 0L, "Entry 1")));
+            journal.append(EntryChangedEvent.created(entry(2, 0L, "Entry 2")));
+            // Two updates of entry 1 that reached the journal in the wrong order
+            journal.append(EntryChangedEvent.updated(entry(1, 2L, "Second")));
+            journal.append(EntryChangedEvent.updated(entry(1, 1L, "First")));
+            // An update of entry 2 that committed before its delete
+            journal.append(EntryChangedEvent.deleted(2L));
+            journal.append(EntryChangedEvent.updated(entry(2, 1L, "Late")));
+
+            // Act
+            ChangeJournal.State applied = journal.loadState();
+            journal.append(EntryChangedEvent.imported());
+            ChangeJournal.State imported = journal.loadState();
+            journal.append(EntryChangedEvent.cleared());
+            ChangeJournal.State cleared = journal.loadState();
+
+            // Assert
+            assertEquals(List.of(fields(entry(1, 2L, "Second"))), fields(applied.entries()));
+            assertTrue(applied.isComplete());
+            assertFalse(imported.isComplete());
+            assertTrue(cleared.isComplete());
+            assertTrue(cleared.entries().isEmpty());
+        }
+    }
+
+    @Test
+    void loadState_ShouldNotGuessVersionOfRecordWrittenWithoutOne() throws Exception {
+        // Arrange
+        try (ChangeJournal journal = new ChangeJournal(directory, SEGMENT_SIZE)) {
+            journal.append(EntryChangedEvent.created(entry(1, 0L, "Entry 1")));
+            journal.append(EntryChangedEvent.updated(entry(1, 2L, "Second")));
+            // Written before updates read their version back; it may be older than "Second"
+            journal.append(EntryChangedEvent.updated(entry(1, null, "Unknown")));
+
+            // Act
+            ChangeJournal.State state = journal.loadState();
+
+            // Assert
+            assertFalse(state.isComplete());
+            assertEquals(List.of(fields(entry(1, 2L, "Second"))), fields(state.entries()));
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.crudapp.limit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdaptiveConcurrencyLimiterTest {
+
+    private static final long THRESHOLD = TimeUnit.MILLISECONDS.toNanos(100);
+
+    @Test
+    void tryAcquire_ShouldRejectOnceLimitIsReached() {
+        // Arrange
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("reads", 2, 1, 10, THRESHOLD, 0.5);
+
+        // Act & Assert
+        assertTrue(limiter.tryAcquire());
+        assertTrue(limiter.tryAcquire());
+        assertFalse(limiter.tryAcquire());
+        limiter.onIgnored();
+        assertTrue(limiter.tryAcquire());
+        assertEquals(2, limiter.getInFlight());
+    }
+
+    @Test
+    void onSuccess_ShouldGrowOnlyWhileLimitIsInUse() {
+        // Arrange
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("reads", 4, 1, 10, THRESHOLD, 0.5);
+
+        // Act: lightly loaded requests
+        for (int i = 0; i < 50; i++) {
+            limiter.tryAcquire();
+            limiter.onSuccess(1_000);
+        }
+
+        // Assert
+        assertEquals(4, limiter.getLimit());
+
+        // Act: saturate the limit and complete fast
+        for (int i = 0; i < 50; i++) {
+            while (limiter.tryAcquire()) {
+                // fill every slot
+            }
+            limiter.onSuccess(1_000);
+        }
+
+        // Assert
+        assertTrue(limiter.getLimit() > 4);
+        assertTrue(limiter.getLimit() <= 10);
+    }
+
+    @Test
+    void slowAndDroppedRequests_ShouldBackOffOncePerWindowDownToMinimum() throws Exception {
+        // Arrange
+        long window = TimeUnit.MILLISECONDS.toNanos(20);
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("writes", 8, 2, 10, window, 0.5);
+
+        // Act: a burst of slow and failed requests is one congestion signal
+        limiter.tryAcquire();
+        limiter.onSuccess(window * 2);
+        for (int i = 0; i < 5; i++) {
+            limiter.tryAcquire();
+            limiter.onDropped();
+        }
+
+        // Assert
+        assertEquals(4, limiter.getLimit());
+
+        // Act: later signals keep halving, but not below the minimum
+        for (int i = 0; i < 3; i++) {
+            Thread.sleep(25);
+            limiter.tryAcquire();
+            limiter.onDropped();
+        }
+
+        // Assert
+        assertEquals(2, limiter.getLimit());
+        assertEquals(0, limiter.getInFlight());
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.crudapp.limit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConcurrencyLimitFilterTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private AdaptiveConcurrencyLimiter reads;
+    private AdaptiveConcurrencyLimiter writes;
+    private ConcurrencyLimitFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        long threshold = TimeUnit.SECONDS.toNanos(1);
+        reads = new AdaptiveConcurrencyLimiter("reads", 5, 1, 10, threshold, 0.9);
+        writes = new AdaptiveConcurrencyLimiter("writes", 1, 1, 10, threshold, 0.9);
+        filter = new ConcurrencyLimitFilter(reads, writes, 0.8, 2, meterRegistry);
+    }
+
+    @Test
+    void fullLane_ShouldShedWithRetryAfter() throws Exception {
+        // Arrange
+        assertTrue(writes.tryAcquire());
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // Act
+        filter.doFilter(new MockHttpServletRequest("POST", "/api/entries"), response, new MockFilterChain());
+
+        // Assert
+        assertEquals(503, response.getStatus());
+        assertEquals("2", response.getHeader("Retry-After"));
+        assertTrue(response.getContentAsString().contains("overloaded"));
+        assertEquals(1.0, meterRegistry.get("app.limiter.requests").tags("lane", "writes", "outcome", "rejected")
+                .counter().count());
+
+        // The read lane is unaffected
+        MockHttpServletResponse read = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/entries"), read, new MockFilterChain());
+        assertEquals(200, read.getStatus());
+    }
+
+    @Test
+    void readsNearLimit_ShouldRunInCacheOnlyMode() throws Exception {
+        // Arrange: 4 of 5 read slots taken, so the next read is above 80%
+        for (int i = 0; i < 4; i++) {
+            reads.tryAcquire();
+        }
+        AtomicBoolean cacheOnly = new AtomicBoolean();
+        MockFilterChain chain = new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest req,
+                                   HttpServletResponse resp) {
+                cacheOnly.set(LoadShedding.isCacheOnly());
+            }
+        });
+
+        // Act
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/entries/1"), new MockHttpServletResponse(), chain);
+
+        // Assert
+        assertTrue(cacheOnly.get());
+        assertFalse(LoadShedding.isCacheOnly());
+        assertEquals(4, reads.getInFlight());
+    }
+
+    @Test
+    void streamEndpoint_ShouldNotTakeASlot() throws Exception {
+        // Arrange
+        while (reads.tryAcquire()) {
+            // fill every slot
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // Act
+        filter.doFilter(new MockHttpServletRequest("GET", ConcurrencyLimitFilter.STREAM_PATH), response,
+                new MockFilterChain());
+
+        // Assert
+        assertEquals(200, response.getStatus());
+    }
+}
@@ -0,0 +1,275 @@
+package com.example.crudapp.load;
+
+import com.example.crudapp.support.InMemoryRedisServer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Mixed read/write load against the real application, backed by H2 and the in-process
+ * Redis stand-in. Excluded from the default build; run with {@code -Pload-test}.
+ * Every knob and threshold can be overridden with {@code -Dload.*} system properties.
+ */
+@Tag("load")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("loadtest")
+class EntryLoadTest {
+
+    private static final InMemoryRedisServer redis = new InMemoryRedisServer().start();
+
+    private final int concurrency = intSetting("load.concurrency", 16);
+    private final int durationSeconds = intSetting("load.duration-seconds", 15);
+    private final int warmupSeconds = intSetting("load.warmup-seconds", 3);
+    private final int seedEntries = intSetting("load.seed-entries", 200);
+    private final double writeRatio = doubleSetting("load.write-ratio", 0.1);
+    private final double listRatio = doubleSetting("load.list-ratio", 0.3);
+
+    private final double maxP99Millis = doubleSetting("load.max-p99-ms", 500);
+    private final double maxP999Millis = doubleSetting("load.max-p999-ms", 2000);
+    private final double minThroughput = doubleSetting("load.min-throughput", 100);
+    private final double minCacheHitRatio = doubleSetting("load.min-cache-hit-ratio", 0.5);
+    private final double maxErrorRate = doubleSetting("load.max-error-rate", 0.01);
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    private final AtomicLong highestId = new AtomicLong();
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @DynamicPropertySource
+    static void redisProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.data.redis.port", redis::getPort);
+    }
+
+    @AfterAll
+    static void stopRedis() {
+        redis.close();
+    }
+
+    @Test
+    void mixedTraffic_ShouldStayWithinThresholds() throws Exception {
+        // Arrange
+        for (int i = 0; i < seedEntries; i++) {
+            create();
+        }
+        run(warmupSeconds);
+        redis.resetStats();
+
+        // Act
+        RunResult result = run(durationSeconds);
+        long hits = redis.getKeyHits();
+        long misses = redis.getKeyMisses();
+        double hitRatio = hits + misses == 0 ? 0 : (double) hits / (hits + misses);
+        report(result, hitRatio);
+
+        // Assert
+        assertTrue(result.throughput() >= minThroughput,
+                "throughput " + format(result.throughput()) + " req/s below " + minThroughput);
+        assertTrue(result.percentileMillis(0.99) <= maxP99Millis,
+                "p99 " + format(result.percentileMillis(0.99)) + " ms above " + maxP99Millis);
+        assertTrue(result.percentileMillis(0.999) <= maxP999Millis,
+                "p999 " + format(result.percentileMillis(0.999)) + " ms above " + maxP999Millis);
+        assertTrue(hitRatio >= minCacheHitRatio,
+                "cache hit ratio " + format(hitRatio) + " below " + minCacheHitRatio);
+        assertTrue(result.errorRate() <= maxErrorRate,
+                "error rate " + format(result.errorRate()) + " above " + maxErrorRate);
+    }
+
+    private RunResult run(int seconds) throws Exception {
+        ExecutorService workers = Executors.newFixedThreadPool(concurrency);
+        long deadline = System.nanoTime() + Duration.ofSeconds(seconds).toNanos();
+        long started = System.nanoTime();
+        try {
+            List<Future<Worker>> futures = new ArrayList<>();
+            for (int i = 0; i < concurrency; i++) {
+                futures.add(workers.submit(() -> new Worker().runUntil(deadline)));
+            }
+            List<Worker> finished = new ArrayList<>();
+            for (Future<Worker> future : futures) {
+                finished.add(future.get());
+            }
+            return RunResult.of(finished, System.nanoTime() - started);
+        } finally {
+            workers.shutdownNow();
+        }
+    }
+
+    private final class Worker {
+        private long[] latencies = new long[4096];
+        private int count;
+        private int errors;
+
+        Worker runUntil(long deadline) {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            while (System.nanoTime() < deadline) {
+                long start = System.nanoTime();
+                boolean ok;
+                try {
+                    ok = random.nextDouble() < writeRatio ? write(random) : read(random);
+                } catch (Exception e) {
+                    ok = false;
+                }
+                record(System.nanoTime() - start, ok);
+            }
+            return this;
+        }
+
+        private boolean read(ThreadLocalRandom random) throws Exception {
+            String path = random.nextDouble() < listRatio
+                    ? "/api/entries"
+                    : "/api/entries/" + randomId(random);
+            return send(HttpRequest.newBuilder(uri(path)).GET()) < 500;
+        }
+
+        private boolean write(ThreadLocalRandom random) throws Exception {
+            int roll = random.nextInt(3);
+            if (roll == 0) {
+                return create() < 500;
+            }
+            if (roll == 1) {
+                return send(HttpRequest.newBuilder(uri("/api/entries/" + randomId(random)))
+                        .header("Content-Type", "application/json")
+                        .PUT(HttpRequest.BodyPublishers.ofString(body(random)))) < 500;
+            }
+            return send(HttpRequest.newBuilder(uri("/api/entries/" + randomId(random))).DELETE()) < 500;
+        }
+
+        private void record(long nanos, boolean ok) {
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = nanos;
+            if (!ok) {
+                errors++;
+            }
+        }
+    }
+
+    private record RunResult(long[] sortedLatencies, long errors, long elapsedNanos) {
+
+        static RunResult of(List<Worker> workers, long elapsedNanos) {
+            int total = workers.stream().mapToInt(w -> w.count).sum();
+            long[] merged = new long[total];
+            int offset = 0;
+            long errors = 0;
+            for (Worker worker : workers) {
+                System.arraycopy(worker.latencies, 0, merged, offset, worker.count);
+                offset += worker.count;
+                errors += worker.errors;
+            }
+            Arrays.sort(merged);
+            return new RunResult(merged, errors, elapsedNanos);
+        }
+
+        long requests() {
+            return sortedLatencies.length;
+        }
+
+        double throughput() {
+            return requests() / (elapsedNanos / 1_000_000_000.0);
+        }
+
+        double errorRate() {
+            return requests() == 0 ? 1 : (double) errors / requests();
+        }
+
+        double percentileMillis(double quantile) {
+            if (sortedLatencies.length == 0) {
+                return Double.NaN;
+            }
+            int index = (int) Math.ceil(quantile * sortedLatencies.length) - 1;
+            return sortedLatencies[Math.max(0, Math.min(index, sortedLatencies.length - 1))] / 1_000_000.0;
+        }
+    }
+
+    private void report(RunResult result, double hitRatio) {
+        System.out.println("""
+                ================= /api/entries load test =================
+                concurrency      %d threads, %d s, write ratio %s
+                requests         %d (%d errors)
+                throughput       %s req/s
+                latency p50      %s ms
+                latency p99      %s ms
+                latency p999     %s ms
+                cache hit ratio  %s
+                ==========================================================
+                """.formatted(concurrency, durationSeconds, format(writeRatio),
+                result.requests(), result.errors(), format(result.throughput()),
+                format(result.percentileMillis(0.50)), format(result.percentileMillis(0.99)),
+                format(result.percentileMillis(0.999)), format(hitRatio)));
+    }
+
+    private int create() throws Exception {
+        HttpResponse<String> response = client.send(HttpRequest.newBuilder(uri("/api/entries"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body(ThreadLocalRandom.current())))
+                .build(), HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() == 201) {
+            long id = objectMapper.readTree(response.body()).get("id").asLong();
+            highestId.accumulateAndGet(id, Math::max);
+        }
+        return response.statusCode();
+    }
+
+    private int send(HttpRequest.Builder request) throws Exception {
+        return client.send(request.build(), HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    private long randomId(ThreadLocalRandom random) {
+        return 1 + random.nextLong(Math.max(1, highestId.get()));
+    }
+
+    private String body(ThreadLocalRandom random) {
+        LocalDate date = LocalDate.now().minusDays(random.nextInt(365));
+        return "{\"amount\": " + random.nextInt(1, 100_000) / 100.0
+                + ", \"description\": \"Load test entry " + random.nextInt(10_000) + "\""
+                + ", \"date\": \"" + date + "\"}";
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+
+    private static int intSetting(String name, int defaultValue) {
+        return Integer.parseInt(System.getProperty(name, String.valueOf(defaultValue)));
+    }
+
+    private static double doubleSetting(String name, double defaultValue) {
+        return Double.parseDouble(System.getProperty(name, String.valueOf(defaultValue)));
+    }
+
+    private static String format(double value) {
+        return String.format(Locale.ROOT, "%.2f", value);
+    }
+}
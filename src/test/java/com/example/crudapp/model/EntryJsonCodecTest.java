@@ -0,0 +1,148 @@
+package com.example.crudapp.model;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.introspect.Annotated;
+import com.fasterxml.jackson.databind.introspect.AnnotatedClass;
+import com.fasterxml.jackson.databind.introspect.JacksonAnnotationIntrospector;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EntryJsonCodecTest {
+
+    // Configured like Spring Boot's ObjectMapper
+    private final ObjectMapper codec = mapper(new JacksonAnnotationIntrospector());
+
+    // The reflective bean (de)serializer the codec replaced
+    private final ObjectMapper reflective = mapper(new JacksonAnnotationIntrospector() {
+        @Override
+        public Object findSerializer(Annotated annotated) {
+            return isEntry(annotated) ? null : super.findSerializer(annotated);
+        }
+
+        @Override
+        public Object findDeserializer(Annotated annotated) {
+            return isEntry(annotated) ? null : super.findDeserializer(annotated);
+        }
+
+        private boolean isEntry(Annotated annotated) {
+            return annotated instanceof AnnotatedClass && annotated.getRawType() == Entry.class;
+        }
+    });
+
+    private static ObjectMapper mapper(JacksonAnnotationIntrospector introspector) {
+        return JsonMapper.builder()
+                .addModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+                .annotationIntrospector(introspector)
+                .build();
+    }
+
+    private static Entry entry(Long id, Double amount, String description, LocalDate date, Long version) {
+        Entry entry = new Entry(amount, description, date);
+        entry.setId(id);
+        entry.setVersion(version);
+        entry.setUpdatedAt(1_700_000_000_000L);
+        return entry;
+    }
+
+    private static List<Entry> samples() {
+        return List.of(
+                entry(1L, 12.34, "Groceries", LocalDate.of(2024, 1, 15), 3L),
+                entry(2L, -0.1, "Refund \"quoted\" \\ tab\t newline\n ünïcödé €", LocalDate.of(2024, 12, 31), null),
+                entry(null, null, null, null, null),
+                entry(3L, 1234567.89, "", LocalDate.of(987, 2, 3), 0L),
+                entry(4L, 0.0, "Far future", LocalDate.of(12345, 6, 7), 1L),
+                entry(Long.MAX_VALUE, 99999999.99, "Big", LocalDate.of(2000, 2, 29), Long.MAX_VALUE));
+    }
+
+    @Test
+    void serialize_ShouldMatchReflectiveJsonByteForByte() throws Exception {
+        for (Entry entry : samples()) {
+            assertArrayEquals(reflective.writeValueAsBytes(entry), codec.writeValueAsBytes(entry), entry.toString());
+        }
+        assertEquals(reflective.writeValueAsString(samples()), codec.writeValueAsString(samples()));
+    }
+
+    @Test
+    void deserialize_ShouldReadWhatReflectiveDeserializerReads() throws Exception {
+        List<String> inputs = new ArrayList<>();
+        for (Entry entry : samples()) {
+            inputs.add(reflective.writeValueAsString(entry));
+        }
+        inputs.add("{\"amount\":\"12.5\",\"description\":\"String amount\",\"date\":[2024,2,10],\"id\":\"7\"}");
+        inputs.add("{\"description\":\"Ignored fields\",\"amountCents\":1,\"updatedAt\":5,\"extra\":{\"a\":[1,2]},\"date\":\"2024-02-10\"}");
+        inputs.add("{}");
+
+        for (String json : inputs) {
+            Entry expected = reflective.readValue(json, Entry.class);
+            Entry actual = codec.readValue(json, Entry.class);
+            assertEquals(reflective.writeValueAsString(expected), reflective.writeValueAsString(actual), json);
+        }
+    }
+
+    @Test
+    void deserialize_InvalidDate_ShouldFailLikeReflectiveDeserializer() {
+        String json = "{\"description\":\"Bad\",\"date\":\"2024-02-30\"}";
+
+        assertThrows(JsonMappingException.class, () -> reflective.readValue(json, Entry.class));
+        assertThrows(JsonMappingException.class, () -> codec.readValue(json, Entry.class));
+    }
+
+    @Test
+    void deserialize_AmountWithFractionsOfACent_ShouldFailLikeReflectiveDeserializer() {
+        String json = "{\"amount\":10.005,\"description\":\"Too precise\",\"date\":\"2024-02-10\"}";
+
+        assertThrows(JsonMappingException.class, () -> reflective.readValue(json, Entry.class));
+        JsonMappingException e = assertThrows(JsonMappingException.class, () -> codec.readValue(json, Entry.class));
+        assertEquals(Money.TOO_PRECISE, e.getCause().getMessage());
+    }
+
+    @Test
+    void deserialize_AmountThatOverflowsCents_ShouldFailAsInvalidInput() {
+        String json = "{\"amount\":1e20,\"description\":\"Too large\",\"date\":\"2024-02-10\"}";
+
+        JsonMappingException e = assertThrows(JsonMappingException.class, () -> codec.readValue(json, Entry.class));
+        assertEquals(Money.TOO_LARGE, e.getCause().getMessage());
+    }
+
+    @Test
+    void roundTrip_ShouldAllocateLessThanReflectiveMapper() throws Exception {
+        List<Entry> entries = new ArrayList<>();
+        for (int i = 0; i < 1_000; i++) {
+            entries.add(entry((long) i, i * 1.25, "Entry " + i, LocalDate.of(2024, 1, 1).plusDays(i), (long) i));
+        }
+
+        // Warm up both paths first so class loading and JIT do not count
+        allocatedBytes(codec, entries, 20);
+        allocatedBytes(reflective, entries, 20);
+        long codecBytes = allocatedBytes(codec, entries, 20);
+        long reflectiveBytes = allocatedBytes(reflective, entries, 20);
+
+        assertTrue(codecBytes < reflectiveBytes,
+                "codec allocated " + codecBytes + " bytes, reflective " + reflectiveBytes);
+    }
+
+    private static long allocatedBytes(ObjectMapper mapper, List<Entry> entries, int rounds) throws Exception {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long before = threads.getCurrentThreadAllocatedBytes();
+        for (int i = 0; i < rounds; i++) {
+            String json = mapper.writeValueAsString(entries);
+            List<Entry> read = mapper.readValue(json, new TypeReference<List<Entry>>() {});
+            assertEquals(entries.size(), read.size());
+        }
+        return threads.getCurrentThreadAllocatedBytes() - before;
+    }
+}
@@ -2,6 +2,7 @@ package com.example.crudapp.model;
 
 import org.junit.jupiter.api.Test;
 
+import java.math.BigDecimal;
 import java.time.LocalDate;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -64,4 +65,52 @@ class EntryTest {
         assertEquals(100.0, entry.getAmount());
         assertEquals("Test description", entry.getDescription());
     }
-}
\ No newline at end of file
+
+    @Test
+    void amount_ShouldBeStoredAsExactCents() {
+        // Arrange & Act
+        Entry entry = new Entry(0.29, "Rounding edge case", LocalDate.of(2024, 1, 15));
+
+        // Assert
+        assertEquals(29L, entry.getAmountCents());
+        assertEquals(0.29, entry.getAmount());
+    }
+
+    @Test
+    void amount_ShouldBeNullWhenNeverSet() {
+        // Arrange & Act
+        Entry entry = new Entry();
+
+        // Assert
+        assertFalse(entry.hasAmount());
+        assertNull(entry.getAmount());
+    }
+
+    @Test
+    void centsSum_ShouldBeExactWhereDoublesDrift() {
+        // Arrange
+        long cents = 0;
+        double doubles = 0;
+
+        // Act
+        for (int i = 0; i < 10; i++) {
+            cents += new Entry(0.1, "Ten cents").getAmountCents();
+            doubles += 0.1;
+        }
+
+        // Assert
+        assertEquals(100L, cents);
+        assertNotEquals(1.0, doubles);
+    }
+
+    @Test
+    void amount_ShouldRejectFractionsOfACentInsteadOfRounding() {
+        // Arrange
+        Entry entry = new Entry();
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> entry.setAmount(10.005));
+        assertThrows(IllegalArgumentException.class, () -> Money.toCents(new BigDecimal("0.125")));
+        assertEquals(1234L, Money.toCents(new BigDecimal("12.3400")));
+    }
+}
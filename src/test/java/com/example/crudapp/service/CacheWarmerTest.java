@@ -0,0 +1,197 @@
+package com.example.crudapp.service;
+
+import com.example.crudapp.journal.EntryJournal;
+import com.example.crudapp.model.Entry;
+import com.example.crudapp.repository.EntryRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.types.Expiration;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CacheWarmerTest {
+
+    @Mock
+    private EntryRepository entryRepository;
+
+    @Mock
+    private EntryArchive entryArchive;
+
+    @Mock
+    private RedisTemplate<String, String> redisTemplate;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+    @Mock
+    private EntryAccessTracker accessTracker;
+
+    @Mock
+    private CacheGeneration cacheGeneration;
+
+    @Mock
+    private ShadowCache shadowCache;
+
+    @Mock
+    private EntryJournal entryJournal;
+
+    @Mock
+    private HotKeyTracker hotKeys;
+
+    @InjectMocks
+    private CacheWarmer cacheWarmer;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(cacheWarmer, "enabled", true);
+        ReflectionTestUtils.setField(cacheWarmer, "budget", Duration.ofSeconds(30));
+        ReflectionTestUtils.setField(cacheWarmer, "recentMonths", 2);
+        ReflectionTestUtils.setField(cacheWarmer, "hotEntries", 10);
+        lenient().when(entryJournal.currentEntries()).thenReturn(null);
+        lenient().when(hotKeys.warmUpTtlSeconds(anyString())).thenReturn(60L);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void warmUp_ShouldPipelineListMonthsAndHotEntries() throws Exception {
+        // Arrange
+        Entry hot = new Entry(12.5, "Coffee", LocalDate.of(2024, 1, 15));
+        hot.setId(7L);
+        when(entryRepository.findAll()).thenReturn(List.of(hot));
+        when(entryRepository.findByDateBetweenOrderByDateAscIdAsc(any(), any())).thenReturn(List.of());
+        when(accessTracker.hottest(10)).thenReturn(List.of(7L, 8L));
+        when(entryRepository.findAllById(List.of(7L, 8L))).thenReturn(List.of(hot));
+        when(cacheGeneration.current()).thenReturn("3");
+        when(hotKeys.warmUpTtlSeconds("entry_7")).thenReturn(300L);
+
+        // Act
+        cacheWarmer.warmUp("test");
+
+        // Assert
+        ArgumentCaptor<RedisCallback<Object>> pipeline = ArgumentCaptor.forClass(RedisCallback.class);
+        verify(redisTemplate).executePipelined(pipeline.capture());
+        RedisConnection connection = mock(RedisConnection.class);
+        RedisStringCommands stringCommands = mock(RedisStringCommands.class);
+        when(connection.stringCommands()).thenReturn(stringCommands);
+        pipeline.getValue().doInRedis(connection);
+
+        ArgumentCaptor<byte[]> keys = ArgumentCaptor.forClass(byte[].class);
+        ArgumentCaptor<Expiration> ttls = ArgumentCaptor.forClass(Expiration.class);
+        verify(stringCommands, times(4)).set(keys.capture(), any(byte[].class),
+                ttls.capture(), eq(RedisStringCommands.SetOption.upsert()));
+        List<String> written = new ArrayList<>();
+        keys.getAllValues().forEach(key -> written.add(new String(key, StandardCharsets.UTF_8)));
+        YearMonth now = YearMonth.now();
+        assertEquals(List.of("all_entries:3", "entries_month_" + now + ":3", "entries_month_" + now.minusMonths(1) + ":3",
+                "entry_7:3"), written);
+        // The hot entry keeps the hot TTL, as a fill on the read path would
+        assertEquals(List.of(Expiration.seconds(60), Expiration.seconds(60), Expiration.seconds(60),
+                Expiration.seconds(300)), ttls.getAllValues());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void warmUp_ShouldBuildKeysFromJournalWithoutScanningDatabase() throws Exception {
+        // Arrange
+        YearMonth now = YearMonth.now();
+        Entry recent = new Entry(12.5, "Coffee", now.atDay(2));
+        recent.setId(7L);
+        Entry old = new Entry(40.0, "Books", now.minusMonths(6).atDay(1));
+        old.setId(8L);
+        when(entryJournal.currentEntries()).thenReturn(List.of(recent, old));
+        when(accessTracker.hottest(10)).thenReturn(List.of(8L, 9L));
+        when(cacheGeneration.current()).thenReturn("3");
+
+        // Act
+        cacheWarmer.warmUp("test");
+
+        // Assert
+        verifyNoInteractions(entryRepository, entryArchive);
+        verify(entryJournal, never()).rebase(anyLong(), anyList());
+        ArgumentCaptor<RedisCallback<Object>> pipeline = ArgumentCaptor.forClass(RedisCallback.class);
+        verify(redisTemplate).executePipelined(pipeline.capture());
+        RedisConnection connection = mock(RedisConnection.class);
+        RedisStringCommands stringCommands = mock(RedisStringCommands.class);
+        when(connection.stringCommands()).thenReturn(stringCommands);
+        pipeline.getValue().doInRedis(connection);
+
+        ArgumentCaptor<byte[]> keys = ArgumentCaptor.forClass(byte[].class);
+        ArgumentCaptor<byte[]> values = ArgumentCaptor.forClass(byte[].class);
+        verify(stringCommands, times(4)).set(keys.capture(), values.capture(), any(Expiration.class), any());
+        List<String> written = new ArrayList<>();
+        keys.getAllValues().forEach(key -> written.add(new String(key, StandardCharsets.UTF_8)));
+        assertEquals(List.of("all_entries:3", "entries_month_" + now + ":3", "entries_month_" + now.minusMonths(1) + ":3",
+                "entry_8:3"), written);
+        assertEquals(objectMapper.writeValueAsString(List.of(recent)),
+                new String(values.getAllValues().get(1), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void warmUp_ShouldRebaseJournalOnDatabaseScan() {
+        // Arrange
+        Entry entry = new Entry(12.5, "Coffee", LocalDate.of(2024, 1, 15));
+        entry.setId(7L);
+        when(entryJournal.offset()).thenReturn(42L);
+        when(entryRepository.findAll()).thenReturn(List.of(entry));
+        when(cacheGeneration.current()).thenReturn("3");
+
+        // Act
+        cacheWarmer.warmUp("test");
+
+        // Assert
+        verify(entryJournal).rebase(42L, List.of(entry));
+    }
+
+    @Test
+    void warmUp_ShouldNotWriteWhenGenerationMovesWhileLoading() {
+        // Arrange
+        AtomicLong generation = new AtomicLong();
+        when(cacheGeneration.current()).thenAnswer(invocation -> String.valueOf(generation.get()));
+        when(entryRepository.findAll()).thenAnswer(invocation -> {
+            generation.incrementAndGet();
+            return List.of();
+        });
+
+        // Act
+        cacheWarmer.warmUp("test");
+
+        // Assert
+        verify(entryRepository, times(3)).findAll();
+        verifyNoInteractions(redisTemplate);
+    }
+
+    @Test
+    void isStartupComplete_ShouldWaitForWarmUpUntilBudgetRunsOut() {
+        // Arrange
+        ReflectionTestUtils.setField(cacheWarmer, "startupDeadline", System.nanoTime() + Duration.ofMinutes(1).toNanos());
+
+        // Act & Assert
+        assertFalse(cacheWarmer.isStartupComplete());
+        ReflectionTestUtils.setField(cacheWarmer, "startupDeadline", System.nanoTime() - 1);
+        assertTrue(cacheWarmer.isStartupComplete());
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.crudapp.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class EntryAccessTrackerTest {
+
+    @Mock
+    private RedisTemplate<String, String> redisTemplate;
+
+    @Mock
+    private ValueOperations<String, String> valueOperations;
+
+    @InjectMocks
+    private EntryAccessTracker tracker;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(tracker, "maxTracked", 100);
+        ReflectionTestUtils.setField(tracker, "maxPending", 3);
+        ReflectionTestUtils.setField(tracker, "decayInterval", Duration.ofHours(1));
+        lenient().when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+    }
+
+    @Test
+    void record_ShouldStopTrackingNewIdsAtMaxPendingButKeepCountingKnownOnes() {
+        // Act
+        for (long id = 1; id <= 10; id++) {
+            tracker.record(id);
+        }
+        tracker.record(1L);
+
+        // Assert
+        assertEquals(3, tracker.pendingIds());
+    }
+
+    @Test
+    void flush_ShouldDecayOnlyWhenThisInstanceClaimsTheInterval() {
+        // Arrange
+        when(valueOperations.setIfAbsent(EntryAccessTracker.DECAYED_KEY, "1", Duration.ofHours(1)))
+                .thenReturn(true, false);
+
+        // Act: an idle instance still decays, then skips Redis until it has counts
+        tracker.flush();
+        tracker.flush();
+
+        // Assert
+        verify(redisTemplate, times(1)).executePipelined(any(RedisCallback.class));
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.crudapp.service;
+
+import com.example.crudapp.model.Entry;
+import com.example.crudapp.repository.ArchivedEntryRepository;
+import com.example.crudapp.repository.EntryRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class EntryArchiveTest {
+
+    @Mock
+    private ArchivedEntryRepository archivedEntryRepository;
+
+    @Mock
+    private EntryRepository entryRepository;
+
+    @InjectMocks
+    private EntryArchive entryArchive;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(entryArchive, "retentionMonths", 24);
+        ReflectionTestUtils.setField(entryArchive, "batchSize", 2);
+    }
+
+    private static Entry entry(long id, LocalDate date) {
+        Entry entry = new Entry(10.0, "Entry " + id, date);
+        entry.setId(id);
+        return entry;
+    }
+
+    @Test
+    void merge_ShouldKeepOrderAndReturnHotListWhenArchiveIsEmpty() {
+        // Arrange
+        Entry first = entry(1L, LocalDate.of(2020, 5, 1));
+        Entry second = entry(2L, LocalDate.of(2024, 1, 1));
+        Entry third = entry(3L, LocalDate.of(2019, 5, 1));
+        List<Entry> hot = List.of(second);
+
+        // Act
+        List<Entry> byId = EntryArchive.merge(hot, List.of(third, first), EntryArchive.BY_ID);
+        List<Entry> byDate = EntryArchive.merge(hot, List.of(third, first), EntryArchive.BY_DATE);
+
+        // Assert
+        assertEquals(List.of(first, second, third), byId);
+        assertEquals(List.of(third, first, second), byDate);
+        assertSame(hot, EntryArchive.merge(hot, List.of(), EntryArchive.BY_ID));
+    }
+
+    @Test
+    void findByDateBetween_AfterCutoff_ShouldNotQueryArchive() {
+        // Arrange
+        YearMonth month = YearMonth.now().minusMonths(23);
+
+        // Act
+        List<Entry> entries = entryArchive.findByDateBetween(month.atDay(1), month.atEndOfMonth());
+
+        // Assert
+        assertTrue(entries.isEmpty());
+        assertEquals(YearMonth.now().minusMonths(24).atDay(1), entryArchive.cutoff());
+        verifyNoInteractions(archivedEntryRepository);
+    }
+
+    @Test
+    void restore_WhenNotArchived_ShouldReturnFalse() {
+        // Arrange
+        when(archivedEntryRepository.lockArchivedId(7L)).thenReturn(List.of());
+
+        // Act
+        boolean restored = entryArchive.restore(7L);
+
+        // Assert
+        assertFalse(restored);
+        verify(archivedEntryRepository, never()).copyToHot(any());
+    }
+
+    @Test
+    void archiveBatch_ShouldCopyThenDeleteLockedRows() {
+        // Arrange
+        LocalDate cutoff = entryArchive.cutoff();
+        when(archivedEntryRepository.lockHotIdsBefore(cutoff, 2)).thenReturn(List.of(1L, 2L));
+
+        // Act
+        int moved = entryArchive.archiveBatch(cutoff);
+
+        // Assert
+        assertEquals(2, moved);
+        InOrder order = inOrder(archivedEntryRepository, entryRepository);
+        order.verify(archivedEntryRepository).copyFromHot(eq(List.of(1L, 2L)), anyLong());
+        order.verify(entryRepository).deleteEntriesByIds(List.of(1L, 2L));
+    }
+}
@@ -0,0 +1,149 @@
+package com.example.crudapp.service;
+
+import com.example.crudapp.config.PrimaryReads;
+import com.example.crudapp.health.DatabaseCircuit;
+import com.example.crudapp.model.Entry;
+import com.example.crudapp.repository.EntryRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class EntryBatchLoaderTest {
+
+    @Mock
+    private EntryRepository entryRepository;
+
+    @Mock
+    private EntryArchive entryArchive;
+
+    @Mock
+    private RedisTemplate<String, String> redisTemplate;
+
+    @Mock
+    private ValueOperations<String, String> valueOperations;
+
+    @Mock
+    private ObjectMapper objectMapper;
+
+    @Mock
+    private CacheGeneration cacheGeneration;
+
+    @Mock
+    private HotKeyTracker hotKeys;
+
+    @Mock
+    private ShadowCache shadowCache;
+
+    @Mock
+    private DatabaseCircuit databaseCircuit;
+
+    @InjectMocks
+    private EntryBatchLoader batchLoader;
+
+    private Entry cached;
+    private Entry stored;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        ReflectionTestUtils.setField(batchLoader, "enabled", true);
+        ReflectionTestUtils.setField(batchLoader, "window", Duration.ofSeconds(5));
+        ReflectionTestUtils.setField(batchLoader, "maxSize", 2);
+
+        cached = new Entry(10.0, "Coffee", LocalDate.of(2024, 1, 15));
+        cached.setId(1L);
+        stored = new Entry(20.0, "Rent", LocalDate.of(2024, 1, 1));
+        stored.setId(2L);
+
+        when(cacheGeneration.current()).thenReturn("4");
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.multiGet(anyList())).thenAnswer(invocation -> {
+            List<String> values = new ArrayList<>();
+            for (String key : invocation.<List<String>>getArgument(0)) {
+                values.add(key.equals("entry_1:4") ? "cached-json" : null);
+            }
+            return values;
+        });
+        lenient().when(objectMapper.readValue("cached-json", Entry.class)).thenReturn(cached);
+    }
+
+    @Test
+    void load_ConcurrentLookups_ShouldShareOneRedisAndOneDatabaseRoundTrip() throws Exception {
+        // Arrange
+        when(entryRepository.findAllById(List.of(2L))).thenReturn(List.of(stored));
+        when(objectMapper.writeValueAsString(stored)).thenReturn("stored-json");
+
+        // Another lookup in flight makes the first caller wait for company
+        ((AtomicInteger) ReflectionTestUtils.getField(batchLoader, "inFlight")).incrementAndGet();
+
+        // Act: the second lookup fills the batch and resolves both
+        CompletableFuture<Entry> first = CompletableFuture.supplyAsync(() -> batchLoader.load(1L));
+        while (ReflectionTestUtils.getField(batchLoader, "open") == null) {
+            Thread.onSpinWait();
+        }
+        Entry second = batchLoader.load(2L);
+
+        // Assert
+        assertSame(stored, second);
+        assertSame(cached, first.get(5, TimeUnit.SECONDS));
+        verify(valueOperations, times(1)).multiGet(anyList());
+        verify(entryRepository, times(1)).findAllById(any());
+        verify(entryArchive, never()).findAllById(any());
+        verify(redisTemplate).executePipelined(any(RedisCallback.class));
+    }
+
+    @Test
+    void load_MissingEverywhere_ShouldReturnNull() {
+        // Arrange
+        ReflectionTestUtils.setField(batchLoader, "maxSize", 1);
+        when(entryRepository.findAllById(List.of(3L))).thenReturn(List.of());
+        when(entryArchive.findAllById(List.of(3L))).thenReturn(List.of());
+
+        // Act
+        Entry result = batchLoader.load(3L);
+
+        // Assert
+        assertNull(result);
+    }
+
+    @Test
+    void load_CacheMiss_ShouldReadFromPrimary() throws Exception {
+        // Arrange
+        ReflectionTestUtils.setField(batchLoader, "maxSize", 1);
+        AtomicBoolean onPrimary = new AtomicBoolean();
+        when(entryRepository.findAllById(List.of(2L))).thenAnswer(invocation -> {
+            onPrimary.set(PrimaryReads.isActive());
+            return List.of(stored);
+        });
+        when(objectMapper.writeValueAsString(stored)).thenReturn("stored-json");
+
+        // Act
+        Entry result = batchLoader.load(2L);
+
+        // Assert
+        assertSame(stored, result);
+        assertTrue(onPrimary.get());
+        assertFalse(PrimaryReads.isActive());
+    }
+}
@@ -0,0 +1,526 @@
+package com.example.crudapp.service;
+
+import com.example.crudapp.model.Entry;
+import com.example.crudapp.repository.EntryRepository;
+import com.example.crudapp.support.InMemoryRedisServer;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Randomized create/update/delete/read traffic from several threads against the real
+ * EntryService, on H2 and the in-process Redis stand-in, looking for cache-aside races
+ * such as a fill that lands after an invalidation.
+ *
+ * Worker {@code n} draws its operations from {@code new Random(seed + n)}, so a seed
+ * replays the same operations on each run while the thread interleaving still varies.
+ * Rerun a failure with the seed it prints: {@code -Dstress.seed=...}. The other knobs are
+ * {@code -Dstress.threads}, {@code -Dstress.operations} (per thread) and
+ * {@code -Dstress.entries}.
+ *
+ * Writes to one entry are serialized by the harness, so each entry has a history in a
+ * known order. Reads, and writes to different entries, run freely. Once the run is over,
+ * every read is checked against those histories. A read is stale when it returned an
+ * older state than one written by a call that had already returned when the read
+ * started. After quiescence, every cached key of the current generation and every read
+ * through the service must match the database.
+ */
+// Its own H2 database, so the schema is not shared with other cached test contexts; shadow
+// copies are stale on purpose and would be reported as such
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:stress;MODE=MySQL;DB_CLOSE_DELAY=-1;DATABASE_TO_LOWER=TRUE",
+        "app.stale.enabled=false"})
+@ActiveProfiles("loadtest")
+class EntryCacheConsistencyStressTest {
+
+    private static final InMemoryRedisServer redis = new InMemoryRedisServer().start();
+    private static final List<YearMonth> MONTHS = List.of(YearMonth.of(2024, 1), YearMonth.of(2024, 2));
+
+    private final long seed = Long.getLong("stress.seed", 20240210L);
+    private final int threads = Integer.getInteger("stress.threads", 8);
+    private final int operations = Integer.getInteger("stress.operations", 1500);
+    private final int seedEntries = Integer.getInteger("stress.entries", 32);
+
+    @Autowired
+    private EntryService entryService;
+
+    @Autowired
+    private EntryRepository entryRepository;
+
+    @Autowired
+    private CacheGeneration cacheGeneration;
+
+    @Autowired
+    private RedisTemplate<String, String> redisTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final Map<Long, History> histories = new ConcurrentHashMap<>();
+
+    @DynamicPropertySource
+    static void redisProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.data.redis.port", redis::getPort);
+    }
+
+    @AfterAll
+    static void stopRedis() {
+        redis.close();
+    }
+
+    @Test
+    void parallelWrites_ShouldNeverServeStaleEntriesFromCache() throws Exception {
+        // Arrange
+        entryService.deleteAllEntries();
+        Random setup = new Random(seed);
+        List<Long> seeded = new ArrayList<>();
+        for (int i = 0; i < seedEntries; i++) {
+            Entry entry = entryService.createEntry(newEntry(setup, "seed-" + i));
+            histories.put(entry.getId(), History.seeded(entry));
+            seeded.add(entry.getId());
+        }
+
+        // Act
+        List<Worker> workers = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            workers.add(new Worker(i, new Random(seed + i), seeded));
+        }
+        long elapsed = run(workers);
+        Staleness staleness = new Staleness();
+        for (Worker worker : workers) {
+            for (Read read : worker.reads) {
+                read.check(histories, staleness);
+            }
+        }
+        List<String> mismatches = checkQuiescentState();
+        report(workers, elapsed, staleness, mismatches);
+
+        // Assert
+        String rerun = " (rerun with -Dstress.seed=" + seed + ")";
+        for (Worker worker : workers) {
+            assertNull(worker.failure, () -> "worker failed" + rerun + ": " + worker.failure);
+        }
+        assertEquals(0, staleness.invalid, () -> "reads returned states never written" + rerun + ": " + staleness.examples);
+        assertEquals(0, staleness.stale, () -> "stale reads" + rerun + ": " + staleness.examples);
+        assertTrue(mismatches.isEmpty(), () -> "cache differs from the database" + rerun + ": " + mismatches);
+    }
+
+    private long run(List<Worker> workers) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(workers.size());
+        CyclicBarrier start = new CyclicBarrier(workers.size());
+        long started = System.nanoTime();
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (Worker worker : workers) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    worker.run();
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            return System.nanoTime() - started;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private final class Worker {
+        private final int index;
+        private final Random random;
+        // Seeded ids first, then this worker's own, so targets follow from the seed
+        private final List<Long> targets;
+        private final List<Read> reads = new ArrayList<>();
+        private int writes;
+        private Throwable failure;
+
+        Worker(int index, Random random, List<Long> seeded) {
+            this.index = index;
+            this.random = random;
+            this.targets = new ArrayList<>(seeded);
+        }
+
+        void run() {
+            try {
+                for (int i = 0; i < operations; i++) {
+                    step(i);
+                    // Occasional pauses shuffle the interleaving around the same operations
+                    if (random.nextInt(8) == 0) {
+                        LockSupport.parkNanos(random.nextInt(200_000));
+                    }
+                }
+            } catch (Throwable e) {
+                failure = e;
+            }
+        }
+
+        private void step(int i) {
+            int roll = random.nextInt(100);
+            Long id = targets.get(random.nextInt(targets.size()));
+            if (roll < 30) {
+                long start = System.nanoTime();
+                Entry entry = entryService.getEntryById(id);
+                reads.add(Read.one(start, System.nanoTime(), id, entry));
+            } else if (roll < 45) {
+                long start = System.nanoTime();
+                List<Entry> entries = entryService.getAllEntries();
+                reads.add(Read.list(start, System.nanoTime(), null, entries));
+            } else if (roll < 55) {
+                YearMonth month = MONTHS.get(random.nextInt(MONTHS.size()));
+                long start = System.nanoTime();
+                List<Entry> entries = entryService.getEntriesForMonth(month);
+                reads.add(Read.list(start, System.nanoTime(), month, entries));
+            } else if (roll < 85) {
+                update(id, newEntry(random, "w" + index + "-" + i));
+            } else if (roll < 92) {
+                create(newEntry(random, "w" + index + "-" + i));
+            } else if (roll < 97) {
+                delete(id);
+            } else {
+                entryService.clearAllCaches();
+            }
+        }
+
+        private void create(Entry entry) {
+            long start = System.nanoTime();
+            Entry created = entryService.createEntry(entry);
+            long end = System.nanoTime();
+            histories.put(created.getId(), History.created(created, start, end));
+            targets.add(created.getId());
+            writes++;
+        }
+
+        private void update(Long id, Entry details) {
+            History history = histories.get(id);
+            synchronized (history) {
+                long start = System.nanoTime();
+                Entry updated = entryService.updateEntry(id, details);
+                long end = System.nanoTime();
+                if (updated != null) {
+                    history.add(State.of(updated, start, end));
+                }
+            }
+            writes++;
+        }
+
+        private void delete(Long id) {
+            History history = histories.get(id);
+            synchronized (history) {
+                long start = System.nanoTime();
+                boolean deleted = entryService.deleteEntry(id);
+                long end = System.nanoTime();
+                if (deleted) {
+                    history.add(State.deleted(start, end));
+                }
+            }
+            writes++;
+        }
+    }
+
+    private static Entry newEntry(Random random, String description) {
+        YearMonth month = MONTHS.get(random.nextInt(MONTHS.size()));
+        Entry entry = new Entry();
+        entry.setAmountCents(1 + random.nextInt(100_000));
+        entry.setDescription(description);
+        entry.setDate(month.atDay(1 + random.nextInt(month.lengthOfMonth())));
+        return entry;
+    }
+
+    // ---- History and the staleness check ----
+
+    /** One state of an entry; {@code description} is null once it is deleted (or before it exists). */
+    private record State(String description, long amountCents, LocalDate date, long start, long end) {
+
+        static final long BEFORE_RUN = Long.MIN_VALUE;
+
+        static State of(Entry entry, long start, long end) {
+            return new State(entry.getDescription(), entry.getAmountCents(), entry.getDate(), start, end);
+        }
+
+        static State deleted(long start, long end) {
+            return new State(null, 0, null, start, end);
+        }
+
+        boolean exists() {
+            return description != null;
+        }
+
+        boolean matches(Entry entry) {
+            return exists() && description.equals(entry.getDescription())
+                    && amountCents == entry.getAmountCents() && date.equals(entry.getDate());
+        }
+
+        boolean in(YearMonth month) {
+            return exists() && YearMonth.from(date).equals(month);
+        }
+    }
+
+    /** The states of one entry in write order; appended only under its monitor. */
+    private static final class History {
+        private final List<State> states = new ArrayList<>();
+
+        static History seeded(Entry entry) {
+            History history = new History();
+            history.add(State.of(entry, State.BEFORE_RUN, State.BEFORE_RUN));
+            return history;
+        }
+
+        static History created(Entry entry, long start, long end) {
+            History history = new History();
+            history.add(State.deleted(State.BEFORE_RUN, State.BEFORE_RUN));
+            history.add(State.of(entry, start, end));
+            return history;
+        }
+
+        void add(State state) {
+            states.add(state);
+        }
+
+        State last() {
+            return states.get(states.size() - 1);
+        }
+
+        /**
+         * Checks what a read between {@code start} and {@code end} saw. The read may return
+         * the last state written before it started or any later one whose write had begun
+         * by the time it ended.
+         */
+        void check(long start, long end, Predicate<State> observed, String description, Staleness staleness) {
+            staleness.checked++;
+            int committed = 0;
+            int begun = 0;
+            for (int i = 0; i < states.size(); i++) {
+                if (states.get(i).end() < start) {
+                    committed = i;
+                }
+                if (states.get(i).start() < end) {
+                    begun = i;
+                }
+            }
+            for (int i = committed; i <= begun; i++) {
+                if (observed.test(states.get(i))) {
+                    if (i < begun) {
+                        staleness.inFlight++;
+                    }
+                    return;
+                }
+            }
+            for (int i = committed - 1; i >= 0; i--) {
+                if (observed.test(states.get(i))) {
+                    // Stale since the next write returned
+                    staleness.stale(start - states.get(i + 1).end(), description);
+                    return;
+                }
+            }
+            staleness.invalid(description);
+        }
+    }
+
+    private record Read(long start, long end, Long id, YearMonth month, boolean list, Entry entry, List<Entry> entries) {
+
+        static Read one(long start, long end, Long id, Entry entry) {
+            return new Read(start, end, id, null, false, entry, null);
+        }
+
+        static Read list(long start, long end, YearMonth month, List<Entry> entries) {
+            return new Read(start, end, null, month, true, null, entries);
+        }
+
+        void check(Map<Long, History> histories, Staleness staleness) {
+            if (!list) {
+                histories.get(id).check(start, end, observed(entry), describe(id, entry), staleness);
+                return;
+            }
+            Map<Long, Entry> byId = new HashMap<>();
+            for (Entry listed : entries) {
+                byId.put(listed.getId(), listed);
+                if (!histories.containsKey(listed.getId())) {
+                    staleness.invalid(describe(listed.getId(), listed));
+                }
+            }
+            for (Map.Entry<Long, History> history : histories.entrySet()) {
+                Entry listed = byId.get(history.getKey());
+                Predicate<State> observed = month == null ? observed(listed)
+                        : listed != null ? observed(listed).and(state -> state.in(month))
+                        : state -> !state.in(month);
+                history.getValue().check(start, end, observed, describe(history.getKey(), listed), staleness);
+            }
+        }
+
+        private static Predicate<State> observed(Entry entry) {
+            return entry == null ? state -> !state.exists() : state -> state.matches(entry);
+        }
+
+        private String describe(Long entryId, Entry seen) {
+            String source = !list ? "getEntryById" : month == null ? "getAllEntries" : "getEntriesForMonth(" + month + ")";
+            return source + " saw entry " + entryId + " as " + (seen == null ? "absent" : seen.getDescription());
+        }
+    }
+
+    private static final class Staleness {
+        private long checked;
+        private long inFlight;
+        private long stale;
+        private long invalid;
+        private long maxStaleNanos;
+        private final List<String> examples = new ArrayList<>();
+
+        void stale(long nanos, String description) {
+            stale++;
+            maxStaleNanos = Math.max(maxStaleNanos, nanos);
+            example(description + ", " + format(nanos / 1_000_000.0) + " ms after a newer write returned");
+        }
+
+        void invalid(String description) {
+            invalid++;
+            example(description + ", a state that was never written");
+        }
+
+        private void example(String description) {
+            if (examples.size() < 10) {
+                examples.add(description);
+            }
+        }
+    }
+
+    // ---- After quiescence ----
+
+    private List<String> checkQuiescentState() throws Exception {
+        Map<Long, Entry> database = new HashMap<>();
+        for (Entry entry : entryRepository.findAll()) {
+            database.put(entry.getId(), entry);
+        }
+
+        List<String> mismatches = new ArrayList<>();
+        for (Map.Entry<Long, History> history : histories.entrySet()) {
+            State last = history.getValue().last();
+            Entry stored = database.get(history.getKey());
+            if (stored == null ? last.exists() : !last.matches(stored)) {
+                mismatches.add("database has entry " + history.getKey() + " as " + stored + ", last write was " + last);
+            }
+        }
+
+        // What the run left in Redis, then what the service serves on a miss and on a hit
+        checkCachedKeys(database, mismatches);
+        for (int pass = 0; pass < 2; pass++) {
+            for (Long id : histories.keySet()) {
+                expect("getEntryById(" + id + ")", database.get(id), entryService.getEntryById(id), mismatches);
+            }
+            // findAll() has no order; the comparison does not care about it
+            expect("getAllEntries()", sorted(database.values()), sorted(entryService.getAllEntries()), mismatches);
+            for (YearMonth month : MONTHS) {
+                expect("getEntriesForMonth(" + month + ")", inMonth(database, month),
+                        entryService.getEntriesForMonth(month), mismatches);
+            }
+        }
+        checkCachedKeys(database, mismatches);
+        return mismatches;
+    }
+
+    private void checkCachedKeys(Map<Long, Entry> database, List<String> mismatches) throws Exception {
+        String generation = cacheGeneration.current();
+        JavaType entryList = objectMapper.getTypeFactory().constructCollectionType(List.class, Entry.class);
+        for (Long id : histories.keySet()) {
+            String cached = redisTemplate.opsForValue().get(
+                    CacheGeneration.key(EntryService.ENTRY_CACHE_KEY_PREFIX + id, generation));
+            if (cached != null) {
+                expect("Redis entry " + id, database.get(id), objectMapper.readValue(cached, Entry.class), mismatches);
+            }
+        }
+        String all = redisTemplate.opsForValue().get(CacheGeneration.key(EntryService.ALL_ENTRIES_CACHE_KEY, generation));
+        if (all != null) {
+            List<Entry> cached = objectMapper.readValue(all, entryList);
+            expect("Redis all entries", sorted(database.values()), sorted(cached), mismatches);
+        }
+        for (YearMonth month : MONTHS) {
+            String cached = redisTemplate.opsForValue().get(
+                    CacheGeneration.key(EntryService.ENTRIES_MONTH_CACHE_KEY_PREFIX + month, generation));
+            if (cached != null) {
+                expect("Redis entries for " + month, inMonth(database, month),
+                        objectMapper.readValue(cached, entryList), mismatches);
+            }
+        }
+    }
+
+    private void expect(String what, Object expected, Object actual, List<String> mismatches) {
+        if (!Objects.equals(snapshot(expected), snapshot(actual))) {
+            mismatches.add(what + ": expected " + expected + " but was " + actual);
+        }
+    }
+
+    private static Object snapshot(Object value) {
+        if (value instanceof Entry entry) {
+            return List.of(entry.getId(), entry.getAmountCents(), entry.getDescription(), entry.getDate(),
+                    Objects.requireNonNullElse(entry.getVersion(), -1L));
+        }
+        if (value instanceof List<?> list) {
+            return list.stream().map(EntryCacheConsistencyStressTest::snapshot).toList();
+        }
+        return value;
+    }
+
+    private static List<Entry> sorted(Collection<Entry> entries) {
+        return entries.stream().sorted(EntryArchive.BY_ID).toList();
+    }
+
+    private static List<Entry> inMonth(Map<Long, Entry> database, YearMonth month) {
+        return database.values().stream()
+                .filter(entry -> YearMonth.from(entry.getDate()).equals(month))
+                .sorted(EntryArchive.BY_DATE)
+                .toList();
+    }
+
+    private void report(List<Worker> workers, long elapsedNanos, Staleness staleness, List<String> mismatches) {
+        long reads = workers.stream().mapToLong(w -> w.reads.size()).sum();
+        long writes = workers.stream().mapToLong(w -> w.writes).sum();
+        double seconds = elapsedNanos / 1_000_000_000.0;
+        System.out.println("""
+                ============ EntryService cache consistency stress ============
+                seed             %d (%d threads x %d operations, %d seeded entries)
+                operations       %d reads, %d writes in %s s
+                throughput       %s ops/s
+                entry reads      %d checked, %d saw an older state during a write
+                stale reads      %d (max %s ms after the newer write returned)
+                invalid reads    %d
+                mismatches       %d after quiescence
+                ===============================================================
+                """.formatted(seed, threads, operations, seedEntries,
+                reads, writes, format(seconds), format((reads + writes) / seconds),
+                staleness.checked, staleness.inFlight,
+                staleness.stale, format(staleness.maxStaleNanos / 1_000_000.0),
+                staleness.invalid, mismatches.size()));
+    }
+
+    private static String format(double value) {
+        return String.format(Locale.ROOT, "%.2f", value);
+    }
+}
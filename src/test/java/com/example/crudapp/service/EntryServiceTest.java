@@ -1,9 +1,18 @@
 package com.example.crudapp.service;
 
+import com.example.crudapp.config.PrimaryReads;
+import com.example.crudapp.health.DatabaseCircuit;
+import com.example.crudapp.health.DatabaseUnavailableException;
+import com.example.crudapp.limit.LoadShedding;
+import com.example.crudapp.limit.ServiceOverloadedException;
 import com.example.crudapp.model.Entry;
+import com.example.crudapp.model.EntrySummary;
+import com.example.crudapp.model.EntryTombstone;
 import com.example.crudapp.repository.EntryRepository;
+import com.example.crudapp.repository.EntryTombstoneRepository;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JavaType;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -11,13 +20,17 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessResourceFailureException;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.data.redis.core.ValueOperations;
 
 import java.time.LocalDate;
+import java.time.YearMonth;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -28,6 +41,12 @@ class EntryServiceTest {
     @Mock
     private EntryRepository entryRepository;
 
+    @Mock
+    private EntryArchive entryArchive;
+
+    @Mock
+    private EntryTombstoneRepository tombstoneRepository;
+
     @Mock
     private RedisTemplate<String, String> redisTemplate;
 
@@ -37,6 +56,27 @@ class EntryServiceTest {
     @Mock
     private ObjectMapper objectMapper;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private EntryAccessTracker accessTracker;
+
+    @Mock
+    private CacheGeneration cacheGeneration;
+
+    @Mock
+    private HotKeyTracker hotKeys;
+
+    @Mock
+    private EntryBatchLoader batchLoader;
+
+    @Mock
+    private ShadowCache shadowCache;
+
+    @Mock
+    private DatabaseCircuit databaseCircuit;
+
     @InjectMocks
     private EntryService entryService;
 
@@ -45,6 +85,9 @@ class EntryServiceTest {
 
     @BeforeEach
     void setUp() {
+        lenient().when(hotKeys.ttlSeconds(anyString())).thenReturn(60L);
+        lenient().when(databaseCircuit.state()).thenReturn(DatabaseCircuit.State.AVAILABLE);
+
         testEntry = new Entry(100.0, "Test groceries", LocalDate.of(2024, 1, 15));
         testEntry.setId(1L);
         
@@ -58,7 +101,8 @@ class EntryServiceTest {
     void getAllEntries_ShouldReturnEntriesFromDatabaseWhenCacheMiss() throws Exception {
         // Arrange
         when(redisTemplate.opsForValue()).thenReturn(valueOperations);
-        when(valueOperations.get("all_entries")).thenReturn(null);
+        when(cacheGeneration.current()).thenReturn("4");
+        when(valueOperations.get("all_entries:4")).thenReturn(null);
         when(entryRepository.findAll()).thenReturn(testEntries);
         when(objectMapper.writeValueAsString(testEntries)).thenReturn("json-data");
 
@@ -69,7 +113,7 @@ class EntryServiceTest {
         assertNotNull(result);
         assertEquals(2, result.size());
         verify(entryRepository).findAll();
-        verify(valueOperations).set(eq("all_entries"), eq("json-data"), eq(60L), any());
+        verify(valueOperations).set(eq("all_entries:4"), eq("json-data"), eq(60L), any());
     }
 
     @Test
@@ -87,11 +131,31 @@ class EntryServiceTest {
         verify(entryRepository).findAll();
     }
 
+    @Test
+    void getAllEntrySummaries_ShouldUseProjectionAndOwnCacheKey() throws Exception {
+        // Arrange
+        List<EntrySummary> summaries = List.of(new EntrySummary(1L, 10000L, LocalDate.of(2024, 1, 15)));
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(cacheGeneration.current()).thenReturn("4");
+        when(valueOperations.get("all_entries_summary:4")).thenReturn(null);
+        when(entryRepository.findAllProjectedBy()).thenReturn(summaries);
+        when(objectMapper.writeValueAsString(summaries)).thenReturn("json-data");
+
+        // Act
+        List<EntrySummary> result = entryService.getAllEntrySummaries();
+
+        // Assert
+        assertEquals(summaries, result);
+        verify(entryRepository, never()).findAll();
+        verify(valueOperations).set(eq("all_entries_summary:4"), eq("json-data"), eq(60L), any());
+    }
+
     @Test
     void getEntryById_ShouldReturnEntryFromDatabaseWhenCacheMiss() throws Exception {
         // Arrange
         when(redisTemplate.opsForValue()).thenReturn(valueOperations);
-        when(valueOperations.get("entry_1")).thenReturn(null);
+        when(cacheGeneration.current()).thenReturn("4");
+        when(valueOperations.get("entry_1:4")).thenReturn(null);
         when(entryRepository.findById(1L)).thenReturn(Optional.of(testEntry));
         when(objectMapper.writeValueAsString(testEntry)).thenReturn("json-data");
 
@@ -102,14 +166,91 @@ class EntryServiceTest {
         assertNotNull(result);
         assertEquals(1L, result.getId());
         verify(entryRepository).findById(1L);
-        verify(valueOperations).set(eq("entry_1"), eq("json-data"), eq(60L), any());
+        verify(valueOperations).set(eq("entry_1:4"), eq("json-data"), eq(60L), any());
+        verify(accessTracker).record(1L);
+    }
+
+    @Test
+    void getEntryById_CacheMiss_ShouldReadFromPrimaryBeforeFillingCache() throws Exception {
+        // Arrange
+        AtomicBoolean onPrimary = new AtomicBoolean();
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(cacheGeneration.current()).thenReturn("4");
+        when(valueOperations.get("entry_1:4")).thenReturn(null);
+        when(entryRepository.findById(1L)).thenAnswer(invocation -> {
+            onPrimary.set(PrimaryReads.isActive());
+            return Optional.of(testEntry);
+        });
+        when(objectMapper.writeValueAsString(testEntry)).thenReturn("json-data");
+
+        // Act
+        entryService.getEntryById(1L);
+
+        // Assert
+        assertTrue(onPrimary.get());
+        assertFalse(PrimaryReads.isActive());
+        verify(valueOperations).set(eq("entry_1:4"), eq("json-data"), eq(60L), any());
+    }
+
+    @Test
+    void getEntryById_WhenPinned_ShouldNotReadRedis() throws Exception {
+        // Arrange
+        when(cacheGeneration.current()).thenReturn("4");
+        when(hotKeys.pinned("entry_1", "entry_1:4")).thenReturn("pinned-json");
+        when(objectMapper.readValue("pinned-json", Entry.class)).thenReturn(testEntry);
+
+        // Act
+        Entry result = entryService.getEntryById(1L);
+
+        // Assert
+        assertSame(testEntry, result);
+        verify(hotKeys).record("entry_1");
+        verify(redisTemplate, never()).opsForValue();
+        verify(entryRepository, never()).findById(any());
+    }
+
+    @Test
+    void getEntryById_ColdKeyWithoutTtl_ShouldNotCacheInRedis() throws Exception {
+        // Arrange
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(cacheGeneration.current()).thenReturn("4");
+        when(valueOperations.get("entry_1:4")).thenReturn(null);
+        when(hotKeys.ttlSeconds("entry_1")).thenReturn(0L);
+        when(entryRepository.findById(1L)).thenReturn(Optional.of(testEntry));
+        when(objectMapper.writeValueAsString(testEntry)).thenReturn("json-data");
+
+        // Act
+        Entry result = entryService.getEntryById(1L);
+
+        // Assert
+        assertSame(testEntry, result);
+        verify(valueOperations, never()).set(anyString(), anyString(), anyLong(), any());
+    }
+
+    @Test
+    void getEntriesForMonth_ShouldQueryMonthBoundsOnCacheMiss() throws Exception {
+        // Arrange
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(cacheGeneration.current()).thenReturn("4");
+        when(valueOperations.get("entries_month_2024-02:4")).thenReturn(null);
+        when(entryRepository.findByDateBetweenOrderByDateAscIdAsc(LocalDate.of(2024, 2, 1), LocalDate.of(2024, 2, 29)))
+                .thenReturn(testEntries);
+        when(objectMapper.writeValueAsString(testEntries)).thenReturn("json-data");
+
+        // Act
+        List<Entry> result = entryService.getEntriesForMonth(YearMonth.of(2024, 2));
+
+        // Assert
+        assertEquals(2, result.size());
+        verify(valueOperations).set(eq("entries_month_2024-02:4"), eq("json-data"), eq(60L), any());
     }
 
     @Test
     void getEntryById_ShouldReturnNullWhenEntryNotFound() {
         // Arrange
         when(redisTemplate.opsForValue()).thenReturn(valueOperations);
-        when(valueOperations.get("entry_1")).thenReturn(null);
+        when(cacheGeneration.current()).thenReturn("4");
+        when(valueOperations.get("entry_1:4")).thenReturn(null);
         when(entryRepository.findById(1L)).thenReturn(Optional.empty());
 
         // Act
@@ -120,7 +261,106 @@ class EntryServiceTest {
     }
 
     @Test
-    void createEntry_ShouldSaveEntryAndClearCache() {
+    void getEntryById_InCacheOnlyMode_ShouldShedOnCacheMiss() {
+        // Arrange
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(cacheGeneration.current()).thenReturn("4");
+        when(valueOperations.get("entry_1:4")).thenReturn(null);
+        LoadShedding.enterCacheOnly();
+
+        // Act & Assert
+        try {
+            assertThrows(ServiceOverloadedException.class, () -> entryService.getEntryById(1L));
+        } finally {
+            LoadShedding.exit();
+        }
+        verifyNoInteractions(entryRepository);
+    }
+
+    @Test
+    void getAllEntries_WhenDatabaseUnavailable_ShouldServeShadowCopyWithoutCaching() throws Exception {
+        // Arrange
+        when(databaseCircuit.state()).thenReturn(DatabaseCircuit.State.UNAVAILABLE);
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(cacheGeneration.current()).thenReturn("4");
+        when(valueOperations.get("all_entries:4")).thenReturn(null);
+        when(shadowCache.read("all_entries")).thenReturn(new ShadowCache.Shadow("shadow-json", 1_700_000_000_000L));
+        when(objectMapper.readValue(eq("shadow-json"), any(JavaType.class))).thenReturn(testEntries);
+
+        // Act
+        List<Entry> result = entryService.getAllEntries();
+
+        // Assert
+        assertEquals(testEntries, result);
+        verifyNoInteractions(entryRepository);
+        verify(valueOperations, never()).set(anyString(), anyString(), anyLong(), any());
+    }
+
+    @Test
+    void getEntryById_WhenDatabaseUnavailableWithoutShadowCopy_ShouldFailFast() {
+        // Arrange
+        when(databaseCircuit.state()).thenReturn(DatabaseCircuit.State.UNAVAILABLE);
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(cacheGeneration.current()).thenReturn("4");
+        when(valueOperations.get("entry_1:4")).thenReturn(null);
+
+        // Act & Assert
+        assertThrows(DatabaseUnavailableException.class, () -> entryService.getEntryById(1L));
+        verifyNoInteractions(entryRepository);
+    }
+
+    @Test
+    void getEntryById_WhenDatabaseSaturatedWithoutShadowCopy_ShouldQueueForDatabase() {
+        // Arrange
+        when(databaseCircuit.state()).thenReturn(DatabaseCircuit.State.SATURATED);
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(cacheGeneration.current()).thenReturn("4");
+        when(valueOperations.get("entry_1:4")).thenReturn(null);
+        when(entryRepository.findById(1L)).thenReturn(Optional.empty());
+
+        // Act
+        Entry result = entryService.getEntryById(1L);
+
+        // Assert
+        assertNull(result);
+        verify(shadowCache).read("entry_1");
+        verify(entryRepository).findById(1L);
+    }
+
+    @Test
+    void getEntryById_WhenDatabaseCallFails_ShouldReportItAndServeShadowCopy() throws Exception {
+        // Arrange
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(cacheGeneration.current()).thenReturn("4");
+        when(valueOperations.get("entry_1:4")).thenReturn(null);
+        DataAccessResourceFailureException failure = new DataAccessResourceFailureException("Connection refused");
+        when(entryRepository.findById(1L)).thenThrow(failure);
+        when(shadowCache.read("entry_1")).thenReturn(new ShadowCache.Shadow("shadow-json", 1_700_000_000_000L));
+        when(objectMapper.readValue(eq("shadow-json"), any(JavaType.class))).thenReturn(testEntry);
+
+        // Act
+        Entry result = entryService.getEntryById(1L);
+
+        // Assert
+        assertSame(testEntry, result);
+        verify(databaseCircuit).onFailure(failure);
+        verify(valueOperations, never()).set(anyString(), anyString(), anyLong(), any());
+    }
+
+    @Test
+    void createEntry_WhenDatabaseUnavailable_ShouldRejectWithoutWriting() {
+        // Arrange
+        doThrow(new DatabaseUnavailableException("Database is unavailable, retry later", null))
+                .when(databaseCircuit).checkAvailable();
+
+        // Act & Assert
+        assertThrows(DatabaseUnavailableException.class,
+                () -> entryService.createEntry(new Entry(150.0, "New entry", LocalDate.of(2024, 1, 20))));
+        verifyNoInteractions(entryRepository, eventPublisher);
+    }
+
+    @Test
+    void createEntry_ShouldSaveEntryAndPublishChange() {
         // Arrange
         Entry newEntry = new Entry(150.0, "New entry", LocalDate.of(2024, 1, 20));
         when(entryRepository.save(newEntry)).thenReturn(testEntry);
@@ -132,95 +372,157 @@ class EntryServiceTest {
         assertNotNull(result);
         assertEquals(1L, result.getId());
         verify(entryRepository).save(newEntry);
-        verify(redisTemplate).delete("all_entries");
+        verify(eventPublisher).publishEvent(EntryChangedEvent.created(testEntry));
+        verifyNoInteractions(redisTemplate);
     }
 
     @Test
-    void deleteEntry_ShouldDeleteEntryAndClearCache() {
+    void deleteEntry_ShouldDeleteEntryAndPublishChange() {
         // Arrange
-        when(entryRepository.findById(1L)).thenReturn(Optional.of(testEntry));
+        when(entryRepository.deleteEntryById(1L)).thenReturn(1);
 
         // Act
         boolean result = entryService.deleteEntry(1L);
 
         // Assert
         assertTrue(result);
-        verify(entryRepository).deleteById(1L);
-        verify(redisTemplate).delete("all_entries");
-        verify(redisTemplate).delete("entry_1");
+        verify(entryRepository, never()).findById(any());
+        verify(tombstoneRepository).save(argThat(t -> Long.valueOf(1L).equals(t.getEntryId())));
+        verify(eventPublisher).publishEvent(EntryChangedEvent.deleted(1L));
+        verifyNoInteractions(redisTemplate);
     }
 
     @Test
     void deleteEntry_ShouldReturnFalseWhenEntryNotFound() {
         // Arrange
-        when(entryRepository.findById(1L)).thenReturn(Optional.empty());
+        when(entryRepository.deleteEntryById(1L)).thenReturn(0);
 
         // Act
         boolean result = entryService.deleteEntry(1L);
 
         // Assert
         assertFalse(result);
-        verify(entryRepository, never()).deleteById(1L);
+        verifyNoInteractions(tombstoneRepository, eventPublisher);
     }
 
     @Test
-    void updateEntry_ShouldUpdateExistingEntry() {
+    void updateEntry_ShouldUpdateInOneStatement() {
         // Arrange
         Entry updatedDetails = new Entry(200.0, "Updated description", LocalDate.of(2024, 1, 16));
-        when(entryRepository.findById(1L)).thenReturn(Optional.of(testEntry));
-        when(entryRepository.save(testEntry)).thenReturn(testEntry);
+        when(entryRepository.updateById(eq(1L), eq(20000L), eq("Updated description"), eq(LocalDate.of(2024, 1, 16)),
+                anyLong())).thenReturn(1);
+        Entry written = new Entry(200.0, "Updated description", LocalDate.of(2024, 1, 16));
+        written.setId(1L);
+        written.setVersion(5L);
+        when(entryRepository.findById(1L)).thenReturn(Optional.of(written));
 
         // Act
         Entry result = entryService.updateEntry(1L, updatedDetails);
 
         // Assert
-        assertNotNull(result);
-        assertEquals(200.0, result.getAmount());
-        assertEquals("Updated description", result.getDescription());
-        verify(entryRepository).save(testEntry);
-        verify(redisTemplate).delete("all_entries");
-        verify(redisTemplate).delete("entry_1");
+        assertSame(written, result);
+        // The update named no version, so only the row read back knows it
+        assertEquals(5L, result.getVersion());
+        verify(entryRepository, never()).save(any());
+        // Invalidation is the generation bump after commit, not key deletes inside the transaction
+        verify(eventPublisher).publishEvent(argThat((EntryChangedEvent event) ->
+                event.type() == EntryChangedEvent.Type.UPDATED && event.entry() == result));
+        verifyNoInteractions(redisTemplate);
+    }
+
+    @Test
+    void updateEntry_WithVersion_ShouldUpdateOnlyThatVersion() {
+        // Arrange
+        Entry updatedDetails = new Entry(200.0, "Updated", LocalDate.of(2024, 1, 16));
+        updatedDetails.setVersion(3L);
+        when(entryRepository.updateByIdAndVersion(eq(1L), eq(3L), eq(20000L), eq("Updated"), any(), anyLong()))
+                .thenReturn(1);
+        Entry written = new Entry(200.0, "Updated", LocalDate.of(2024, 1, 16));
+        written.setId(1L);
+        written.setVersion(4L);
+        when(entryRepository.findById(1L)).thenReturn(Optional.of(written));
+
+        // Act
+        Entry result = entryService.updateEntry(1L, updatedDetails);
+
+        // Assert
+        assertEquals(4L, result.getVersion());
+    }
+
+    @Test
+    void updateEntry_WithStaleVersion_ShouldThrowConflict() {
+        // Arrange
+        Entry updatedDetails = new Entry(200.0, "Updated", LocalDate.of(2024, 1, 16));
+        updatedDetails.setVersion(3L);
+        when(entryRepository.updateByIdAndVersion(eq(1L), eq(3L), anyLong(), any(), any(), anyLong())).thenReturn(0);
+        when(entryRepository.existsById(1L)).thenReturn(true);
+
+        // Act & Assert
+        assertThrows(EntryVersionConflictException.class, () -> entryService.updateEntry(1L, updatedDetails));
+        verifyNoInteractions(eventPublisher);
     }
 
     @Test
     void updateEntry_ShouldReturnNullWhenEntryNotFound() {
         // Arrange
         Entry updatedDetails = new Entry(200.0, "Updated", LocalDate.of(2024, 1, 16));
-        when(entryRepository.findById(1L)).thenReturn(Optional.empty());
+        when(entryRepository.updateById(eq(1L), anyLong(), any(), any(), anyLong())).thenReturn(0);
 
         // Act
         Entry result = entryService.updateEntry(1L, updatedDetails);
 
         // Assert
         assertNull(result);
-        verify(entryRepository, never()).save(any());
+        verify(entryRepository, never()).existsById(any());
+        verifyNoInteractions(eventPublisher);
     }
+
+    @Test
+    void patchEntry_ShouldWriteChangesAndReturnRowReadBack() {
+        // Arrange
+        Entry changes = new Entry();
+        changes.setDescription("Renamed");
+        when(entryRepository.patchById(eq(1L), same(changes), isNull(), anyLong())).thenReturn(1);
+        when(entryRepository.findById(1L)).thenReturn(Optional.of(testEntry));
+
+        // Act
+        Entry result = entryService.patchEntry(1L, changes);
+
+        // Assert
+        assertSame(testEntry, result);
+        verify(eventPublisher).publishEvent(EntryChangedEvent.updated(testEntry));
+    }
+
     @Test
-    void clearAllCaches_ShouldClearAllCaches() {
+    void clearAllCaches_ShouldBumpGeneration() {
         // Act
         entryService.clearAllCaches();
 
         // Assert
-        verify(redisTemplate).delete("all_entries");
+        verify(cacheGeneration).bump();
+        verify(eventPublisher).publishEvent(new CachesClearedEvent());
+        verifyNoInteractions(redisTemplate);
     }
     @Test
-    void deleteAllEntries_ShouldDeleteAllEntriesAndClearCache() {
+    void deleteAllEntries_ShouldDeleteAllEntriesAndPublishChange() {
         // Arrange
-        doNothing().when(entryRepository).deleteAll();
+        doNothing().when(entryRepository).deleteAllInBatch();
 
         // Act
         entryService.deleteAllEntries();
 
         // Assert
-        verify(entryRepository).deleteAll();
-        verify(redisTemplate).delete("all_entries");
-        // Note: In a real implementation, you might want to clear all individual entry caches too
+        verify(entryRepository).deleteAllInBatch();
+        verify(tombstoneRepository).save(argThat(EntryTombstone::isAllEntries));
+        verify(eventPublisher).publishEvent(EntryChangedEvent.cleared());
+        verify(eventPublisher).publishEvent(new CachesClearedEvent());
+        verifyNoInteractions(redisTemplate);
     }
 
     @Test
     void deleteAllEntries_ShouldHandleException() {
         // Arrange
-        doThrow(new RuntimeException("DB error")).when(entryRepository).deleteAll();
+        doThrow(new RuntimeException("DB error")).when(entryRepository).deleteAllInBatch();
 
         // Act & Assert - Should throw exception since we re-throw it
         Exception exception = assertThrows(RuntimeException.class, () -> {
@@ -229,7 +531,7 @@ class EntryServiceTest {
         
         assertEquals("DB error", exception.getMessage());
         
-        // Verify cache clearing was still attempted despite the exception
-        verify(redisTemplate).delete("all_entries");
+        // Nothing committed, so the cached generation is still correct
+        verifyNoInteractions(eventPublisher);
     }
 }
\ No newline at end of file
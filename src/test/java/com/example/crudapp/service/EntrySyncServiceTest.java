@@ -0,0 +1,123 @@
+package com.example.crudapp.service;
+
+import com.example.crudapp.model.Entry;
+import com.example.crudapp.model.EntryTombstone;
+import com.example.crudapp.repository.EntryRepository;
+import com.example.crudapp.repository.EntryTombstoneRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class EntrySyncServiceTest {
+
+    @Mock
+    private EntryRepository entryRepository;
+
+    @Mock
+    private EntryArchive entryArchive;
+
+    @Mock
+    private EntryTombstoneRepository tombstoneRepository;
+
+    @InjectMocks
+    private EntrySyncService entrySyncService;
+
+    private Entry testEntry;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(entrySyncService, "settleWindow", Duration.ofSeconds(10));
+        ReflectionTestUtils.setField(entrySyncService, "tombstoneRetention", Duration.ofDays(30));
+        testEntry = new Entry(100.0, "Groceries", LocalDate.of(2024, 1, 15));
+        testEntry.setId(1L);
+    }
+
+    @Test
+    void changesSince_WithoutToken_ShouldReturnEverythingSettled() {
+        // Arrange
+        when(entryRepository.findUpdatedBetween(eq(Long.MIN_VALUE), anyLong())).thenReturn(List.of(testEntry));
+
+        // Act
+        EntrySyncService.ChangeSet changes = entrySyncService.changesSince(null);
+
+        // Assert
+        assertTrue(changes.reset());
+        assertEquals(List.of(testEntry), changes.upserted());
+        long upTo = EntrySyncService.decode(changes.nextToken());
+        assertTrue(upTo <= System.currentTimeMillis() - 10_000);
+        verifyNoInteractions(tombstoneRepository);
+    }
+
+    @Test
+    void changesSince_ShouldReturnWindowFromTokenAndAdvanceIt() {
+        // Arrange
+        long since = System.currentTimeMillis() - 60_000;
+        when(tombstoneRepository.findDeletedBetween(eq(since), anyLong()))
+                .thenReturn(List.of(new EntryTombstone(5L, since + 1), new EntryTombstone(6L, since + 2)));
+        when(entryRepository.findUpdatedBetween(eq(since), anyLong())).thenReturn(List.of(testEntry));
+
+        // Act
+        EntrySyncService.ChangeSet changes = entrySyncService.changesSince(EntrySyncService.encode(since));
+
+        // Assert
+        assertFalse(changes.reset());
+        assertEquals(List.of(testEntry), changes.upserted());
+        assertEquals(List.of(5L, 6L), changes.deleted());
+        assertTrue(EntrySyncService.decode(changes.nextToken()) > since);
+    }
+
+    @Test
+    void changesSince_ShouldResetAfterDeleteAll() {
+        // Arrange
+        long since = System.currentTimeMillis() - 60_000;
+        when(tombstoneRepository.findDeletedBetween(eq(since), anyLong()))
+                .thenReturn(List.of(new EntryTombstone(5L, since + 1), EntryTombstone.allEntries(since + 2),
+                        new EntryTombstone(9L, since + 3)));
+        when(entryRepository.findUpdatedBetween(eq(since), anyLong())).thenReturn(List.of());
+
+        // Act
+        EntrySyncService.ChangeSet changes = entrySyncService.changesSince(EntrySyncService.encode(since));
+
+        // Assert
+        assertTrue(changes.reset());
+        assertEquals(List.of(9L), changes.deleted());
+    }
+
+    @Test
+    void changesSince_ShouldKeepTokenWhileNothingHasSettled() {
+        // Arrange
+        String token = EntrySyncService.encode(System.currentTimeMillis() - 1_000);
+
+        // Act
+        EntrySyncService.ChangeSet changes = entrySyncService.changesSince(token);
+
+        // Assert
+        assertEquals(token, changes.nextToken());
+        assertTrue(changes.upserted().isEmpty());
+        verifyNoInteractions(entryRepository, tombstoneRepository);
+    }
+
+    @Test
+    void changesSince_ShouldRejectExpiredAndMalformedTokens() {
+        // Arrange
+        String expired = EntrySyncService.encode(System.currentTimeMillis() - Duration.ofDays(31).toMillis());
+
+        // Act & Assert
+        assertThrows(SyncTokenExpiredException.class, () -> entrySyncService.changesSince(expired));
+        assertThrows(IllegalArgumentException.class, () -> entrySyncService.changesSince("not a token"));
+        assertThrows(IllegalArgumentException.class, () -> entrySyncService.changesSince(EntrySyncService.encode(1).substring(2)));
+    }
+}
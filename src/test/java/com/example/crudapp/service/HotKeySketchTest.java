@@ -0,0 +1,95 @@
+package com.example.crudapp.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HotKeySketchTest {
+
+    @Test
+    void record_ShouldNeverUnderestimate() {
+        // Arrange
+        HotKeySketch sketch = new HotKeySketch(64, 4, 5);
+
+        // Act
+        for (int i = 0; i < 1_000; i++) {
+            sketch.record("entry_" + (i % 200));
+        }
+        sketch.record("entries_month_2024-02");
+
+        // Assert
+        for (int i = 0; i < 200; i++) {
+            assertTrue(sketch.estimate("entry_" + i) >= 5);
+        }
+        assertTrue(sketch.estimate("entries_month_2024-02") >= 1);
+    }
+
+    @Test
+    void top_ShouldKeepHeaviestKeysHighestFirst() {
+        // Arrange
+        HotKeySketch sketch = new HotKeySketch(4096, 4, 3);
+
+        // Act
+        for (int round = 0; round < 50; round++) {
+            sketch.record("all_entries");
+            sketch.record("entry_1");
+            if (round % 2 == 0) {
+                sketch.record("entries_month_2024-02");
+            }
+            sketch.record("entry_" + (100 + round));
+        }
+        for (int i = 0; i < 10; i++) {
+            sketch.record("all_entries");
+        }
+
+        // Assert
+        List<HotKeySketch.KeyCount> top = sketch.top();
+        assertEquals(List.of("all_entries", "entry_1", "entries_month_2024-02"),
+                top.stream().map(HotKeySketch.KeyCount::key).toList());
+        assertEquals(60, top.get(0).count());
+        assertFalse(sketch.isTop("entry_100"));
+    }
+
+    @Test
+    void record_ShouldNotEvictMemberThatGrewWithoutTouchingHeap() {
+        // Arrange
+        HotKeySketch sketch = new HotKeySketch(4096, 4, 2);
+        sketch.record("all_entries");
+        sketch.record("entry_1");
+        // Reads of a member only count in the sketch
+        for (int i = 0; i < 10; i++) {
+            sketch.record("all_entries");
+        }
+
+        // Act
+        sketch.record("entry_2");
+        sketch.record("entry_2");
+
+        // Assert
+        assertTrue(sketch.isTop("all_entries"));
+        assertTrue(sketch.isTop("entry_2"));
+        assertFalse(sketch.isTop("entry_1"));
+        assertEquals(List.of(new HotKeySketch.KeyCount("all_entries", 11), new HotKeySketch.KeyCount("entry_2", 2)),
+                sketch.top());
+    }
+
+    @Test
+    void decay_ShouldHalveCountsAndDropKeysThatReachZero() {
+        // Arrange
+        HotKeySketch sketch = new HotKeySketch(4096, 4, 3);
+        for (int i = 0; i < 8; i++) {
+            sketch.record("all_entries");
+        }
+        sketch.record("entry_1");
+
+        // Act
+        sketch.decay();
+
+        // Assert
+        assertEquals(4, sketch.estimate("all_entries"));
+        assertEquals(0, sketch.estimate("entry_1"));
+        assertEquals(List.of(new HotKeySketch.KeyCount("all_entries", 4)), sketch.top());
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.crudapp.sql;
+
+import com.example.crudapp.support.InMemoryRedisServer;
+import com.example.crudapp.support.SqlStatements;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Statements per EntryController endpoint, on H2 and the in-process Redis stand-in.
+ * A change that adds a query to one of these paths has to update the count here.
+ */
+@SpringBootTest(properties = "app.cache.warmup.enabled=false")
+@AutoConfigureMockMvc
+@ActiveProfiles("loadtest")
+class EntryStatementCountTest {
+
+    private static final InMemoryRedisServer redis = new InMemoryRedisServer().start();
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @DynamicPropertySource
+    static void redisProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.data.redis.port", redis::getPort);
+    }
+
+    @AfterAll
+    static void stopRedis() {
+        redis.close();
+    }
+
+    private long create(String description) throws Exception {
+        String body = mockMvc.perform(post("/api/entries").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"amount\": 12.50, \"description\": \"" + description + "\", \"date\": \"2024-02-10\"}"))
+                .andExpect(status().isCreated())
+                .andExpect(SqlStatements.count(1))
+                .andReturn().getResponse().getContentAsString();
+        JsonNode created = objectMapper.readTree(body);
+        return created.get("id").asLong();
+    }
+
+    @Test
+    void entryEndpoints_ShouldRunOneStatementPerDatabaseStep() throws Exception {
+        long id = create("Groceries");
+
+        // Cache miss, then served from Redis
+        mockMvc.perform(get("/api/entries/" + id)).andExpect(status().isOk()).andExpect(SqlStatements.count(1));
+        mockMvc.perform(get("/api/entries/" + id)).andExpect(status().isOk()).andExpect(SqlStatements.count(0));
+
+        // UPDATE with the row count deciding 404, then the row read back for its version
+        mockMvc.perform(put("/api/entries/" + id).contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"amount\": 13.00, \"description\": \"Groceries\", \"date\": \"2024-02-10\"}"))
+                .andExpect(status().isOk())
+                .andExpect(SqlStatements.count(2));
+
+        // DELETE plus the tombstone for delta sync
+        mockMvc.perform(delete("/api/entries/" + id)).andExpect(status().isOk()).andExpect(SqlStatements.count(2));
+    }
+
+    @Test
+    void deleteAll_ShouldNotRunOneStatementPerEntry() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            create("Entry " + i);
+        }
+
+        // Hot table, archive table, tombstone
+        mockMvc.perform(delete("/api/entries")).andExpect(status().isOk()).andExpect(SqlStatements.count(3));
+    }
+}
@@ -0,0 +1,645 @@
+package com.example.crudapp.support;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+/**
+ * Minimal in-process server speaking the Redis (RESP2) protocol, good enough for the
+ * Lettuce client used by the application. Only the commands the application issues
+ * are implemented (strings, sorted sets, auto-id streams and pub/sub channels); anything
+ * else is answered with an error.
+ */
+public class InMemoryRedisServer implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(InMemoryRedisServer.class);
+
+    private final Map<String, Value> store = new ConcurrentHashMap<>();
+    private final Map<String, Map<String, Double>> sortedSets = new ConcurrentHashMap<>();
+    private final Map<String, List<StreamEntry>> streams = new ConcurrentHashMap<>();
+    private final Object streamAppended = new Object();
+    // Subscribed connections by channel; a push is written under the connection's lock
+    private final Map<String, Set<OutputStream>> subscribers = new ConcurrentHashMap<>();
+    private final AtomicLong keyHits = new AtomicLong();
+    private final AtomicLong keyMisses = new AtomicLong();
+    private final ExecutorService connections = Executors.newCachedThreadPool(r -> {
+        Thread thread = new Thread(r, "in-memory-redis");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private ServerSocket serverSocket;
+
+    private record Value(byte[] data, long expiresAt) {
+        boolean isExpired(long now) {
+            return expiresAt > 0 && expiresAt <= now;
+        }
+    }
+
+    private record StreamEntry(long millis, long sequence, List<byte[]> fields) {
+        String id() {
+            return millis + "-" + sequence;
+        }
+
+        int compareTo(long[] other) {
+            int byTime = Long.compare(millis, other[0]);
+            return byTime != 0 ? byTime : Long.compare(sequence, other[1]);
+        }
+    }
+
+    public InMemoryRedisServer start() {
+        try {
+            serverSocket = new ServerSocket(0, 128, InetAddress.getLoopbackAddress());
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not bind in-memory Redis server", e);
+        }
+        connections.execute(this::acceptLoop);
+        logger.info("In-memory Redis listening on port {}", getPort());
+        return this;
+    }
+
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    public long getKeyHits() {
+        return keyHits.get();
+    }
+
+    public long getKeyMisses() {
+        return keyMisses.get();
+    }
+
+    public void resetStats() {
+        keyHits.set(0);
+        keyMisses.set(0);
+    }
+
+    public void flushAll() {
+        store.clear();
+        sortedSets.clear();
+        streams.clear();
+    }
+
+    @Override
+    public void close() {
+        try {
+            serverSocket.close();
+        } catch (IOException e) {
+            logger.warn("Error closing in-memory Redis", e);
+        }
+        connections.shutdownNow();
+    }
+
+    private void acceptLoop() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket socket = serverSocket.accept();
+                socket.setTcpNoDelay(true);
+                connections.execute(() -> serve(socket));
+            } catch (IOException e) {
+                if (!serverSocket.isClosed()) {
+                    logger.warn("In-memory Redis accept failed", e);
+                }
+            }
+        }
+    }
+
+    private void serve(Socket socket) {
+        try (socket;
+             InputStream in = new BufferedInputStream(socket.getInputStream());
+             OutputStream out = new BufferedOutputStream(socket.getOutputStream())) {
+            try {
+                while (true) {
+                    List<byte[]> command = readCommand(in);
+                    if (command == null) {
+                        return;
+                    }
+                    synchronized (out) {
+                        try {
+                            execute(command, out);
+                        } catch (RuntimeException e) {
+                            error(out, "ERR " + e.getMessage());
+                        }
+                        // Only flush once the client has nothing else queued, so pipelines batch up.
+                        if (in.available() == 0) {
+                            out.flush();
+                        }
+                    }
+                }
+            } finally {
+                subscribers.values().forEach(connections -> connections.remove(out));
+            }
+        } catch (EOFException | SocketException e) {
+            // client went away
+        } catch (IOException e) {
+            logger.warn("In-memory Redis connection failed", e);
+        }
+    }
+
+    private void execute(List<byte[]> command, OutputStream out) throws IOException {
+        String name = text(command.get(0)).toUpperCase(Locale.ROOT);
+        long now = System.currentTimeMillis();
+        switch (name) {
+            case "PING" -> simple(out, "PONG");
+            case "AUTH", "SELECT", "CLIENT", "QUIT" -> simple(out, "OK");
+            case "GET" -> bulk(out, read(text(command.get(1)), now));
+            case "SET" -> set(command, out, now);
+            case "SETEX", "PSETEX" -> {
+                long amount = Long.parseLong(text(command.get(2)));
+                long expiresAt = now + ("SETEX".equals(name) ? amount * 1000 : amount);
+                store.put(text(command.get(1)), new Value(command.get(3), expiresAt));
+                simple(out, "OK");
+            }
+            case "MGET" -> {
+                out.write(("*" + (command.size() - 1) + "\r\n").getBytes(StandardCharsets.US_ASCII));
+                for (int i = 1; i < command.size(); i++) {
+                    bulk(out, read(text(command.get(i)), now));
+                }
+            }
+            case "DEL", "UNLINK" -> {
+                long removed = 0;
+                for (int i = 1; i < command.size(); i++) {
+                    String key = text(command.get(i));
+                    if (store.remove(key) != null | sortedSets.remove(key) != null | streams.remove(key) != null) {
+                        removed++;
+                    }
+                }
+                integer(out, removed);
+            }
+            case "EXISTS" -> {
+                long found = 0;
+                for (int i = 1; i < command.size(); i++) {
+                    if (live(text(command.get(i)), now) != null) {
+                        found++;
+                    }
+                }
+                integer(out, found);
+            }
+            case "INCR", "INCRBY" -> {
+                long delta = command.size() > 2 ? Long.parseLong(text(command.get(2))) : 1;
+                String key = text(command.get(1));
+                Value updated = store.compute(key, (k, v) -> {
+                    long current = v == null || v.isExpired(now) ? 0 : Long.parseLong(text(v.data()));
+                    return new Value(String.valueOf(current + delta).getBytes(StandardCharsets.UTF_8),
+                            v == null ? 0 : v.expiresAt());
+                });
+                integer(out, Long.parseLong(text(updated.data())));
+            }
+            case "EXPIRE", "PEXPIRE" -> {
+                long amount = Long.parseLong(text(command.get(2)));
+                long expiresAt = now + ("EXPIRE".equals(name) ? amount * 1000 : amount);
+                Value updated = store.computeIfPresent(text(command.get(1)),
+                        (k, v) -> v.isExpired(now) ? null : new Value(v.data(), expiresAt));
+                integer(out, updated == null ? 0 : 1);
+            }
+            case "TTL" -> {
+                Value value = live(text(command.get(1)), now);
+                integer(out, value == null ? -2 : value.expiresAt() == 0 ? -1 : (value.expiresAt() - now) / 1000);
+            }
+            case "KEYS" -> {
+                Pattern pattern = globToRegex(text(command.get(1)));
+                List<String> keys = new ArrayList<>();
+                store.forEach((key, value) -> {
+                    if (!value.isExpired(now) && pattern.matcher(key).matches()) {
+                        keys.add(key);
+                    }
+                });
+                out.write(("*" + keys.size() + "\r\n").getBytes(StandardCharsets.US_ASCII));
+                for (String key : keys) {
+                    bulk(out, key.getBytes(StandardCharsets.UTF_8));
+                }
+            }
+            case "TYPE" -> {
+                String key = text(command.get(1));
+                simple(out, sortedSets.containsKey(key) ? "zset" : streams.containsKey(key) ? "stream"
+                        : live(key, now) != null ? "string" : "none");
+            }
+            case "ZINCRBY" -> {
+                double delta = Double.parseDouble(text(command.get(2)));
+                Map<String, Double> set = sortedSets.computeIfAbsent(text(command.get(1)), k -> new ConcurrentHashMap<>());
+                double score = set.merge(text(command.get(3)), delta, Double::sum);
+                bulk(out, formatScore(score).getBytes(StandardCharsets.US_ASCII));
+            }
+            case "ZREVRANGE", "ZRANGE" -> {
+                List<String> ranked = ranked(text(command.get(1)), "ZREVRANGE".equals(name));
+                List<String> members = slice(ranked, Long.parseLong(text(command.get(2))), Long.parseLong(text(command.get(3))));
+                out.write(("*" + members.size() + "\r\n").getBytes(StandardCharsets.US_ASCII));
+                for (String member : members) {
+                    bulk(out, member.getBytes(StandardCharsets.UTF_8));
+                }
+            }
+            case "ZREMRANGEBYRANK" -> {
+                String key = text(command.get(1));
+                List<String> members = slice(ranked(key, false), Long.parseLong(text(command.get(2))), Long.parseLong(text(command.get(3))));
+                Map<String, Double> set = sortedSets.get(key);
+                if (set != null) {
+                    members.forEach(set::remove);
+                }
+                integer(out, members.size());
+            }
+            case "ZSCORE" -> {
+                Map<String, Double> set = sortedSets.get(text(command.get(1)));
+                Double score = set == null ? null : set.get(text(command.get(2)));
+                bulk(out, score == null ? null : formatScore(score).getBytes(StandardCharsets.US_ASCII));
+            }
+            case "XADD" -> xadd(command, out, now);
+            case "XRANGE", "XREVRANGE" -> {
+                boolean reverse = "XREVRANGE".equals(name);
+                // XREVRANGE takes its bounds as end, start
+                List<StreamEntry> entries = range(text(command.get(1)), text(command.get(reverse ? 3 : 2)),
+                        text(command.get(reverse ? 2 : 3)));
+                if (reverse) {
+                    Collections.reverse(entries);
+                }
+                if (command.size() > 5 && "COUNT".equalsIgnoreCase(text(command.get(4)))) {
+                    entries = entries.subList(0, Math.min(entries.size(), Integer.parseInt(text(command.get(5)))));
+                }
+                writeEntries(out, entries);
+            }
+            case "XREAD" -> xread(command, out);
+            case "SUBSCRIBE" -> {
+                for (int i = 1; i < command.size(); i++) {
+                    subscribers.computeIfAbsent(text(command.get(i)), c -> ConcurrentHashMap.newKeySet()).add(out);
+                    push(out, "subscribe", command.get(i), subscriptions(out));
+                }
+            }
+            case "UNSUBSCRIBE" -> {
+                List<String> channels = new ArrayList<>();
+                for (int i = 1; i < command.size(); i++) {
+                    channels.add(text(command.get(i)));
+                }
+                if (channels.isEmpty()) {
+                    subscribers.forEach((channel, connections) -> {
+                        if (connections.contains(out)) {
+                            channels.add(channel);
+                        }
+                    });
+                }
+                if (channels.isEmpty()) {
+                    push(out, "unsubscribe", null, 0);
+                }
+                for (String channel : channels) {
+                    subscribers.getOrDefault(channel, Set.of()).remove(out);
+                    push(out, "unsubscribe", channel.getBytes(StandardCharsets.UTF_8), subscriptions(out));
+                }
+            }
+            case "PUBLISH" -> {
+                long received = 0;
+                for (OutputStream subscriber : subscribers.getOrDefault(text(command.get(1)), Set.of())) {
+                    synchronized (subscriber) {
+                        subscriber.write("*3\r\n".getBytes(StandardCharsets.US_ASCII));
+                        bulk(subscriber, "message".getBytes(StandardCharsets.US_ASCII));
+                        bulk(subscriber, command.get(1));
+                        bulk(subscriber, command.get(2));
+                        subscriber.flush();
+                    }
+                    received++;
+                }
+                integer(out, received);
+            }
+            case "FLUSHALL", "FLUSHDB" -> {
+                store.clear();
+                sortedSets.clear();
+                streams.clear();
+                simple(out, "OK");
+            }
+            default -> error(out, "ERR unknown command '" + name + "'");
+        }
+    }
+
+    private void set(List<byte[]> command, OutputStream out, long now) throws IOException {
+        String key = text(command.get(1));
+        long expiresAt = 0;
+        boolean onlyIfAbsent = false;
+        boolean onlyIfPresent = false;
+        for (int i = 3; i < command.size(); i++) {
+            String option = text(command.get(i)).toUpperCase(Locale.ROOT);
+            switch (option) {
+                case "EX" -> expiresAt = now + Long.parseLong(text(command.get(++i))) * 1000;
+                case "PX" -> expiresAt = now + Long.parseLong(text(command.get(++i)));
+                case "NX" -> onlyIfAbsent = true;
+                case "XX" -> onlyIfPresent = true;
+                default -> {
+                    error(out, "ERR syntax error");
+                    return;
+                }
+            }
+        }
+        boolean exists = live(key, now) != null;
+        if ((onlyIfAbsent && exists) || (onlyIfPresent && !exists)) {
+            bulk(out, null);
+            return;
+        }
+        store.put(key, new Value(command.get(2), expiresAt));
+        simple(out, "OK");
+    }
+
+    private void xadd(List<byte[]> command, OutputStream out, long now) throws IOException {
+        String key = text(command.get(1));
+        int i = 2;
+        long maxLength = -1;
+        if ("MAXLEN".equalsIgnoreCase(text(command.get(i)))) {
+            i++;
+            if ("~".equals(text(command.get(i))) || "=".equals(text(command.get(i)))) {
+                i++;
+            }
+            maxLength = Long.parseLong(text(command.get(i++)));
+        }
+        if (!"*".equals(text(command.get(i++)))) {
+            error(out, "ERR only auto-generated ids are supported");
+            return;
+        }
+        List<StreamEntry> stream = streams.computeIfAbsent(key, k -> new ArrayList<>());
+        StreamEntry entry;
+        synchronized (stream) {
+            StreamEntry last = stream.isEmpty() ? null : stream.get(stream.size() - 1);
+            long millis = last == null ? now : Math.max(now, last.millis());
+            long sequence = last != null && last.millis() == millis ? last.sequence() + 1 : 0;
+            entry = new StreamEntry(millis, sequence, new ArrayList<>(command.subList(i, command.size())));
+            stream.add(entry);
+            while (maxLength >= 0 && stream.size() > maxLength) {
+                stream.remove(0);
+            }
+        }
+        synchronized (streamAppended) {
+            streamAppended.notifyAll();
+        }
+        bulk(out, entry.id().getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private void xread(List<byte[]> command, OutputStream out) throws IOException {
+        int count = Integer.MAX_VALUE;
+        long blockMillis = -1;
+        int i = 1;
+        while (!"STREAMS".equalsIgnoreCase(text(command.get(i)))) {
+            String option = text(command.get(i++)).toUpperCase(Locale.ROOT);
+            long value = Long.parseLong(text(command.get(i++)));
+            if ("COUNT".equals(option)) {
+                count = (int) value;
+            } else {
+                blockMillis = value;
+            }
+        }
+        int keyCount = (command.size() - i - 1) / 2;
+        List<String> keys = new ArrayList<>();
+        List<long[]> after = new ArrayList<>();
+        for (int k = 0; k < keyCount; k++) {
+            String key = text(command.get(i + 1 + k));
+            String id = text(command.get(i + 1 + keyCount + k));
+            keys.add(key);
+            after.add("$".equals(id) ? lastId(key) : parseId(id, 0));
+        }
+        long deadline = System.currentTimeMillis() + (blockMillis == 0 ? Long.MAX_VALUE / 2 : Math.max(0, blockMillis));
+        while (true) {
+            List<String> found = new ArrayList<>();
+            List<List<StreamEntry>> results = new ArrayList<>();
+            for (int k = 0; k < keys.size(); k++) {
+                List<StreamEntry> entries = entriesAfter(keys.get(k), after.get(k), count);
+                if (!entries.isEmpty()) {
+                    found.add(keys.get(k));
+                    results.add(entries);
+                }
+            }
+            if (!found.isEmpty()) {
+                out.write(("*" + found.size() + "\r\n").getBytes(StandardCharsets.US_ASCII));
+                for (int k = 0; k < found.size(); k++) {
+                    out.write("*2\r\n".getBytes(StandardCharsets.US_ASCII));
+                    bulk(out, found.get(k).getBytes(StandardCharsets.UTF_8));
+                    writeEntries(out, results.get(k));
+                }
+                return;
+            }
+            long remaining = deadline - System.currentTimeMillis();
+            if (blockMillis < 0 || remaining <= 0) {
+                out.write("*-1\r\n".getBytes(StandardCharsets.US_ASCII));
+                return;
+            }
+            synchronized (streamAppended) {
+                try {
+                    streamAppended.wait(Math.min(remaining, 50));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new SocketException("interrupted");
+                }
+            }
+        }
+    }
+
+    private List<StreamEntry> range(String key, String start, String end) {
+        boolean startExclusive = start.startsWith("(");
+        boolean endExclusive = end.startsWith("(");
+        long[] from = "-".equals(start) ? new long[] {0, 0} : parseId(start.substring(startExclusive ? 1 : 0), 0);
+        long[] to = "+".equals(end) ? new long[] {Long.MAX_VALUE, Long.MAX_VALUE}
+                : parseId(end.substring(endExclusive ? 1 : 0), Long.MAX_VALUE);
+        List<StreamEntry> result = new ArrayList<>();
+        for (StreamEntry entry : snapshot(key)) {
+            int lower = entry.compareTo(from);
+            int upper = entry.compareTo(to);
+            if ((startExclusive ? lower > 0 : lower >= 0) && (endExclusive ? upper < 0 : upper <= 0)) {
+                result.add(entry);
+            }
+        }
+        return result;
+    }
+
+    private List<StreamEntry> entriesAfter(String key, long[] after, int count) {
+        List<StreamEntry> result = new ArrayList<>();
+        for (StreamEntry entry : snapshot(key)) {
+            if (entry.compareTo(after) > 0 && result.size() < count) {
+                result.add(entry);
+            }
+        }
+        return result;
+    }
+
+    private List<StreamEntry> snapshot(String key) {
+        List<StreamEntry> stream = streams.get(key);
+        if (stream == null) {
+            return List.of();
+        }
+        synchronized (stream) {
+            return new ArrayList<>(stream);
+        }
+    }
+
+    private long[] lastId(String key) {
+        List<StreamEntry> entries = snapshot(key);
+        if (entries.isEmpty()) {
+            return new long[] {0, 0};
+        }
+        StreamEntry last = entries.get(entries.size() - 1);
+        return new long[] {last.millis(), last.sequence()};
+    }
+
+    private static long[] parseId(String id, long defaultSequence) {
+        int dash = id.indexOf('-');
+        if (dash < 0) {
+            return new long[] {Long.parseLong(id), defaultSequence};
+        }
+        return new long[] {Long.parseLong(id.substring(0, dash)), Long.parseLong(id.substring(dash + 1))};
+    }
+
+    private static void writeEntries(OutputStream out, List<StreamEntry> entries) throws IOException {
+        out.write(("*" + entries.size() + "\r\n").getBytes(StandardCharsets.US_ASCII));
+        for (StreamEntry entry : entries) {
+            out.write("*2\r\n".getBytes(StandardCharsets.US_ASCII));
+            bulk(out, entry.id().getBytes(StandardCharsets.US_ASCII));
+            out.write(("*" + entry.fields().size() + "\r\n").getBytes(StandardCharsets.US_ASCII));
+            for (byte[] field : entry.fields()) {
+                bulk(out, field);
+            }
+        }
+    }
+
+    private List<String> ranked(String key, boolean descending) {
+        Map<String, Double> set = sortedSets.getOrDefault(key, Map.of());
+        Comparator<Map.Entry<String, Double>> order = Map.Entry.<String, Double>comparingByValue()
+                .thenComparing(Map.Entry.comparingByKey());
+        return set.entrySet().stream()
+                .sorted(descending ? order.reversed() : order)
+                .map(Map.Entry::getKey)
+                .toList();
+    }
+
+    private static List<String> slice(List<String> ranked, long start, long stop) {
+        int size = ranked.size();
+        long from = start < 0 ? Math.max(0, size + start) : start;
+        long to = Math.min(size - 1, stop < 0 ? size + stop : stop);
+        return from > to ? List.of() : ranked.subList((int) from, (int) to + 1);
+    }
+
+    private static String formatScore(double score) {
+        return score == Math.rint(score) ? String.valueOf((long) score) : String.valueOf(score);
+    }
+
+    private byte[] read(String key, long now) {
+        Value value = live(key, now);
+        if (value == null) {
+            keyMisses.incrementAndGet();
+            return null;
+        }
+        keyHits.incrementAndGet();
+        return value.data();
+    }
+
+    private Value live(String key, long now) {
+        Value value = store.get(key);
+        if (value != null && value.isExpired(now)) {
+            store.remove(key, value);
+            return null;
+        }
+        return value;
+    }
+
+    private static List<byte[]> readCommand(InputStream in) throws IOException {
+        int marker = in.read();
+        if (marker == -1) {
+            return null;
+        }
+        if (marker != '*') {
+            throw new IOException("Inline commands are not supported");
+        }
+        int count = Integer.parseInt(readLine(in));
+        List<byte[]> parts = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            if (in.read() != '$') {
+                throw new IOException("Expected bulk string");
+            }
+            int length = Integer.parseInt(readLine(in));
+            byte[] data = in.readNBytes(length);
+            if (data.length != length) {
+                throw new EOFException();
+            }
+            in.read();
+            in.read();
+            parts.add(data);
+        }
+        return parts;
+    }
+
+    private static String readLine(InputStream in) throws IOException {
+        StringBuilder line = new StringBuilder();
+        int c;
+        while ((c = in.read()) != '\r') {
+            if (c == -1) {
+                throw new EOFException();
+            }
+            line.append((char) c);
+        }
+        in.read();
+        return line.toString();
+    }
+
+    private static Pattern globToRegex(String glob) {
+        StringBuilder regex = new StringBuilder();
+        for (char c : glob.toCharArray()) {
+            switch (c) {
+                case '*' -> regex.append(".*");
+                case '?' -> regex.append('.');
+                default -> regex.append(Pattern.quote(String.valueOf(c)));
+            }
+        }
+        return Pattern.compile(regex.toString());
+    }
+
+    private long subscriptions(OutputStream out) {
+        return subscribers.values().stream().filter(connections -> connections.contains(out)).count();
+    }
+
+    private static void push(OutputStream out, String kind, byte[] channel, long count) throws IOException {
+        out.write("*3\r\n".getBytes(StandardCharsets.US_ASCII));
+        bulk(out, kind.getBytes(StandardCharsets.US_ASCII));
+        bulk(out, channel);
+        integer(out, count);
+    }
+
+    private static String text(byte[] data) {
+        return new String(data, StandardCharsets.UTF_8);
+    }
+
+    private static void simple(OutputStream out, String value) throws IOException {
+        out.write(("+" + value + "\r\n").getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void error(OutputStream out, String message) throws IOException {
+        out.write(("-" + message + "\r\n").getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void integer(OutputStream out, long value) throws IOException {
+        out.write((":" + value + "\r\n").getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private static void bulk(OutputStream out, byte[] data) throws IOException {
+        if (data == null) {
+            out.write("$-1\r\n".getBytes(StandardCharsets.US_ASCII));
+            return;
+        }
+        out.write(("$" + data.length + "\r\n").getBytes(StandardCharsets.US_ASCII));
+        out.write(data);
+        out.write("\r\n".getBytes(StandardCharsets.US_ASCII));
+    }
+}
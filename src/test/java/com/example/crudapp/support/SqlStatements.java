@@ -0,0 +1,40 @@
+package com.example.crudapp.support;
+
+import com.example.crudapp.sql.SqlStats;
+import com.example.crudapp.sql.SqlStatsFilter;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultMatcher;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * MockMvc matchers on the SQL a request ran, for example
+ * {@code mockMvc.perform(put(...)).andExpect(SqlStatements.count(1))}.
+ * Needs the application context with SQL instrumentation enabled.
+ */
+public final class SqlStatements {
+
+    private SqlStatements() {
+    }
+
+    public static SqlStats of(MvcResult result) {
+        SqlStats stats = (SqlStats) result.getRequest().getAttribute(SqlStatsFilter.STATS_ATTRIBUTE);
+        assertNotNull(stats, "No SQL stats on the request; is the request under /api and instrumentation enabled?");
+        return stats;
+    }
+
+    public static ResultMatcher count(int expected) {
+        return result -> {
+            SqlStats stats = of(result);
+            assertEquals(expected, stats.getStatements(), () -> stats.getContext() + " ran " + stats);
+        };
+    }
+
+    public static ResultMatcher atMost(int max) {
+        return result -> {
+            SqlStats stats = of(result);
+            assertTrue(stats.getStatements() <= max,
+                    () -> stats.getContext() + " ran " + stats + ", expected at most " + max);
+        };
+    }
+}